@@ -506,14 +506,222 @@ fzE_jvm_result fzE_return_result(jvalue jv)
 }
 
 
+// Cache for classes, methods and fields looked up via JNI.
+//
+// Looking up a class via FindClass and a method or field via Get*ID is
+// expensive and results in local references that are never freed since the
+// calling thread never returns to Java.  So we keep global references to the
+// classes and the ids we found in a hash table that is keyed by the kind of
+// lookup, the class name, the member name and the signature.
+//
+// The table is protected by fzE_lock(), JNI lookups are performed without
+// holding the lock.  If two threads miss the same key concurrently, both will
+// perform the lookup and the second result is dropped.
+//
+// Entries are never removed, classes found are never unloaded.
+
+#define FZE_JNI_CACHE_SIZE 1024
+#define FZE_JNI_KEY_SEPARATOR '\1'
+
+typedef struct fzE_jni_cache_entry fzE_jni_cache_entry;
+
+struct fzE_jni_cache_entry
+{
+  fzE_jni_cache_entry * next;
+  // hash of key
+  uint32_t hash;
+  // global reference to the class.
+  jclass cl;
+  // method or field id
+  jmethodID mid;
+  jfieldID fid;
+  // kind, class name, member name and signature separated by FZE_JNI_KEY_SEPARATOR
+  char key[];
+};
+
+static fzE_jni_cache_entry * fzE_jni_cache[FZE_JNI_CACHE_SIZE];
+
+
+// length of modified utf-8 representation of jstr plus one for separator
+static jsize fzE_jni_key_length(jstring jstr)
+{
+  return (jstr == NULL ? 0 : (*getJNIEnv())->GetStringUTFLength(getJNIEnv(), jstr)) + 1;
+}
+
+
+// append modified utf-8 representation of jstr and a separator to key
+static char * fzE_jni_key_append(char * key, jstring jstr)
+{
+  if (jstr != NULL)
+    {
+      (*getJNIEnv())->GetStringUTFRegion(getJNIEnv(), jstr, 0, (*getJNIEnv())->GetStringLength(getJNIEnv(), jstr), key);
+      key += (*getJNIEnv())->GetStringUTFLength(getJNIEnv(), jstr);
+    }
+  *key++ = FZE_JNI_KEY_SEPARATOR;
+  return key;
+}
+
+
+// FNV-1a hash of key
+static uint32_t fzE_jni_key_hash(const char * key)
+{
+  uint32_t h = 2166136261u;
+  for (const uint8_t * p = (const uint8_t *) key; *p != 0; p++)
+    {
+      h = (h ^ *p) * 16777619u;
+    }
+  return h;
+}
+
+
+// find entry for key in cache, NULL if not found.
+//
+// For kind 'f', cl is the class of the instance the field is accessed on and
+// must be the same as the class of the entry.
+static fzE_jni_cache_entry * fzE_jni_cache_get(const char * key, uint32_t hash, jclass cl)
+{
+  fzE_lock();
+  fzE_jni_cache_entry * e = fzE_jni_cache[hash % FZE_JNI_CACHE_SIZE];
+  while (e != NULL &&
+         (e->hash != hash ||
+          strcmp(e->key, key) != 0 ||
+          (cl != NULL && !(*getJNIEnv())->IsSameObject(getJNIEnv(), e->cl, cl))))
+    {
+      e = e->next;
+    }
+  fzE_unlock();
+  return e;
+}
+
+
+// lookup a class, method or field using the cache
+//
+// kind is one of
+//
+//   'c' constructor of class class_name with signature sig
+//   's' static method name of class_name with signature sig
+//   'v' virtual method name of class_name with signature sig
+//   'S' static field name of class_name with signature sig
+//   'f' field name with signature sig of class obj_class
+//
+// class_name, name and sig may be NULL if not needed by kind, sig may be given
+// as jstring jsig or as char * sig.
+//
+// @return cache entry or NULL if class, method or field was not found, there is
+// a pending exception in this case and *class_found is set to whether the class
+// itself was found.
+static fzE_jni_cache_entry * fzE_jni_lookup(char kind, jclass obj_class, jstring class_name, jstring name, jstring jsig, const char * sig, bool * class_found)
+{
+  size_t sig_len = jsig != NULL ? (size_t) fzE_jni_key_length(jsig) : (sig != NULL ? strlen(sig) : 0) + 1;
+  char key[2 + fzE_jni_key_length(class_name) + fzE_jni_key_length(name) + sig_len];
+  char * k = key;
+  *k++ = kind;
+  *k++ = FZE_JNI_KEY_SEPARATOR;
+  k = fzE_jni_key_append(k, class_name);
+  char * n = k;
+  k = fzE_jni_key_append(k, name);
+  char * s = k;
+  if (jsig != NULL)
+    {
+      k = fzE_jni_key_append(k, jsig);
+    }
+  else
+    {
+      if (sig != NULL)
+        {
+          fzE_memcpy(k, sig, sig_len - 1);
+          k += sig_len - 1;
+        }
+      *k++ = FZE_JNI_KEY_SEPARATOR;
+    }
+  k[-1] = '\0';
+  uint32_t hash = fzE_jni_key_hash(key);
+
+  fzE_jni_cache_entry * e = fzE_jni_cache_get(key, hash, obj_class);
+  *class_found = true;
+  if (e == NULL)
+    {
+      // split key into 0-terminated class name, member name and signature
+      size_t key_len = k - key;
+      char parts[key_len];
+      fzE_memcpy(parts, key, key_len);
+      char * cn = parts + 2;
+      char * nm = parts + (n - key);
+      char * sg = parts + (s - key);
+      nm[-1] = '\0';
+      sg[-1] = '\0';
+
+      jclass cl = obj_class;
+      if (cl == NULL)
+        {
+          for (char * p = cn; *p != '\0'; p++)
+            {
+              if (*p == '.')
+                {
+                  *p = '/';
+                }
+            }
+          cl = (*getJNIEnv())->FindClass(getJNIEnv(), cn);
+          *class_found = cl != NULL;
+        }
+      jmethodID mid = NULL;
+      jfieldID fid = NULL;
+      if (cl != NULL)
+        {
+          switch (kind)
+            {
+            case 'c': mid = (*getJNIEnv())->GetMethodID      (getJNIEnv(), cl, "<init>", sg); break;
+            case 's': mid = (*getJNIEnv())->GetStaticMethodID(getJNIEnv(), cl, nm      , sg); break;
+            case 'v': mid = (*getJNIEnv())->GetMethodID      (getJNIEnv(), cl, nm      , sg); break;
+            case 'S': fid = (*getJNIEnv())->GetStaticFieldID (getJNIEnv(), cl, nm      , sg); break;
+            case 'f': fid = (*getJNIEnv())->GetFieldID       (getJNIEnv(), cl, nm      , sg); break;
+            default : break;
+            }
+        }
+      if (mid != NULL || fid != NULL)
+        {
+          e = malloc(sizeof(fzE_jni_cache_entry) + key_len);
+          if (e == NULL)
+            {
+              fprintf(stderr, "*** malloc(%zu) failed ***\n", sizeof(fzE_jni_cache_entry) + key_len);
+              exit(EXIT_FAILURE);
+            }
+          e->hash = hash;
+          e->cl   = (*getJNIEnv())->NewGlobalRef(getJNIEnv(), cl);
+          e->mid  = mid;
+          e->fid  = fid;
+          fzE_memcpy(e->key, key, key_len);
+
+          fzE_lock();
+          e->next = fzE_jni_cache[hash % FZE_JNI_CACHE_SIZE];
+          fzE_jni_cache[hash % FZE_JNI_CACHE_SIZE] = e;
+          fzE_unlock();
+        }
+      if (cl != NULL && cl != obj_class)
+        {
+          (*getJNIEnv())->DeleteLocalRef(getJNIEnv(), cl);
+        }
+    }
+  return e;
+}
+
+
+// the signature stored in the key of a cache entry
+static const char * fzE_jni_cache_sig(fzE_jni_cache_entry * e)
+{
+  return strrchr(e->key, FZE_JNI_KEY_SEPARATOR) + 1;
+}
+
+
 // call a java constructor
 fzE_jvm_result fzE_call_c0(jstring class_name, jstring signature, jvalue *args)
 {
-  const char * sig = fzE_java_string_to_modified_utf8(signature);
-  jclass cl  = (*getJNIEnv())->FindClass(getJNIEnv(), fzE_replace_char(fzE_java_string_to_modified_utf8(class_name), '.', '/'));
-  if (cl == NULL) { return fzE_jvm_not_found(class_name); }
-  jmethodID mid = (*getJNIEnv())->GetMethodID(getJNIEnv(), cl, "<init>", sig);
-  if (mid == NULL) { return fzE_jvm_not_found(class_name); }
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('c', NULL, class_name, NULL, signature, NULL, &class_found);
+  if (e == NULL) { return fzE_jvm_not_found(class_name); }
+  const char * sig = fzE_jni_cache_sig(e);
+  jclass cl = e->cl;
+  jmethodID mid = e->mid;
   jvalue result = { .l = (*getJNIEnv())->NewObjectA(getJNIEnv(), cl, mid, fzE_convert_args(sig, args)) };
 
   return fzE_return_result(result);
@@ -523,11 +731,12 @@ fzE_jvm_result fzE_call_c0(jstring class_name, jstring signature, jvalue *args)
 // call a java static method
 fzE_jvm_result fzE_call_s0(jstring class_name, jstring name, jstring signature, jvalue *args)
 {
-  const char * sig = fzE_java_string_to_modified_utf8(signature);
-  jclass cl  = (*getJNIEnv())->FindClass(getJNIEnv(), fzE_replace_char(fzE_java_string_to_modified_utf8(class_name), '.', '/'));
-  if (cl == NULL) { return fzE_jvm_not_found(class_name); }
-  jmethodID mid = (*getJNIEnv())->GetStaticMethodID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
-  if (mid == NULL) { return fzE_jvm_not_found(name); }
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('s', NULL, class_name, name, signature, NULL, &class_found);
+  if (e == NULL) { return fzE_jvm_not_found(class_found ? name : class_name); }
+  const char * sig = fzE_jni_cache_sig(e);
+  jclass cl = e->cl;
+  jmethodID mid = e->mid;
   const char * sig2 = sig;
   while (*sig2 != ')') {
     if (*sig2 == '\0') { return fzE_jvm_error("unexpected signature format"); }
@@ -569,11 +778,11 @@ fzE_jvm_result fzE_call_s0(jstring class_name, jstring name, jstring signature,
 // call a java virtual method
 fzE_jvm_result fzE_call_v0(jstring class_name, jstring name, jstring signature, jobject thiz, jvalue *args)
 {
-  const char * sig = fzE_java_string_to_modified_utf8(signature);
-  jclass cl  = (*getJNIEnv())->FindClass(getJNIEnv(), fzE_replace_char(fzE_java_string_to_modified_utf8(class_name), '.', '/'));
-  if (cl == NULL) { return fzE_jvm_not_found(class_name); }
-  jmethodID mid = (*getJNIEnv())->GetMethodID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
-  if (mid == NULL) { return fzE_jvm_not_found(name); }
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('v', NULL, class_name, name, signature, NULL, &class_found);
+  if (e == NULL) { return fzE_jvm_not_found(class_found ? name : class_name); }
+  const char * sig = fzE_jni_cache_sig(e);
+  jmethodID mid = e->mid;
   const char * sig2 = sig;
   while (*sig2 != ')') {
     if (*sig2 == '\0') { return fzE_jvm_error("unexpected signature format"); }
@@ -730,9 +939,12 @@ jvalue fzE_get_field0(jobject obj, jstring name, const char *sig)
 {
   jclass cl = (*getJNIEnv())->GetObjectClass(getJNIEnv(), obj);
   assert( cl != NULL );
-  jfieldID fieldID = (*getJNIEnv())->GetFieldID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('f', cl, NULL, name, NULL, sig, &class_found);
+  (*getJNIEnv())->DeleteLocalRef(getJNIEnv(), cl);
   // NYI: UNDER DEVELOPMENT: crash more gracefully
-  assert( fieldID != NULL );
+  assert( e != NULL );
+  jfieldID fieldID = e->fid;
   switch (sig[0])
     {
       case 'B':
@@ -762,9 +974,12 @@ void fzE_set_field0(jobject obj, jstring name, jvalue value, const char *sig)
 {
   jclass cl = (*getJNIEnv())->GetObjectClass(getJNIEnv(), obj);
   assert( cl != NULL );
-  jfieldID fieldID = (*getJNIEnv())->GetFieldID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('f', cl, NULL, name, NULL, sig, &class_found);
+  (*getJNIEnv())->DeleteLocalRef(getJNIEnv(), cl);
   // NYI: UNDER DEVELOPMENT: crash more gracefully
-  assert( fieldID != NULL );
+  assert( e != NULL );
+  jfieldID fieldID = e->fid;
   switch (sig[0])
     {
       case 'B':
@@ -801,11 +1016,12 @@ void fzE_set_field0(jobject obj, jstring name, jvalue value, const char *sig)
 // get a static field in class.
 jvalue fzE_get_static_field0(jstring class_name, jstring name, const char *sig)
 {
-  jclass cl  = (*getJNIEnv())->FindClass(getJNIEnv(), fzE_replace_char(fzE_java_string_to_modified_utf8(class_name), '.', '/'));
-  assert( cl != NULL );
-  jfieldID fieldID = (*getJNIEnv())->GetStaticFieldID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('S', NULL, class_name, name, NULL, sig, &class_found);
   // NYI: UNDER DEVELOPMENT: crash more gracefully
-  assert( fieldID != NULL );
+  assert( e != NULL );
+  jclass cl = e->cl;
+  jfieldID fieldID = e->fid;
   switch (sig[0])
     {
       case 'B':
@@ -833,11 +1049,12 @@ jvalue fzE_get_static_field0(jstring class_name, jstring name, const char *sig)
 // set a static field in class.
 void fzE_set_static_field0(jstring class_name, jstring name, jvalue value, const char *sig)
 {
-  jclass cl  = (*getJNIEnv())->FindClass(getJNIEnv(), fzE_replace_char(fzE_java_string_to_modified_utf8(class_name), '.', '/'));
-  assert( cl != NULL );
-  jfieldID fieldID = (*getJNIEnv())->GetStaticFieldID(getJNIEnv(), cl, fzE_java_string_to_modified_utf8(name), sig);
+  bool class_found;
+  fzE_jni_cache_entry * e = fzE_jni_lookup('S', NULL, class_name, name, NULL, sig, &class_found);
   // NYI: UNDER DEVELOPMENT: crash more gracefully
-  assert( fieldID != NULL );
+  assert( e != NULL );
+  jclass cl = e->cl;
+  jfieldID fieldID = e->fid;
   switch (sig[0])
     {
       case 'B':
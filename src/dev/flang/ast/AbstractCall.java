@@ -33,6 +33,7 @@ import java.util.function.BiConsumer;
 
 import dev.flang.util.Errors;
 import dev.flang.util.FuzionConstants;
+import dev.flang.util.FuzionOptions;
 import dev.flang.util.List;
 import dev.flang.util.StringHelpers;
 
@@ -58,6 +59,82 @@ public abstract class AbstractCall extends Expr
   public static final List<AbstractType> NO_GENERICS = new List<AbstractType>().freeze();
 
 
+  /**
+   * Result of resolvedFormalArgumentTypes for calls to features without value
+   * arguments.
+   */
+  private static final AbstractType[] NO_FORMAL_ARG_TYPES = new AbstractType[0];
+
+
+  /**
+   * Should hits and misses of the cache for resolvedFormalArgumentTypes be
+   * counted and shown for {@code -verbose=2}?  This is off by default since
+   * the counters are updated for every lookup.
+   *
+   * To enable, use fz with
+   *
+   *   dev_flang_ast_AbstractCall_STATISTICS=true
+   */
+  static final boolean STATISTICS = FuzionOptions.boolPropertyOrEnv("dev.flang.ast.AbstractCall.STATISTICS");
+
+
+  /*-------------------------  static variables  -------------------------*/
+
+
+  /**
+   * Statistics on the use of the cache for resolvedFormalArgumentTypes, for
+   * verbose output if STATISTICS is set.  Reset by Call.reset().
+   */
+  static long _formalArgTypesHits   = 0;
+  static long _formalArgTypesMisses = 0;
+
+
+  /*----------------------------  variables  ----------------------------*/
+
+
+  /**
+   * Cached result of resolvedFormalArgumentTypes, null if not cached.
+   */
+  private AbstractType[] _formalArgTypes;
+
+
+  /**
+   * The values _formalArgTypes was computed for: the called feature, the
+   * target type, the actual type parameters and the context.  The cached
+   * result is used only if all of these are unchanged.
+   */
+  private AbstractFeature _formalArgTypesFeature;
+  private AbstractType _formalArgTypesTarget;
+  private AbstractType[] _formalArgTypesGenerics;
+  private Context _formalArgTypesContext;
+
+
+  /*-------------------------  static methods  --------------------------*/
+
+
+  /**
+   * Are statistics on the use of the cache for resolvedFormalArgumentTypes
+   * collected, i.e., is STATISTICS set?
+   */
+  public static boolean formalArgumentTypesCacheStatisticsEnabled()
+  {
+    return STATISTICS;
+  }
+
+
+  /**
+   * Statistics on the use of the cache for resolvedFormalArgumentTypes as a
+   * human readable string for verbose output.
+   */
+  public static String formalArgumentTypesCacheStatistics()
+  {
+    var total = _formalArgTypesHits + _formalArgTypesMisses;
+    return "resolved formal argument types: " + total + " lookups, " +
+      _formalArgTypesHits + " cache hits" +
+      (total == 0 ? "" : " (" + (_formalArgTypesHits * 100 / total) + "%)");
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
   /**
@@ -502,10 +579,64 @@ public abstract class AbstractCall extends Expr
    */
   AbstractType[] resolvedFormalArgumentTypes(Resolution res, Context context)
   {
-    // NYI: UNDER DEVELOPMENT: cache this? cache key: calledFeature/target
-    var result = calledFeature().valueArguments()
-                                .flatMap2(frml -> resolveFormalArg(res, context, frml));
-    return result.toArray(new AbstractType[result.size()]);
+    var f  = calledFeature();
+    var va = f.valueArguments();
+    var result = _formalArgTypes;
+    if (va.isEmpty())
+      { // no need to evaluate target().type(), which might fail during type inference
+        result = NO_FORMAL_ARG_TYPES;
+      }
+    else
+      {
+        var tt = target().type();
+        var g  = actualTypeParameters();
+        if (result == null                     ||
+            _formalArgTypesFeature != f        ||
+            _formalArgTypesTarget  != tt       ||
+            _formalArgTypesContext != context  ||
+            !sameGenerics(g))
+          {
+            if (STATISTICS)
+              {
+                _formalArgTypesMisses++;
+              }
+            var l = va.flatMap2(frml -> resolveFormalArg(res, context, frml));
+            result = l.toArray(new AbstractType[l.size()]);
+
+            // cache only final results, types that are still being inferred may
+            // change once type inference proceeds.
+            var cache = !g.stream().anyMatch(t -> t == null || t.containsUndefined()) &&
+                        !l.stream().anyMatch(t -> t == null || t.containsUndefined());
+            _formalArgTypes         = cache ? result                               : null;
+            _formalArgTypesFeature  = cache ? f                                    : null;
+            _formalArgTypesTarget   = cache ? tt                                   : null;
+            _formalArgTypesContext  = cache ? context                              : null;
+            _formalArgTypesGenerics = cache ? g.toArray(new AbstractType[g.size()]) : null;
+          }
+        else if (STATISTICS)
+          {
+            _formalArgTypesHits++;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Helper for resolvedFormalArgumentTypes: Check if the actual type
+   * parameters g are the same as those the cached result was computed for.
+   *
+   * @param g the current actual type parameters
+   */
+  private boolean sameGenerics(List<AbstractType> g)
+  {
+    var c = _formalArgTypesGenerics;
+    var result = c != null && c.length == g.size();
+    for (var i = 0; result && i < c.length; i++)
+      {
+        result = c[i] == g.get(i);
+      }
+    return result;
   }
 
 
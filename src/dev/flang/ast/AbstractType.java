@@ -28,6 +28,7 @@ package dev.flang.ast;
 
 import static dev.flang.util.FuzionConstants.NO_SELECT;
 
+import java.util.IdentityHashMap;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.BiConsumer;
@@ -65,6 +66,11 @@ public abstract class AbstractType extends ANY implements Comparable<AbstractTyp
 
   // flag to disable applyTypePar caching, for debugging only
   private static final boolean typeParCachingEnabled = true;
+
+  // flag to disable caching of isAssignableFrom results in
+  // _assignableFromCache, for debugging only
+  private static final boolean assignableCachingEnabled = true;
+
   /**
    * Cached results for {@code applyTypePars(t)} and {@code applyTypePars(f, List<AbstractType>)};
    */
@@ -75,6 +81,20 @@ public abstract class AbstractType extends ANY implements Comparable<AbstractTyp
   private AbstractType _appliedTypePars2Cache;
 
 
+  /**
+   * Cached results of {@code isAssignableFrom(actual)} with this as the
+   * target type, keyed by the identity of {@code actual}.  Each entry holds
+   * the results for all combinations of allowBoxing and allowTagging.
+   */
+  private IdentityHashMap<AbstractType, YesNo[]> _assignableFromCache;
+
+
+  /**
+   * Cached result of isFullyResolved() once it is true.
+   */
+  private boolean _fullyResolved = false;
+
+
   /**
    * Cached result of calling usedFeatures(_usedFeatures).
    */
@@ -280,6 +300,36 @@ public abstract class AbstractType extends ANY implements Comparable<AbstractTyp
   }
 
 
+  /**
+   * Is it sure that resolve() will return this?  This is false for unresolved
+   * types and for types that are replaced by a different type when resolved.
+   */
+  boolean resolvesToItself()
+  {
+    return this instanceof ResolvedType;
+  }
+
+
+  /**
+   * Check if this type, its actual type parameters and its outer types all
+   * resolve to themselves.  If so, ResolvedNormalType.resolve will not
+   * replace any outer type within this type anymore.
+   */
+  boolean isFullyResolved()
+  {
+    if (!_fullyResolved)
+      {
+        var result = resolvesToItself() && (outer() == null || outer().isFullyResolved());
+        for (var g : generics())
+          {
+            result = result && g != null && g.isFullyResolved();
+          }
+        _fullyResolved = result;
+      }
+    return _fullyResolved;
+  }
+
+
   /**
    * is this a formal generic argument that is open, i.e., the last argument in
    * a formal generic arguments list and followed by ... as A in
@@ -582,6 +632,73 @@ public abstract class AbstractType extends ANY implements Comparable<AbstractTyp
       (this  .isGenericArgument() || this  .feature() != null || Errors.any(),
        actual.isGenericArgument() || actual.feature() != null || Errors.any());
 
+    YesNo result = null;
+    var flags = (allowBoxing ? 1 : 0) + (allowTagging ? 2 : 0);
+    var memo = assignableCachingEnabled && assignableTo == null && isAssignableMemoizable(actual);
+    var cached = memo && _assignableFromCache != null ? _assignableFromCache.get(actual) : null;
+    if (cached != null)
+      {
+        result = cached[flags];
+      }
+    if (result == null)
+      {
+        result = isAssignableFromNoMemo(actual, context, allowBoxing, allowTagging, assignableTo);
+        // a negative result might change while the inheritance of actual is
+        // still being resolved, so we only memoize those once actual's types
+        // are resolved.
+        if (memo && (result.yes() || actual.feature().state().atLeast(State.RESOLVED_TYPES)))
+          {
+            if (_assignableFromCache == null)
+              {
+                _assignableFromCache = new IdentityHashMap<>();
+              }
+            _assignableFromCache
+              .computeIfAbsent(actual, k -> new YesNo[4])
+              [flags] = result;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Helper for isAssignableFrom to check if the result for this and actual may
+   * be memoized.  This is the case if both are fully resolved, error-free
+   * types that do not depend on type parameters or {@code this} types, such
+   * that the result is independent of the context and cannot change due to
+   * outer types being resolved later.
+   *
+   * @param actual the actual type.
+   */
+  private boolean isAssignableMemoizable(AbstractType actual)
+  {
+    return
+      this   instanceof ResolvedType     &&
+      actual instanceof ResolvedType     &&
+      !isArtificialType(this)            &&
+      !isArtificialType(actual)          &&
+      !this  .dependsOnGenerics()        &&
+      !actual.dependsOnGenerics()        &&
+      !this  .containsError()            &&
+      !actual.containsError()            &&
+      this  .isFullyResolved()           &&
+      actual.isFullyResolved();
+  }
+
+
+  /**
+   * Helper for isAssignableFrom that performs the actual check without
+   * consulting _assignableFromCache.
+   *
+   * @param actual the actual type.
+   *
+   * @param context the source code context where this Type is used
+   *
+   * @param assignableTo in case we want to show all types actual is assignable
+   * to in an error message, this collects the types converted to strings.
+   */
+  private YesNo isAssignableFromNoMemo(AbstractType actual, Context context, boolean allowBoxing, boolean allowTagging, Set<String> assignableTo)
+  {
     if (assignableTo != null)
       {
         assignableTo.add(actual.toString(true));
@@ -3082,6 +3082,8 @@ public class Call extends AbstractCall
    */
   public static void reset()
   {
+    _formalArgTypesHits   = 0;
+    _formalArgTypesMisses = 0;
     ERROR = new Call(SourcePosition.builtIn, Errors.ERROR_STRING)
     {
       {
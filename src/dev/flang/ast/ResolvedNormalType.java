@@ -454,6 +454,11 @@ public class ResolvedNormalType extends ResolvedType
             }
           return _resolved;
         }
+        @Override
+        boolean resolvesToItself()
+        {
+          return false;
+        }
       };
   }
 
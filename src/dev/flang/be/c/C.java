@@ -28,14 +28,23 @@ package dev.flang.be.c;
 
 import static dev.flang.ir.IR.NO_CLAZZ;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -46,6 +55,7 @@ import dev.flang.fuir.analysis.TailCall;
 import dev.flang.ir.IR.FeatureKind;
 import dev.flang.util.ANY;
 import dev.flang.util.Errors;
+import dev.flang.util.IntMap;
 import dev.flang.util.List;
 import dev.flang.util.Pair;
 
@@ -565,6 +575,12 @@ public class C extends ANY
   private static final int expectedClangVersion = 11;
 
 
+  /**
+   * Pattern of a line comment in generated C code.
+   */
+  private static final Pattern LINE_COMMENT = Pattern.compile("(?m)^[ \\t]*//.*$");
+
+
   /**
    * C code generation phase for generating C functions for features.
    */
@@ -638,6 +654,46 @@ public class C extends ANY
   int[] _effectClazzes;
 
 
+  /**
+   * Routines that need a variant that allocates the instance on the stack,
+   * indexed by clazzId2num.  These are routines whose instance may escape in
+   * general, but not for some call sites.
+   */
+  final BitSet _stackVariants = new BitSet();
+
+
+  /**
+   * true while generating code for the variant of a routine that allocates
+   * its instance on the stack.
+   */
+  boolean _curOnStack = false;
+
+
+  /**
+   * In case an object file cache is used: the code in the generated header
+   * file that is not specific to one clazz and the clazzes whose C identifiers
+   * it uses, see CNames.recordUses().
+   */
+  private final StringBuilder _globalDeclarations = new StringBuilder();
+  private final BitSet _globalUses = new BitSet();
+
+
+  /**
+   * In case an object file cache is used: the code in the generated header
+   * file created for a clazz and the clazzes whose C identifiers it uses, both
+   * indexed by clazzId2num.
+   */
+  private final IntMap<StringBuilder> _declarations = new IntMap<>();
+  private final IntMap<BitSet> _declarationUses = new IntMap<>();
+
+
+  /**
+   * In case an object file cache is used: the clazzes whose C identifiers are
+   * used by the code in each generated C file, indexed by clazzId2num.
+   */
+  private BitSet[] _shardUses;
+
+
   /*---------------------------  constructors  ---------------------------*/
 
 
@@ -657,8 +713,15 @@ public class C extends ANY
     _ai = new AbstractInterpreter<>(fuir, new CodeGen());
 
     _names = new CNames(fuir);
-    _types = new CTypes(fuir, _names);
+    _types = new CTypes(fuir, _names, opt._cShards > 1);
     _intrinsics = new Intrinsics();
+    for (var cl = _fuir.firstClazz(); cl <= _fuir.lastClazz(); cl++)
+      {
+        if (_fuir.clazzKind(cl) == FeatureKind.Routine && _fuir.clazzNeedsCode(cl))
+          {
+            findStackVariants(_fuir.clazzCode(cl));
+          }
+      }
     Errors.showAndExit();
   }
 
@@ -666,6 +729,77 @@ public class C extends ANY
   /*-----------------------------  methods  -----------------------------*/
 
 
+  /**
+   * Add all routines called from the code block at s0 or nested blocks via
+   * a call that uses a stack variant to _stackVariants.
+   *
+   * @param s0 the site starting the block.
+   */
+  private void findStackVariants(int s0)
+  {
+    for (var s = s0; _fuir.withinCode(s); s = s + _fuir.codeSizeAt(s))
+      {
+        switch (_fuir.codeAt(s))
+          {
+          case Call ->
+            {
+              var ccs = _fuir.accessedClazz(s) != NO_CLAZZ ? _fuir.accessedClazzes(s) : new int[0];
+              for (var cci = 0; cci < ccs.length; cci += 2)
+                {
+                  var cc = ccs[cci+1];
+                  if (usesStackVariant(s, cc))
+                    {
+                      _stackVariants.set(_fuir.clazzId2num(cc));
+                    }
+                }
+            }
+          case Match ->
+            {
+              for (var cix = 0; cix < _fuir.matchCaseCount(s); cix++)
+                {
+                  if (_fuir.matchCaseTags(s, cix).length > 0)
+                    {
+                      findStackVariants(_fuir.matchCaseCode(s, cix));
+                    }
+                }
+            }
+          default -> { }
+          }
+      }
+  }
+
+
+  /**
+   * Should the call to cc at site s use the variant of cc that allocates its
+   * instance on the stack?  This is the case if the instance may escape
+   * calls to cc in general, but not calls at s.
+   *
+   * @param s site of a call
+   *
+   * @param cc the called clazz
+   */
+  private boolean usesStackVariant(int s, int cc)
+  {
+    return
+      _fuir.clazzKind(cc) == FeatureKind.Routine &&
+      _fuir.clazzNeedsCode(cc) &&
+      _fuir.hasData(cc) &&
+      _fuir.lifeTime(cc) == FUIR.LifeTime.Unknown &&
+      _fuir.lifeTime(cc, s) == FUIR.LifeTime.Call;
+  }
+
+
+  /**
+   * Does cl have a variant that allocates its instance on the stack?
+   *
+   * @param cl a clazz id
+   */
+  private boolean hasStackVariant(int cl)
+  {
+    return _stackVariants.get(_fuir.clazzId2num(cl));
+  }
+
+
   /**
    * Create the C code from the intermediate code.
    */
@@ -675,10 +809,19 @@ public class C extends ANY
     var name = _options._binaryName != null ? _options._binaryName : _fuir.clazzBaseName(cl);
     var cf = new CFile(name, _options._keepGeneratedCode, false);
     var hf = new CFile(name, _options._keepGeneratedCode, true);
-    _options.verbosePrintln(" + " + cf.fileName());
+    var shards = new CFile[_options._cShards];
+    shards[0] = cf;
+    for (var i = 1; i < shards.length; i++)
+      {
+        shards[i] = new CFile(name + "_" + i, _options._keepGeneratedCode, false);
+      }
+    for (var f : shards)
+      {
+        _options.verbosePrintln(" + " + f.fileName());
+      }
     try
       {
-        createCode(cf, hf, _options);
+        createCode(cf, hf, shards, _options);
       }
     catch (IOException io)
       {
@@ -687,13 +830,46 @@ public class C extends ANY
       }
     finally
       {
-        cf.close();
+        for (var f : shards)
+          {
+            f.close();
+          }
         hf.close();
       }
     Errors.showAndExit();
 
-    var command = buildCommand(name, cf);
+    if (sharded() || _options._cCache != null)
+      {
+        compileShards(name, hf, shards);
+      }
+    else
+      {
+        runCompiler(buildCommand(name, cf));
+      }
+    Errors.showAndExit();
+  }
+
+
+  /**
+   * Is the generated code split into several C files that are compiled
+   * separately?
+   */
+  private boolean sharded()
+  {
+    return _options._cShards > 1;
+  }
 
+
+  /**
+   * Run the C compiler or linker.  Report an error in case this fails.
+   *
+   * @param command the command and its arguments
+   *
+   * @return true iff command succeeded.
+   */
+  private boolean runCompiler(List<String> command)
+  {
+    var result = false;
     _options.verbosePrintln(" * " + command.toString("", " ", ""));
     try
       {
@@ -704,13 +880,289 @@ public class C extends ANY
             Errors.error("C backend: C compiler failed",
                          "C compiler call '" + command.toString("", " ", "") + "' failed with exit code '" + p.exitValue() + "'");
           }
+        else
+          {
+            result = true;
+          }
       }
     catch (IOException | InterruptedException io)
       {
         Errors.error("C backend I/O error when running C Compiler",
                      "C compiler call '" + command.toString("", " ", "") + "'  received '" + io + "'");
       }
-    Errors.showAndExit();
+    return result;
+  }
+
+
+  /**
+   * Compile the runtime and the given C files concurrently into object files
+   * and link them.
+   *
+   * If an object file cache is used, object files are looked up in the cache
+   * first and only the C files that are not found are compiled.  The key is
+   * a hash of the compiler, its arguments, the contents of the C file and of
+   * all declarations it uses as recorded by createCode(), so a cached object
+   * file is reused only if compiling would produce the same result.
+   *
+   * @param name the name of the produced binary
+   *
+   * @param hf the generated header file
+   *
+   * @param shards the generated C files
+   */
+  private void compileShards(String name, CFile hf, CFile[] shards)
+  {
+    var runtime = runtimeSources();
+    var sources = new List<String>(runtime.iterator());
+    for (var f : shards)
+      {
+        sources.add(f.fileName());
+      }
+    var flags = compilerFlags();
+    var cache = _options._cCache != null ? Path.of(_options._cCache) : null;
+    if (cache != null)
+      {
+        try
+          {
+            Files.createDirectories(cache);
+          }
+        catch (IOException io)
+          {
+            Errors.warning("C backend: could not create object file cache directory '" + cache + "', received '" + io + "'");
+            cache = null;
+          }
+      }
+    var objects = new List<String>();
+    var commands = new List<List<String>>();
+    var toCache = new List<Pair<Path, Path>>();
+    for (var i = 0; i < sources.size(); i++)
+      {
+        var src = sources.get(i);
+        var shard = i - runtime.size();
+        var key = cache != null ? cacheKey(flags, src, shard >= 0 ? hf : null, shard >= 0 ? _shardUses[shard] : null) : null;
+        var cached = key != null ? cache.resolve(key + ".o") : null;
+        if (cached != null && Files.exists(cached))
+          {
+            _options.verbosePrintln(2, " * using cached " + cached + " for " + src);
+            objects.add(cached.toString());
+          }
+        else
+          {
+            var obj = objectFile(src);
+            objects.add(cached != null ? cached.toString() : obj);
+            if (cached != null)
+              {
+                toCache.add(new Pair<>(Path.of(obj), cached));
+              }
+            var command = new List<String>();
+            command.addAll(flags);
+            command.addAll("-c", src, "-o", obj);
+            commands.add(command);
+          }
+      }
+    if (commands
+        .parallelStream()
+        .map(this::runCompiler)
+        .toList()
+        .stream()
+        .allMatch(ok -> ok) &&
+        toCache.stream().allMatch(p -> storeInCache(p.v0(), p.v1())))
+      {
+        var command = new List<String>(_options._cCompiler != null ? _options._cCompiler : "clang");
+        var cTarget = cTarget();
+        if (cTarget.isPresent())
+          {
+            command.add("--target=" + cTarget.get());
+          }
+        if (_options._cFlags != null)
+          {
+            command.addAll(_options._cFlags.split(" "));
+          }
+        command.addAll("-o", name);
+        command.addAll(objects);
+        command.addAll(linkFlags());
+        runCompiler(command);
+      }
+  }
+
+
+  /**
+   * Determine the key of the object file compiled from src in the object
+   * file cache.
+   *
+   * For a generated C file, only the declarations in the generated header
+   * file that it uses directly or indirectly are part of the key, such that
+   * the object file can be reused if other parts of the application changed.
+   * Line comments are ignored since they may contain clazz or site numbers,
+   * but they are replaced by empty lines to keep line numbers.
+   *
+   * @param flags the compiler and its arguments
+   *
+   * @param src a C file
+   *
+   * @param hf the generated header file in case src is a generated C file,
+   * null for a runtime C file.
+   *
+   * @param uses the clazzes whose C identifiers are used by src in case src
+   * is a generated C file, null for a runtime C file.
+   *
+   * @return a hex string of the SHA-256 hash of all inputs, null if it could
+   * not be determined.
+   */
+  private String cacheKey(List<String> flags, String src, CFile hf, BitSet uses)
+  {
+    String result = null;
+    try
+      {
+        var md = MessageDigest.getInstance("SHA-256");
+        md.update(flags.toString("", "\0", "").getBytes(StandardCharsets.UTF_8));
+        var text = Files.readString(Path.of(src), StandardCharsets.UTF_8);
+        if (hf != null)
+          {
+            // the name of the generated header file may be a random temp file
+            // name that must not change the key:
+            text = LINE_COMMENT.matcher(text.replace(hf.fileName(), "")).replaceAll("");
+            md.update(LINE_COMMENT.matcher(_globalDeclarations).replaceAll("").getBytes(StandardCharsets.UTF_8));
+            for (var d : usedDeclarations(uses))
+              {
+                md.update(d.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+              }
+          }
+        md.update(text.getBytes(StandardCharsets.UTF_8));
+        try (var headers = Files.list(Path.of(_options.pathOf("include"))))
+          {
+            for (var h : headers.filter(x -> x.toString().endsWith(".h")).sorted().toList())
+              {
+                md.update(h.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                md.update(Files.readAllBytes(h));
+              }
+          }
+        result = HexFormat.of().formatHex(md.digest());
+      }
+    catch (IOException | NoSuchAlgorithmException e)
+      {
+        _options.verbosePrintln(2, " * object file cache not used for " + src + ": " + e);
+      }
+    return result;
+  }
+
+
+  /**
+   * Find the declarations from the generated header file that are used
+   * directly by the code of a generated C file or by the global declarations,
+   * or indirectly by other declarations that are used.
+   *
+   * @param uses the clazzes whose C identifiers are used by a generated C
+   * file.
+   *
+   * @return the code of the declarations created for the used clazzes without
+   * line comments, sorted such that the result does not depend on the order
+   * of the clazzes.
+   */
+  private List<String> usedDeclarations(BitSet uses)
+  {
+    var used = new BitSet();
+    var todo = new BitSet();
+    todo.or(uses);
+    todo.or(_globalUses);
+    for (var i = todo.nextSetBit(0); i >= 0; i = todo.nextSetBit(0))
+      {
+        used.set(i);
+        var u = _declarationUses.get(i);
+        if (u != null)
+          {
+            todo.or(u);
+          }
+        todo.andNot(used);
+      }
+    var result = new List<String>();
+    for (var i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1))
+      {
+        var d = _declarations.get(i);
+        if (d != null)
+          {
+            result.add(LINE_COMMENT.matcher(d).replaceAll(""));
+          }
+      }
+    result.sort(null);
+    return result;
+  }
+
+
+  /**
+   * Move a freshly compiled object file into the object file cache.
+   *
+   * @param obj the compiled object file
+   *
+   * @param cached the path of the object file in the cache
+   *
+   * @return true iff cached exists after this call
+   */
+  private boolean storeInCache(Path obj, Path cached)
+  {
+    var result = true;
+    try
+      {
+        // copy to a temp file in the cache first such that other processes
+        // never see a partially written object file.
+        var tmp = Files.createTempFile(cached.getParent(), cached.getFileName().toString(), ".tmp");
+        Files.copy(obj, tmp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+    catch (IOException io)
+      {
+        Errors.error("C backend I/O error when storing object file in cache",
+                     "While moving '" + obj + "' to '" + cached + "', received '" + io + "'");
+        result = false;
+      }
+    return result;
+  }
+
+
+  /**
+   * Create a temporary file for the object file compiled from C file src.
+   *
+   * @param src the path of a C source file
+   *
+   * @return the path of the object file, the file will be deleted on exit.
+   */
+  private String objectFile(String src)
+  {
+    String result = null;
+    try
+      {
+        var n = Path.of(src).getFileName().toString().replaceFirst("\\.c$", "");
+        var f = File.createTempFile(n + "_obj_", ".o");
+        f.deleteOnExit();
+        result = f.getAbsolutePath();
+      }
+    catch (IOException io)
+      {
+        Errors.fatal("C backend I/O error",
+                     "While creating temporary file, received I/O error '" + io + "'");
+      }
+    return result;
+  }
+
+
+  /**
+   * The C files of the Fuzion runtime that need to be compiled with the
+   * generated code.
+   */
+  private List<String> runtimeSources()
+  {
+    var result = new List<String>(_options.pathOf("include/shared.c"));
+    // NYI: should select includes based on cTarget
+    if (isWindows())
+      {
+        result.add(_options.pathOf("include/win.c"));
+      }
+    else
+      {
+        result.add(_options.pathOf("include/posix.c"));
+      }
+    return result;
   }
 
 
@@ -722,6 +1174,34 @@ public class C extends ANY
    * @return list of cmd and args to build the c code.
    */
   private List<String> buildCommand(String name, CFile cf)
+  {
+    var command = compilerFlags();
+    command.addAll("-o", name);
+
+    // add the c-files
+    command.addAll(runtimeSources());
+    command.addAll(cf.fileName());
+
+    command.addAll(linkFlags());
+    return command;
+  }
+
+
+  /**
+   * The target to compile for, either given by -CTarget or the default target
+   * of clang.
+   */
+  private Optional<String> cTarget()
+  {
+    return _options._cTarget != null ? Optional.of(_options._cTarget) : getClangDefaultTarget();
+  }
+
+
+  /**
+   * @return the C compiler and the arguments needed to compile the generated
+   * code and the runtime.
+   */
+  private List<String> compilerFlags()
   {
     var clangVersion = getClangVersion();
     // NYI: UNDER DEVELOPMENT: should be clangVersion == expectedClangVersion but workflows etc. must be updated first
@@ -733,7 +1213,7 @@ public class C extends ANY
       }
 
     var cCompiler = _options._cCompiler != null ? _options._cCompiler : "clang";
-    var cTarget = _options._cTarget != null ? Optional.of(_options._cTarget) : getClangDefaultTarget();
+    var cTarget = cTarget();
     var command = new List<String>(cCompiler);
 
     if (cTarget.isPresent())
@@ -847,37 +1327,37 @@ public class C extends ANY
     // https://lobste.rs/s/avrfxz/ubuntu_24_04_lts_will_enable_frame
     command.addAll("-fno-omit-frame-pointer", "-mno-omit-leaf-frame-pointer");
 
-    command.add("-lm");
+    command.addAll("-std=c11");
 
-    if (usesThreads() && !isWindows())
+    if (linkJVM())
       {
-        command.add("-lpthread");
+        command.addAll(
+          "-I" + JAVA_HOME + "/include",
+          "-I" + JAVA_HOME + "/include/linux",
+          "-I" + JAVA_HOME + "/include/win32",
+          "-I" + JAVA_HOME + "/include/darwin");
       }
 
-    command.addAll("-std=c11", "-o", name);
+    return command;
+  }
 
-    // add the c-files
-    command.addAll(_options.pathOf("include/shared.c"));
-    // NYI: should select includes based on cTarget
-    if (isWindows())
-      {
-        command.addAll(_options.pathOf("include/win.c"));
-      }
-    else
+
+  /**
+   * @return the arguments needed to link the generated code and the runtime.
+   */
+  private List<String> linkFlags()
+  {
+    var command = new List<String>();
+    command.add("-lm");
+
+    if (usesThreads() && !isWindows())
       {
-        command.addAll(_options.pathOf("include/posix.c"));
+        command.add("-lpthread");
       }
 
-    command.addAll(cf.fileName());
-
     if (linkJVM())
       {
-        command.addAll(
-          "-I" + JAVA_HOME + "/include",
-          "-I" + JAVA_HOME + "/include/linux",
-          "-I" + JAVA_HOME + "/include/win32",
-          "-I" + JAVA_HOME + "/include/darwin",
-          "-L" + JAVA_HOME + "/lib/server");
+        command.addAll("-L" + JAVA_HOME + "/lib/server");
 
         if (!isWindows())
           {
@@ -1020,10 +1500,25 @@ public class C extends ANY
    * the code into this file.
    * @throws IOException
    */
-  private void createCode(CFile cf, CFile hf, COptions _options) throws IOException
+  private void createCode(CFile cf, CFile hf, CFile[] shards, COptions _options) throws IOException
   {
+    var record = _options._cCache != null;
+    _shardUses = new BitSet[shards.length];
+    for (var i = 0; i < shards.length; i++)
+      {
+        _shardUses[i] = new BitSet();
+      }
+    if (record)
+      {
+        hf.record(_globalDeclarations);
+        _names.recordUses(_globalUses);
+      }
     printHeaderFileHeader(hf);
     printCodeFileHeader(cf, hf, _options);
+    for (var i = 1; i < shards.length; i++)
+      {
+        printIncludes(shards[i], hf, _options);
+      }
 
     var ordered = _types.inOrder();
 
@@ -1048,7 +1543,24 @@ public class C extends ANY
             };
          for (var c : ordered)
            {
-            printStmnt.accept(p.compile(this, c));
+            if (record)
+              {
+                recordDeclarations(hf, p, c);
+              }
+            var stmnt = p.compile(this, c);
+            if (p == CompilePhase.IMPLEMENTATIONS)
+              {
+                shard(shards, c).print(stmnt);
+              }
+            else
+              {
+                printStmnt.accept(stmnt);
+              }
+           }
+         if (record)
+           {
+             hf.record(_globalDeclarations);
+             _names.recordUses(_globalUses);
            }
          printStr.accept("\n");
 
@@ -1076,12 +1588,30 @@ public class C extends ANY
              printStmnt.accept(
                CStmnt.seq(
                  CStmnt.struct(CNames.fzThreadEffectsEnvironment.code(), effectsData),
-                 CStmnt.decl("_Thread_local", "struct " + CNames.fzThreadEffectsEnvironment.code() + "*", CNames.fzThreadEffectsEnvironment)
+                 CStmnt.decl(sharded() ? "extern _Thread_local" : "_Thread_local", "struct " + CNames.fzThreadEffectsEnvironment.code() + "*", CNames.fzThreadEffectsEnvironment)
                )
              );
            }
        });
 
+    if (record)
+      {
+        hf.record(null);
+        _names.recordUses(_shardUses[0]);
+      }
+
+    if (sharded())
+      {
+        // definitions of global variables that are declared extern in the header
+        cf.print(CStmnt.decl("int", CNames.GLOBAL_ARGC));
+        cf.print(CStmnt.decl("char **", CNames.GLOBAL_ARGV));
+        cf.print(CStmnt.decl("_Thread_local", "struct " + CNames.fzThreadEffectsEnvironment.code() + "*", CNames.fzThreadEffectsEnvironment));
+        if (_types.declaresUniverse())
+          {
+            cf.print(CStmnt.decl(_names.struct(_fuir.clazzUniverse()), CNames.UNIVERSE));
+          }
+      }
+
     cf.print(threadStartRoutine(true));
 
     cf.println("int main(int argc, char **argv) { ");
@@ -1096,6 +1626,70 @@ public class C extends ANY
                         ));
 
     cf.println("}");
+    _names.recordUses(null);
+  }
+
+
+  /**
+   * Helper for createCode() in case an object file cache is used: Record the
+   * code and the used C identifiers created for clazz cl in compilation phase
+   * p.
+   *
+   * The declarations for special clazzes like the universe or i32 are
+   * recorded as global declarations since their C identifiers may be used
+   * without asking CNames, e.g., by Intrinsics.
+   *
+   * @param hf the generated header file
+   *
+   * @param p the current compilation phase
+   *
+   * @param cl a clazz id
+   */
+  private void recordDeclarations(CFile hf, CompilePhase p, int cl)
+  {
+    if (p == CompilePhase.IMPLEMENTATIONS)
+      {
+        _names.recordUses(_shardUses[shardIndex(cl)]);
+      }
+    else if (_fuir.getSpecialClazz(cl) == SpecialClazzes.c_NOT_FOUND)
+      {
+        var num = _fuir.clazzId2num(cl);
+        var d = _declarations.get(num);
+        if (d == null)
+          {
+            d = new StringBuilder();
+            _declarations.put(num, d);
+            _declarationUses.put(num, new BitSet());
+          }
+        hf.record(d);
+        _names.recordUses(_declarationUses.get(num));
+      }
+  }
+
+
+  /**
+   * Get the C file the implementation of clazz cl is written to.  The
+   * distribution depends only on the name of the clazz, such that it is
+   * stable when other clazzes are added or removed.
+   *
+   * @param shards the C files
+   *
+   * @param cl a clazz id
+   */
+  private CFile shard(CFile[] shards, int cl)
+  {
+    return shards[shardIndex(cl)];
+  }
+
+
+  /**
+   * Get the index of the C file the implementation of clazz cl is written to.
+   *
+   * @param cl a clazz id
+   */
+  private int shardIndex(int cl)
+  {
+    return Math.floorMod(_fuir.clazzAsString(cl).hashCode(), _options._cShards);
   }
 
 
@@ -1108,10 +1702,11 @@ public class C extends ANY
     hf.print("#include <stdbool.h>\n"); /* for bool fzEnvInstalled */
     hf.print("#include <setjmp.h>\n"); /* for jmp_buf */
 
+    var extern = sharded() ? "extern" : null;
     hf.print
-      (CStmnt.decl("int", CNames.GLOBAL_ARGC));
+      (CStmnt.decl(extern, "int", CNames.GLOBAL_ARGC));
     hf.print
-      (CStmnt.decl("char **", CNames.GLOBAL_ARGV));
+      (CStmnt.decl(extern, "char **", CNames.GLOBAL_ARGV));
 
     // declaration of struct that is meant to passed to
     // the thread start routine
@@ -1121,6 +1716,12 @@ public class C extends ANY
     )));
     // declaration of the thread start routine
     hf.print(threadStartRoutine(false));
+
+    if (sharded())
+      {
+        hf.println("extern _Thread_local void * fzW_native_outer;");
+        hf.print(heapClone(false));
+      }
   }
 
 
@@ -1128,6 +1729,45 @@ public class C extends ANY
    * print header in .c file
    */
   private void printCodeFileHeader(CFile cf, CFile hf, COptions _options)
+  {
+    printIncludes(cf, hf, _options);
+
+    // NYI: UNDER DEVELOPMENT: use libffi instead of storing the outer
+    // reference in a thread local variable?
+    cf.println("_Thread_local void * fzW_native_outer = NULL;");
+
+    cf.print
+      (CStmnt.lineComment("helper to clone a (stack) instance to the heap"));
+    cf.print(heapClone(true));
+  }
+
+
+  /**
+   * Function declaration of the helper to clone a (stack) instance to the
+   * heap.
+   *
+   * @param includeBody true for the definition, false for the prototype.
+   */
+  private CStmnt heapClone(boolean includeBody)
+  {
+    var o = new CIdent("of");
+    var s = new CIdent("sz");
+    var r = new CIdent("r");
+    return CStmnt.functionDecl("void *",
+                               CNames.HEAP_CLONE,
+                               new List<>("void *", "size_t"),
+                               new List<>(o, s),
+                               includeBody ? CStmnt.seq(new List<>(CStmnt.decl(null, "void *", r, CExpr.call(malloc(), new List<>(s))),
+                                                                   CExpr.call("fzE_memcpy", new List<>(r, o, s)),
+                                                                   r.ret()))
+                                           : null);
+  }
+
+
+  /*
+   * print the includes at the beginning of a .c file
+   */
+  private void printIncludes(CFile cf, CFile hf, COptions _options)
   {
     if (_options._useBoehmGC)
       {
@@ -1166,25 +1806,6 @@ public class C extends ANY
           .stream(_options._cInclude.split(" "))
           .forEach(x -> cf.println("#include <" + x + ">"));
       }
-
-    var o = new CIdent("of");
-    var s = new CIdent("sz");
-    var r = new CIdent("r");
-
-    // NYI: UNDER DEVELOPMENT: use libffi instead of storing the outer
-    // reference in a thread local variable?
-    cf.println("_Thread_local void * fzW_native_outer = NULL;");
-
-    cf.print
-      (CStmnt.lineComment("helper to clone a (stack) instance to the heap"));
-    cf.print
-      (CStmnt.functionDecl("void *",
-                           CNames.HEAP_CLONE,
-                           new List<>("void *", "size_t"),
-                           new List<>(o, s),
-                           CStmnt.seq(new List<>(CStmnt.decl(null, "void *", r, CExpr.call(malloc(), new List<>(s))),
-                                                 CExpr.call("fzE_memcpy", new List<>(r, o, s)),
-                                                 r.ret()))));
   }
 
 
@@ -1203,7 +1824,7 @@ public class C extends ANY
       tmp.assign(CIdent.arg(0)),
       CExpr.call("((void *(*)(void *))" + tmp.code() + "->"+ CNames.fzThreadStartRoutineArgFun.code() + ")", new List<>(tmp.deref().field(CNames.fzThreadStartRoutineArgArg))).ret()
     );
-    return CStmnt.functionDecl("static void *", CNames.fzThreadStartRoutine, new List<>("void *"), new List<>(CIdent.arg(0)), includeBody ? body : null);
+    return CStmnt.functionDecl(sharded() ? "void *" : "static void *", CNames.fzThreadStartRoutine, new List<>("void *"), new List<>(CIdent.arg(0)), includeBody ? body : null);
   }
 
 
@@ -1667,8 +2288,11 @@ public class C extends ANY
               var a = args(tvalue, args, cc, _fuir.clazzArgCount(cc));
               var cl = _fuir.clazzAt(s);
 
+              var stack = hasStackVariant(cc) && usesStackVariant(s, cc);
               if (cc == cl &&  // calling myself
-                  _tailCall.callIsTailCall(cl, s)
+                  _tailCall.callIsTailCall(cl, s) &&
+                  // stack variant may reuse current instance only if it does not escape at s
+                  (!_curOnStack || stack)
                 )
                 { // then we can do tail recursion optimization!
                   var tc = _fuir.clazzOuterClazz(cc);
@@ -1677,7 +2301,7 @@ public class C extends ANY
                 }
               else
                 {
-                  var call = CExpr.call(_names.function(cc), a);
+                  var call = CExpr.call(stack ? _names.stackFunction(cc) : _names.function(cc), a);
                   result = call;
                   CExpr res = _fuir.clazzIsVoidType(rt) ? null : CExpr.UNIT;
                   if (_fuir.hasData(rt))
@@ -1809,6 +2433,24 @@ public class C extends ANY
    * @return the C code
    */
   private CStmnt cFunctionDecl(int cl, CStmnt body)
+  {
+    return cFunctionDecl(cl, false, body);
+  }
+
+
+  /**
+   * Create code for the C function implementing the routine corresponding to the
+   * given clazz or its variant that allocates the instance on the stack.
+   *
+   * @param cl id of clazz to compile
+   *
+   * @param stack true for the variant that allocates the instance on the stack.
+   *
+   * @param body the code of the function, or null for a forward declaration.
+   *
+   * @return the C code
+   */
+  private CStmnt cFunctionDecl(int cl, boolean stack, CStmnt body)
   {
     var res = _fuir.clazzResultClazz(cl);
     var resultType = _types.resultClazz(res);
@@ -1830,7 +2472,7 @@ public class C extends ANY
             argns.add(CIdent.arg(i));
           }
       }
-    return CStmnt.functionDecl(resultType, new CIdent(_names.function(cl)), argts, argns, body);
+    return CStmnt.functionDecl(resultType, new CIdent(stack ? _names.stackFunction(cl) : _names.function(cl)), argts, argns, body);
   }
 
 
@@ -1851,6 +2493,10 @@ public class C extends ANY
           case Routine, Intrinsic, Native ->
             l.add(cFunctionDecl(cl, null));
           }
+        if (hasStackVariant(cl))
+          {
+            l.add(cFunctionDecl(cl, true, null));
+          }
       }
     return CStmnt.seq(l);
   }
@@ -1870,7 +2516,8 @@ public class C extends ANY
       {
         var decl = switch (_fuir.clazzKind(cl))
           {
-          case Routine   -> cFunctionDecl(cl, codeForRoutine(cl));
+          case Routine   -> CStmnt.seq(cFunctionDecl(cl, codeForRoutine(cl)),
+                                       hasStackVariant(cl) ? stackVariant(cl) : CStmnt.EMPTY);
           case Intrinsic -> cFunctionDecl(cl, _intrinsics.code(this, cl));
           case Native    -> CStmnt.seq(functionWrapperForNative(cl),
                                        cFunctionDecl(cl, codeForNative(cl)));
@@ -1887,6 +2534,27 @@ public class C extends ANY
   }
 
 
+  /**
+   * Create the C function for the variant of routine cl that allocates the
+   * instance on the stack.
+   *
+   * @param cl id of clazz to generate code for
+   */
+  private CStmnt stackVariant(int cl)
+  {
+    _curOnStack = true;
+    try
+      {
+        return CStmnt.seq(CStmnt.lineComment("variant with instance on the stack for calls where it does not escape:"),
+                          cFunctionDecl(cl, true, codeForRoutine(cl)));
+      }
+    finally
+      {
+        _curOnStack = false;
+      }
+  }
+
+
   /**
    * Create code for given clazz cl.
    *
@@ -1920,12 +2588,22 @@ public class C extends ANY
   }
 
 
+  /**
+   * The lifetime of the instance of the routine cl we are generating code for,
+   * Call if we are generating its stack variant.
+   */
+  private FUIR.LifeTime lifeTime(int cl)
+  {
+    return _curOnStack ? FUIR.LifeTime.Call : _fuir.lifeTime(cl);
+  }
+
+
   /**
    * declare current, allocate on heap if current may escape
    */
   private CStmnt declareCurrent(int cl)
   {
-    return switch (_fuir.lifeTime(cl))
+    return switch (lifeTime(cl))
       {
       case Call      -> CStmnt.seq(
           CStmnt.lineComment("cur does not escape, alloc on stack"),
@@ -1974,7 +2652,7 @@ public class C extends ANY
                 {
                   sb.append(_types.resultClazz(rc));
                   sb.append(" ");
-                  CIdent.funWrapper(cl).code(sb);
+                  CIdent.funWrapper(_names.clazzNum(cl)).code(sb);
                   sb.append("(");
                   var args = new List<CExpr>(new CIdent("fzW_native_outer"));
                   var argCountWrapper = _fuir.clazzArgCount(call);
@@ -2058,7 +2736,7 @@ public class C extends ANY
           // 1. pass as function pointer
           ? (_fuir.clazzOuterRef(c) != NO_CLAZZ
               // 1.1 needs outer ref
-              ? CIdent.funWrapper(cl).adrOf()
+              ? CIdent.funWrapper(_names.clazzNum(cl)).adrOf()
               // 1.2 does not need outer ref
               : new CIdent(_names.function(c)).adrOf())
           : _fuir.clazzIsRef(at)
@@ -2256,7 +2934,7 @@ public class C extends ANY
     var cl = _fuir.clazzAt(s);
     var res1 = CNames.CURRENT;
     var res2 = _fuir.clazzIsRef(cl) ? res1 : res1.deref();
-    var res3 =  _fuir.lifeTime(cl).maySurviveCall() ? res2 : res2.adrOf();
+    var res3 =  lifeTime(cl).maySurviveCall() ? res2 : res2.adrOf();
     return !_fuir.hasData(cl) ? CExpr.UNIT : res3;
   }
 
@@ -74,6 +74,12 @@ public class CFile extends ANY
   private Path _path;
 
 
+  /**
+   * If not null, all code printed is also appended to this, see record().
+   */
+  private StringBuilder _record;
+
+
   /*---------------------------  constructors  ---------------------------*/
 
 
@@ -126,6 +132,18 @@ public class CFile extends ANY
   }
 
 
+  /**
+   * Start recording the code printed to this file.
+   *
+   * @param sb the StringBuilder to append all code printed next to, null to
+   * stop recording.
+   */
+  public void record(StringBuilder sb)
+  {
+    _record = sb;
+  }
+
+
   /**
    * helper for c_print: Print a string that does not contain any LF.  If at
    * beginning of line, indent _c_indentation times.
@@ -160,6 +178,10 @@ public class CFile extends ANY
    */
   public void print(String s)
   {
+    if (_record != null)
+      {
+        _record.append(s);
+      }
     int start = 0;
     do
       {
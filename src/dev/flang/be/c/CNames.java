@@ -29,11 +29,15 @@ package dev.flang.be.c;
 import static dev.flang.ir.IR.NO_CLAZZ;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.TreeSet;
+import java.util.stream.IntStream;
 
 import dev.flang.fuir.FUIR;
 
 import dev.flang.util.ANY;
+import dev.flang.util.IntMap;
 
 
 /**
@@ -54,6 +58,13 @@ public class CNames extends ANY
   private static final String C_FUNCTION_PREFIX = "fzC_";
 
 
+  /**
+   * Prefix for C functions created for Fuzion routines whose instance is
+   * allocated on the stack, for calls from sites where it does not escape.
+   */
+  private static final String C_STACK_FUNCTION_PREFIX = "fzS_";
+
+
   /**
    * Prefix for types declared for clazz instances
    */
@@ -231,12 +242,40 @@ public class CNames extends ANY
   int _tempVarId = 0;
 
 
+  /**
+   * Mapping from clazzId2num(cl) to the number used for cl in the generated
+   * code, see clazzNum().
+   */
+  private final IntMap<Integer> _clazzNums = new IntMap<>();
+
+
+  /**
+   * Mapping from numbers used in the generated code to clazzId2num(cl) of the
+   * clazz cl they were assigned to.
+   */
+  private final IntMap<Integer> _clazzNumsUsed = new IntMap<>();
+
+
+  /**
+   * Clazzes whose C identifiers were requested while recording, indexed by
+   * clazzId2num, see recordUses().  null if not recording.
+   */
+  private BitSet _uses;
+
+
   /**
    * Mapping from clazz ids to C function names
    */
   private final CClazzNames _functionNames = new CClazzNames(C_FUNCTION_PREFIX);
 
 
+  /**
+   * Mapping from clazz ids to C function names of variants with instance on
+   * the stack
+   */
+  private final CClazzNames _stackFunctionNames = new CClazzNames(C_STACK_FUNCTION_PREFIX);
+
+
   /**
    * Mapping from clazz ids to C struct names
    */
@@ -335,13 +374,13 @@ public class CNames extends ANY
           // name clashes due to equal named features that are not visible but inherited
           if (_usedNames.contains(res))
           {
-            res = res + "_" + clazzId2num(cl);
+            res = res + "_" + clazzNum(cl);
           }
           _usedNames.add(res);
 
           if (res.length() > MAX_C99_INTERNAL_IDENTIFIER_LENGTH)
             {
-              var s = p + "_L" + num;
+              var s = p + "_L" + clazzNum(cl);
               res = s +
                 res.substring(p.length(), p.length() + 10) + "__" +
                 res.substring(res.length() - MAX_C99_INTERNAL_IDENTIFIER_LENGTH + s.length() + 12);
@@ -457,6 +496,95 @@ public class CNames extends ANY
   }
 
 
+  /**
+   * Get the number used for clazz cl in the generated code, i.e., as its
+   * clazzId or in names of C identifiers.
+   *
+   * Unlike clazzId2num(cl), this is derived from the clazz's name, so it does
+   * not change when clazzes are added or removed by an unrelated change of the
+   * source code.  This permits the object file cache to reuse object files
+   * compiled from C files whose code did not change.
+   *
+   * @param cl id of a clazz
+   *
+   * @return a number in the range 1..Integer.MAX_VALUE that is unique for cl.
+   */
+  int clazzNum(int cl)
+  {
+    if (_clazzNums.size() == 0)
+      {
+        // assign the numbers of all clazzes ordered by hash code and name, such
+        // that collisions are resolved independently of the order of requests:
+        IntStream.rangeClosed(_fuir.firstClazz(), _fuir.lastClazz())
+          .boxed()
+          .sorted(Comparator.comparingInt((Integer c) -> clazzNumHash(c))
+                  .thenComparing(c -> _fuir.clazzAsString(c)))
+          .forEachOrdered(c -> assignClazzNum(c));
+      }
+    var res = _clazzNums.get(clazzId2num(cl));
+    return res != null ? res : assignClazzNum(cl);  // cl was created after the numbers were assigned
+  }
+
+
+  /**
+   * The number clazzNum() would use for cl if there was no collision.
+   *
+   * @param cl id of a clazz
+   */
+  private int clazzNumHash(int cl)
+  {
+    return _fuir.clazzAsString(cl).hashCode() & Integer.MAX_VALUE;
+  }
+
+
+  /**
+   * Helper for clazzNum() to assign the number for cl.
+   *
+   * @param cl id of a clazz
+   *
+   * @return the number assigned to cl.
+   */
+  private int assignClazzNum(int cl)
+  {
+    var n = clazzNumHash(cl);
+    // in case of a collision, probe the following numbers:
+    while (n == 0 || _clazzNumsUsed.get(n) != null)
+      {
+        n = (n + 1) & Integer.MAX_VALUE;
+      }
+    _clazzNums.put(clazzId2num(cl), n);
+    _clazzNumsUsed.put(n, clazzId2num(cl));
+    return n;
+  }
+
+
+  /**
+   * Start recording the clazzes whose C identifiers for structs, functions or
+   * fields are used by the code created next.
+   *
+   * @param uses the set to add the clazzId2num of these clazzes to, null to
+   * stop recording.
+   */
+  void recordUses(BitSet uses)
+  {
+    _uses = uses;
+  }
+
+
+  /**
+   * Record that a C identifier declared for clazz cl is used.
+   *
+   * @param cl id of a clazz
+   */
+  private void use(int cl)
+  {
+    if (_uses != null)
+      {
+        _uses.set(clazzId2num(cl));
+      }
+  }
+
+
   /**
    * Name of the C struct of the given clazz.
    *
@@ -464,6 +592,7 @@ public class CNames extends ANY
    */
   String struct(int cl)
   {
+    use(cl);
     return _structNames.get(cl);
   }
 
@@ -475,16 +604,30 @@ public class CNames extends ANY
    */
   String function(int cl)
   {
+    use(cl);
     return _functionNames.get(cl);
   }
 
 
+  /**
+   * Get the name of the C function variant for clazz cl that allocates its
+   * instance on the stack.
+   *
+   * @param cl clazz id
+   */
+  String stackFunction(int cl)
+  {
+    use(cl);
+    return _stackFunctionNames.get(cl);
+  }
+
+
   /**
    * Create C expression for clazz id converted to a number
    */
   CExpr clazzId(int cl)
   {
-    return CExpr.int32const(clazzId2num(cl));
+    return CExpr.int32const(clazzNum(cl));
   }
 
 
@@ -504,8 +647,9 @@ public class CNames extends ANY
    */
   CIdent fieldName(int field)
   {
+    use(_fuir.clazzOuterClazz(field));
     var m = mangle(_fuir.clazzBaseName(field));
-    var n = FIELD_PREFIX + _fuir.clazzId2num(field) + "_" + m;
+    var n = FIELD_PREFIX + clazzNum(field) + "_" + m;
     return new CIdent(n);
   }
 
@@ -517,7 +661,7 @@ public class CNames extends ANY
    */
   CIdent env(int cl)
   {
-    return new CIdent(ENV_PREFIX + clazzId2num(cl));
+    return new CIdent(ENV_PREFIX + clazzNum(cl));
   }
 
 
@@ -529,7 +673,7 @@ public class CNames extends ANY
    */
   CIdent envInstalled(int cl)
   {
-    return new CIdent(ENV_INSTALLED_PREFIX + clazzId2num(cl));
+    return new CIdent(ENV_INSTALLED_PREFIX + clazzNum(cl));
   }
 
 
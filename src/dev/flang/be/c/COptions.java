@@ -99,6 +99,21 @@ public class COptions extends FuzionOptions
   final String _cLink;
 
 
+  /**
+   * Number of C files the generated functions are distributed over.  These
+   * files are compiled concurrently and then linked.  1 to create one single
+   * C file.
+   */
+  final int _cShards;
+
+
+  /**
+   * Directory of the cache of object files compiled from the generated C
+   * files, null if no cache is used.
+   */
+  final String _cCache;
+
+
   /*--------------------------  constructors  ---------------------------*/
 
 
@@ -106,10 +121,13 @@ public class COptions extends FuzionOptions
    * Constructor initializing fields as given.
    * @param keepGeneratedCode
    */
-  public COptions(FuzionOptions fo, String binaryName, boolean useBoehmGC, String cCompiler, String cFlags, String cTarget, String cInclude, String cLink, boolean keepGeneratedCode, boolean debugBuild)
+  public COptions(FuzionOptions fo, String binaryName, boolean useBoehmGC, String cCompiler, String cFlags, String cTarget, String cInclude, String cLink, boolean keepGeneratedCode, boolean debugBuild, int cShards, String cCache)
   {
     super(fo);
 
+    if (PRECONDITIONS) require
+      (cShards >= 1);
+
     _binaryName = binaryName;
     _useBoehmGC = useBoehmGC;
     _cCompiler = cCompiler;
@@ -119,6 +137,8 @@ public class COptions extends FuzionOptions
     _cLink = cLink;
     _keepGeneratedCode = keepGeneratedCode;
     _debugBuild = debugBuild;
+    _cShards = cShards;
+    _cCache = cCache;
   }
 
 
@@ -73,22 +73,48 @@ public class CTypes extends ANY
   private final CNames _names;
 
 
+  /**
+   * Is the universe instance declared extern since it is defined in another
+   * C file?  Otherwise, it is declared static.
+   */
+  private final boolean _externUniverse;
+
+
+  /**
+   * Was the universe instance declared by structs()?
+   */
+  private boolean _declaresUniverse = false;
+
+
   /*---------------------------  constructors  ---------------------------*/
 
 
   /**
    * Create instance of CTypes
+   *
+   * @param externUniverse true to declare the universe instance extern.
    */
-  public CTypes(FUIR fuir, CNames names)
+  public CTypes(FUIR fuir, CNames names, boolean externUniverse)
   {
     this._fuir = fuir;
     this._names = names;
+    this._externUniverse = externUniverse;
   }
 
 
   /*-----------------------------  methods  -----------------------------*/
 
 
+  /**
+   * Was the universe instance declared by structs()?  If it was declared
+   * extern, it needs to be defined separately.
+   */
+  boolean declaresUniverse()
+  {
+    return _declaresUniverse;
+  }
+
+
 
   /**
    * The type of a value of the given clazz.
@@ -293,7 +319,7 @@ public class CTypes extends ANY
     CStmnt result = CStmnt.EMPTY;
     if (needsTypeDeclaration(cl))
       {
-        var l = new List<CStmnt>(CStmnt.lineComment("for clazz#" + _fuir.clazzId2num(cl) + ": " + _fuir.clazzAsString(cl)));
+        var l = new List<CStmnt>(CStmnt.lineComment("for clazz#" + _names.clazzNum(cl) + ": " + _fuir.clazzAsString(cl)));
         var els = new List<CStmnt>();
         if (_fuir.clazzIsRef(cl))
           {
@@ -339,7 +365,8 @@ public class CTypes extends ANY
         l.add(CStmnt.struct(_names.struct(cl), els));
         if (cl == _fuir.clazzUniverse())
           {
-            l.add(CStmnt.decl("static", _names.struct(cl), CNames.UNIVERSE));
+            l.add(CStmnt.decl(_externUniverse ? "extern" : "static", _names.struct(cl), CNames.UNIVERSE));
+            _declaresUniverse = true;
           }
         result = CStmnt.seq(l);
       }
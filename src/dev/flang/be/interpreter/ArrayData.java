@@ -173,17 +173,17 @@ public class ArrayData extends Value
     checkIndex(x);
     return switch (fuir.getSpecialClazz(elementType))
     {
-      case c_i8 ->          new i8Value  (((byte   [])_data)[x]       );
-      case c_i16 ->         new i16Value (((short  [])_data)[x]       );
-      case c_i32 ->         new i32Value (((int    [])_data)[x]       );
-      case c_i64 ->         new i64Value (((long   [])_data)[x]       );
-      case c_u8 ->          new u8Value  (((byte   [])_data)[x] & 0xff);
-      case c_u16 ->         new u16Value (((char   [])_data)[x]       );
-      case c_u32 ->         new u32Value (((int    [])_data)[x]       );
-      case c_u64 ->         new u64Value (((long   [])_data)[x]       );
+      case c_i8 ->          i8Value.of   (((byte   [])_data)[x]       );
+      case c_i16 ->         i16Value.of  (((short  [])_data)[x]       );
+      case c_i32 ->         i32Value.of  (((int    [])_data)[x]       );
+      case c_i64 ->         i64Value.of  (((long   [])_data)[x]       );
+      case c_u8 ->          u8Value.of   (((byte   [])_data)[x] & 0xff);
+      case c_u16 ->         u16Value.of  (((char   [])_data)[x]       );
+      case c_u32 ->         u32Value.of  (((int    [])_data)[x]       );
+      case c_u64 ->         u64Value.of  (((long   [])_data)[x]       );
       case c_f32 ->         new f32Value (((float  [])_data)[x]       );
       case c_f64 ->         new f64Value (((double [])_data)[x]       );
-      case c_bool ->        new boolValue(((boolean[])_data)[x]       );
+      case c_bool ->        boolValue.of (((boolean[])_data)[x]       );
       default ->            (((Value[])_data)[x])        ;
     };
   }
@@ -28,6 +28,8 @@ package dev.flang.be.interpreter;
 
 import java.util.ArrayList;
 
+import dev.flang.util.List;
+
 
 /**
  * Callable represents a call to a feature.
@@ -46,6 +48,54 @@ public interface Callable extends BackendCallable
    */
   Value call(ArrayList<Value> args);
 
+
+  /**
+   * Call this with only a target.  Implementations may redefine this to
+   * avoid the allocation of the argument list.
+   *
+   * @param a0 the target of the call
+   *
+   * @return the result returned by the call.
+   */
+  default Value call(Value a0)
+  {
+    return call(new List<>(a0));
+  }
+
+
+  /**
+   * Call this with a target and one argument.  Implementations may redefine
+   * this to avoid the allocation of the argument list.
+   *
+   * @param a0 the target of the call
+   *
+   * @param a1 the argument
+   *
+   * @return the result returned by the call.
+   */
+  default Value call(Value a0, Value a1)
+  {
+    return call(new List<>(a0, a1));
+  }
+
+
+  /**
+   * Call this with a target and two arguments.  Implementations may redefine
+   * this to avoid the allocation of the argument list.
+   *
+   * @param a0 the target of the call
+   *
+   * @param a1 the first argument
+   *
+   * @param a2 the second argument
+   *
+   * @return the result returned by the call.
+   */
+  default Value call(Value a0, Value a1, Value a2)
+  {
+    return call(new List<>(a0, a1, a2));
+  }
+
 }
 
 /* end of file */
@@ -0,0 +1,1501 @@
+/*
+
+This file is part of the Fuzion language implementation.
+
+The Fuzion language implementation is free software: you can redistribute it
+and/or modify it under the terms of the GNU General Public License as published
+by the Free Software Foundation, version 3 of the License.
+
+The Fuzion language implementation is distributed in the hope that it will be
+useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public
+License for more details.
+
+You should have received a copy of the GNU General Public License along with The
+Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+/*-----------------------------------------------------------------------
+ *
+ * Tokiwa Software GmbH, Germany
+ *
+ * Source of class Closures
+ *
+ *---------------------------------------------------------------------*/
+
+package dev.flang.be.interpreter;
+
+import static dev.flang.ir.IR.NO_CLAZZ;
+import static dev.flang.ir.IR.NO_SITE;
+
+import java.util.Arrays;
+
+import dev.flang.fuir.FUIR;
+import dev.flang.fuir.SpecialClazzes;
+import dev.flang.fuir.analysis.AbstractInterpreter;
+
+import dev.flang.util.ANY;
+import dev.flang.util.FuzionOptions;
+import dev.flang.util.List;
+
+
+/**
+ * Closures translates the code of a clazz once into a tree of nodes that are
+ * specialized for the expression they execute.  All the information that
+ * AbstractInterpreter would otherwise query from FUIR for every execution of
+ * an expression, like the called clazz, the number of arguments, which values
+ * are of unit type and hence not on the stack, the case code blocks of a
+ * match, etc., is determined during this translation.
+ *
+ * The nodes perform the actual work by calling the same methods of Executor
+ * that are used when executing code via AbstractInterpreter, so the semantics
+ * are the same in both cases.  The exceptions are calls to routines and
+ * accesses to fields: A call to a routine creates the new instance and
+ * stores the outer ref and the arguments taken from the stack directly into
+ * its fields, so no argument list and no new Executor are needed per call.
+ * Fields whose offset does not depend on the dynamic type of the target are
+ * accessed at an offset taken from the Layout when the node is first
+ * executed.
+ *
+ * If UNBOXED is set, values of the primitive types i8 through f64 and bool
+ * are not kept as Value instances on the stack of a block: Instead, their
+ * raw bits as stored in Instance.nonrefs are kept in a parallel long[] array
+ * and the stack holds the marker PRIM.  Such values are read from and
+ * written to fields directly and intrinsics for which Intrinsics provides a
+ * PrimIntrinsic are applied to them directly, so arithmetic does not
+ * allocate Value instances even for values that are not cached by, e.g.,
+ * i32Value.of().  Values are boxed only when they are passed to code that
+ * requires a Value.
+ *
+ * Translated code is cached per clazz.  Nodes are immutable after
+ * construction except for fields that are set on first execution to objects
+ * whose fields are final, so the cache and these fields are accessed without
+ * locking: If two threads translate the same clazz or set the same field
+ * concurrently, one of the two equivalent results is kept.
+ *
+ * @author Fridtjof Siebert (siebert@tokiwa.software)
+ */
+class Closures extends FUIRContext
+{
+
+
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Should code be executed using Closures instead of AbstractInterpreter?
+   *
+   * To disable, use fz with
+   *
+   *   dev_flang_be_interpreter_Closures_ENABLED=false
+   */
+  static final boolean ENABLED = FuzionOptions.boolPropertyOrEnv("dev.flang.be.interpreter.Closures.ENABLED", true);
+
+
+  /**
+   * Should values of primitive types be kept unboxed on the stack?
+   *
+   * To disable, use fz with
+   *
+   *   dev_flang_be_interpreter_Closures_UNBOXED=false
+   */
+  static final boolean UNBOXED = FuzionOptions.boolPropertyOrEnv("dev.flang.be.interpreter.Closures.UNBOXED", true);
+
+
+  /**
+   * Marker on the stack for a value whose raw bits are in the prims array.
+   */
+  static final Value PRIM = new Value()
+    {
+      @Override
+      public String toString()
+      {
+        return "unboxed";
+      }
+    };
+
+
+  /**
+   * Empty stack used by blocks that do not push any values.
+   */
+  private static final Value[] NO_STACK = new Value[0];
+
+
+  /*-----------------------------  statics  -----------------------------*/
+
+
+  /**
+   * Translated routines, indexed by fuir().clazzId2num(cl).
+   */
+  private static Routine[] _forClazz_ = new Routine[0];
+
+
+  /**
+   * Get the translated routine cl, translate it if this was not done before.
+   *
+   * @param cl a clazz id of a routine.
+   *
+   * @return the translated code of cl together with the fields of the outer
+   * ref, the arguments and the result.
+   */
+  static Routine forClazz(int cl)
+  {
+    var n = fuir().clazzId2num(cl);
+    var a = _forClazz_;
+    var result = n < a.length ? a[n] : null;
+    if (result == null)
+      {
+        result = new Routine(cl);
+        if (n >= a.length)
+          {
+            a = Arrays.copyOf(a, Math.max(n + 1, fuir().clazzId2num(fuir().lastClazz()) + 1));
+            _forClazz_ = a;
+          }
+        a[n] = result;
+      }
+    return result;
+  }
+
+
+  /**
+   * Check if values of clazz cl are not stored on the stack.
+   */
+  private static boolean unit(int cl)
+  {
+    return AbstractInterpreter.clazzHasUnitValue(fuir(), cl);
+  }
+
+
+  /**
+   * The special clazz of cl if cl is a primitive value type, null otherwise.
+   */
+  private static SpecialClazzes special(int cl)
+  {
+    var fuir = fuir();
+    var result = cl == NO_CLAZZ || fuir.clazzIsRef(cl) ? SpecialClazzes.c_NOT_FOUND : fuir.getSpecialClazz(cl);
+    return switch (result)
+      {
+      case c_i8, c_i16, c_i32, c_i64, c_u8, c_u16, c_u32, c_u64, c_f32, c_f64, c_bool -> result;
+      default                                                                         -> null;
+      };
+  }
+
+
+  /**
+   * The special clazz of cl if values of clazz cl are kept unboxed on the
+   * stack, null otherwise.
+   */
+  private static SpecialClazzes prim(int cl)
+  {
+    return UNBOXED ? special(cl) : null;
+  }
+
+
+  /**
+   * Create a Value from the raw bits of a value of primitive type k.
+   */
+  static Value box(SpecialClazzes k, long l)
+  {
+    return switch (k)
+      {
+      case c_i8   -> i8Value.of  ((int) l);
+      case c_i16  -> i16Value.of ((int) l);
+      case c_i32  -> i32Value.of ((int) l);
+      case c_i64  -> i64Value.of (      l);
+      case c_u8   -> u8Value.of  ((int) l);
+      case c_u16  -> u16Value.of ((int) l);
+      case c_u32  -> u32Value.of ((int) l);
+      case c_u64  -> u64Value.of (      l);
+      case c_f32  -> new f32Value(Float.intBitsToFloat((int) l));
+      case c_f64  -> new f64Value(Double.longBitsToDouble(l));
+      case c_bool -> boolValue.of(l != 0);
+      default     -> throw new Error("unexpected primitive type " + k);
+      };
+  }
+
+
+  /**
+   * Get the raw bits of v, a value of primitive type k.
+   */
+  static long unbox(SpecialClazzes k, Value v)
+  {
+    return switch (k)
+      {
+      case c_i8   -> v.i8Value();
+      case c_i16  -> v.i16Value();
+      case c_i32  -> v.i32Value();
+      case c_i64  -> v.i64Value();
+      case c_u8   -> v.u8Value();
+      case c_u16  -> v.u16Value();
+      case c_u32  -> v.u32Value();
+      case c_u64  -> v.u64Value();
+      case c_f32  -> Float.floatToRawIntBits(v.f32Value());
+      case c_f64  -> Double.doubleToRawLongBits(v.f64Value());
+      case c_bool -> v.boolValue() ? 1 : 0;
+      default     -> throw new Error("unexpected primitive type " + k);
+      };
+  }
+
+
+  /**
+   * Get the value at stack position i as a Value, box it if it is unboxed.
+   *
+   * @param k the special clazz of the value if it may be unboxed.
+   */
+  private static Value value(Value[] stack, long[] prims, int i, SpecialClazzes k)
+  {
+    var v = stack[i];
+    return v == PRIM ? box(k, prims[i]) : v;
+  }
+
+
+  /**
+   * Get the raw bits of the value of primitive type k at stack position i.
+   */
+  private static long prim(Value[] stack, long[] prims, int i, SpecialClazzes k)
+  {
+    var v = stack[i];
+    return v == PRIM ? prims[i] : unbox(k, v);
+  }
+
+
+  /*-----------------------------  classes  -----------------------------*/
+
+
+  /**
+   * A translated routine: its code and the fields that receive the outer ref,
+   * the arguments and the result of a call.
+   */
+  static class Routine extends ANY
+  {
+
+    /**
+     * The clazz of the routine.
+     */
+    private final int _cc;
+
+
+    /**
+     * The outer ref field, null if the outer ref is not stored.
+     */
+    private final FieldAccess _outerRef;
+
+
+    /**
+     * The argument fields, null for arguments that are not stored.
+     */
+    private final FieldAccess[] _args;
+
+
+    /**
+     * The result field, null for constructors and for unit type results.
+     */
+    private final FieldAccess _result;
+
+
+    /**
+     * The code of the routine.
+     */
+    private final Block _code;
+
+
+    /**
+     * Translate routine cc.
+     */
+    Routine(int cc)
+    {
+      var fuir = fuir();
+      _cc = cc;
+      var s0 = fuir.clazzCode(cc);
+      var or = fuir.clazzOuterRef(cc);
+      _outerRef = s0 != NO_SITE && or != NO_CLAZZ && fuir.hasData(fuir.clazzResultClazz(or)) ? new FieldAccess(or, cc, true) : null;
+      _args = new FieldAccess[fuir.clazzArgCount(cc)];
+      for (var i = 0; s0 != NO_SITE && i < _args.length; i++)
+        {
+          if (fuir.hasData(fuir.clazzArgClazz(cc, i)))
+            {
+              _args[i] = new FieldAccess(fuir.clazzArg(cc, i), cc, true);
+            }
+        }
+      var rf = fuir.isConstructor(cc) ? NO_CLAZZ : fuir.clazzResultField(cc);
+      _result = rf != NO_CLAZZ && !unit(fuir.clazzResultClazz(rf)) ? new FieldAccess(rf, cc, true) : null;
+      _code = new Block(s0);
+    }
+
+
+    /**
+     * Call this routine with arguments taken from a stack.
+     *
+     * @param ex the executor
+     *
+     * @param c the call node
+     *
+     * @param outer the target of the call, PRIM if it is unboxed
+     *
+     * @param outerPrim the raw bits of an unboxed target
+     *
+     * @param stack the stack holding the non-unit arguments
+     *
+     * @param prims the raw bits of unboxed values on the stack
+     *
+     * @param j the position of the first argument in stack
+     *
+     * @return the (new) instance (might have been replaced due to tail call
+     * optimization).
+     */
+    Instance call(Executor ex, Call c, Value outer, long outerPrim, Value[] stack, long[] prims, int j)
+    {
+      var cur = new Instance(_cc);
+      if (_outerRef != null)
+        {
+          if (outer == PRIM)
+            {
+              _outerRef.setPrim(cur, c._tPrim, outerPrim);
+            }
+          else
+            {
+              _outerRef.set(cur, outer);
+            }
+        }
+      var argUnit = c._argUnit;
+      for (var i = 0; i < argUnit.length; i++)
+        {
+          var v = argUnit[i] ? Value.UNIT : stack[j++];
+          if (_args[i] != null)
+            {
+              if (v == PRIM)
+                {
+                  _args[i].setPrim(cur, c._argPrim[i], prims[j-1]);
+                }
+              else
+                {
+                  _args[i].set(cur, v);
+                }
+            }
+        }
+      return callOn(ex, c._site, cur);
+    }
+
+
+    /**
+     * Call this routine with the given arguments.
+     *
+     * @param ex the executor
+     *
+     * @param s the site of the call or NO_SITE if unknown (e.g., from an
+     * intrinsic)
+     *
+     * @param outer the target of the call
+     *
+     * @param args the arguments to be passed to this call.
+     *
+     * @return the (new) instance (might have been replaced due to tail call
+     * optimization).
+     */
+    Instance call(Executor ex, int s, Value outer, List<Value> args)
+    {
+      var cur = new Instance(_cc);
+      setOuterAndArgs(cur, outer, args);
+      return callOn(ex, s, cur);
+    }
+
+
+    /**
+     * Store outer and the arguments in the fields of cur.
+     */
+    private void setOuterAndArgs(Instance cur, Value outer, List<Value> args)
+    {
+      if (_outerRef != null)
+        {
+          _outerRef.set(cur, outer);
+        }
+      for (var i = 0; i < _args.length; i++)
+        {
+          if (_args[i] != null)
+            {
+              _args[i].set(cur, args.get(i));
+            }
+        }
+    }
+
+
+    /**
+     * Run the code on the given new instance, repeat on a new instance for
+     * every tail call.
+     */
+    private Instance callOn(Executor ex, int s, Instance cur)
+    {
+      var t = FuzionThread.current();
+      t._callStackFrames.push(_cc);
+      t._callSiteStack.push(s);
+      var done = false;
+      while (!done)
+        {
+          try
+            {
+              _code.run(ex, cur);
+              done = true;
+            }
+          catch (TailCallException tce)
+            {
+              cur = new Instance(_cc);
+              setOuterAndArgs(cur, tce.tvalue, tce.args);
+            }
+        }
+      t._callSiteStack.pop();
+      t._callStackFrames.pop();
+      return cur;
+    }
+
+
+    /**
+     * Run the code of this routine on the given instance without creating a
+     * new instance.  This is used for the main clazz.
+     *
+     * @param ex the executor
+     *
+     * @param cur the current instance, must be of this routine's clazz.
+     *
+     * @param outer the outer instance
+     *
+     * @param args the arguments
+     */
+    void run(Executor ex, Instance cur, Value outer, List<Value> args)
+    {
+      setOuterAndArgs(cur, outer, args);
+      _code.run(ex, cur);
+    }
+
+
+    /**
+     * Get the result of a call to this routine.
+     *
+     * @param cur the instance returned by call().
+     */
+    Value result(Instance cur)
+    {
+      return _result == null ? cur : _result.get(cur);
+    }
+
+
+    /**
+     * Get the raw bits of the result of a call to this routine.
+     *
+     * @param cur the instance returned by call().
+     *
+     * @param k the special clazz of the result type.
+     */
+    long resultPrim(Instance cur, SpecialClazzes k)
+    {
+      return _result == null ? unbox(k, cur) : _result.getPrim(cur, k);
+    }
+
+  }
+
+
+  /**
+   * Access to a field f within a target of static clazz tt.  If the offset of f
+   * is the same for all targets, it is taken from the Layout of tt once.
+   * Otherwise, e.g., for targets of ref type whose dynamic clazz may differ,
+   * the access is done via Interpreter.getField and Interpreter.setField.
+   */
+  static class FieldAccess extends ANY
+  {
+
+    /**
+     * Offset used if the field is not stored.
+     */
+    private static final int NOT_STORED = -2;
+
+
+    /**
+     * Offset used if the access must be done via Interpreter.
+     */
+    private static final int INDIRECT = -1;
+
+
+    final int _f, _tt, _fclazz;
+    final int _offset;
+    final boolean _ref;
+    final int _size;
+
+    /**
+     * The special clazz of the field's type if it is a primitive type.
+     */
+    final SpecialClazzes _special;
+
+
+    /**
+     * Create access to field f in target of static clazz tt.
+     *
+     * @param exact true iff the target is known to be an Instance whose clazz
+     * is tt, e.g., the current instance.
+     */
+    FieldAccess(int f, int tt, boolean exact)
+    {
+      var fuir = fuir();
+      _f = f;
+      _tt = tt;
+      _fclazz = Interpreter.clazzForField(f);
+      var ttSize = Layout.get(tt).size();
+      _offset =
+        _fclazz == NO_CLAZZ || ttSize == 0     ? NOT_STORED :
+        ttSize < 0                            ||
+        fuir.getSpecialClazz(tt) != SpecialClazzes.c_NOT_FOUND ||
+        fuir.clazzIsBoxed(tt)                 ||
+        fuir.clazzIsRef(tt) && !exact          ? INDIRECT
+                                               : Layout.get(tt).offset(f);
+      _ref = _fclazz != NO_CLAZZ && fuir.clazzIsRef(_fclazz);
+      _size = _fclazz == NO_CLAZZ || _ref ? 1 : Layout.get(_fclazz).size();
+      _special = special(_fclazz);
+    }
+
+
+    /**
+     * Load the value of the field from target.
+     *
+     * @return the value, an LValue for non-ref fields.
+     */
+    Value get(Value target)
+    {
+      Value result;
+      if (_offset < 0)
+        {
+          result = Interpreter.getField(_f, _tt, target, false);
+        }
+      else if (_ref && target instanceof Instance i)
+        {
+          result = i.refs[_offset];
+        }
+      else
+        {
+          var slot = target.at(_fclazz, _offset);
+          result = _ref ? slot.container.refs[slot.offset] : slot;
+        }
+      return result;
+    }
+
+
+    /**
+     * Store v in the field of target.
+     */
+    void set(Value target, Value v)
+    {
+      if (_offset == INDIRECT)
+        {
+          Interpreter.setField(_f, _tt, target, v);
+        }
+      else if (_offset >= 0)
+        {
+          if (_ref && target instanceof Instance i)
+            {
+              i.refs[_offset] = v;
+            }
+          else
+            {
+              var slot = target.at(_fclazz, _offset);
+              if (_ref)
+                {
+                  slot.container.refs[slot.offset] = v;
+                }
+              else
+                {
+                  v.storeNonRef(slot, _size);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Load the raw bits of the value of the field of primitive type k from
+     * target.
+     */
+    long getPrim(Value target, SpecialClazzes k)
+    {
+      long result;
+      if (_offset < 0 || _special != k)
+        {
+          result = unbox(k, get(target));
+        }
+      else
+        {
+          int[] nonrefs;
+          int o;
+          if (target instanceof Instance i)
+            {
+              nonrefs = i.nonrefs;
+              o = _offset;
+            }
+          else
+            {
+              var slot = target.at(_fclazz, _offset);
+              nonrefs = slot.container.nonrefs;
+              o = slot.offset;
+            }
+          result = _size == 1
+            ? nonrefs[o]
+            : nonrefs[o] & 0xffffffffL | (long) nonrefs[o + 1] << 32;
+        }
+      return result;
+    }
+
+
+    /**
+     * Store the raw bits l of a value of primitive type k in the field of
+     * target.
+     */
+    void setPrim(Value target, SpecialClazzes k, long l)
+    {
+      if (_offset < 0 || _special != k)
+        {
+          set(target, box(k, l));
+        }
+      else
+        {
+          int[] nonrefs;
+          int o;
+          if (target instanceof Instance i)
+            {
+              nonrefs = i.nonrefs;
+              o = _offset;
+            }
+          else
+            {
+              var slot = target.at(_fclazz, _offset);
+              nonrefs = slot.container.nonrefs;
+              o = slot.offset;
+            }
+          nonrefs[o] = (int) l;
+          if (_size == 2)
+            {
+              nonrefs[o + 1] = (int) (l >> 32);
+            }
+        }
+    }
+
+  }
+
+
+  /**
+   * A basic block of code, i.e., a sequence of nodes that is executed with a
+   * stack that is empty at the beginning and at the end.
+   */
+  static class Block extends ANY
+  {
+
+    /**
+     * The nodes of this block.
+     */
+    private final Node[] _nodes;
+
+
+    /**
+     * The maximum number of values on the stack while this block is executed.
+     */
+    private final int _maxStack;
+
+
+    /**
+     * Does any node of this block push an unboxed value?
+     */
+    private final boolean _hasPrims;
+
+
+    /**
+     * Does the last node of this block always result in void?  If this node is
+     * executed and returns, this is a severe compiler bug.
+     */
+    private final boolean _endsInVoid;
+
+
+    /**
+     * The site of the last node for error reporting.
+     */
+    private final int _lastSite;
+
+
+    /**
+     * Translate the code starting at site s0.
+     *
+     * @param s0 the first site of the block, NO_SITE for an empty block.
+     */
+    Block(int s0)
+    {
+      var fuir = fuir();
+      var nodes = new List<Node>();
+      var sp = 0;
+      var max = 0;
+      var last_s = NO_SITE;
+      var endsInVoid = false;
+      var hasPrims = false;
+      for (var s = s0; !endsInVoid && fuir.withinCode(s); s = s + fuir.codeSizeAt(s))
+        {
+          var n = switch (fuir.codeAt(s))
+            {
+            case Assign  -> new Assign(s);
+            case Box     -> fuir.clazzIsRef(fuir.boxValueClazz(s)) || !fuir.clazzIsRef(fuir.boxResultClazz(s))
+                              ? null  // vc's type is a generic argument whose actual type does not need boxing
+                              : new Box(s);
+            case Call    -> new Call(s);
+            case Comment -> null;
+            case Current -> new Current(s);
+            case Const   -> new Const(s);
+            case Match   -> new Match(s);
+            case Tag     -> new Tag(s);
+            case Pop     -> new Pop(s);
+            };
+          if (n != null)
+            {
+              sp = sp - n._pops;
+              if (CHECKS) check
+                (sp >= 0);
+              max = Math.max(max, sp + n._maxPush);
+              sp = sp + n._pushes;
+              hasPrims = hasPrims || n._resultPrim != null;
+              nodes.add(n);
+            }
+          last_s = s;
+          endsInVoid = fuir.alwaysResultsInVoid(s);
+        }
+      _nodes = nodes.toArray(new Node[nodes.size()]);
+      _maxStack = max;
+      _hasPrims = hasPrims;
+      _endsInVoid = endsInVoid;
+      _lastSite = last_s;
+    }
+
+
+    /**
+     * Execute this block.
+     *
+     * @param ex the executor
+     *
+     * @param cur the current instance
+     */
+    void run(Executor ex, Instance cur)
+    {
+      var stack = _maxStack == 0 ? NO_STACK : new Value[_maxStack];
+      var prims = _hasPrims ? new long[_maxStack] : null;
+      var sp = 0;
+      var i = 0;
+      var nodes = _nodes;
+      while (i < nodes.length && (sp == 0 || stack[sp-1] != null))
+        {
+          sp = nodes[i].exec(ex, cur, stack, prims, sp);
+          i++;
+        }
+      if (i == nodes.length && _endsInVoid)
+        {
+          ex.reportErrorInCode("Severe compiler bug! This code should be unreachable:\n" +
+                               fuir().siteAsString(_lastSite));
+        }
+    }
+
+  }
+
+
+  /**
+   * Node of the tree representing one expression.
+   */
+  static abstract class Node extends ANY
+  {
+
+    /**
+     * The site of the expression.
+     */
+    final int _site;
+
+
+    /**
+     * The number of values popped from the stack by this node.
+     */
+    int _pops;
+
+
+    /**
+     * The number of values pushed to the stack by this node.  A void result
+     * is pushed as null.
+     */
+    int _pushes;
+
+
+    /**
+     * The maximum number of values this node pushes to the stack after
+     * popping its inputs.
+     */
+    int _maxPush;
+
+
+    /**
+     * The special clazz of the pushed value if it is pushed unboxed, null
+     * otherwise.
+     */
+    SpecialClazzes _resultPrim;
+
+
+    /**
+     * Create node for site s.
+     */
+    Node(int s)
+    {
+      _site = s;
+    }
+
+
+    /**
+     * Set the number of values popped and pushed by this node.
+     */
+    void stackEffect(int pops, int pushes)
+    {
+      _pops = pops;
+      _pushes = pushes;
+      _maxPush = pushes;
+    }
+
+
+    /**
+     * Execute this node.
+     *
+     * @param ex the executor
+     *
+     * @param cur the current instance
+     *
+     * @param stack the stack of values
+     *
+     * @param prims the raw bits of the values on the stack that are PRIM,
+     * null if the block does not contain unboxed values.
+     *
+     * @param sp the current number of values on the stack
+     *
+     * @return the new number of values on the stack.
+     */
+    abstract int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp);
+
+  }
+
+
+  /**
+   * Node for an assignment to a field.
+   */
+  static class Assign extends Node
+  {
+    final boolean _tUnit, _aUnit, _hasField, _dynamic;
+    final SpecialClazzes _tPrim, _aPrim;
+
+    /**
+     * Access to the assigned field, created on first execution for
+     * non-dynamic assignments to non-unit values with a non-unit target.
+     */
+    FieldAccess _field;
+
+    Assign(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      _tUnit = unit(fuir.accessTargetClazz(s));
+      _aUnit = unit(fuir.assignedType(s));
+      _hasField = fuir.accessedClazz(s) != FUIR.NO_CLAZZ;  // field we are assigning to may be unused, i.e., -1
+      _dynamic = _hasField && fuir.accessIsDynamic(s);
+      _tPrim = prim(fuir.accessTargetClazz(s));
+      _aPrim = prim(fuir.assignedType(s));
+      stackEffect((_tUnit ? 0 : 1) + (_aUnit ? 0 : 1), 0);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var tvalue = _tUnit ? Value.UNIT : value(stack, prims, --sp, _tPrim);
+      var avalue = _aUnit ? Value.UNIT : stack[--sp];
+      if (_hasField && !_aUnit)
+        {
+          if (_tUnit || _dynamic)
+            {
+              ex.assign(_site, tvalue, value(stack, prims, sp, _aPrim));
+            }
+          else
+            {
+              var fa = _field;
+              if (fa == null)
+                {
+                  var f = fuir().accessedClazz(_site);
+                  fa = new FieldAccess(f, fuir().clazzOuterClazz(f), false);
+                  _field = fa;
+                }
+              if (avalue == PRIM)
+                {
+                  fa.setPrim(tvalue, _aPrim, prims[sp]);
+                }
+              else
+                {
+                  fa.set(tvalue, avalue);
+                }
+            }
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node for boxing a value.
+   */
+  static class Box extends Node
+  {
+    final int _vc, _rc;
+    final boolean _vUnit, _rUnit;
+    final SpecialClazzes _vPrim;
+
+    Box(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      _vc = fuir.boxValueClazz(s);
+      _rc = fuir.boxResultClazz(s);
+      _vUnit = unit(_vc);
+      _rUnit = unit(_rc);
+      _vPrim = prim(_vc);
+      stackEffect(_vUnit ? 0 : 1, _rUnit ? 0 : 1);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var val = _vUnit ? Value.UNIT : value(stack, prims, --sp, _vPrim);
+      var r = ex.box(_site, val, _vc, _rc).v0();
+      if (!_rUnit)
+        {
+          stack[sp++] = r;
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node for a call.  For non-dynamic calls, the called clazz and its kind are
+   * determined once when the node is created, dynamic calls use the
+   * InlineCache of the site to find the called clazz.
+   */
+  static class Call extends Node
+  {
+    final boolean[] _argUnit;
+    final int _argsOnStack;
+    final boolean _tUnit, _rUnit, _dynamic;
+
+    /**
+     * The special clazzes of the target and of the arguments if they may be
+     * unboxed, null otherwise.
+     */
+    final SpecialClazzes _tPrim;
+    final SpecialClazzes[] _argPrim;
+
+    /**
+     * The clazz containing this call.
+     */
+    final int _cl;
+
+    /**
+     * The called clazz for non-dynamic calls, NO_CLAZZ for dynamic calls.
+     */
+    final int _cc;
+
+    /**
+     * The kind of _cc, null for dynamic calls.
+     */
+    final FUIR.FeatureKind _kind;
+
+    /**
+     * For a call to an intrinsic whose target, arguments and result may all
+     * be unboxed, the implementation on unboxed values, null otherwise.
+     */
+    final Intrinsics.PrimIntrinsic _primCall;
+
+    /**
+     * Is this a tail call in case the called clazz is _cl?  null if not
+     * determined yet.  This is determined on the first call to _cl only since
+     * the analysis may fail for code that is never executed.
+     */
+    Boolean _tailCall;
+
+    /**
+     * The called routine or the accessed field in case of a non-dynamic call,
+     * set on first execution.
+     */
+    Routine _routine;
+    FieldAccess _field;
+
+    Call(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      var cc0 = fuir.accessedClazz(s);
+      var ac = fuir.clazzArgCount(cc0);
+      _argUnit = new boolean[ac];
+      _argPrim = new SpecialClazzes[ac];
+      var n = 0;
+      var allPrim = true;
+      for (var i = 0; i < ac; i++)
+        {
+          var at = fuir.clazzArgClazz(cc0, i);
+          _argUnit[i] = unit(at);
+          _argPrim[i] = prim(at);
+          n = n + (_argUnit[i] ? 0 : 1);
+          allPrim = allPrim && _argPrim[i] != null;
+        }
+      _argsOnStack = n;
+      _tUnit = unit(fuir.accessTargetClazz(s));
+      _rUnit = unit(fuir.clazzResultClazz(cc0));
+      _tPrim = prim(fuir.accessTargetClazz(s));
+      _resultPrim = prim(fuir.clazzResultClazz(cc0));
+      _dynamic = fuir.accessIsDynamic(s);
+      _cl = fuir.clazzAt(s);
+      _cc = _dynamic ? NO_CLAZZ : cc0;
+      _kind = _dynamic ? null : fuir.clazzKind(cc0);
+      _primCall =
+        _kind == FUIR.FeatureKind.Intrinsic &&
+        _resultPrim != null                 &&
+        (_tUnit || _tPrim != null)          &&
+        allPrim && ac <= 2                     ? Intrinsics.primCall(cc0)
+                                               : null;
+      stackEffect(n + (_tUnit ? 0 : 1), _rUnit ? 0 : 1);
+      _maxPush = 1;  // void result is pushed as null even for unit type
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var j = sp - _argsOnStack;
+      sp = j;
+      var tvalue = _tUnit ? Value.UNIT : stack[--sp];
+      var tprim = tvalue == PRIM ? prims[sp] : 0;
+      if (_primCall != null)
+        {
+          var a0 = _tUnit                ? 0 : prim(stack, prims, sp, _tPrim);
+          var a1 = _argUnit.length < 1   ? 0 : prim(stack, prims, j    , _argPrim[0]);
+          var a2 = _argUnit.length < 2   ? 0 : prim(stack, prims, j + 1, _argPrim[1]);
+          prims[sp] = _primCall.call(a0, a1, a2);
+          stack[sp++] = PRIM;
+        }
+      else if (_dynamic)
+        {
+          sp = callDynamic(ex, tvalue, stack, prims, j, sp);
+        }
+      else if (_kind == FUIR.FeatureKind.Routine)
+        {
+          sp = callRoutine(ex, routine(), _cc, tvalue, tprim, stack, prims, j, sp);
+        }
+      else if (_kind == FUIR.FeatureKind.Field && !_tUnit && tvalue != PRIM && _resultPrim != null)
+        {
+          prims[sp] = field().getPrim(tvalue, _resultPrim);
+          stack[sp++] = PRIM;
+        }
+      else
+        {
+          if (tvalue == PRIM)
+            {
+              tvalue = box(_tPrim, tprim);
+            }
+          var r = switch (_kind)
+            {
+            case Field         -> _rUnit ? Value.UNIT :
+                                  _tUnit ? ex.call(_site, tvalue, args(stack, prims, j)).v0()
+                                         : field().get(tvalue);
+            case Intrinsic     -> callIntrinsic(ex, tvalue, stack, prims, j);
+            case TypeParameter -> Value.UNIT;
+            default            -> ex.call(_site, tvalue, args(stack, prims, j)).v0();
+            };
+          sp = push(r, stack, prims, sp);
+        }
+      return sp;
+    }
+
+
+    /**
+     * Push the result r of this call.
+     */
+    private int push(Value r, Value[] stack, long[] prims, int sp)
+    {
+      if (r == null)  // this may happen even if rt is not void (e.g., in case of tail recursion or error)
+        {
+          stack[sp++] = null;
+        }
+      else if (_resultPrim != null)
+        {
+          prims[sp] = unbox(_resultPrim, r);
+          stack[sp++] = PRIM;
+        }
+      else if (!_rUnit)
+        {
+          stack[sp++] = r;
+        }
+      return sp;
+    }
+
+
+    /**
+     * The called routine of a non-dynamic call.
+     */
+    private Routine routine()
+    {
+      var r = _routine;
+      if (r == null)
+        {
+          r = forClazz(_cc);
+          _routine = r;
+        }
+      return r;
+    }
+
+
+    /**
+     * The accessed field of a non-dynamic call.
+     */
+    private FieldAccess field()
+    {
+      var f = _field;
+      if (f == null)
+        {
+          f = new FieldAccess(_cc, fuir().clazzOuterClazz(_cc), false);
+          _field = f;
+        }
+      return f;
+    }
+
+
+    /**
+     * Is this a tail call in case the called clazz is _cl?
+     */
+    private boolean isTailCall()
+    {
+      var t = _tailCall;
+      if (t == null)
+        {
+          t = Executor.callIsTailCall(_cl, _site);
+          _tailCall = t;
+        }
+      return t;
+    }
+
+
+    /**
+     * Perform a dynamic call: Routines are called directly, all other kinds
+     * are handled by Executor.call.
+     */
+    private int callDynamic(Executor ex, Value tvalue, Value[] stack, long[] prims, int j, int sp)
+    {
+      var fuir = fuir();
+      var tt = ((ValueWithClazz) tvalue)._clazz;
+      var cc = InlineCache.calledClazz(fuir, _site, tt);
+      if (fuir.clazzKind(cc) == FUIR.FeatureKind.Routine)
+        {
+          if (fuir.clazzIsBoxed(tt) && !fuir.clazzIsRef(fuir.clazzOuterClazz(cc)))
+            {
+              tvalue = ((Boxed) tvalue)._contents;
+            }
+          sp = callRoutine(ex, forClazz(cc), cc, tvalue, 0, stack, prims, j, sp);
+        }
+      else
+        {
+          sp = push(ex.call(_site, tvalue, args(stack, prims, j)).v0(), stack, prims, sp);
+        }
+      return sp;
+    }
+
+
+    /**
+     * Call routine cc with target tvalue and arguments taken from the stack
+     * starting at position j and push the result.
+     */
+    private int callRoutine(Executor ex, Routine routine, int cc, Value tvalue, long tprim, Value[] stack, long[] prims, int j, int sp)
+    {
+      if (cc == _cl && isTailCall())
+        {
+          throw new TailCallException(tvalue == PRIM ? box(_tPrim, tprim) : tvalue, args(stack, prims, j));
+        }
+      var i = routine.call(ex, this, tvalue, tprim, stack, prims, j);
+      if (_resultPrim != null)
+        {
+          prims[sp] = routine.resultPrim(i, _resultPrim);
+          stack[sp++] = PRIM;
+        }
+      else
+        {
+          sp = push(routine.result(i), stack, prims, sp);
+        }
+      return sp;
+    }
+
+
+    /**
+     * Call intrinsic _cc with target tvalue and arguments taken from the stack
+     * starting at position j.
+     */
+    private Value callIntrinsic(Executor ex, Value tvalue, Value[] stack, long[] prims, int j)
+    {
+      var ic = Intrinsics.call(ex, _site, _cc);
+      return switch (_argUnit.length)
+        {
+        case 0  -> ic.call(tvalue);
+        case 1  -> ic.call(tvalue, _argUnit[0] ? Value.UNIT : value(stack, prims, j, _argPrim[0]));
+        case 2  -> ic.call(tvalue,
+                           _argUnit[0] ? Value.UNIT : value(stack, prims, j, _argPrim[0]),
+                           _argUnit[1] ? Value.UNIT : value(stack, prims, _argUnit[0] ? j : j + 1, _argPrim[1]));
+        default -> ic.call(new List<>(tvalue, args(stack, prims, j)));
+        };
+    }
+
+
+    /**
+     * Create the list of arguments taken from the stack starting at position
+     * j, unit type arguments that are not on the stack are added as
+     * Value.UNIT, unboxed arguments are boxed.
+     */
+    private List<Value> args(Value[] stack, long[] prims, int j)
+    {
+      var args = new List<Value>();
+      for (var i = 0; i < _argUnit.length; i++)
+        {
+          args.add(_argUnit[i] ? Value.UNIT : value(stack, prims, j++, _argPrim[i]));
+        }
+      return args;
+    }
+  }
+
+
+  /**
+   * Node pushing the current instance.
+   */
+  static class Current extends Node
+  {
+    final boolean _unit;
+
+    Current(int s)
+    {
+      super(s);
+      _unit = unit(fuir().clazzAt(s));
+      stackEffect(0, _unit ? 0 : 1);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      if (!_unit)
+        {
+          stack[sp++] = cur;
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node pushing a constant.
+   */
+  static class Const extends Node
+  {
+    final int _constCl;
+    final byte[] _data;
+    final boolean _unit;
+
+    Const(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      _constCl = fuir.constClazz(s);
+      _data = fuir.constData(s);
+      _unit = unit(_constCl);
+      _resultPrim = prim(_constCl);
+      stackEffect(0, _unit ? 0 : 1);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var v = ex.constValue(_site, _constCl, _data);
+      if (v != null && _resultPrim != null)
+        {
+          prims[sp] = unbox(_resultPrim, v);
+          stack[sp++] = PRIM;
+        }
+      else if (!_unit)
+        {
+          stack[sp++] = v;
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node for a match with pre-translated code for all cases.
+   */
+  static class Match extends Node
+  {
+    final boolean _subjUnit, _alwaysVoid;
+    final SpecialClazzes _subjPrim;
+    final int[] _caseForTag;
+    final int[] _caseFields;
+
+    /**
+     * Accesses to _caseFields within the current instance, created lazily
+     * like _cases.
+     */
+    final FieldAccess[] _caseFieldAccesses;
+
+    /**
+     * The code of the cases, translated lazily on first execution since
+     * cases that are never taken may contain calls to clazzes that were never
+     * created.
+     */
+    final Block[] _cases;
+
+    Match(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      _subjUnit = unit(fuir.matchStaticSubject(s));
+      _subjPrim = prim(fuir.matchStaticSubject(s));
+      _alwaysVoid = fuir.alwaysResultsInVoid(s);
+      var nc = fuir.matchCaseCount(s);
+      _caseFields = new int[nc];
+      _caseFieldAccesses = new FieldAccess[nc];
+      _cases = new Block[nc];
+      var maxTag = -1;
+      for (var cix = 0; cix < nc; cix++)
+        {
+          var f = fuir.matchCaseField(s, cix);
+          _caseFields[cix] = f != NO_CLAZZ && !fuir.clazzIsUnitType(fuir.clazzResultClazz(f)) ? f : NO_CLAZZ;
+          for (var t : fuir.matchCaseTags(s, cix))
+            {
+              maxTag = Math.max(maxTag, t);
+            }
+        }
+      _caseForTag = new int[maxTag + 1];
+      Arrays.fill(_caseForTag, -1);
+      for (var cix = nc - 1; cix >= 0; cix--)  // backwards such that first matching case wins
+        {
+          for (var t : fuir.matchCaseTags(s, cix))
+            {
+              _caseForTag[t] = cix;
+            }
+        }
+      stackEffect(_subjUnit ? 0 : 1, _alwaysVoid ? 1 : 0);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var subv = _subjUnit ? Value.UNIT : value(stack, prims, --sp, _subjPrim);
+      var tv = ex.tagAndVal(subv);
+      var tag = tv.v0();
+      var cix = tag < _caseForTag.length ? _caseForTag[tag] : -1;
+      if (CHECKS) check
+        (cix != -1);
+      var f = _caseFields[cix];
+      if (f != NO_CLAZZ)
+        {
+          var fa = _caseFieldAccesses[cix];
+          if (fa == null)
+            {
+              fa = new FieldAccess(f, cur.clazz(), true);
+              _caseFieldAccesses[cix] = fa;
+            }
+          fa.set(cur, tv.v1());
+        }
+      var c = _cases[cix];
+      if (c == null)
+        {
+          c = new Block(fuir().matchCaseCode(_site, cix));
+          _cases[cix] = c;
+        }
+      c.run(ex, cur);
+      if (_alwaysVoid)
+        {
+          stack[sp++] = null;
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node for tagging a value into a choice.
+   */
+  static class Tag extends Node
+  {
+    final int _newcl, _tagNum;
+    final boolean _vUnit, _rUnit;
+    final SpecialClazzes _vPrim;
+
+    Tag(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      var valuecl = fuir.tagValueClazz(s);  // static clazz of value
+      _newcl = fuir.tagNewClazz(s);         // static clazz of result
+      _tagNum = fuir.tagTagNum(s);
+      if (CHECKS) check
+        (!fuir.clazzIsVoidType(valuecl));
+      _vUnit = unit(valuecl);
+      _rUnit = unit(_newcl);
+      _vPrim = prim(valuecl);
+      _resultPrim = prim(_newcl);  // bool, its raw bits are the tag number
+      stackEffect(_vUnit ? 0 : 1, _rUnit ? 0 : 1);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      var value = _vUnit ? Value.UNIT : value(stack, prims, --sp, _vPrim);
+      if (_resultPrim != null)
+        {
+          prims[sp] = _tagNum;
+          stack[sp++] = PRIM;
+        }
+      else
+        {
+          var r = ex.tag(_site, value, _newcl, _tagNum).v0();
+          if (!_rUnit)
+            {
+              stack[sp++] = r;
+            }
+        }
+      return sp;
+    }
+  }
+
+
+  /**
+   * Node dropping the result of the preceding call.
+   */
+  static class Pop extends Node
+  {
+    Pop(int s)
+    {
+      super(s);
+      var fuir = fuir();
+      // Pop can only follow a Call, we need the call to determine the type
+      // of the popped value, which might be a unit type value.
+      //
+      if (CHECKS) check
+        (fuir.codeAt(s-1) == FUIR.ExprKind.Call);
+
+      var rt = fuir.clazzResultClazz(fuir.accessedClazz(s-1));
+      stackEffect(unit(rt) ? 0 : 1, 0);
+    }
+
+    int exec(Executor ex, Instance cur, Value[] stack, long[] prims, int sp)
+    {
+      return sp - _pops;
+    }
+  }
+
+
+  /*--------------------------  constructors  ---------------------------*/
+
+
+  /**
+   * Closures provides only static methods and classes.
+   */
+  private Closures()
+  {
+  }
+
+}
+
+/* end of file */
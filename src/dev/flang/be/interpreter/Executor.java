@@ -28,6 +28,7 @@ package dev.flang.be.interpreter;
 
 import static dev.flang.ir.IR.NO_CLAZZ;
 import static dev.flang.ir.IR.NO_SITE;
+import static dev.flang.ir.IR.SITE_BASE;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
@@ -36,10 +37,13 @@ import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.SymbolLookup;
 import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dev.flang.fuir.FUIR;
 import dev.flang.fuir.SpecialClazzes;
@@ -89,6 +93,27 @@ public class Executor extends ProcessExpression<Value, Object>
   private static FuzionOptions _options_;
 
 
+  /**
+   * Decoded values of constants, indexed by site - SITE_BASE.
+   */
+  private static Value[] _constValues_ = new Value[0];
+
+
+  /**
+   * Interned values of constant strings such that the same string used at
+   * different sites is created only once.
+   */
+  private static final ConcurrentHashMap<String, Value> _constStrings_ = new ConcurrentHashMap<>();
+
+
+  /**
+   * Linked downcall handles of native clazzes, indexed by clazzId2num(cc).
+   * The handles are adapted to receive the arguments as an Object[] and to
+   * return an Object.
+   */
+  private static MethodHandle[] _nativeHandles_ = new MethodHandle[0];
+
+
 
   /*-----------------------------  instance fields  -----------------------------*/
 
@@ -97,19 +122,19 @@ public class Executor extends ProcessExpression<Value, Object>
   /**
    * List that holds the args to be returned by args().
    */
-  private final List<Value> _args;
+  final List<Value> _args;
 
 
   /**
    * The current instance to be returned by current().
    */
-  private final Instance _cur;
+  final Instance _cur;
 
 
   /**
    * The current outer to be returned by outer().
    */
-  private final Value _outer;
+  final Value _outer;
 
 
   /*-----------------------------  constructors  -----------------------------*/
@@ -224,9 +249,8 @@ public class Executor extends ProcessExpression<Value, Object>
       }
     if (avalue != unitValue())
       {
-        var ttcc = ttcc(s, tvalue);
-        var tt = ttcc.v0();
-        var cc = ttcc.v1();
+        var cc = calledClazz(s, tvalue);
+        var tt = targetClazz(s, tvalue, cc);
         Interpreter.setField(cc, tt, tvalue, avalue);
       }
     return null;
@@ -270,14 +294,12 @@ public class Executor extends ProcessExpression<Value, Object>
 
 
   @Override
-  @SuppressWarnings("restricted")
   public Pair<Value, Object> call(int s, Value tvalue, List<Value> args)
   {
     var cc0 = _fuir.accessedClazz(s);
     var rt = _fuir.clazzResultClazz(cc0);
-    var ttcc = ttcc(s, tvalue);
-    var tt = ttcc.v0();
-    var cc = ttcc.v1();
+    var cc = calledClazz(s, tvalue);
+    var tt = targetClazz(s, tvalue, cc);
 
     if(_fuir.clazzIsBoxed(tt) && !_fuir.clazzIsRef(_fuir.clazzOuterClazz(cc)))
       {
@@ -319,40 +341,36 @@ public class Executor extends ProcessExpression<Value, Object>
 
         yield fres;
       case Intrinsic :
-        yield pair(Intrinsics.call(this, s, cc).call(new List<>(tvalue, args)));
+        var ic = Intrinsics.call(this, s, cc);
+        yield pair(switch (args.size())
+                   {
+                   case 0  -> ic.call(tvalue);
+                   case 1  -> ic.call(tvalue, args.get(0));
+                   case 2  -> ic.call(tvalue, args.get(0), args.get(1));
+                   default -> ic.call(new List<>(tvalue, args));
+                   });
       case Native:
-        var llu = libs;
-        var mh = Linker.nativeLinker()
-          .downcallHandle(
-            llu
-              .find(_fuir.clazzNativeName(cc))
-              .orElseThrow(() -> new UnsatisfiedLinkError(
-              "Unresolved symbol: " + _fuir.clazzBaseName(cc) + ". " +
-              (true
-                ? "NYI: interpreter does not yet support libraries. You probably forgot to use the -Libraries option."
-                : "Likely causes: Either your native method is misspelled or you forgot to include a library in the -Libraries option.")
-              )),
-
-              _fuir.clazzIsUnitType(rt)
-                ? FunctionDescriptor.ofVoid(layoutArgs(cc0))
-                : FunctionDescriptor.of(layout(rt), layoutArgs(cc0)));
-
-        var arguments = args.stream().map(arg -> arg.toNative()).toList();
+        var mh = nativeHandle(cc);
+        var arguments = new Object[args.size()];
+        for (int i = 0; i < arguments.length; i++)
+          {
+            arguments[i] = args.get(i).toNative();
+          }
         Object tmp = null;
         try
           {
-            tmp = mh.invokeWithArguments(arguments);
+            tmp = (Object) mh.invokeExact(arguments);
           }
         catch (Throwable e)
           {
             Errors.fatal(e);
             yield null;
           }
-        for (int i = 0; i < args.size(); i++)
+        for (int i = 0; i < arguments.length; i++)
          {
             if (args.get(i) instanceof ArrayData ad)
               {
-                ad.set((MemorySegment)arguments.get(i));
+                ad.set((MemorySegment)arguments[i]);
               }
           }
         yield pair(JavaInterface.javaObjectToPlainInstance(tmp, rt));
@@ -364,6 +382,63 @@ public class Executor extends ProcessExpression<Value, Object>
   }
 
 
+  /**
+   * Is the call at site s within the code of clazz cl a tail call?
+   */
+  static boolean callIsTailCall(int cl, int s)
+  {
+    return _tailCall.callIsTailCall(cl, s);
+  }
+
+
+  /**
+   * Get the downcall handle for native clazz cc.  The symbol is looked up and
+   * linked on the first call of cc only, later calls return the cached handle.
+   *
+   * Several threads may race to link the same clazz, in this case, one of the
+   * handles will end up in the cache.
+   *
+   * @param cc a clazz of kind Native
+   *
+   * @return a handle of type (Object[])Object that calls the native function.
+   */
+  @SuppressWarnings("restricted")
+  private MethodHandle nativeHandle(int cc)
+  {
+    var i = _fuir.clazzId2num(cc);
+    var a = _nativeHandles_;
+    var result = i < a.length ? a[i] : null;
+    if (result == null)
+      {
+        var rt = _fuir.clazzResultClazz(cc);
+        var mh = Linker.nativeLinker()
+          .downcallHandle(
+            libs
+              .find(_fuir.clazzNativeName(cc))
+              .orElseThrow(() -> new UnsatisfiedLinkError(
+              "Unresolved symbol: " + _fuir.clazzBaseName(cc) + ". " +
+              (true
+                ? "NYI: interpreter does not yet support libraries. You probably forgot to use the -Libraries option."
+                : "Likely causes: Either your native method is misspelled or you forgot to include a library in the -Libraries option.")
+              )),
+
+              _fuir.clazzIsUnitType(rt)
+                ? FunctionDescriptor.ofVoid(layoutArgs(cc))
+                : FunctionDescriptor.of(layout(rt), layoutArgs(cc)));
+        result = mh
+          .asSpreader(Object[].class, _fuir.clazzArgCount(cc))
+          .asType(MethodType.methodType(Object.class, Object[].class));
+        if (i >= a.length)
+          {
+            a = Arrays.copyOf(a, Math.max(i + 1, 2 * a.length));
+            _nativeHandles_ = a;
+          }
+        a[i] = result;
+      }
+    return result;
+  }
+
+
   /*
    * get MemoryLayout/ValueLayout of args of cc.
    */
@@ -402,36 +477,40 @@ public class Executor extends ProcessExpression<Value, Object>
 
 
   /**
-   * Get the target clazz and the called clazz as a Pair of two Integers.
+   * Get the called clazz for an access at site s.  For dynamic accesses, this
+   * uses the InlineCache for site s.
+   *
+   * @param s the site of the call or assignment
    *
    * @param tvalue the actual value of the target.
    */
-  private Pair<Integer, Integer> ttcc(int s, Value tvalue)
+  private int calledClazz(int s, Value tvalue)
   {
-    int cc, tt;
-    if (_fuir.accessIsDynamic(s))
-      {
-        cc = NO_CLAZZ;
-        tt = ((ValueWithClazz)tvalue)._clazz;
-        var ccs = _fuir.accessedClazzes(s);
-        for (var cci = 0; cci < ccs.length && cc==NO_CLAZZ; cci += 2)
-          {
-            if (ccs[cci] == tt)
-              {
-                cc = ccs[cci+1];
-              }
-          }
-      }
-    else
-      {
-        cc = _fuir.accessedClazz(s);
-        tt = _fuir.clazzOuterClazz(cc);
-      }
+    var cc = _fuir.accessIsDynamic(s)
+      ? InlineCache.calledClazz(_fuir, s, ((ValueWithClazz)tvalue)._clazz)
+      : _fuir.accessedClazz(s);
 
     if (POSTCONDITIONS) ensure
       (cc != NO_CLAZZ);
 
-    return new Pair<>(tt, cc);
+    return cc;
+  }
+
+
+  /**
+   * Get the target clazz for an access at site s.
+   *
+   * @param s the site of the call or assignment
+   *
+   * @param tvalue the actual value of the target.
+   *
+   * @param cc the called clazz as returned by calledClazz(s, tvalue).
+   */
+  private int targetClazz(int s, Value tvalue, int cc)
+  {
+    return _fuir.accessIsDynamic(s)
+      ? ((ValueWithClazz)tvalue)._clazz
+      : _fuir.clazzOuterClazz(cc);
   }
 
 
@@ -477,21 +556,76 @@ public class Executor extends ProcessExpression<Value, Object>
   @Override
   public Pair<Value, Object> constData(int s, int constCl, byte[] d)
   {
-    // NYI: UNDERDEVELOPMENT: cache?
-    var val = switch (_fuir.getSpecialClazz(constCl))
+    return pair(constValue(s, constCl, d));
+  }
+
+
+  /**
+   * Get the value of the constant at site s.  The value is decoded on the
+   * first evaluation of s only, later evaluations return the cached value.
+   *
+   * Constants are immutable, so the same value may be used by all evaluations
+   * of s and by all threads.  Several threads may race to decode a constant,
+   * in this case, one of the decoded values will end up in the cache.
+   *
+   * @param s the site of the constant
+   *
+   * @param constCl the clazz of the constant
+   *
+   * @param d the serialized data of the constant
+   *
+   * @return the value of the constant
+   */
+  Value constValue(int s, int constCl, byte[] d)
+  {
+    var i = s - SITE_BASE;
+    var a = _constValues_;
+    var result = i < a.length ? a[i] : null;
+    if (result == null)
       {
-      case c_String -> Interpreter
-        .boxedConstString(new String(Arrays.copyOfRange(d, 4, ByteBuffer.wrap(d).order(ByteOrder.LITTLE_ENDIAN).getInt() + 4), StandardCharsets.UTF_8));
+        result = decodeConst(s, constCl, d);
+        if (result != null)
+          {
+            if (i >= a.length)
+              {
+                a = Arrays.copyOf(a, Math.max(i + 1, 2 * a.length));
+                _constValues_ = a;
+              }
+            a[i] = result;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Create the value of a constant from its serialized data.
+   *
+   * @param s the site of the constant
+   *
+   * @param constCl the clazz of the constant
+   *
+   * @param d the serialized data of the constant
+   *
+   * @return the value of the constant, null if it is not supported.
+   */
+  private Value decodeConst(int s, int constCl, byte[] d)
+  {
+    return switch (_fuir.getSpecialClazz(constCl))
+      {
+      case c_String -> _constStrings_
+        .computeIfAbsent(new String(Arrays.copyOfRange(d, 4, ByteBuffer.wrap(d).order(ByteOrder.LITTLE_ENDIAN).getInt() + 4), StandardCharsets.UTF_8),
+                         Interpreter::boxedConstString);
       case c_f32 -> new f32Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getFloat());
       case c_f64 -> new f64Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getDouble());
-      case c_i16 -> new i16Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getShort());
-      case c_i32 -> new i32Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getInt());
-      case c_i64 -> new i64Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getLong());
-      case c_i8  -> new i8Value (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).get());
-      case c_u16 -> new u16Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getChar());
-      case c_u32 -> new u32Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getInt());
-      case c_u64 -> new u64Value(ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getLong());
-      case c_u8  -> new u8Value (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).get() & 0xff);
+      case c_i16 -> i16Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getShort());
+      case c_i32 -> i32Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getInt());
+      case c_i64 -> i64Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getLong());
+      case c_i8  -> i8Value.of  (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).get());
+      case c_u16 -> u16Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getChar());
+      case c_u32 -> u32Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getInt());
+      case c_u64 -> u64Value.of (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).getLong());
+      case c_u8  -> u8Value.of  (ByteBuffer.wrap(d).position(4).order(ByteOrder.LITTLE_ENDIAN).get() & 0xff);
       default -> {
         if (_fuir.clazzIsArray(constCl))
           {
@@ -509,12 +643,12 @@ public class Executor extends ProcessExpression<Value, Object>
             for (int idx = 0; idx < elCount; idx++)
               {
                 var b = _fuir.deserializeConst(elementType, bb);
-                var c = constData(s, elementType, b).v0();
+                var c = decodeConst(s, elementType, b);
                 arrayData.set(idx, c, fuir(), elementType);
               }
 
             Instance sa = new Instance(saCl);
-            Interpreter.setField(_fuir.clazzArg(saCl, 1), saCl,                               sa,     new i32Value(elCount));
+            Interpreter.setField(_fuir.clazzArg(saCl, 1), saCl,                               sa,     i32Value.of(elCount));
             Interpreter.setField(_fuir.clazzArg(saCl, 0)  , saCl,                               sa,     arrayData);
             Interpreter.setField(internalArray                                          , constCl,                            result, sa);
             yield result;
@@ -528,7 +662,7 @@ public class Executor extends ProcessExpression<Value, Object>
                 var fr = _fuir.clazzArgClazz(constCl, index);
 
                 var bytes = _fuir.deserializeConst(fr, b);
-                var c = constData(s, fr, bytes).v0();
+                var c = decodeConst(s, fr, bytes);
                 var acl = _fuir.clazzArg(constCl, index);
                 Interpreter.setField(acl, constCl, result, c);
               }
@@ -543,19 +677,12 @@ public class Executor extends ProcessExpression<Value, Object>
           }
       }
       };
-
-    return pair(val);
   }
 
   @Override
   public Pair<Value, Object> match(int s, AbstractInterpreter<Value, Object> ai, Value subv)
   {
-    var staticSubjectClazz = subv instanceof boolValue ? fuir().clazz(SpecialClazzes.c_bool) : ((ValueWithClazz)subv)._clazz;
-
-    if (CHECKS) check
-      (fuir().clazzIsChoice(staticSubjectClazz));
-
-    var tagAndChoiceElement = tagAndVal(staticSubjectClazz, subv);
+    var tagAndChoiceElement = tagAndVal(subv);
 
     var cix = _fuir.matchCaseIndex(s, tagAndChoiceElement.v0());
 
@@ -572,6 +699,22 @@ public class Executor extends ProcessExpression<Value, Object>
   }
 
 
+  /**
+   * @param sub the subject of a match
+   *
+   * @return pair where first value is the tag, the second value the extracted value.
+   */
+  Pair<Integer, Value> tagAndVal(Value sub)
+  {
+    var staticSubjectClazz = sub instanceof boolValue ? fuir().clazz(SpecialClazzes.c_bool) : ((ValueWithClazz)sub)._clazz;
+
+    if (CHECKS) check
+      (fuir().clazzIsChoice(staticSubjectClazz));
+
+    return tagAndVal(staticSubjectClazz, sub);
+  }
+
+
   /**
    * @param staticSubjectClazz the clazz of the subject, a choice
    *
@@ -652,6 +795,11 @@ public class Executor extends ProcessExpression<Value, Object>
    */
   Instance callOnNewInstance(int s, int cc, Value outer, List<Value> args)
   {
+    if (Closures.ENABLED)
+      {
+        return Closures.forClazz(cc).call(this, s, outer, args);
+      }
+
     FuzionThread.current()._callStackFrames.push(cc);
     FuzionThread.current()._callSiteStack.push(s);
 
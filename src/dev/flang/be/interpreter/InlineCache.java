@@ -0,0 +1,331 @@
+/*
+
+This file is part of the Fuzion language implementation.
+
+The Fuzion language implementation is free software: you can redistribute it
+and/or modify it under the terms of the GNU General Public License as published
+by the Free Software Foundation, version 3 of the License.
+
+The Fuzion language implementation is distributed in the hope that it will be
+useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public
+License for more details.
+
+You should have received a copy of the GNU General Public License along with The
+Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+/*-----------------------------------------------------------------------
+ *
+ * Tokiwa Software GmbH, Germany
+ *
+ * Source of class InlineCache
+ *
+ *---------------------------------------------------------------------*/
+
+package dev.flang.be.interpreter;
+
+import static dev.flang.ir.IR.NO_CLAZZ;
+import static dev.flang.ir.IR.SITE_BASE;
+
+import java.util.Arrays;
+
+import dev.flang.fuir.FUIR;
+
+import dev.flang.util.ANY;
+import dev.flang.util.FuzionOptions;
+
+
+/**
+ * InlineCache caches the called clazz of dynamic calls per call site, such
+ * that dynamic dispatch does not require a linear scan of
+ * {@code FUIR.accessedClazzes(s)}.
+ *
+ * A site starts with an empty cache.  Every target clazz that is seen is added
+ * to the cache, which is a short array that is searched linearly as long as
+ * it contains at most POLYMORPHIC_LIMIT entries.  Once more target clazzes are
+ * seen, the site becomes megamorphic and the cache is replaced by an
+ * open-addressing hash table.
+ *
+ * Instances are immutable, adding an entry creates a new instance that
+ * replaces the old one for the site.  Several threads may race when updating
+ * the cache of a site, this may lose an entry, which will be added on the next
+ * miss.
+ *
+ * @author Fridtjof Siebert (siebert@tokiwa.software)
+ */
+class InlineCache extends ANY
+{
+
+
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Maximum number of target clazzes that are searched linearly.
+   */
+  static final int POLYMORPHIC_LIMIT = 4;
+
+
+  /**
+   * Should hits and misses of inline caches be counted and shown for {@code
+   * -verbose=2}?  This is off by default since the counters are updated on
+   * every dynamic call.
+   *
+   * To enable, use fz with
+   *
+   *   dev_flang_be_interpreter_InlineCache_STATISTICS=true
+   */
+  static final boolean STATISTICS = FuzionOptions.boolPropertyOrEnv("dev.flang.be.interpreter.InlineCache.STATISTICS");
+
+
+  /**
+   * Cache of a site that was not executed yet.
+   */
+  private static final InlineCache EMPTY = new InlineCache(new int[0], new int[0], false);
+
+
+  /*-----------------------------  statics  -----------------------------*/
+
+
+  /**
+   * Caches indexed by site - SITE_BASE.
+   */
+  private static InlineCache[] _forSite_ = new InlineCache[0];
+
+
+  /**
+   * Statistics printed for {@code -verbose=2} if STATISTICS is set.  These are
+   * not synchronized, so the numbers are approximations if several threads are
+   * running.
+   */
+  private static long _monomorphicHits_, _polymorphicHits_, _megamorphicHits_, _misses_;
+
+
+  /*----------------------------  variables  ----------------------------*/
+
+
+  /**
+   * For a polymorphic cache: the target clazzes and the corresponding called
+   * clazzes.  For a megamorphic cache: hash table with NO_CLAZZ for unused
+   * slots.
+   */
+  private final int[] _tts, _ccs;
+
+
+  /**
+   * true if this is a megamorphic cache, i.e., _tts and _ccs are a hash table.
+   */
+  private final boolean _mega;
+
+
+  /*--------------------------  constructors  ---------------------------*/
+
+
+  /**
+   * Create an inline cache
+   */
+  private InlineCache(int[] tts, int[] ccs, boolean mega)
+  {
+    _tts = tts;
+    _ccs = ccs;
+    _mega = mega;
+  }
+
+
+  /*-----------------------------  methods  -----------------------------*/
+
+
+  /**
+   * For a dynamic call at site s with a target of clazz tt, find the called
+   * clazz.
+   *
+   * @param fuir the fuir
+   *
+   * @param s a call or assign site with a dynamic access
+   *
+   * @param tt the clazz of the target value
+   *
+   * @return the called clazz, NO_CLAZZ if not found.
+   */
+  static int calledClazz(FUIR fuir, int s, int tt)
+  {
+    var i = s - SITE_BASE;
+    var a = _forSite_;
+    var c = i < a.length ? a[i] : null;
+    var cc = c == null ? NO_CLAZZ : c.lookup(tt);
+    if (cc == NO_CLAZZ)
+      {
+        if (STATISTICS)
+          {
+            _misses_++;
+          }
+        var ccs = fuir.accessedClazzes(s);
+        for (var cci = 0; cci < ccs.length && cc == NO_CLAZZ; cci += 2)
+          {
+            if (ccs[cci] == tt)
+              {
+                cc = ccs[cci+1];
+              }
+          }
+        if (cc != NO_CLAZZ)
+          {
+            if (i >= a.length)
+              {
+                a = Arrays.copyOf(a, Math.max(i + 1, 2 * a.length));
+                _forSite_ = a;
+              }
+            a[i] = (c == null ? EMPTY : c).add(tt, cc);
+          }
+      }
+    return cc;
+  }
+
+
+  /**
+   * Lookup the called clazz for target clazz tt in this cache.
+   *
+   * @return the called clazz or NO_CLAZZ if tt is not cached.
+   */
+  private int lookup(int tt)
+  {
+    var tts = _tts;
+    if (_mega)
+      {
+        var mask = tts.length - 1;
+        for (var j = slot(tt, mask); tts[j] != NO_CLAZZ; j = (j + 1) & mask)
+          {
+            if (tts[j] == tt)
+              {
+                if (STATISTICS)
+                  {
+                    _megamorphicHits_++;
+                  }
+                return _ccs[j];
+              }
+          }
+      }
+    else
+      {
+        for (var j = 0; j < tts.length; j++)
+          {
+            if (tts[j] == tt)
+              {
+                if (STATISTICS)
+                  {
+                    if (tts.length == 1)
+                      {
+                        _monomorphicHits_++;
+                      }
+                    else
+                      {
+                        _polymorphicHits_++;
+                      }
+                  }
+                return _ccs[j];
+              }
+          }
+      }
+    return NO_CLAZZ;
+  }
+
+
+  /**
+   * Create a new cache that contains the entries of this and tt->cc.
+   */
+  private InlineCache add(int tt, int cc)
+  {
+    InlineCache result;
+    if (!_mega && _tts.length < POLYMORPHIC_LIMIT)
+      {
+        var tts = Arrays.copyOf(_tts, _tts.length + 1);
+        var ccs = Arrays.copyOf(_ccs, _ccs.length + 1);
+        tts[_tts.length] = tt;
+        ccs[_ccs.length] = cc;
+        result = new InlineCache(tts, ccs, false);
+      }
+    else
+      {
+        var n = _mega ? _tts.length : 4 * POLYMORPHIC_LIMIT;
+        var count = 1;
+        for (var t : _tts)
+          {
+            count += t != NO_CLAZZ ? 1 : 0;
+          }
+        if (2 * count > n)
+          {
+            n = 2 * n;
+          }
+        var tts = new int[n];
+        var ccs = new int[n];
+        Arrays.fill(tts, NO_CLAZZ);
+        for (var j = 0; j < _tts.length; j++)
+          {
+            if (_tts[j] != NO_CLAZZ)
+              {
+                put(tts, ccs, _tts[j], _ccs[j]);
+              }
+          }
+        put(tts, ccs, tt, cc);
+        result = new InlineCache(tts, ccs, true);
+      }
+    return result;
+  }
+
+
+  /**
+   * Add tt->cc to the hash table given by tts and ccs.
+   */
+  private static void put(int[] tts, int[] ccs, int tt, int cc)
+  {
+    var mask = tts.length - 1;
+    var j = slot(tt, mask);
+    while (tts[j] != NO_CLAZZ)
+      {
+        j = (j + 1) & mask;
+      }
+    tts[j] = tt;
+    ccs[j] = cc;
+  }
+
+
+  /**
+   * The home slot of clazz tt in a hash table with the given mask.
+   */
+  private static int slot(int tt, int mask)
+  {
+    var x = tt * 0x9E3779B9;
+    return (x ^ x >>> 16) & mask;
+  }
+
+
+  /**
+   * Statistics on the use of inline caches, for verbose output.
+   */
+  static String statistics()
+  {
+    var sites = 0;
+    var mono = 0;
+    var poly = 0;
+    var mega = 0;
+    for (var c : _forSite_)
+      {
+        if (c != null)
+          {
+            sites++;
+            if      (c._mega          ) { mega++; }
+            else if (c._tts.length > 1) { poly++; }
+            else                        { mono++; }
+          }
+      }
+    return
+      "Inline caches: " + sites + " dynamic sites (" + mono + " monomorphic, " + poly + " polymorphic, " + mega + " megamorphic)" +
+      (STATISTICS ? ", hits " + _monomorphicHits_ + "/" + _polymorphicHits_ + "/" + _megamorphicHits_ + " (mono/poly/mega), misses " + _misses_
+                  : "") + ".";
+  }
+
+
+}
+
+/* end of file */
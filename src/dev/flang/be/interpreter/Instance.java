@@ -28,6 +28,8 @@ package dev.flang.be.interpreter;
 
 import dev.flang.fuir.SpecialClazzes;
 
+import java.util.Arrays;
+
 /**
  * Instance
  *
@@ -40,7 +42,9 @@ public class Instance extends ValueWithClazz
 
 
   /**
-   * Just for debugging: value used for uninitialized non-ref data
+   * Just for debugging: value used for uninitialized non-ref data.  This is
+   * filled in only if CHECKS are enabled to avoid the cost of touching every
+   * slot when creating an instance.
    */
   static final int UNINITIALIZED_INT = -555555555;
 
@@ -78,9 +82,9 @@ public class Instance extends ValueWithClazz
     int sz = Layout.get(clazz).size();
     this.refs = new Value[sz];
     this.nonrefs = new int[sz];
-    for (int i = 0; i<sz; i++)
+    if (CHECKS)
       {
-        this.nonrefs[i] = UNINITIALIZED_INT;
+        Arrays.fill(this.nonrefs, UNINITIALIZED_INT);
       }
   }
 
@@ -46,6 +46,7 @@ import dev.flang.util.FuzionOptions;
  */
 public class Interpreter extends FUIRContext
 {
+  private final Executor _processor;
   private final AbstractInterpreter<Value, Object> _ai;
   private final FUIR _fuir;
   private final FuzionOptions _options_;
@@ -54,8 +55,8 @@ public class Interpreter extends FUIRContext
     this._options_ = options;
     this._fuir = fuir;
     FUIRContext.set_fuir(fuir);
-    var processor = new Executor(_fuir, _options_);
-    _ai = new AbstractInterpreter<Value, Object>(_fuir, processor);
+    _processor = new Executor(_fuir, _options_);
+    _ai = new AbstractInterpreter<Value, Object>(_fuir, _processor);
   }
 
 
@@ -71,7 +72,15 @@ public class Interpreter extends FUIRContext
     try
       {
         FuzionThread.current()._callStackFrames.push(_fuir.mainClazz());
-        _ai.processClazz(_fuir.mainClazz());
+        if (Closures.ENABLED)
+          {
+            Closures.forClazz(_fuir.mainClazz()).run(_processor, _processor._cur, _processor._outer, _processor._args);
+          }
+        else
+          {
+            _ai.processClazz(_fuir.mainClazz());
+          }
+        _options_.verbosePrintln(2, InlineCache.statistics());
       }
     catch (FatalError e)
       {
@@ -116,7 +125,7 @@ public class Interpreter extends FUIRContext
     Instance arr = new Instance(clArr);
     var saCl = fuir().clazzFuzionSysArrayU8();
     Instance sa = new Instance(saCl);
-    setField(fuir().clazzFuzionSysArrayU8Length(), saCl, sa, new i32Value(bytes.length));
+    setField(fuir().clazzFuzionSysArrayU8Length(), saCl, sa, i32Value.of(bytes.length));
     var arrayData = new ArrayData(bytes, saCl);
     setField(fuir().clazzFuzionSysArrayU8Data(), saCl, sa, arrayData);
     setField(fuir().clazzArg(clArr,0), clArr, arr, sa);
@@ -163,7 +172,7 @@ public class Interpreter extends FUIRContext
    * Get the result clazz of thiz
    * or if thiz is an address to clazz Any.
    */
-  private static int clazzForField(int thiz)
+  static int clazzForField(int thiz)
   {
     return fuir().clazzFieldIsAdrOfValue(thiz)
       ? fuir().clazzAny()
@@ -401,7 +410,7 @@ public class Interpreter extends FUIRContext
     else
       { // store tag and value separately
         LValue slot   = choice.at(vclazz, 0);
-        (new i32Value(tagNum)).storeNonRef(slot, 1);
+        (i32Value.of(tagNum)).storeNonRef(slot, 1);
       }
 
     setFieldSlot(thiz, vclazz, valSlot, v);
@@ -411,6 +420,25 @@ public class Interpreter extends FUIRContext
   }
 
 
+  /**
+   * Create an LValue that refers to the slot that contains the value field of
+   * an atomic.  This is used by the atomic intrinsics to access the memory of
+   * the field directly.
+   *
+   * @param thiz the value field of the atomic.
+   *
+   * @param staticClazz the atomic clazz that contains thiz.
+   *
+   * @param curValue the Instance or LValue of the atomic.
+   *
+   * @return an LValue that refers directly to the memory for the field.
+   */
+  static LValue atomicSlot(int thiz, int staticClazz, Value curValue)
+  {
+    return fieldSlot(thiz, staticClazz, clazzForField(thiz), curValue);
+  }
+
+
   /**
    * Create an LValue that refers to the slot that contains this field.
    *
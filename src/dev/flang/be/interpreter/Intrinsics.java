@@ -27,11 +27,15 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 package dev.flang.be.interpreter;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Array;
 import java.net.InetSocketAddress;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.locks.Condition;
@@ -65,6 +69,51 @@ public class Intrinsics extends ANY
   }
 
 
+  /**
+   * Callable for an intrinsic that receives only its target.
+   */
+  @FunctionalInterface
+  interface Intrinsic1 extends Callable
+  {
+    Value call(Value a0);
+    default Value call(ArrayList<Value> args) { return call(args.get(0)); }
+  }
+
+
+  /**
+   * Callable for an intrinsic that receives its target and one argument.
+   */
+  @FunctionalInterface
+  interface Intrinsic2 extends Callable
+  {
+    Value call(Value a0, Value a1);
+    default Value call(ArrayList<Value> args) { return call(args.get(0), args.get(1)); }
+  }
+
+
+  /**
+   * Callable for an intrinsic that receives its target and two arguments.
+   */
+  @FunctionalInterface
+  interface Intrinsic3 extends Callable
+  {
+    Value call(Value a0, Value a1, Value a2);
+    default Value call(ArrayList<Value> args) { return call(args.get(0), args.get(1), args.get(2)); }
+  }
+
+
+  /**
+   * Intrinsic on unboxed values: The target, up to two arguments and the
+   * result are given by their raw bits as stored in Instance.nonrefs,
+   * sign-extended to long for values of size 1.  Unused inputs are 0.
+   */
+  @FunctionalInterface
+  interface PrimIntrinsic
+  {
+    long call(long a0, long a1, long a2);
+  }
+
+
   /*------------------------------  enums  ------------------------------*/
 
 
@@ -90,12 +139,23 @@ public class Intrinsics extends ANY
 
   static final TreeMap<String, IntrinsicCode> _intrinsics_ = new TreeMap<>();
 
+  /**
+   * Intrinsics that may be called on unboxed values, see PrimIntrinsic.
+   */
+  static final TreeMap<String, PrimIntrinsic> _primIntrinsics_ = new TreeMap<>();
+
   /*----------------------------  variables  ----------------------------*/
 
 
   /*------------------------  static variables  -------------------------*/
 
 
+  /**
+   * Callables of intrinsic clazzes, indexed by clazzId2num(innerClazz).
+   */
+  private static Callable[] _callables_ = new Callable[0];
+
+
   /*-------------------------  static methods  --------------------------*/
 
 
@@ -104,6 +164,18 @@ public class Intrinsics extends ANY
   private static void put(String n1, String n2, String n3, IntrinsicCode c) { put(n1, c); put(n2, c); put(n3, c); }
   private static void put(String n1, String n2, String n3, String n4, IntrinsicCode c) { put(n1, c); put(n2, c); put(n3, c); put(n4, c); }
   private static void put(String n1, String n2, String n3, String n4, String n5, IntrinsicCode c) { put(n1, c); put(n2, c); put(n3, c); put(n4, c); put(n5, c); }
+  private static void putPrim(String n, PrimIntrinsic c) { _primIntrinsics_.put(n, c); }
+
+
+  /**
+   * Helpers to convert between unboxed values and Java types for
+   * _primIntrinsics_.
+   */
+  private static long   bool(boolean b) { return b ? 1 : 0; }
+  private static long   bits(float   f) { return Float.floatToRawIntBits(f); }
+  private static long   bits(double  d) { return Double.doubleToRawLongBits(d); }
+  private static float  f32 (long    l) { return Float.intBitsToFloat((int) l); }
+  private static double f64 (long    l) { return Double.longBitsToDouble(l); }
 
 
   /**
@@ -115,6 +187,19 @@ public class Intrinsics extends ANY
   }
 
 
+  /**
+   * Get the implementation of intrinsic innerClazz on unboxed values.
+   *
+   * @param innerClazz the frame clazz of the called feature
+   *
+   * @return the PrimIntrinsic or null if there is none for innerClazz.
+   */
+  static PrimIntrinsic primCall(int innerClazz)
+  {
+    return _primIntrinsics_.get(FUIRContext.fuir().clazzOriginalName(innerClazz));
+  }
+
+
   /**
    * Create a Java string from 0-terminated given byte array.
    */
@@ -131,13 +216,44 @@ public class Intrinsics extends ANY
   }
 
   /**
-   * Create a Callable to call an intrinsic feature.
+   * Get the Callable to call an intrinsic feature.  The Callable is created
+   * on the first call of innerClazz only, later calls return the cached
+   * Callable.
+   *
+   * Several threads may race to create the Callable for the same clazz, in
+   * this case, one of them will end up in the cache.
    *
    * @param innerClazz the frame clazz of the called feature
    *
    * @return a Callable instance to execute the intrinsic call.
    */
   public static Callable call(Executor executor, int site, int innerClazz)
+  {
+    var i = executor.fuir().clazzId2num(innerClazz);
+    var a = _callables_;
+    var result = i < a.length ? a[i] : null;
+    if (result == null)
+      {
+        result = create(executor, site, innerClazz);
+        if (i >= a.length)
+          {
+            a = Arrays.copyOf(a, Math.max(i + 1, 2 * a.length));
+            _callables_ = a;
+          }
+        a[i] = result;
+      }
+    return result;
+  }
+
+
+  /**
+   * Create a Callable to call an intrinsic feature.
+   *
+   * @param innerClazz the frame clazz of the called feature
+   *
+   * @return a Callable instance to execute the intrinsic call.
+   */
+  private static Callable create(Executor executor, int site, int innerClazz)
   {
     Callable result;
     String in = executor.fuir().clazzOriginalName(innerClazz);
@@ -159,13 +275,42 @@ public class Intrinsics extends ANY
 
 
   /**
-   * Atomic intrinsics are made atomic using this lock.
+   * VarHandle used to perform lock-free atomic operations on atomics of ref
+   * types, whose value is stored in an element of Instance.refs.
+   */
+  static final VarHandle ATOMIC_REFS = MethodHandles.arrayElementVarHandle(Value[].class);
+
+
+  /**
+   * Atomic intrinsics on values that are not refs are made atomic using these
+   * locks.  The lock is chosen by the instance that contains the value, such
+   * that operations on atomics stored in different instances rarely contend.
    *
-   * NYI: OPTIMIZATION: For atomic instances of types ref, i32, etc., we might
-   * implement this using jdk.internal.misc.Unsafe or
-   * java.util.concurrent.atomic.* to make these operations lock-free.
+   * NYI: OPTIMIZATION: For atomic instances of types i32, bool, etc., we might
+   * use a VarHandle on Instance.nonrefs to make these operations lock-free as
+   * well.
    */
-  static final Object LOCK_FOR_ATOMIC = new Object();
+  static final Object[] LOCKS_FOR_ATOMIC = new Object[64];
+  static
+  {
+    for (var i = 0; i < LOCKS_FOR_ATOMIC.length; i++)
+      {
+        LOCKS_FOR_ATOMIC[i] = new Object();
+      }
+  }
+
+
+  /**
+   * Get the lock used for atomic operations on the atomic value thiz.
+   *
+   * @param thiz the atomic, an Instance or an LValue referring to the memory
+   * of the atomic.
+   */
+  static Object lockForAtomic(Value thiz)
+  {
+    var container = thiz instanceof LValue lv ? lv.container : thiz;
+    return LOCKS_FOR_ATOMIC[System.identityHashCode(container) & (LOCKS_FOR_ATOMIC.length - 1)];
+  }
 
 
   static
@@ -180,7 +325,12 @@ public class Intrinsics extends ANY
           var thiz      = args.get(0);
           var expected  = args.get(1);
           var new_value = args.get(2);
-          synchronized (LOCK_FOR_ATOMIC)
+          if (executor.fuir().clazzIsRef(executor.fuir().clazzResultClazz(f)))
+            {
+              var slot = Interpreter.atomicSlot(f, a, thiz);
+              return (Value) ATOMIC_REFS.compareAndExchange(slot.container.refs, slot.offset, expected, new_value);
+            }
+          synchronized (lockForAtomic(thiz))
             {
               var res = Interpreter.getField(f, a, thiz, false); // NYI: HACK: We must clone this!
               if (Interpreter.compareField(f, a, thiz, expected))
@@ -198,20 +348,25 @@ public class Intrinsics extends ANY
           var thiz      = args.get(0);
           var expected  = args.get(1);
           var new_value = args.get(2);
-          synchronized (LOCK_FOR_ATOMIC)
+          if (executor.fuir().clazzIsRef(executor.fuir().clazzResultClazz(f)))
+            {
+              var slot = Interpreter.atomicSlot(f, a, thiz);
+              return boolValue.of(ATOMIC_REFS.compareAndSet(slot.container.refs, slot.offset, expected, new_value));
+            }
+          synchronized (lockForAtomic(thiz))
             {
               if (Interpreter.compareField(f, a, thiz, expected))
                 {
                   Interpreter.setField(f, a, thiz, new_value);
-                  return new boolValue(true);
+                  return boolValue.of(true);
                 }
-              return new boolValue(false);
+              return boolValue.of(false);
             }
         });
     put("concur.atomic.racy_accesses_supported",  (executor, innerClazz) -> args ->
         {
           var t = executor.fuir().clazzActualGeneric(executor.fuir().clazzOuterClazz(innerClazz), 0);
-          return new boolValue
+          return boolValue.of
             (executor.fuir().clazzIsRef(t)                            ||
              (t == executor.fuir().clazz(SpecialClazzes.c_i8  )) ||
              (t == executor.fuir().clazz(SpecialClazzes.c_i16 )) ||
@@ -227,7 +382,12 @@ public class Intrinsics extends ANY
           var a = executor.fuir().clazzOuterClazz(innerClazz);
           var f = executor.fuir().lookupAtomicValue(a);
           var thiz = args.get(0);
-          synchronized (LOCK_FOR_ATOMIC)
+          if (executor.fuir().clazzIsRef(executor.fuir().clazzResultClazz(f)))
+            {
+              var slot = Interpreter.atomicSlot(f, a, thiz);
+              return (Value) ATOMIC_REFS.getVolatile(slot.container.refs, slot.offset);
+            }
+          synchronized (lockForAtomic(thiz))
             {
               return Interpreter.getField(f, a, thiz, false);
             }
@@ -237,26 +397,34 @@ public class Intrinsics extends ANY
           var a = executor.fuir().clazzOuterClazz(innerClazz);
           var f = executor.fuir().lookupAtomicValue(a);
           var thiz = args.get(0);
-          synchronized (LOCK_FOR_ATOMIC)
+          if (executor.fuir().clazzIsRef(executor.fuir().clazzResultClazz(f)))
+            {
+              var slot = Interpreter.atomicSlot(f, a, thiz);
+              ATOMIC_REFS.setVolatile(slot.container.refs, slot.offset, args.get(1));
+            }
+          else
             {
-              Interpreter.setField(f, a, thiz, args.get(1));
+              synchronized (lockForAtomic(thiz))
+                {
+                  Interpreter.setField(f, a, thiz, args.get(1));
+                }
             }
           return Value.UNIT;
         });
 
     put("concur.util.load_fence",   (executor, innerClazz) -> args ->
         {
-          synchronized (LOCK_FOR_ATOMIC) { };
+          VarHandle.fullFence();
           return Value.UNIT;
         });
 
     put("concur.util.store_fence",  (executor, innerClazz) -> args ->
         {
-          synchronized (LOCK_FOR_ATOMIC) { };
+          VarHandle.releaseFence();
           return Value.UNIT;
         });
 
-    put("fuzion.sys.args.count", (executor, innerClazz) -> args -> new i32Value(executor.options().getBackendArgs().size() + 1));
+    put("fuzion.sys.args.count", (executor, innerClazz) -> args -> i32Value.of (executor.options().getBackendArgs().size() + 1));
     put("fuzion.sys.args.get"  , (executor, innerClazz) -> args ->
         {
           var i = args.get(1).i32Value();
@@ -288,7 +456,7 @@ public class Intrinsics extends ANY
     put("fuzion.jvm.is_null0", (executor, innerClazz) -> args ->
         {
           Object thiz = ((JavaRef)args.get(1))._javaRef;
-          return new boolValue(thiz == null);
+          return boolValue.of(thiz == null);
         });
     put("fuzion.jvm.get_static_field0",
         "fuzion.jvm.get_field0"      , (executor, innerClazz) ->
@@ -354,7 +522,7 @@ public class Intrinsics extends ANY
         });
     put("fuzion.jvm.array_length",  (executor, innerClazz) -> args ->
         {
-          return new i32Value(Array.getLength(((JavaRef) args.get(1))._javaRef));
+          return i32Value.of(Array.getLength(((JavaRef) args.get(1))._javaRef));
         });
     put("fuzion.jvm.array_get", (executor, innerClazz) -> args ->
         {
@@ -374,7 +542,7 @@ public class Intrinsics extends ANY
             ._data;
           return new JavaRef(res);
         });
-    put("fuzion.jvm.create_jvm", (executor, innerClazz) -> args -> new i32Value(0));
+    put("fuzion.jvm.create_jvm", (executor, innerClazz) -> args -> i32Value.of (0));
     put("fuzion.jvm.destroy_jvm", (executor, innerClazz) -> args -> Value.UNIT);
     put("fuzion.jvm.string_to_java_object0", (executor, innerClazz) -> args ->
         {
@@ -438,7 +606,7 @@ public class Intrinsics extends ANY
         {
           return Value.UNIT;
         });
-    put("fuzion.sys.env_vars.has0", (executor, innerClazz) -> args -> new boolValue(System.getenv(utf8ByteArrayDataToString(args.get(1))) != null));
+    put("fuzion.sys.env_vars.has0", (executor, innerClazz) -> args -> boolValue.of (System.getenv(utf8ByteArrayDataToString(args.get(1))) != null));
     put("fuzion.sys.env_vars.get0", (executor, innerClazz) -> args -> Interpreter.boxedConstString(System.getenv(utf8ByteArrayDataToString(args.get(1)))));
     put("fuzion.sys.thread.spawn0", (executor, innerClazz) -> args ->
         {
@@ -472,170 +640,170 @@ public class Intrinsics extends ANY
           return Value.UNIT;
         });
 
-    put("safety"                , (executor, innerClazz) -> args -> new boolValue(executor.options().fuzionSafety()));
-    put("debug"                 , (executor, innerClazz) -> args -> new boolValue(executor.options().fuzionDebug()));
-    put("debug_level"           , (executor, innerClazz) -> args -> new i32Value (executor.options().fuzionDebugLevel()));
-    put("i8.as_i32"             , (executor, innerClazz) -> args -> new i32Value (              (                           args.get(0).i8Value() )));
-    put("i8.cast_to_u8"         , (executor, innerClazz) -> args -> new u8Value  (       0xff & (                           args.get(0).i8Value() )));
-    put("i8.prefix -°"          , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (                       -   args.get(0).i8Value() )));
-    put("i8.infix +°"           , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  +   args.get(1).i8Value() )));
-    put("i8.infix -°"           , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  -   args.get(1).i8Value() )));
-    put("i8.infix *°"           , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  *   args.get(1).i8Value() )));
-    put("i8.div"                , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  /   args.get(1).i8Value() )));
-    put("i8.mod"                , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  %   args.get(1).i8Value() )));
-    put("i8.infix &"            , (executor, innerClazz) -> args -> new i8Value  (              (args.get(0).i8Value()  &   args.get(1).i8Value() )));
-    put("i8.infix |"            , (executor, innerClazz) -> args -> new i8Value  (              (args.get(0).i8Value()  |   args.get(1).i8Value() )));
-    put("i8.infix ^"            , (executor, innerClazz) -> args -> new i8Value  (              (args.get(0).i8Value()  ^   args.get(1).i8Value() )));
-    put("i8.infix >>"           , (executor, innerClazz) -> args -> new i8Value  (              (args.get(0).i8Value()  >>  args.get(1).i8Value() )));
-    put("i8.infix <<"           , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (args.get(0).i8Value()  <<  args.get(1).i8Value() )));
-    put("i8.type.equality"      , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i8Value()  ==  args.get(2).i8Value() )));
-    put("i8.type.lteq"          , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i8Value()  <=  args.get(2).i8Value() )));
-    put("i16.as_i32"            , (executor, innerClazz) -> args -> new i32Value (              (                           args.get(0).i16Value())));
-    put("i16.cast_to_u16"       , (executor, innerClazz) -> args -> new u16Value (     0xffff & (                           args.get(0).i16Value())));
-    put("i16.prefix -°"         , (executor, innerClazz) -> args -> new i16Value ((int) (short) (                       -   args.get(0).i16Value())));
-    put("i16.infix +°"          , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() +   args.get(1).i16Value())));
-    put("i16.infix -°"          , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() -   args.get(1).i16Value())));
-    put("i16.infix *°"          , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() *   args.get(1).i16Value())));
-    put("i16.div"               , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() /   args.get(1).i16Value())));
-    put("i16.mod"               , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() %   args.get(1).i16Value())));
-    put("i16.infix &"           , (executor, innerClazz) -> args -> new i16Value (              (args.get(0).i16Value() &   args.get(1).i16Value())));
-    put("i16.infix |"           , (executor, innerClazz) -> args -> new i16Value (              (args.get(0).i16Value() |   args.get(1).i16Value())));
-    put("i16.infix ^"           , (executor, innerClazz) -> args -> new i16Value (              (args.get(0).i16Value() ^   args.get(1).i16Value())));
-    put("i16.infix >>"          , (executor, innerClazz) -> args -> new i16Value (              (args.get(0).i16Value() >>  args.get(1).i16Value())));
-    put("i16.infix <<"          , (executor, innerClazz) -> args -> new i16Value ((int) (short) (args.get(0).i16Value() <<  args.get(1).i16Value())));
-    put("i16.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i16Value() ==  args.get(2).i16Value())));
-    put("i16.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i16Value() <=  args.get(2).i16Value())));
-    put("i32.as_i64"            , (executor, innerClazz) -> args -> new i64Value ((long)        (                           args.get(0).i32Value())));
-    put("i32.cast_to_u32"       , (executor, innerClazz) -> args -> new u32Value (              (                           args.get(0).i32Value())));
-    put("i32.as_f64"            , (executor, innerClazz) -> args -> new f64Value ((double)      (                           args.get(0).i32Value())));
-    put("i32.prefix -°"         , (executor, innerClazz) -> args -> new i32Value (              (                       -   args.get(0).i32Value())));
-    put("i32.infix +°"          , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() +   args.get(1).i32Value())));
-    put("i32.infix -°"          , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() -   args.get(1).i32Value())));
-    put("i32.infix *°"          , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() *   args.get(1).i32Value())));
-    put("i32.div"               , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() /   args.get(1).i32Value())));
-    put("i32.mod"               , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() %   args.get(1).i32Value())));
-    put("i32.infix &"           , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() &   args.get(1).i32Value())));
-    put("i32.infix |"           , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() |   args.get(1).i32Value())));
-    put("i32.infix ^"           , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() ^   args.get(1).i32Value())));
-    put("i32.infix >>"          , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() >>  args.get(1).i32Value())));
-    put("i32.infix <<"          , (executor, innerClazz) -> args -> new i32Value (              (args.get(0).i32Value() <<  args.get(1).i32Value())));
-    put("i32.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i32Value() ==  args.get(2).i32Value())));
-    put("i32.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i32Value() <=  args.get(2).i32Value())));
-    put("i64.cast_to_u64"       , (executor, innerClazz) -> args -> new u64Value (              (                           args.get(0).i64Value())));
-    put("i64.as_f64"            , (executor, innerClazz) -> args -> new f64Value ((double)      (                           args.get(0).i64Value())));
-    put("i64.prefix -°"         , (executor, innerClazz) -> args -> new i64Value (              (                       -   args.get(0).i64Value())));
-    put("i64.infix +°"          , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() +   args.get(1).i64Value())));
-    put("i64.infix -°"          , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() -   args.get(1).i64Value())));
-    put("i64.infix *°"          , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() *   args.get(1).i64Value())));
-    put("i64.div"               , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() /   args.get(1).i64Value())));
-    put("i64.mod"               , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() %   args.get(1).i64Value())));
-    put("i64.infix &"           , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() &   args.get(1).i64Value())));
-    put("i64.infix |"           , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() |   args.get(1).i64Value())));
-    put("i64.infix ^"           , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() ^   args.get(1).i64Value())));
-    put("i64.infix >>"          , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() >>  args.get(1).i64Value())));
-    put("i64.infix <<"          , (executor, innerClazz) -> args -> new i64Value (              (args.get(0).i64Value() <<  args.get(1).i64Value())));
-    put("i64.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i64Value() ==  args.get(2).i64Value())));
-    put("i64.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).i64Value() <=  args.get(2).i64Value())));
-    put("u8.as_i32"             , (executor, innerClazz) -> args -> new i32Value (              (                           args.get(0).u8Value() )));
-    put("u8.cast_to_i8"         , (executor, innerClazz) -> args -> new i8Value  ((int) (byte)  (                           args.get(0).u8Value() )));
-    put("u8.prefix -°"          , (executor, innerClazz) -> args -> new u8Value  (       0xff & (                       -   args.get(0).u8Value() )));
-    put("u8.infix +°"           , (executor, innerClazz) -> args -> new u8Value  (       0xff & (args.get(0).u8Value()  +   args.get(1).u8Value() )));
-    put("u8.infix -°"           , (executor, innerClazz) -> args -> new u8Value  (       0xff & (args.get(0).u8Value()  -   args.get(1).u8Value() )));
-    put("u8.infix *°"           , (executor, innerClazz) -> args -> new u8Value  (       0xff & (args.get(0).u8Value()  *   args.get(1).u8Value() )));
-    put("u8.div"                , (executor, innerClazz) -> args -> new u8Value  (Integer.divideUnsigned   (args.get(0).u8Value(), args.get(1).u8Value())));
-    put("u8.mod"                , (executor, innerClazz) -> args -> new u8Value  (Integer.remainderUnsigned(args.get(0).u8Value(), args.get(1).u8Value())));
-    put("u8.infix &"            , (executor, innerClazz) -> args -> new u8Value  (              (args.get(0).u8Value()  &   args.get(1).u8Value() )));
-    put("u8.infix |"            , (executor, innerClazz) -> args -> new u8Value  (              (args.get(0).u8Value()  |   args.get(1).u8Value() )));
-    put("u8.infix ^"            , (executor, innerClazz) -> args -> new u8Value  (              (args.get(0).u8Value()  ^   args.get(1).u8Value() )));
-    put("u8.infix >>"           , (executor, innerClazz) -> args -> new u8Value  (              (args.get(0).u8Value()  >>> args.get(1).u8Value() )));
-    put("u8.infix <<"           , (executor, innerClazz) -> args -> new u8Value  (       0xff & (args.get(0).u8Value()  <<  args.get(1).u8Value() )));
-    put("u8.type.equality"      , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).u8Value()  ==  args.get(2).u8Value() )));
-    put("u8.type.lteq"          , (executor, innerClazz) -> args -> new boolValue(Integer.compareUnsigned(args.get(1).u8Value(), args.get(2).u8Value()) <= 0));
-    put("u16.as_i32"            , (executor, innerClazz) -> args -> new i32Value (              (                           args.get(0).u16Value())));
-    put("u16.low8bits"          , (executor, innerClazz) -> args -> new u8Value  (       0xff & (                           args.get(0).u16Value())));
-    put("u16.cast_to_i16"       , (executor, innerClazz) -> args -> new i16Value ((short)       (                           args.get(0).u16Value())));
-    put("u16.prefix -°"         , (executor, innerClazz) -> args -> new u16Value (     0xffff & (                       -   args.get(0).u16Value())));
-    put("u16.infix +°"          , (executor, innerClazz) -> args -> new u16Value (     0xffff & (args.get(0).u16Value() +   args.get(1).u16Value())));
-    put("u16.infix -°"          , (executor, innerClazz) -> args -> new u16Value (     0xffff & (args.get(0).u16Value() -   args.get(1).u16Value())));
-    put("u16.infix *°"          , (executor, innerClazz) -> args -> new u16Value (     0xffff & (args.get(0).u16Value() *   args.get(1).u16Value())));
-    put("u16.div"               , (executor, innerClazz) -> args -> new u16Value (Integer.divideUnsigned   (args.get(0).u16Value(), args.get(1).u16Value())));
-    put("u16.mod"               , (executor, innerClazz) -> args -> new u16Value (Integer.remainderUnsigned(args.get(0).u16Value(), args.get(1).u16Value())));
-    put("u16.infix &"           , (executor, innerClazz) -> args -> new u16Value (              (args.get(0).u16Value() &   args.get(1).u16Value())));
-    put("u16.infix |"           , (executor, innerClazz) -> args -> new u16Value (              (args.get(0).u16Value() |   args.get(1).u16Value())));
-    put("u16.infix ^"           , (executor, innerClazz) -> args -> new u16Value (              (args.get(0).u16Value() ^   args.get(1).u16Value())));
-    put("u16.infix >>"          , (executor, innerClazz) -> args -> new u16Value (              (args.get(0).u16Value() >>> args.get(1).u16Value())));
-    put("u16.infix <<"          , (executor, innerClazz) -> args -> new u16Value (     0xffff & (args.get(0).u16Value() <<  args.get(1).u16Value())));
-    put("u16.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).u16Value() ==  args.get(2).u16Value())));
-    put("u16.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(Integer.compareUnsigned(args.get(1).u16Value(), args.get(2).u16Value()) <= 0));
-    put("u32.as_i64"            , (executor, innerClazz) -> args -> new i64Value (Integer.toUnsignedLong(args.get(0).u32Value())));
-    put("u32.low8bits"          , (executor, innerClazz) -> args -> new u8Value  (       0xff & (                           args.get(0).u32Value())));
-    put("u32.low16bits"         , (executor, innerClazz) -> args -> new u16Value (     0xffff & (                           args.get(0).u32Value())));
-    put("u32.cast_to_i32"       , (executor, innerClazz) -> args -> new i32Value (              (                           args.get(0).u32Value())));
-    put("u32.as_f64"            , (executor, innerClazz) -> args -> new f64Value ((double)      Integer.toUnsignedLong(     args.get(0).u32Value())));
-    put("u32.cast_to_f32"       , (executor, innerClazz) -> args -> new f32Value (              Float.intBitsToFloat(       args.get(0).u32Value())));
-    put("u32.prefix -°"         , (executor, innerClazz) -> args -> new u32Value (              (                       -   args.get(0).u32Value())));
-    put("u32.infix +°"          , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() +   args.get(1).u32Value())));
-    put("u32.infix -°"          , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() -   args.get(1).u32Value())));
-    put("u32.infix *°"          , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() *   args.get(1).u32Value())));
-    put("u32.div"               , (executor, innerClazz) -> args -> new u32Value (Integer.divideUnsigned   (args.get(0).u32Value(), args.get(1).u32Value())));
-    put("u32.mod"               , (executor, innerClazz) -> args -> new u32Value (Integer.remainderUnsigned(args.get(0).u32Value(), args.get(1).u32Value())));
-    put("u32.infix &"           , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() &   args.get(1).u32Value())));
-    put("u32.infix |"           , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() |   args.get(1).u32Value())));
-    put("u32.infix ^"           , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() ^   args.get(1).u32Value())));
-    put("u32.infix >>"          , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() >>> args.get(1).u32Value())));
-    put("u32.infix <<"          , (executor, innerClazz) -> args -> new u32Value (              (args.get(0).u32Value() <<  args.get(1).u32Value())));
-    put("u32.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).u32Value() ==  args.get(2).u32Value())));
-    put("u32.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(Integer.compareUnsigned(args.get(1).u32Value(), args.get(2).u32Value()) <= 0));
-    put("u64.low8bits"          , (executor, innerClazz) -> args -> new u8Value  (       0xff & ((int)                      args.get(0).u64Value())));
-    put("u64.low16bits"         , (executor, innerClazz) -> args -> new u16Value (     0xffff & ((int)                      args.get(0).u64Value())));
-    put("u64.low32bits"         , (executor, innerClazz) -> args -> new u32Value ((int)         (                           args.get(0).u64Value())));
-    put("u64.cast_to_i64"       , (executor, innerClazz) -> args -> new i64Value (              (                           args.get(0).u64Value())));
-    put("u64.as_f64"            , (executor, innerClazz) -> args -> new f64Value (Double.parseDouble(Long.toUnsignedString(args.get(0).u64Value()))));
-    put("u64.cast_to_f64"       , (executor, innerClazz) -> args -> new f64Value (              Double.longBitsToDouble(    args.get(0).u64Value())));
-    put("u64.prefix -°"         , (executor, innerClazz) -> args -> new u64Value (              (                       -   args.get(0).u64Value())));
-    put("u64.infix +°"          , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() +   args.get(1).u64Value())));
-    put("u64.infix -°"          , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() -   args.get(1).u64Value())));
-    put("u64.infix *°"          , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() *   args.get(1).u64Value())));
-    put("u64.div"               , (executor, innerClazz) -> args -> new u64Value (Long.divideUnsigned   (args.get(0).u64Value(), args.get(1).u64Value())));
-    put("u64.mod"               , (executor, innerClazz) -> args -> new u64Value (Long.remainderUnsigned(args.get(0).u64Value(), args.get(1).u64Value())));
-    put("u64.infix &"           , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() &   args.get(1).u64Value())));
-    put("u64.infix |"           , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() |   args.get(1).u64Value())));
-    put("u64.infix ^"           , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() ^   args.get(1).u64Value())));
-    put("u64.infix >>"          , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() >>> args.get(1).u64Value())));
-    put("u64.infix <<"          , (executor, innerClazz) -> args -> new u64Value (              (args.get(0).u64Value() <<  args.get(1).u64Value())));
-    put("u64.type.equality"     , (executor, innerClazz) -> args -> new boolValue(              (args.get(1).u64Value() ==  args.get(2).u64Value())));
-    put("u64.type.lteq"         , (executor, innerClazz) -> args -> new boolValue(Long.compareUnsigned(args.get(1).u64Value(), args.get(2).u64Value()) <= 0));
-    put("f32.prefix -"          , (executor, innerClazz) -> args -> new f32Value (                (                       -  args.get(0).f32Value())));
-    put("f32.infix +"           , (executor, innerClazz) -> args -> new f32Value (                (args.get(0).f32Value() +  args.get(1).f32Value())));
-    put("f32.infix -"           , (executor, innerClazz) -> args -> new f32Value (                (args.get(0).f32Value() -  args.get(1).f32Value())));
-    put("f32.infix *"           , (executor, innerClazz) -> args -> new f32Value (                (args.get(0).f32Value() *  args.get(1).f32Value())));
-    put("f32.infix /"           , (executor, innerClazz) -> args -> new f32Value (                (args.get(0).f32Value() /  args.get(1).f32Value())));
-    put("f32.type.equal"        , (executor, innerClazz) -> args -> new boolValue(                (args.get(1).f32Value() == args.get(2).f32Value())));
+    put("safety"                , (executor, innerClazz) -> args -> boolValue.of (executor.options().fuzionSafety()));
+    put("debug"                 , (executor, innerClazz) -> args -> boolValue.of (executor.options().fuzionDebug()));
+    put("debug_level"           , (executor, innerClazz) -> args -> i32Value.of  (executor.options().fuzionDebugLevel()));
+    put("i8.as_i32"             , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (                  a0.i8Value() )));
+    put("i8.cast_to_u8"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u8Value.of   (       0xff & (                  a0.i8Value() )));
+    put("i8.prefix -°"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i8Value.of   ((int) (byte)  (              -   a0.i8Value() )));
+    put("i8.infix +°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  +   a1.i8Value() )));
+    put("i8.infix -°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  -   a1.i8Value() )));
+    put("i8.infix *°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  *   a1.i8Value() )));
+    put("i8.div"                , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  /   a1.i8Value() )));
+    put("i8.mod"                , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  %   a1.i8Value() )));
+    put("i8.infix &"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   (              (a0.i8Value()  &   a1.i8Value() )));
+    put("i8.infix |"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   (              (a0.i8Value()  |   a1.i8Value() )));
+    put("i8.infix ^"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   (              (a0.i8Value()  ^   a1.i8Value() )));
+    put("i8.infix >>"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   (              (a0.i8Value()  >>  a1.i8Value() )));
+    put("i8.infix <<"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i8Value.of   ((int) (byte)  (a0.i8Value()  <<  a1.i8Value() )));
+    put("i8.type.equality"      , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i8Value()  ==  a2.i8Value() )));
+    put("i8.type.lteq"          , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i8Value()  <=  a2.i8Value() )));
+    put("i16.as_i32"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (                  a0.i16Value())));
+    put("i16.cast_to_u16"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u16Value.of  (     0xffff & (                  a0.i16Value())));
+    put("i16.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i16Value.of  ((int) (short) (              -   a0.i16Value())));
+    put("i16.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() +   a1.i16Value())));
+    put("i16.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() -   a1.i16Value())));
+    put("i16.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() *   a1.i16Value())));
+    put("i16.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() /   a1.i16Value())));
+    put("i16.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() %   a1.i16Value())));
+    put("i16.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  (              (a0.i16Value() &   a1.i16Value())));
+    put("i16.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  (              (a0.i16Value() |   a1.i16Value())));
+    put("i16.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  (              (a0.i16Value() ^   a1.i16Value())));
+    put("i16.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  (              (a0.i16Value() >>  a1.i16Value())));
+    put("i16.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i16Value.of  ((int) (short) (a0.i16Value() <<  a1.i16Value())));
+    put("i16.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i16Value() ==  a2.i16Value())));
+    put("i16.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i16Value() <=  a2.i16Value())));
+    put("i32.as_i64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i64Value.of  ((long)        (                  a0.i32Value())));
+    put("i32.cast_to_u32"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u32Value.of  (              (                  a0.i32Value())));
+    put("i32.as_f64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value ((double)      (                  a0.i32Value())));
+    put("i32.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (              -   a0.i32Value())));
+    put("i32.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() +   a1.i32Value())));
+    put("i32.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() -   a1.i32Value())));
+    put("i32.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() *   a1.i32Value())));
+    put("i32.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() /   a1.i32Value())));
+    put("i32.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() %   a1.i32Value())));
+    put("i32.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() &   a1.i32Value())));
+    put("i32.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() |   a1.i32Value())));
+    put("i32.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() ^   a1.i32Value())));
+    put("i32.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() >>  a1.i32Value())));
+    put("i32.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i32Value.of  (              (a0.i32Value() <<  a1.i32Value())));
+    put("i32.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i32Value() ==  a2.i32Value())));
+    put("i32.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i32Value() <=  a2.i32Value())));
+    put("i64.cast_to_u64"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u64Value.of  (              (                  a0.i64Value())));
+    put("i64.as_f64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value ((double)      (                  a0.i64Value())));
+    put("i64.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i64Value.of  (              (              -   a0.i64Value())));
+    put("i64.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() +   a1.i64Value())));
+    put("i64.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() -   a1.i64Value())));
+    put("i64.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() *   a1.i64Value())));
+    put("i64.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() /   a1.i64Value())));
+    put("i64.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() %   a1.i64Value())));
+    put("i64.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() &   a1.i64Value())));
+    put("i64.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() |   a1.i64Value())));
+    put("i64.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() ^   a1.i64Value())));
+    put("i64.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() >>  a1.i64Value())));
+    put("i64.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> i64Value.of  (              (a0.i64Value() <<  a1.i64Value())));
+    put("i64.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i64Value() ==  a2.i64Value())));
+    put("i64.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.i64Value() <=  a2.i64Value())));
+    put("u8.as_i32"             , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (                  a0.u8Value() )));
+    put("u8.cast_to_i8"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i8Value.of   ((int) (byte)  (                  a0.u8Value() )));
+    put("u8.prefix -°"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u8Value.of   (       0xff & (              -   a0.u8Value() )));
+    put("u8.infix +°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (       0xff & (a0.u8Value()  +   a1.u8Value() )));
+    put("u8.infix -°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (       0xff & (a0.u8Value()  -   a1.u8Value() )));
+    put("u8.infix *°"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (       0xff & (a0.u8Value()  *   a1.u8Value() )));
+    put("u8.div"                , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (Integer.divideUnsigned   (a0.u8Value(), a1.u8Value())));
+    put("u8.mod"                , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (Integer.remainderUnsigned(a0.u8Value(), a1.u8Value())));
+    put("u8.infix &"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (              (a0.u8Value()  &   a1.u8Value() )));
+    put("u8.infix |"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (              (a0.u8Value()  |   a1.u8Value() )));
+    put("u8.infix ^"            , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (              (a0.u8Value()  ^   a1.u8Value() )));
+    put("u8.infix >>"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (              (a0.u8Value()  >>> a1.u8Value() )));
+    put("u8.infix <<"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u8Value.of   (       0xff & (a0.u8Value()  <<  a1.u8Value() )));
+    put("u8.type.equality"      , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.u8Value()  ==  a2.u8Value() )));
+    put("u8.type.lteq"          , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (Integer.compareUnsigned(a1.u8Value(), a2.u8Value()) <= 0));
+    put("u16.as_i32"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (                  a0.u16Value())));
+    put("u16.low8bits"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u8Value.of   (       0xff & (                  a0.u16Value())));
+    put("u16.cast_to_i16"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i16Value.of  ((short)       (                  a0.u16Value())));
+    put("u16.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u16Value.of  (     0xffff & (              -   a0.u16Value())));
+    put("u16.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (     0xffff & (a0.u16Value() +   a1.u16Value())));
+    put("u16.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (     0xffff & (a0.u16Value() -   a1.u16Value())));
+    put("u16.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (     0xffff & (a0.u16Value() *   a1.u16Value())));
+    put("u16.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (Integer.divideUnsigned   (a0.u16Value(), a1.u16Value())));
+    put("u16.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (Integer.remainderUnsigned(a0.u16Value(), a1.u16Value())));
+    put("u16.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (              (a0.u16Value() &   a1.u16Value())));
+    put("u16.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (              (a0.u16Value() |   a1.u16Value())));
+    put("u16.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (              (a0.u16Value() ^   a1.u16Value())));
+    put("u16.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (              (a0.u16Value() >>> a1.u16Value())));
+    put("u16.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u16Value.of  (     0xffff & (a0.u16Value() <<  a1.u16Value())));
+    put("u16.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.u16Value() ==  a2.u16Value())));
+    put("u16.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (Integer.compareUnsigned(a1.u16Value(), a2.u16Value()) <= 0));
+    put("u32.as_i64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i64Value.of  (Integer.toUnsignedLong(a0.u32Value())));
+    put("u32.low8bits"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u8Value.of   (       0xff & (                  a0.u32Value())));
+    put("u32.low16bits"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u16Value.of  (     0xffff & (                  a0.u32Value())));
+    put("u32.cast_to_i32"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i32Value.of  (              (                  a0.u32Value())));
+    put("u32.as_f64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value ((double)      Integer.toUnsignedLong(     a0.u32Value())));
+    put("u32.cast_to_f32"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f32Value (              Float.intBitsToFloat(       a0.u32Value())));
+    put("u32.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u32Value.of  (              (              -   a0.u32Value())));
+    put("u32.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() +   a1.u32Value())));
+    put("u32.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() -   a1.u32Value())));
+    put("u32.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() *   a1.u32Value())));
+    put("u32.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (Integer.divideUnsigned   (a0.u32Value(), a1.u32Value())));
+    put("u32.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (Integer.remainderUnsigned(a0.u32Value(), a1.u32Value())));
+    put("u32.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() &   a1.u32Value())));
+    put("u32.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() |   a1.u32Value())));
+    put("u32.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() ^   a1.u32Value())));
+    put("u32.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() >>> a1.u32Value())));
+    put("u32.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u32Value.of  (              (a0.u32Value() <<  a1.u32Value())));
+    put("u32.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.u32Value() ==  a2.u32Value())));
+    put("u32.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (Integer.compareUnsigned(a1.u32Value(), a2.u32Value()) <= 0));
+    put("u64.low8bits"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u8Value.of   (       0xff & ((int)             a0.u64Value())));
+    put("u64.low16bits"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u16Value.of  (     0xffff & ((int)             a0.u64Value())));
+    put("u64.low32bits"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u32Value.of  ((int)         (                  a0.u64Value())));
+    put("u64.cast_to_i64"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i64Value.of  (              (                  a0.u64Value())));
+    put("u64.as_f64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value (Double.parseDouble(Long.toUnsignedString(a0.u64Value()))));
+    put("u64.cast_to_f64"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value (              Double.longBitsToDouble(    a0.u64Value())));
+    put("u64.prefix -°"         , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u64Value.of  (              (              -   a0.u64Value())));
+    put("u64.infix +°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() +   a1.u64Value())));
+    put("u64.infix -°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() -   a1.u64Value())));
+    put("u64.infix *°"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() *   a1.u64Value())));
+    put("u64.div"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (Long.divideUnsigned   (a0.u64Value(), a1.u64Value())));
+    put("u64.mod"               , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (Long.remainderUnsigned(a0.u64Value(), a1.u64Value())));
+    put("u64.infix &"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() &   a1.u64Value())));
+    put("u64.infix |"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() |   a1.u64Value())));
+    put("u64.infix ^"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() ^   a1.u64Value())));
+    put("u64.infix >>"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() >>> a1.u64Value())));
+    put("u64.infix <<"          , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> u64Value.of  (              (a0.u64Value() <<  a1.u64Value())));
+    put("u64.type.equality"     , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (              (a1.u64Value() ==  a2.u64Value())));
+    put("u64.type.lteq"         , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (Long.compareUnsigned(a1.u64Value(), a2.u64Value()) <= 0));
+    put("f32.prefix -"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f32Value (                (              -  a0.f32Value())));
+    put("f32.infix +"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f32Value (                (a0.f32Value() +  a1.f32Value())));
+    put("f32.infix -"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f32Value (                (a0.f32Value() -  a1.f32Value())));
+    put("f32.infix *"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f32Value (                (a0.f32Value() *  a1.f32Value())));
+    put("f32.infix /"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f32Value (                (a0.f32Value() /  a1.f32Value())));
+    put("f32.type.equal"        , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (                (a1.f32Value() == a2.f32Value())));
     put("f32.type.lower_than_or_equal"
-                                , (executor, innerClazz) -> args -> new boolValue(                (args.get(1).f32Value() <= args.get(2).f32Value())));
-    put("f32.as_f64"            , (executor, innerClazz) -> args -> new f64Value((double)                                    args.get(0).f32Value() ));
-    put("f32.cast_to_u32"       , (executor, innerClazz) -> args -> new u32Value (    Float.floatToIntBits(                  args.get(0).f32Value())));
-    put("f64.prefix -"          , (executor, innerClazz) -> args -> new f64Value (                (                       -  args.get(0).f64Value())));
-    put("f64.infix +"           , (executor, innerClazz) -> args -> new f64Value (                (args.get(0).f64Value() +  args.get(1).f64Value())));
-    put("f64.infix -"           , (executor, innerClazz) -> args -> new f64Value (                (args.get(0).f64Value() -  args.get(1).f64Value())));
-    put("f64.infix *"           , (executor, innerClazz) -> args -> new f64Value (                (args.get(0).f64Value() *  args.get(1).f64Value())));
-    put("f64.infix /"           , (executor, innerClazz) -> args -> new f64Value (                (args.get(0).f64Value() /  args.get(1).f64Value())));
-    put("f64.type.equal"        , (executor, innerClazz) -> args -> new boolValue(                (args.get(1).f64Value() == args.get(2).f64Value())));
+                                , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (                (a1.f32Value() <= a2.f32Value())));
+    put("f32.as_f64"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value((double)                           a0.f32Value() ));
+    put("f32.cast_to_u32"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u32Value.of  (    Float.floatToIntBits(         a0.f32Value())));
+    put("f64.prefix -"          , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f64Value (                (              -  a0.f64Value())));
+    put("f64.infix +"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f64Value (                (a0.f64Value() +  a1.f64Value())));
+    put("f64.infix -"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f64Value (                (a0.f64Value() -  a1.f64Value())));
+    put("f64.infix *"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f64Value (                (a0.f64Value() *  a1.f64Value())));
+    put("f64.infix /"           , (executor, innerClazz) -> (Intrinsic2) (a0, a1)     -> new f64Value (                (a0.f64Value() /  a1.f64Value())));
+    put("f64.type.equal"        , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (                (a1.f64Value() == a2.f64Value())));
     put("f64.type.lower_than_or_equal"
-                                , (executor, innerClazz) -> args -> new boolValue(                (args.get(1).f64Value() <= args.get(2).f64Value())));
-    put("f64.as_i64_lax"        , (executor, innerClazz) -> args -> new i64Value((long)                                      args.get(0).f64Value() ));
-    put("f64.as_f32"            , (executor, innerClazz) -> args -> new f32Value((float)                                     args.get(0).f64Value() ));
-    put("f64.cast_to_u64"       , (executor, innerClazz) -> args -> new u64Value (    Double.doubleToLongBits(               args.get(0).f64Value())));
+                                , (executor, innerClazz) -> (Intrinsic3) (a0, a1, a2) -> boolValue.of (                (a1.f64Value() <= a2.f64Value())));
+    put("f64.as_i64_lax"        , (executor, innerClazz) -> (Intrinsic1) (a0)         -> i64Value.of ((long)                             a0.f64Value() ));
+    put("f64.as_f32"            , (executor, innerClazz) -> (Intrinsic1) (a0)         -> new f32Value((float)                            a0.f64Value() ));
+    put("f64.cast_to_u64"       , (executor, innerClazz) -> (Intrinsic1) (a0)         -> u64Value.of  (    Double.doubleToLongBits(      a0.f64Value())));
     put("f32.type.epsilon"      , (executor, innerClazz) -> args -> new f32Value (                  Math.ulp(                (float)1)));
     put("f32.type.max"          , (executor, innerClazz) -> args -> new f32Value (                                           Float.MAX_VALUE));
-    put("f32.type.max_exp"      , (executor, innerClazz) -> args -> new i32Value (                                           Float.MAX_EXPONENT));
+    put("f32.type.max_exp"      , (executor, innerClazz) -> args -> i32Value.of  (                                           Float.MAX_EXPONENT));
     put("f32.type.min_positive" , (executor, innerClazz) -> args -> new f32Value (                                           Float.MIN_NORMAL));
-    put("f32.type.min_exp"      , (executor, innerClazz) -> args -> new i32Value (                                           Float.MIN_EXPONENT));
+    put("f32.type.min_exp"      , (executor, innerClazz) -> args -> i32Value.of  (                                           Float.MIN_EXPONENT));
     put("f64.type.epsilon"      , (executor, innerClazz) -> args -> new f64Value (                 Math.ulp(                 (double)1)));
     put("f64.type.max"          , (executor, innerClazz) -> args -> new f64Value (                                               Double.MAX_VALUE));
-    put("f64.type.max_exp"      , (executor, innerClazz) -> args -> new i32Value (                                               Double.MAX_EXPONENT));
+    put("f64.type.max_exp"      , (executor, innerClazz) -> args -> i32Value.of  (                                               Double.MAX_EXPONENT));
     put("f64.type.min_positive" , (executor, innerClazz) -> args -> new f64Value (                                               Double.MIN_NORMAL));
-    put("f64.type.min_exp"      , (executor, innerClazz) -> args -> new i32Value (                                               Double.MIN_EXPONENT));
+    put("f64.type.min_exp"      , (executor, innerClazz) -> args -> i32Value.of  (                                               Double.MIN_EXPONENT));
     put("effect.type.abort0"      ,
         "effect.type.default0"    ,
         FuzionConstants.EFFECT_INSTATE_NAME,
@@ -671,19 +839,19 @@ public class Intrinsics extends ANY
     });
     put("concur.sync.mtx_lock", (executor, innerClazz) -> args -> {
       ((ReentrantLock) ((JavaRef) args.get(1))._javaRef).lock();
-      return new boolValue(true);
+      return boolValue.of(true);
     });
-    put("concur.sync.mtx_trylock", (executor, innerClazz) -> args -> new boolValue(
+    put("concur.sync.mtx_trylock", (executor, innerClazz) -> args -> boolValue.of (
       ((ReentrantLock) ((JavaRef) args.get(1))._javaRef).tryLock()));
     put("concur.sync.mtx_unlock", (executor, innerClazz) -> args -> {
       try
         {
           ((ReentrantLock) ((JavaRef) args.get(1))._javaRef).unlock();
-          return new boolValue(true);
+          return boolValue.of(true);
         }
       catch (IllegalMonitorStateException e)
         {
-          return new boolValue(false);
+          return boolValue.of(false);
         }
     });
     put("concur.sync.mtx_destroy", (executor, innerClazz) -> args -> executor.unitValue());
@@ -698,33 +866,33 @@ public class Intrinsics extends ANY
       try
         {
           ((Condition) ((JavaRef) args.get(1))._javaRef).signal();
-          return new boolValue(true);
+          return boolValue.of(true);
         }
       catch (Exception e)
         {
-          return new boolValue(false);
+          return boolValue.of(false);
         }
     });
     put("concur.sync.cnd_broadcast", (executor, innerClazz) -> args -> {
       try
         {
           ((Condition) ((JavaRef) args.get(1))._javaRef).signalAll();
-          return new boolValue(true);
+          return boolValue.of(true);
         }
       catch (Exception e)
         {
-          return new boolValue(false);
+          return boolValue.of(false);
         }
     });
     put("concur.sync.cnd_wait", (executor, innerClazz) -> args -> {
       try
         {
           ((Condition) ((JavaRef) args.get(1))._javaRef).await();
-          return new boolValue(true);
+          return boolValue.of(true);
         }
       catch (Exception e)
         {
-          return new boolValue(false);
+          return boolValue.of(false);
         }
     });
     put("concur.sync.cnd_destroy", (executor, innerClazz) -> args -> executor.unitValue());
@@ -737,6 +905,166 @@ public class Intrinsics extends ANY
   }
 
 
+  /*
+   * Intrinsics on unboxed values used by Closures.UNBOXED.  These must
+   * compute the same results as the corresponding entries in _intrinsics_.
+   */
+  static
+  {
+    putPrim("i8.as_i32"             , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("i8.cast_to_u8"         , (a0, a1, a2) ->          0xff & (               (int) a0            ));
+    putPrim("i8.prefix -°"          , (a0, a1, a2) -> (byte)          (           -   (int) a0            ));
+    putPrim("i8.infix +°"           , (a0, a1, a2) -> (byte)          ((int) a0   +   (int) a1            ));
+    putPrim("i8.infix -°"           , (a0, a1, a2) -> (byte)          ((int) a0   -   (int) a1            ));
+    putPrim("i8.infix *°"           , (a0, a1, a2) -> (byte)          ((int) a0   *   (int) a1            ));
+    putPrim("i8.div"                , (a0, a1, a2) -> (byte)          ((int) a0   /   (int) a1            ));
+    putPrim("i8.mod"                , (a0, a1, a2) -> (byte)          ((int) a0   %   (int) a1            ));
+    putPrim("i8.infix &"            , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("i8.infix |"            , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("i8.infix ^"            , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("i8.infix >>"           , (a0, a1, a2) ->                 ((int) a0   >>  (int) a1            ));
+    putPrim("i8.infix <<"           , (a0, a1, a2) -> (byte)          ((int) a0   <<  (int) a1            ));
+    putPrim("i8.type.equality"      , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("i8.type.lteq"          , (a0, a1, a2) -> bool            ((int) a1   <=  (int) a2            ));
+    putPrim("i16.as_i32"            , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("i16.cast_to_u16"       , (a0, a1, a2) ->        0xffff & (               (int) a0            ));
+    putPrim("i16.prefix -°"         , (a0, a1, a2) -> (short)         (           -   (int) a0            ));
+    putPrim("i16.infix +°"          , (a0, a1, a2) -> (short)         ((int) a0   +   (int) a1            ));
+    putPrim("i16.infix -°"          , (a0, a1, a2) -> (short)         ((int) a0   -   (int) a1            ));
+    putPrim("i16.infix *°"          , (a0, a1, a2) -> (short)         ((int) a0   *   (int) a1            ));
+    putPrim("i16.div"               , (a0, a1, a2) -> (short)         ((int) a0   /   (int) a1            ));
+    putPrim("i16.mod"               , (a0, a1, a2) -> (short)         ((int) a0   %   (int) a1            ));
+    putPrim("i16.infix &"           , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("i16.infix |"           , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("i16.infix ^"           , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("i16.infix >>"          , (a0, a1, a2) ->                 ((int) a0   >>  (int) a1            ));
+    putPrim("i16.infix <<"          , (a0, a1, a2) -> (short)         ((int) a0   <<  (int) a1            ));
+    putPrim("i16.type.equality"     , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("i16.type.lteq"         , (a0, a1, a2) -> bool            ((int) a1   <=  (int) a2            ));
+    putPrim("i32.as_i64"            , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("i32.cast_to_u32"       , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("i32.as_f64"            , (a0, a1, a2) -> bits            ((double)       (int) a0            ));
+    putPrim("i32.prefix -°"         , (a0, a1, a2) ->                 (           -   (int) a0            ));
+    putPrim("i32.infix +°"          , (a0, a1, a2) ->                 ((int) a0   +   (int) a1            ));
+    putPrim("i32.infix -°"          , (a0, a1, a2) ->                 ((int) a0   -   (int) a1            ));
+    putPrim("i32.infix *°"          , (a0, a1, a2) ->                 ((int) a0   *   (int) a1            ));
+    putPrim("i32.div"               , (a0, a1, a2) ->                 ((int) a0   /   (int) a1            ));
+    putPrim("i32.mod"               , (a0, a1, a2) ->                 ((int) a0   %   (int) a1            ));
+    putPrim("i32.infix &"           , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("i32.infix |"           , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("i32.infix ^"           , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("i32.infix >>"          , (a0, a1, a2) ->                 ((int) a0   >>  (int) a1            ));
+    putPrim("i32.infix <<"          , (a0, a1, a2) ->                 ((int) a0   <<  (int) a1            ));
+    putPrim("i32.type.equality"     , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("i32.type.lteq"         , (a0, a1, a2) -> bool            ((int) a1   <=  (int) a2            ));
+    putPrim("i64.cast_to_u64"       , (a0, a1, a2) ->                 (                     a0            ));
+    putPrim("i64.as_f64"            , (a0, a1, a2) -> bits            ((double)             a0            ));
+    putPrim("i64.prefix -°"         , (a0, a1, a2) ->                 (           -         a0            ));
+    putPrim("i64.infix +°"          , (a0, a1, a2) ->                 (      a0   +         a1            ));
+    putPrim("i64.infix -°"          , (a0, a1, a2) ->                 (      a0   -         a1            ));
+    putPrim("i64.infix *°"          , (a0, a1, a2) ->                 (      a0   *         a1            ));
+    putPrim("i64.div"               , (a0, a1, a2) ->                 (      a0   /         a1            ));
+    putPrim("i64.mod"               , (a0, a1, a2) ->                 (      a0   %         a1            ));
+    putPrim("i64.infix &"           , (a0, a1, a2) ->                 (      a0   &         a1            ));
+    putPrim("i64.infix |"           , (a0, a1, a2) ->                 (      a0   |         a1            ));
+    putPrim("i64.infix ^"           , (a0, a1, a2) ->                 (      a0   ^         a1            ));
+    putPrim("i64.infix >>"          , (a0, a1, a2) ->                 (      a0   >>        a1            ));
+    putPrim("i64.infix <<"          , (a0, a1, a2) ->                 (      a0   <<        a1            ));
+    putPrim("i64.type.equality"     , (a0, a1, a2) -> bool            (      a1   ==        a2            ));
+    putPrim("i64.type.lteq"         , (a0, a1, a2) -> bool            (      a1   <=        a2            ));
+    putPrim("u8.as_i32"             , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("u8.cast_to_i8"         , (a0, a1, a2) -> (byte)          (               (int) a0            ));
+    putPrim("u8.prefix -°"          , (a0, a1, a2) ->          0xff & (           -   (int) a0            ));
+    putPrim("u8.infix +°"           , (a0, a1, a2) ->          0xff & ((int) a0   +   (int) a1            ));
+    putPrim("u8.infix -°"           , (a0, a1, a2) ->          0xff & ((int) a0   -   (int) a1            ));
+    putPrim("u8.infix *°"           , (a0, a1, a2) ->          0xff & ((int) a0   *   (int) a1            ));
+    putPrim("u8.div"                , (a0, a1, a2) -> Integer.divideUnsigned   ((int) a0, (int) a1        ));
+    putPrim("u8.mod"                , (a0, a1, a2) -> Integer.remainderUnsigned((int) a0, (int) a1        ));
+    putPrim("u8.infix &"            , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("u8.infix |"            , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("u8.infix ^"            , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("u8.infix >>"           , (a0, a1, a2) ->                 ((int) a0   >>> (int) a1            ));
+    putPrim("u8.infix <<"           , (a0, a1, a2) ->          0xff & ((int) a0   <<  (int) a1            ));
+    putPrim("u8.type.equality"      , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("u8.type.lteq"          , (a0, a1, a2) -> bool            (Integer.compareUnsigned((int) a1, (int) a2) <= 0));
+    putPrim("u16.as_i32"            , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("u16.low8bits"          , (a0, a1, a2) ->          0xff & (               (int) a0            ));
+    putPrim("u16.cast_to_i16"       , (a0, a1, a2) -> (short)         (               (int) a0            ));
+    putPrim("u16.prefix -°"         , (a0, a1, a2) ->        0xffff & (           -   (int) a0            ));
+    putPrim("u16.infix +°"          , (a0, a1, a2) ->        0xffff & ((int) a0   +   (int) a1            ));
+    putPrim("u16.infix -°"          , (a0, a1, a2) ->        0xffff & ((int) a0   -   (int) a1            ));
+    putPrim("u16.infix *°"          , (a0, a1, a2) ->        0xffff & ((int) a0   *   (int) a1            ));
+    putPrim("u16.div"               , (a0, a1, a2) -> Integer.divideUnsigned   ((int) a0, (int) a1        ));
+    putPrim("u16.mod"               , (a0, a1, a2) -> Integer.remainderUnsigned((int) a0, (int) a1        ));
+    putPrim("u16.infix &"           , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("u16.infix |"           , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("u16.infix ^"           , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("u16.infix >>"          , (a0, a1, a2) ->                 ((int) a0   >>> (int) a1            ));
+    putPrim("u16.infix <<"          , (a0, a1, a2) ->        0xffff & ((int) a0   <<  (int) a1            ));
+    putPrim("u16.type.equality"     , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("u16.type.lteq"         , (a0, a1, a2) -> bool            (Integer.compareUnsigned((int) a1, (int) a2) <= 0));
+    putPrim("u32.as_i64"            , (a0, a1, a2) -> Integer.toUnsignedLong((int) a0                     ));
+    putPrim("u32.low8bits"          , (a0, a1, a2) ->          0xff & (               (int) a0            ));
+    putPrim("u32.low16bits"         , (a0, a1, a2) ->        0xffff & (               (int) a0            ));
+    putPrim("u32.cast_to_i32"       , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("u32.as_f64"            , (a0, a1, a2) -> bits            ((double) Integer.toUnsignedLong((int) a0)));
+    putPrim("u32.cast_to_f32"       , (a0, a1, a2) -> bits            (Float.intBitsToFloat((int) a0)      ));
+    putPrim("u32.prefix -°"         , (a0, a1, a2) ->                 (           -   (int) a0            ));
+    putPrim("u32.infix +°"          , (a0, a1, a2) ->                 ((int) a0   +   (int) a1            ));
+    putPrim("u32.infix -°"          , (a0, a1, a2) ->                 ((int) a0   -   (int) a1            ));
+    putPrim("u32.infix *°"          , (a0, a1, a2) ->                 ((int) a0   *   (int) a1            ));
+    putPrim("u32.div"               , (a0, a1, a2) -> Integer.divideUnsigned   ((int) a0, (int) a1        ));
+    putPrim("u32.mod"               , (a0, a1, a2) -> Integer.remainderUnsigned((int) a0, (int) a1        ));
+    putPrim("u32.infix &"           , (a0, a1, a2) ->                 ((int) a0   &   (int) a1            ));
+    putPrim("u32.infix |"           , (a0, a1, a2) ->                 ((int) a0   |   (int) a1            ));
+    putPrim("u32.infix ^"           , (a0, a1, a2) ->                 ((int) a0   ^   (int) a1            ));
+    putPrim("u32.infix >>"          , (a0, a1, a2) ->                 ((int) a0   >>> (int) a1            ));
+    putPrim("u32.infix <<"          , (a0, a1, a2) ->                 ((int) a0   <<  (int) a1            ));
+    putPrim("u32.type.equality"     , (a0, a1, a2) -> bool            ((int) a1   ==  (int) a2            ));
+    putPrim("u32.type.lteq"         , (a0, a1, a2) -> bool            (Integer.compareUnsigned((int) a1, (int) a2) <= 0));
+    putPrim("u64.low8bits"          , (a0, a1, a2) ->          0xff & (               (int) a0            ));
+    putPrim("u64.low16bits"         , (a0, a1, a2) ->        0xffff & (               (int) a0            ));
+    putPrim("u64.low32bits"         , (a0, a1, a2) ->                 (               (int) a0            ));
+    putPrim("u64.cast_to_i64"       , (a0, a1, a2) ->                 (                     a0            ));
+    putPrim("u64.as_f64"            , (a0, a1, a2) -> bits            (Double.parseDouble(Long.toUnsignedString(a0))));
+    putPrim("u64.cast_to_f64"       , (a0, a1, a2) -> bits            (Double.longBitsToDouble(a0)        ));
+    putPrim("u64.prefix -°"         , (a0, a1, a2) ->                 (           -         a0            ));
+    putPrim("u64.infix +°"          , (a0, a1, a2) ->                 (      a0   +         a1            ));
+    putPrim("u64.infix -°"          , (a0, a1, a2) ->                 (      a0   -         a1            ));
+    putPrim("u64.infix *°"          , (a0, a1, a2) ->                 (      a0   *         a1            ));
+    putPrim("u64.div"               , (a0, a1, a2) -> Long.divideUnsigned   (a0, a1                       ));
+    putPrim("u64.mod"               , (a0, a1, a2) -> Long.remainderUnsigned(a0, a1                       ));
+    putPrim("u64.infix &"           , (a0, a1, a2) ->                 (      a0   &         a1            ));
+    putPrim("u64.infix |"           , (a0, a1, a2) ->                 (      a0   |         a1            ));
+    putPrim("u64.infix ^"           , (a0, a1, a2) ->                 (      a0   ^         a1            ));
+    putPrim("u64.infix >>"          , (a0, a1, a2) ->                 (      a0   >>>       a1            ));
+    putPrim("u64.infix <<"          , (a0, a1, a2) ->                 (      a0   <<        a1            ));
+    putPrim("u64.type.equality"     , (a0, a1, a2) -> bool            (      a1   ==        a2            ));
+    putPrim("u64.type.lteq"         , (a0, a1, a2) -> bool            (Long.compareUnsigned(a1, a2) <= 0  ));
+    putPrim("f32.prefix -"          , (a0, a1, a2) -> bits            (           -   f32(a0)             ));
+    putPrim("f32.infix +"           , (a0, a1, a2) -> bits            (f32(a0)    +   f32(a1)             ));
+    putPrim("f32.infix -"           , (a0, a1, a2) -> bits            (f32(a0)    -   f32(a1)             ));
+    putPrim("f32.infix *"           , (a0, a1, a2) -> bits            (f32(a0)    *   f32(a1)             ));
+    putPrim("f32.infix /"           , (a0, a1, a2) -> bits            (f32(a0)    /   f32(a1)             ));
+    putPrim("f32.type.equal"        , (a0, a1, a2) -> bool            (f32(a1)    ==  f32(a2)             ));
+    putPrim("f32.type.lower_than_or_equal"
+                                    , (a0, a1, a2) -> bool            (f32(a1)    <=  f32(a2)             ));
+    putPrim("f32.as_f64"            , (a0, a1, a2) -> bits            ((double)       f32(a0)             ));
+    putPrim("f32.cast_to_u32"       , (a0, a1, a2) -> Float.floatToIntBits(f32(a0)                        ));
+    putPrim("f64.prefix -"          , (a0, a1, a2) -> bits            (           -   f64(a0)             ));
+    putPrim("f64.infix +"           , (a0, a1, a2) -> bits            (f64(a0)    +   f64(a1)             ));
+    putPrim("f64.infix -"           , (a0, a1, a2) -> bits            (f64(a0)    -   f64(a1)             ));
+    putPrim("f64.infix *"           , (a0, a1, a2) -> bits            (f64(a0)    *   f64(a1)             ));
+    putPrim("f64.infix /"           , (a0, a1, a2) -> bits            (f64(a0)    /   f64(a1)             ));
+    putPrim("f64.type.equal"        , (a0, a1, a2) -> bool            (f64(a1)    ==  f64(a2)             ));
+    putPrim("f64.type.lower_than_or_equal"
+                                    , (a0, a1, a2) -> bool            (f64(a1)    <=  f64(a2)             ));
+    putPrim("f64.as_i64_lax"        , (a0, a1, a2) -> (long)          (               f64(a0)             ));
+    putPrim("f64.as_f32"            , (a0, a1, a2) -> bits            ((float)        f64(a0)             ));
+    putPrim("f64.cast_to_u64"       , (a0, a1, a2) -> Double.doubleToLongBits(f64(a0)                     ));
+  }
+
+
   static class Abort extends Error
   {
     int _effect;
@@ -757,11 +1085,11 @@ public class Intrinsics extends ANY
    */
   static Callable effect(Executor executor, int innerClazz)
   {
+    var fuir = executor.fuir();
+    var in  = fuir.clazzOriginalName(innerClazz);
+    int ecl = fuir.effectTypeFromIntrinsic(innerClazz);
     return (args) ->
       {
-        var fuir = executor.fuir();
-        var in  = fuir.clazzOriginalName(innerClazz);
-        int ecl = fuir.effectTypeFromIntrinsic(innerClazz);
         var ev  = args.size() > 1 ? args.get(1) : null;
         var effects = FuzionThread.current()._effects;
         switch (in)
@@ -805,7 +1133,7 @@ public class Intrinsics extends ANY
                 }
             }
             break;
-          case "effect.type.is_instated0": return new boolValue(effects.get(ecl) != null /* NOTE not containsKey since ecl may map to null! */ );
+          case "effect.type.is_instated0": return boolValue.of(effects.get(ecl) != null /* NOTE not containsKey since ecl may map to null! */ );
           case "effect.type.replace0"    : check(effects.get(ecl) != null, fuir.clazzIsUnitType(ecl) || ev != Value.UNIT); effects.put(ecl, ev);   break;
           default: throw new Error("unexpected effect intrinsic '"+in+"'");
           }
@@ -26,8 +26,7 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.be.interpreter;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 import dev.flang.fuir.FUIR;
 
@@ -44,26 +43,49 @@ class Layout extends FUIRContext
   /*-----------------------------  statics  -----------------------------*/
 
 
-  private static final TreeMap<Integer, Layout> _layouts_ = new TreeMap<>();
+  /**
+   * Layouts of clazzes indexed by fuir().clazzId2num(cl).  For ref clazzes,
+   * this contains the layout of the corresponding value clazz.
+   *
+   * Entries are only added while holding the lock on Layout.class, but they
+   * are read without locking.  This is safe since all fields of Layout are
+   * final.  A reader that sees a stale array or a null entry retries while
+   * holding the lock.
+   */
+  private static Layout[] _layouts_ = new Layout[0];
 
 
   /**
    * Determine the size of an instance of the given clazz.
    */
-  static synchronized Layout get(int cl)
+  static Layout get(int cl)
+  {
+    var n = fuir().clazzId2num(cl);
+    var a = _layouts_;
+    var result = n < a.length ? a[n] : null;
+    return result != null ? result : create(cl);
+  }
+
+
+  /**
+   * Create the layout for the given clazz unless another thread did this
+   * already.
+   */
+  private static synchronized Layout create(int cl)
   {
-    Layout result = _layouts_.get(cl);
+    var n = fuir().clazzId2num(cl);
+    var result = n < _layouts_.length ? _layouts_[n] : null;
     if (result == null)
       {
-        if (fuir().clazzIsRef(cl))
+        result = fuir().clazzIsRef(cl) ? get(fuir().clazzAsValue(cl))
+                                       : new Layout(cl);
+        var a = _layouts_;
+        if (n >= a.length)
           {
-            result = get(fuir().clazzAsValue(cl));
-          }
-        else
-          {
-            result = new Layout(cl);
-            _layouts_.put(cl, result);
+            a = Arrays.copyOf(a, Math.max(n + 1, fuir().clazzId2num(fuir().lastClazz()) + 1));
           }
+        a[n] = result;
+        _layouts_ = a;
       }
     return result;
   }
@@ -79,9 +101,29 @@ class Layout extends FUIRContext
 
 
   /**
-   * Offsets of the fields in instances of this clazz.
+   * The fields of this clazz in the order they are layouted.
+   */
+  private final int[] _fields;
+
+
+  /**
+   * Offsets of the fields in instances of this clazz, _fieldOffsets[i] is the
+   * offset of _fields[i].
+   */
+  private final int[] _fieldOffsets;
+
+
+  /**
+   * Offsets of the fields indexed by fuir().clazzId2num(f) - _firstFieldNum,
+   * -1 for clazzes that are not fields of this clazz.
+   */
+  private final int[] _offsets;
+
+
+  /**
+   * The smallest fuir().clazzId2num(f) of all fields f in _fields.
    */
-  public final Map<Integer, Integer> _offsets = new TreeMap<>();
+  private final int _firstFieldNum;
 
 
   /*----------------------------  variables  ----------------------------*/
@@ -96,10 +138,10 @@ class Layout extends FUIRContext
 
 
   /**
-   * The size of the choice values in case fuir.clazzIsChoice(_clazz). -1 if layout has
-   * not started yet.
+   * The size of the choice values in case fuir.clazzIsChoice(_clazz), -1
+   * otherwise.
    */
-  private int _choiceValsSize = -1;
+  private final int _choiceValsSize;
 
 
   /*---------------------------  constructors  ---------------------------*/
@@ -110,6 +152,9 @@ class Layout extends FUIRContext
     _clazz = cl;
 
     var size = Integer.MIN_VALUE;
+    var choiceValsSize = -1;
+    var fields = new int[0];
+    var fieldOffsets = new int[0];
     if (fuir().clazzIsChoice(_clazz))
       {
         // reserved for tagging
@@ -124,13 +169,15 @@ class Layout extends FUIRContext
                 maxSz = sz;
               }
           }
-        _choiceValsSize = maxSz;
+        choiceValsSize = maxSz;
         size = size + maxSz;
         size -= Integer.MIN_VALUE;
       }
     else if (fuir().clazzKind(_clazz) == FUIR.FeatureKind.Routine)
       {
-        for (int i = 0; i < fuir().clazzFieldCount(cl); i++)
+        fields = new int[fuir().clazzFieldCount(cl)];
+        fieldOffsets = new int[fields.length];
+        for (int i = 0; i < fields.length; i++)
           {
             var f = fuir().clazzField(cl, i);
             int fc = fuir().clazzResultClazz(f);
@@ -154,12 +201,31 @@ class Layout extends FUIRContext
                     ? 0
                     : get(fc).size();
                 };
-            _offsets.put(f, size - Integer.MIN_VALUE);
+            fields[i] = f;
+            fieldOffsets[i] = size - Integer.MIN_VALUE;
             size += fsz;
           }
         size -= Integer.MIN_VALUE;
       }
     _size  = size;
+    _choiceValsSize = choiceValsSize;
+    _fields = fields;
+    _fieldOffsets = fieldOffsets;
+
+    var min = Integer.MAX_VALUE;
+    var max = -1;
+    for (var f : fields)
+      {
+        min = Math.min(min, fuir().clazzId2num(f));
+        max = Math.max(max, fuir().clazzId2num(f));
+      }
+    _firstFieldNum = min;
+    _offsets = new int[max - min + 1 > 0 ? max - min + 1 : 0];
+    Arrays.fill(_offsets, -1);
+    for (var i = 0; i < fields.length; i++)
+      {
+        _offsets[fuir().clazzId2num(fields[i]) - min] = fieldOffsets[i];
+      }
   }
 
 
@@ -183,10 +249,39 @@ class Layout extends FUIRContext
     if (PRECONDITIONS) require
       (fuir().clazzKind(_clazz) == FUIR.FeatureKind.Routine ||
        fuir().clazzIsChoice(_clazz),
-       _offsets.containsKey(f)
+       fuir().clazzId2num(f) - _firstFieldNum >= 0,
+       fuir().clazzId2num(f) - _firstFieldNum < _offsets.length,
+       _offsets[fuir().clazzId2num(f) - _firstFieldNum] >= 0
        );
 
-    return _offsets.get(f);
+    return _offsets[fuir().clazzId2num(f) - _firstFieldNum];
+  }
+
+
+  /**
+   * The number of fields in instances of _clazz.
+   */
+  int fieldCount()
+  {
+    return _fields.length;
+  }
+
+
+  /**
+   * The i-th field of _clazz, 0 <= i < fieldCount().
+   */
+  int field(int i)
+  {
+    return _fields[i];
+  }
+
+
+  /**
+   * The offset of the i-th field of _clazz, 0 <= i < fieldCount().
+   */
+  int fieldOffset(int i)
+  {
+    return _fieldOffsets[i];
   }
 
 
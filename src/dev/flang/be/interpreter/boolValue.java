@@ -37,13 +37,23 @@ public class boolValue extends Value
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * The preallocated values for true and false.
+   */
+  static final boolValue TRUE  = new boolValue(true);
+  static final boolValue FALSE = new boolValue(false);
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
   /**
    *
    */
-  private boolean b;
+  private final boolean b;
 
 
   /*--------------------------  constructors  ---------------------------*/
@@ -58,6 +68,18 @@ public class boolValue extends Value
   }
 
 
+  /*--------------------------  static methods  -------------------------*/
+
+
+  /**
+   * Get the preallocated boolValue for b.
+   */
+  public static boolValue of(boolean b)
+  {
+    return b ? TRUE : FALSE;
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
 
@@ -99,6 +121,24 @@ public class boolValue extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 1);
+
+    return
+      slot.container.nonrefs[slot.offset] == (b ? 1 : 0);
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
@@ -99,6 +99,24 @@ public class f32Value extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 1);
+
+    return
+      slot.container.nonrefs[slot.offset] == Float.floatToRawIntBits(_val);
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
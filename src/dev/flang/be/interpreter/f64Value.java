@@ -101,6 +101,26 @@ public class f64Value extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 2);
+
+    var l = Double.doubleToRawLongBits(_val);
+    return
+      slot.container.nonrefs[slot.offset    ] == (int) l &&
+      slot.container.nonrefs[slot.offset + 1] == (int) (l >> 32);
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
@@ -37,13 +37,41 @@ public class i8Value extends Value
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Smallest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_LOW = -0x80;
+
+
+  /**
+   * Largest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_HIGH = 0x7f;
+
+
+  /**
+   * Preallocated instances for the values CACHE_LOW..CACHE_HIGH.
+   */
+  private static final i8Value[] CACHE = new i8Value[CACHE_HIGH - CACHE_LOW + 1];
+  static
+  {
+    for (var i = 0; i < CACHE.length; i++)
+      {
+        CACHE[i] = new i8Value(CACHE_LOW + i);
+      }
+  }
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
   /**
    *
    */
-  private int _val;
+  private final int _val;
 
 
   /*--------------------------  constructors  ---------------------------*/
@@ -61,6 +89,21 @@ public class i8Value extends Value
   }
 
 
+  /*--------------------------  static methods  -------------------------*/
+
+
+  /**
+   * Get an i8Value for the given value.  This returns a preallocated instance for
+   * small values to avoid an allocation for every arithmetic result.
+   */
+  public static i8Value of(int val)
+  {
+    return CACHE_LOW <= val && val <= CACHE_HIGH
+      ? CACHE[val - CACHE_LOW]
+      : new i8Value(val);
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
 
@@ -104,6 +147,24 @@ public class i8Value extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 1);
+
+    return
+      slot.container.nonrefs[slot.offset] == _val;
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
@@ -37,13 +37,41 @@ public class u16Value extends Value
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Smallest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_LOW = 0;
+
+
+  /**
+   * Largest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_HIGH = 1023;
+
+
+  /**
+   * Preallocated instances for the values CACHE_LOW..CACHE_HIGH.
+   */
+  private static final u16Value[] CACHE = new u16Value[CACHE_HIGH - CACHE_LOW + 1];
+  static
+  {
+    for (var i = 0; i < CACHE.length; i++)
+      {
+        CACHE[i] = new u16Value(CACHE_LOW + i);
+      }
+  }
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
   /**
    *
    */
-  private int _val;
+  private final int _val;
 
 
   /*--------------------------  constructors  ---------------------------*/
@@ -61,6 +89,21 @@ public class u16Value extends Value
   }
 
 
+  /*--------------------------  static methods  -------------------------*/
+
+
+  /**
+   * Get a u16Value for the given value.  This returns a preallocated instance for
+   * small values to avoid an allocation for every arithmetic result.
+   */
+  public static u16Value of(int val)
+  {
+    return CACHE_LOW <= val && val <= CACHE_HIGH
+      ? CACHE[val - CACHE_LOW]
+      : new u16Value(val);
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
 
@@ -102,6 +145,24 @@ public class u16Value extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 1);
+
+    return
+      slot.container.nonrefs[slot.offset] == _val;
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
@@ -37,13 +37,41 @@ public class u64Value extends Value
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Smallest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_LOW = 0;
+
+
+  /**
+   * Largest value for which of() returns a preallocated instance.
+   */
+  private static final int CACHE_HIGH = 1023;
+
+
+  /**
+   * Preallocated instances for the values CACHE_LOW..CACHE_HIGH.
+   */
+  private static final u64Value[] CACHE = new u64Value[CACHE_HIGH - CACHE_LOW + 1];
+  static
+  {
+    for (var i = 0; i < CACHE.length; i++)
+      {
+        CACHE[i] = new u64Value(CACHE_LOW + i);
+      }
+  }
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
   /**
    *
    */
-  private long _val;
+  private final long _val;
 
 
   /*--------------------------  constructors  ---------------------------*/
@@ -58,6 +86,21 @@ public class u64Value extends Value
   }
 
 
+  /*--------------------------  static methods  -------------------------*/
+
+
+  /**
+   * Get a u64Value for the given value.  This returns a preallocated instance for
+   * small values to avoid an allocation for every arithmetic result.
+   */
+  public static u64Value of(long val)
+  {
+    return CACHE_LOW <= val && val <= CACHE_HIGH
+      ? CACHE[(int) (val - CACHE_LOW)]
+      : new u64Value(val);
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
 
@@ -100,6 +143,25 @@ public class u64Value extends Value
   }
 
 
+  /**
+   * Compare this value bitwise to the contents of a field.
+   *
+   * @param slot the slot that addresses the field this should be compared to.
+   *
+   * @param size the size of the data to be compared
+   */
+  @Override
+  boolean equalsBitWise(LValue slot, int size)
+  {
+    if (PRECONDITIONS) require
+      (size == 2);
+
+    return
+      slot.container.nonrefs[slot.offset    ] == (int) _val &&
+      slot.container.nonrefs[slot.offset + 1] == (int) (_val >> 32);
+  }
+
+
   /**
    * Debugging only: Check that this value is valid as the current instance for
    * a feature with given static clazz.
@@ -774,7 +774,7 @@ class CodeGen
                 .andThen(args.get(i))
                 .andThen(_fuir.clazzIsArray(at) || _fuir.clazzIsMutateArray(at) ? getArrayDataField(at) : Expr.NOP)
                 .andThen(Expr.aload(slotsOfMemorySegments.get(slot), Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT))
-                .andThen(invokeMemorySegment2Obj());
+                .andThen(invokeMemorySegment2Obj(usePooledMemorySegments(cc)));
             slot++;
           }
       }
@@ -786,13 +786,15 @@ class CodeGen
 
 
   /**
-   * byte code to invoke memorySegment2Obj
+   * byte code to invoke memorySegment2Obj or pooledMemorySegment2Obj
+   *
+   * @param pooled true to invoke pooledMemorySegment2Obj
    */
-  private Expr invokeMemorySegment2Obj()
+  private Expr invokeMemorySegment2Obj(boolean pooled)
   {
     return Expr.invokeStatic(
       Names.RUNTIME_CLASS,
-      "memorySegment2Obj",
+      pooled ? "pooledMemorySegment2Obj" : "memorySegment2Obj",
       "(" + Names.JAVA_LANG_OBJECT.descriptor() + Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT.descriptor() + ")V",
       PrimitiveType.type_void);
   }
@@ -827,7 +829,7 @@ class CodeGen
             result = result
                 .andThen(args.get(i))
                 .andThen(_fuir.clazzIsArray(at) || _fuir.clazzIsMutateArray(at) ? getArrayDataField(at) : Expr.NOP)
-                .andThen(invokeObj2MemorySegment())
+                .andThen(invokeObj2MemorySegment(usePooledMemorySegments(cc)))
                 .andThen(Expr.astore(slot, Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT.vti()))
                 .andThen(Expr.aload(slot, Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT));
           }
@@ -835,7 +837,7 @@ class CodeGen
           {
             result = result
                 .andThen(args.get(i))
-                .andThen(invokeObj2MemorySegment());
+                .andThen(invokeObj2MemorySegment(false));
           }
       }
     return result;
@@ -878,13 +880,34 @@ class CodeGen
 
 
   /**
-   * create Expr for invoking Runtime.obj2MemorySegment
+   * Do the arrays passed to native clazz cc not need to outlive the call?  This
+   * is the case for the functions of the Fuzion runtime, that never keep a
+   * pointer to an array they received, so the memory used to pass these arrays
+   * can be reused via Runtime.obj2PooledMemorySegment.
+   *
+   * NYI: OPTIMIZATION: For natives from other libraries, we do not know if the
+   * pointer is retained, so these arrays are still copied to memory that is
+   * never freed.
+   *
+   * @param cc a native clazz
+   */
+  private boolean usePooledMemorySegments(int cc)
+  {
+    return _fuir.clazzNativeName(cc).startsWith("fzE_");
+  }
+
+
+  /**
+   * create Expr for invoking Runtime.obj2MemorySegment or
+   * Runtime.obj2PooledMemorySegment
+   *
+   * @param pooled true to invoke obj2PooledMemorySegment
    */
-  private Expr invokeObj2MemorySegment()
+  private Expr invokeObj2MemorySegment(boolean pooled)
   {
     return Expr.invokeStatic(
       Names.RUNTIME_CLASS,
-      "obj2MemorySegment",
+      pooled ? "obj2PooledMemorySegment" : "obj2MemorySegment",
       "(" + Names.JAVA_LANG_OBJECT.descriptor() + ")" + Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT.descriptor(),
       Names.CT_JAVA_LANG_FOREIGN_MEMORYSEGMENT);
   }
@@ -90,28 +90,114 @@ public class Intrinsix extends ANY implements ClassFileConstants
 
 
   /**
-   * Enclose the given code by monitorenter/monitorexit for
-   * Runtime.LOCK_FOR_ATOMIC.
+   * Enclose the given code by monitorenter/monitorexit for the target
+   * instance of an atomic.  This is used for atomics whose value cannot be
+   * accessed via a VarHandle, see useVarHandle().
    *
-   * @param e the code that needs atomicity
+   * @param tvalue the target instance, will be stored in slot tslot
    *
-   * @return e surrounded by monitorenter/monitorexit for
-   * Runtime.LOCK_FOR_ATOMIC.
+   * @param tslot local var slot for the target instance
+   *
+   * @param e the code that needs atomicity, may use tslot to access the
+   * target.
+   *
+   * @return e surrounded by monitorenter/monitorexit for the target.
    */
-  private static Expr locked(Expr e)
+  private static Expr locked(Expr tvalue, int tslot, Expr e)
   {
-    return Expr.getstatic(Names.RUNTIME_CLASS,
-                          Names.RUNTIME_LOCK_FOR_ATOMIC,
-                          JAVA_LANG_OBJECT)
+    var tt = tvalue.type();
+    return tvalue
+      .andThen(Expr.astore(tslot, tt.vti()))
+      .andThen(tt.load(tslot))
       .andThen(Expr.MONITORENTER)
       .andThen(e)
-      .andThen(Expr.getstatic(Names.RUNTIME_CLASS,
-                              Names.RUNTIME_LOCK_FOR_ATOMIC,
-                              JAVA_LANG_OBJECT))
+      .andThen(tt.load(tslot))
       .andThen(Expr.MONITOREXIT);
   }
 
 
+  /**
+   * Can the value field v of an atomic be accessed using a VarHandle?  This is
+   * the case for refs and for values that are represented by Java primitive
+   * types, for which the VarHandle's comparison is the same as Fuzion's
+   * bit-wise comparison.
+   *
+   * @param v the value field of an atomic
+   */
+  private static boolean useVarHandle(JVM jvm, int v)
+  {
+    var rc = jvm._fuir.clazzResultClazz(v);
+    return jvm.fieldExists(v) && (jvm._fuir.clazzIsRef(rc) || jvm._types.resultType(rc).isPrimitive());
+  }
+
+
+  /**
+   * Create code to load the VarHandle for the value field v of an atomic.  The
+   * VarHandle is stored in a static final field in the class of the atomic
+   * that is initialized in its static initializer.
+   *
+   * @param v the value field of an atomic, useVarHandle(jvm, v) must hold.
+   */
+  private static Expr varHandle(JVM jvm, int v)
+  {
+    var ac = jvm._fuir.clazzOuterClazz(v);
+    var rc = jvm._fuir.clazzResultClazz(v);
+    var cf = jvm._types.classFile(ac);
+    var fn = jvm._names.field(v);
+    var vh = Names.VAR_HANDLE_FIELD_PREFIX + fn;
+    if (!cf.hasField(vh))
+      {
+        cf.field(ACC_PUBLIC | ACC_STATIC | ACC_FINAL,
+                 vh,
+                 Names.CT_JAVA_LANG_INVOKE_VARHANDLE.descriptor());
+        cf.addToClInit(Expr.invokeStatic(Names.JAVA_LANG_INVOKE_METHODHANDLES,
+                                         "lookup",
+                                         "()" + Names.CT_JAVA_LANG_INVOKE_METHODHANDLES_LOOKUP.descriptor(),
+                                         Names.CT_JAVA_LANG_INVOKE_METHODHANDLES_LOOKUP)
+                       .andThen(Expr.classconst(jvm._types.javaType(ac)))
+                       .andThen(Expr.stringconst(fn))
+                       .andThen(Expr.classconst(jvm._types.resultType(rc)))
+                       .andThen(Expr.invokeVirtual(Names.CT_JAVA_LANG_INVOKE_METHODHANDLES_LOOKUP.className(),
+                                                   "findVarHandle",
+                                                   "(" + JAVA_LANG_CLASS.descriptor() + JAVA_LANG_STRING.descriptor() + JAVA_LANG_CLASS.descriptor() + ")" +
+                                                   Names.CT_JAVA_LANG_INVOKE_VARHANDLE.descriptor(),
+                                                   Names.CT_JAVA_LANG_INVOKE_VARHANDLE))
+                       .andThen(Expr.putstatic(jvm._names.javaClass(ac), vh, Names.CT_JAVA_LANG_INVOKE_VARHANDLE)));
+      }
+    return Expr.getstatic(jvm._names.javaClass(ac), vh, Names.CT_JAVA_LANG_INVOKE_VARHANDLE);
+  }
+
+
+  /**
+   * Create code to invoke an access mode method of a VarHandle created by
+   * varHandle(jvm, v).
+   *
+   * @param v the value field of an atomic
+   *
+   * @param name the access mode method, e.g., "getVolatile".
+   *
+   * @param nargs number of values of v's type passed as arguments in addition
+   * to the atomic.
+   *
+   * @param rt the result type
+   */
+  private static Expr invokeVarHandle(JVM jvm, int v, String name, int nargs, JavaType rt)
+  {
+    var ac = jvm._fuir.clazzOuterClazz(v);
+    var jt = jvm._types.resultType(jvm._fuir.clazzResultClazz(v));
+    var descr = new StringBuilder("(").append(jvm._types.javaType(ac).descriptor());
+    for (var i = 0; i < nargs; i++)
+      {
+        descr.append(jt.descriptor());
+      }
+    descr.append(")").append(rt.descriptor());
+    return Expr.invokeVirtual(Names.CT_JAVA_LANG_INVOKE_VARHANDLE.className(),
+                              name,
+                              descr.toString(),
+                              rt);
+  }
+
+
   /**
    * Set of code generators for intrinsics that produce inline code
    */
@@ -147,11 +233,17 @@ public class Intrinsix extends ANY implements ClassFileConstants
         });
 
     put("concur.util.load_fence",
-        "concur.util.store_fence",
         (jvm, si, cc, tvalue, args) ->
         {
           return new Pair<>(Expr.UNIT,
-                            locked(Expr.UNIT));
+                            Expr.invokeStatic(Names.CT_JAVA_LANG_INVOKE_VARHANDLE.className(), "fullFence", "()V", PrimitiveType.type_void));
+        });
+
+    put("concur.util.store_fence",
+        (jvm, si, cc, tvalue, args) ->
+        {
+          return new Pair<>(Expr.UNIT,
+                            Expr.invokeStatic(Names.CT_JAVA_LANG_INVOKE_VARHANDLE.className(), "releaseFence", "()V", PrimitiveType.type_void));
         });
 
     put("concur.atomic.read0",
@@ -159,8 +251,25 @@ public class Intrinsix extends ANY implements ClassFileConstants
         {
           var ac = jvm._fuir.clazzOuterClazz(cc);
           var v = jvm._fuir.lookupAtomicValue(ac);
-          var val = locked(tvalue
+          var jt = jvm._types.resultType(jvm._fuir.clazzResultClazz(v));
+          Expr val;
+          if (useVarHandle(jvm, v))
+            {
+              val = varHandle(jvm, v)
+                .andThen(tvalue)
+                .andThen(invokeVarHandle(jvm, v, "getVolatile", 0, jt));
+            }
+          else if (jvm.fieldExists(v))
+            {
+              var tslot = jvm.allocLocal(si, 1);
+              val = locked(tvalue, tslot,
+                           tvalue.type().load(tslot)
                            .andThen(jvm.getfield(v)));
+            }
+          else
+            {
+              val = tvalue.andThen(jvm.getfield(v));
+            }
           return new Pair<>(val, Expr.UNIT);
         });
 
@@ -169,9 +278,28 @@ public class Intrinsix extends ANY implements ClassFileConstants
         {
           var ac = jvm._fuir.clazzOuterClazz(cc);
           var v = jvm._fuir.lookupAtomicValue(ac);
-          var code = locked(tvalue
+          Expr code;
+          if (useVarHandle(jvm, v))
+            {
+              code = varHandle(jvm, v)
+                .andThen(tvalue)
+                .andThen(args.get(0))
+                .andThen(invokeVarHandle(jvm, v, "setVolatile", 1, PrimitiveType.type_void));
+            }
+          else if (jvm.fieldExists(v))
+            {
+              var tslot = jvm.allocLocal(si, 1);
+              code = locked(tvalue, tslot,
+                            tvalue.type().load(tslot)
                             .andThen(args.get(0))
                             .andThen(jvm.putfield(v)));
+            }
+          else
+            {
+              code = tvalue
+                .andThen(args.get(0))
+                .andThen(jvm.putfield(v));
+            }
           return new Pair<>(Expr.UNIT, code);
         });
 
@@ -184,12 +312,25 @@ public class Intrinsix extends ANY implements ClassFileConstants
           var rc  = jvm._fuir.clazzResultClazz(v);
           var tt = tvalue.type();
           var jt = jvm._types.resultType(rc);
+          var isSet = jvm._fuir.clazzOriginalName(cc).equals("concur.atomic.compare_and_set0");
+
+          if (useVarHandle(jvm, v))
+            {
+              var val = varHandle(jvm, v)
+                .andThen(tvalue)
+                .andThen(args.get(0))
+                .andThen(args.get(1))
+                .andThen(isSet ? invokeVarHandle(jvm, v, "compareAndSet"     , 2, PrimitiveType.type_boolean)
+                               : invokeVarHandle(jvm, v, "compareAndExchange", 2, jt));
+              return new Pair<>(val, Expr.UNIT);
+            }
+
           int tslot  = jvm.allocLocal(si, 1);                  // local var slot for target
           int nvslot = jvm.allocLocal(si, jt.stackSlots());    // local var slot for arg(1), new value, not casted
           int vslot  = jvm.allocLocal(si, jt.stackSlots());    // local var slot for old value, not casted.
 
           Expr pos, neg, oldv;
-          if (jvm._fuir.clazzOriginalName(cc).equals("concur.atomic.compare_and_set0"))
+          if (isSet)
             { // compare_and_set: return true or false
               pos = Expr.iconst(1);            // 1
               neg = Expr.iconst(0);            // 0
@@ -203,11 +344,9 @@ public class Intrinsix extends ANY implements ClassFileConstants
             }
 
           Expr val =
-            locked(
-                   // preparation: store target in tslot, arg1 in nvslot and value field in vslot
-                   tvalue                                   // target       -> tslot
-                   .andThen(Expr.astore(tslot, tt.vti()))   //
-                   .andThen(args.get(1))                    // new value    -> nslot
+            locked(tvalue, tslot,                                       // target       -> tslot
+                   // preparation: store arg1 in nvslot and value field in vslot
+                   args.get(1)                              // new value    -> nslot
                    .andThen(jt.store(nvslot))               //
                    .andThen(tt.load(tslot))                 // target.value -> vslot
                    .andThen(jvm.getfield(v))                //
@@ -274,7 +413,7 @@ public class Intrinsix extends ANY implements ClassFileConstants
           var data = jvm._fuir.clazzArg(jvm._fuir.clazzArgClazz(cc,0), 0);
           var res = args.get(0)
             .andThen(jvm.getfield(data))
-            .andThen(Expr.checkcast(PrimitiveType.type_byte.array()))
+            .andThen(jvm.heapArray(jvm._fuir.clazzActualGeneric(jvm._fuir.clazzArgClazz(cc,0), 0)))
             .andThen(Expr.invokeStatic(Names.RUNTIME_CLASS, "fuzion_java_string_to_java_object0", "([B)Ljava/lang/String;", Names.JAVA_LANG_OBJECT));
           return new Pair<>(res, Expr.UNIT);
         });
@@ -290,11 +429,12 @@ public class Intrinsix extends ANY implements ClassFileConstants
     put("fuzion.jvm.array_to_java_object0",
         (jvm, si, cc, tvalue, args) ->
         {
-          var et = jvm._types.javaType(jvm._fuir.clazzActualGeneric(cc, 0)); // possibly resultType
+          var ec = jvm._fuir.clazzActualGeneric(cc, 0);
+          var et = jvm._types.javaType(ec); // possibly resultType
           var data = jvm._fuir.clazzArg(jvm._fuir.clazzArgClazz(cc,0), 0);
           var res = args.get(0)
             .andThen(jvm.getfield(data))
-            .andThen(Expr.checkcast(et.array()));
+            .andThen(jvm.offHeapArray(ec) ? jvm.heapArray(ec) : Expr.checkcast(et.array()));
           return new Pair<>(res, Expr.UNIT);
         });
 
@@ -673,7 +813,29 @@ public class Intrinsix extends ANY implements ClassFileConstants
           var jt = jvm._types.resultType(et);
           var val = Expr.UNIT;
           var code = Expr.UNIT;
-          if (in.equals("fuzion.sys.type.alloc"))
+          if (jvm.offHeapArray(et))
+            {
+              var name = in.replace("fuzion.sys.type.", "offheap_") + "_" + jt.className();
+              if (in.equals("fuzion.sys.type.alloc"))
+                {
+                  val = args.get(0)
+                    .andThen(Expr.invokeStatic(Names.RUNTIME_CLASS, name, "(I)" + JAVA_LANG_OBJECT.descriptor(), JAVA_LANG_OBJECT));
+                }
+              else if (in.equals("fuzion.sys.type.getel"))
+                {
+                  val = args.get(0)
+                    .andThen(args.get(1))
+                    .andThen(Expr.invokeStatic(Names.RUNTIME_CLASS, name, "(" + JAVA_LANG_OBJECT.descriptor() + "I)" + jt.descriptor(), jt));
+                }
+              else if (in.equals("fuzion.sys.type.setel"))
+                {
+                  code = args.get(0)
+                    .andThen(args.get(1))
+                    .andThen(args.get(2))
+                    .andThen(Expr.invokeStatic(Names.RUNTIME_CLASS, name, "(" + JAVA_LANG_OBJECT.descriptor() + "I" + jt.descriptor() + ")V", PrimitiveType.type_void));
+                }
+            }
+          else if (in.equals("fuzion.sys.type.alloc"))
             {
               val = args.get(0)
                 .andThen(jt.newArray());
@@ -427,6 +427,32 @@ should be avoided as much as possible.
   }
 
 
+  /**
+   * property-controlled flag to create the bytes of the class files, i.e.,
+   * the constant pools, stack map tables, etc., in parallel after all code
+   * was generated.
+   *
+   * To disable, use fz with
+   *
+   *   dev_flang_be_jvm_JVM_PARALLEL_CLASS_FILES=false
+   */
+  static final boolean PARALLEL_CLASS_FILES =
+    FuzionOptions.boolPropertyOrEnv("dev.flang.be.jvm.JVM.PARALLEL_CLASS_FILES", true);
+
+
+  /**
+   * property-controlled flag to allocate large arrays whose data may be passed
+   * to native functions in native memory such that native code can access
+   * them without copying, see offHeapArray().
+   *
+   * To enable, use fz with
+   *
+   *   dev_flang_be_jvm_JVM_OFF_HEAP_ARRAYS=true
+   */
+  static final boolean OFF_HEAP_ARRAYS =
+    FuzionOptions.boolPropertyOrEnv("dev.flang.be.jvm.JVM.OFF_HEAP_ARRAYS");
+
+
   /**
    * JVM code generation phases
    */
@@ -477,6 +503,39 @@ should be avoided as much as possible.
         ;
       }
     },
+    // create the bytes of all class files in parallel
+    BYTES {
+      boolean condition(JVM jvm)
+      {
+        return PARALLEL_CLASS_FILES;
+      }
+      void prepare(JVM jvm)
+      {
+        jvm._classFilesForBytes = new List<>();
+      }
+      void compile(JVM jvm, int cl)
+      {
+        var cf = jvm._types.classFile(cl);
+        if (cf != null)
+          {
+            jvm._classFilesForBytes.add(cf);
+          }
+        if (jvm._types.hasInterfaceFile(cl))
+          {
+            jvm._classFilesForBytes.add(jvm._types.interfaceFile(cl));
+          }
+      }
+      void finish(JVM jvm)
+      {
+        // each class file is accessed by one thread only, the bytes are cached
+        // in the class file such that the following phases can use them in
+        // the original order.
+        jvm._classFilesForBytes
+          .parallelStream()
+          .forEach(cf -> cf.bytes());
+        jvm._classFilesForBytes = null;
+      }
+    },
     RUN {
       boolean condition(JVM jvm)
       {
@@ -752,6 +811,13 @@ should be avoided as much as possible.
    */
   JarOutputStream _jos;
 
+
+  /**
+   * The class files collected by the BYTES phase to create their bytes in
+   * parallel.
+   */
+  List<dev.flang.be.jvm.classfile.ClassFile> _classFilesForBytes;
+
   Expr LOAD_UNIVERSE;
 
 
@@ -1163,6 +1229,44 @@ should be avoided as much as possible.
   }
 
 
+  /**
+   * Is the data of arrays with element type ec accessed via Runtime.offheap_*,
+   * such that it may be allocated in native memory?  This is the case if
+   * OFF_HEAP_ARRAYS is set, the elements are numeric primitives and the DFA
+   * found that arrays of this type may be passed to native functions.
+   *
+   * @param ec clazz id of an array's element type
+   */
+  boolean offHeapArray(int ec)
+  {
+    var jt = _types.resultType(ec);
+    return
+      OFF_HEAP_ARRAYS                  &&
+      jt.isPrimitive()                 &&
+      jt != PrimitiveType.type_void    &&
+      jt != PrimitiveType.type_boolean &&
+      _fuir.arrayMayBePassedToNative(ec);
+  }
+
+
+  /**
+   * Code to get a Java array from array data with element type ec that might
+   * be allocated in native memory, see offHeapArray().
+   *
+   * @param ec clazz id of an array's element type
+   */
+  Expr heapArray(int ec)
+  {
+    var jt = _types.resultType(ec);
+    return offHeapArray(ec)
+      ? Expr.invokeStatic(Names.RUNTIME_CLASS,
+                          "offheap_heap_" + jt.className(),
+                          "(" + JAVA_LANG_OBJECT.descriptor() + ")" + jt.array().descriptor(),
+                          jt.array())
+      : Expr.checkcast(jt.array());
+  }
+
+
   int current_index(int cl)
   {
     if (_fuir.isScalar(cl))
@@ -141,9 +141,10 @@ public class Names extends ANY implements ClassFileConstants
 
 
   /**
-   * Name of Runtime.LOCK_FOR_ATOMIC
+   * Prefix for static fields holding the VarHandle used to access the value of
+   * an atomic.
    */
-  static final String RUNTIME_LOCK_FOR_ATOMIC   = "LOCK_FOR_ATOMIC";
+  static final String VAR_HANDLE_FIELD_PREFIX = "fzVH_";
 
 
   /**
@@ -233,6 +234,14 @@ public class Names extends ANY implements ClassFileConstants
   static final ClassType CT_JAVA_LANG_FOREIGN_STRUCT_LAYOUT = new ClassType(JAVA_LANG_FOREIGN_STRUCT_LAYOUT);
 
 
+  /**
+   * Predefined constants used for atomics.
+   */
+  static final String    JAVA_LANG_INVOKE_METHODHANDLES = "java/lang/invoke/MethodHandles";
+  static final ClassType CT_JAVA_LANG_INVOKE_METHODHANDLES_LOOKUP = new ClassType("java/lang/invoke/MethodHandles$Lookup");
+  static final ClassType CT_JAVA_LANG_INVOKE_VARHANDLE = new ClassType("java/lang/invoke/VarHandle");
+
+
 
   /*----------------------------  variables  ----------------------------*/
 
@@ -1541,6 +1541,11 @@ public class ClassFile extends ANY implements ClassFileConstants
    */
   Expr _clinitCode = null;
 
+  /**
+   * The bytes of this class file once created by bytes(), null before.
+   */
+  private byte[] _bytes = null;
+
   /*---------------------------  constructors  ---------------------------*/
 
 
@@ -1610,9 +1615,24 @@ public class ClassFile extends ANY implements ClassFileConstants
 
 
   /**
-   * Get the bytes of this class file as an array.
+   * Get the bytes of this class file as an array.  The bytes are created on
+   * the first call, so no more changes may be made to this class file
+   * afterwards.
    */
   public byte[] bytes()
+  {
+    if (_bytes == null)
+      {
+        _bytes = createBytes();
+      }
+    return _bytes;
+  }
+
+
+  /**
+   * Create the bytes of this class file.
+   */
+  private byte[] createBytes()
   {
     finish();
     var o = new Kaku();
@@ -27,21 +27,138 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 package dev.flang.be.jvm.runtime;
 
 import dev.flang.util.Errors;
+import dev.flang.util.FuzionOptions;
 import dev.flang.util.List;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 /**
- * FuzionThread is a thread spawned for code running in the JVM backend.
+ * FuzionThread contains the thread-local data of a thread running code
+ * compiled by the JVM backend.
+ *
+ * This is not a Thread itself but is attached to its Java thread via
+ * _current_, such that spawned Fuzion threads may be run as platform or as
+ * virtual threads.
  *
  * @author Fridtjof Siebert (siebert@tokiwa.software)
  */
-public class FuzionThread extends Thread
+public class FuzionThread
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * property-controlled flag to run threads spawned via
+   * fuzion.sys.thread.spawn0 as virtual threads instead of platform threads.
+   * The main thread is always a platform thread.
+   *
+   * To enable, run the compiled code with
+   *
+   *   dev_flang_be_jvm_runtime_FuzionThread_VIRTUAL_THREADS=true
+   *
+   * Native code is called via FFM downcalls, and a virtual thread that blocks
+   * in a downcall pins its carrier thread.  The scheduler does not add
+   * carriers for this, so, e.g., a server with one virtual thread per
+   * connection would stop accepting connections as soon as about as many
+   * connections as there are cores are idle in fzE_socket_read.  To avoid
+   * this, the natives in BLOCKING_NATIVES are run in platform threads of
+   * _blockingNatives_ when called from a virtual thread, while the virtual
+   * thread unmounts until the call has finished, see forVirtualThreads.
+   * Other natives, in particular those from libraries other than fuzion_rt,
+   * still pin the carrier if they block.
+   */
+  static final boolean VIRTUAL_THREADS =
+    FuzionOptions.boolPropertyOrEnv("dev.flang.be.jvm.runtime.FuzionThread.VIRTUAL_THREADS");
+
+
+  /**
+   * Natives of the Fuzion runtime that may block for a long time, e.g.,
+   * waiting for a connection or for data to arrive.
+   */
+  static final Set<String> BLOCKING_NATIVES = Set.of("fzE_accept",
+                                                     "fzE_connect",
+                                                     "fzE_socket_read",
+                                                     "fzE_socket_write",
+                                                     "fzE_file_read",
+                                                     "fzE_file_write",
+                                                     "fzE_pipe_read",
+                                                     "fzE_pipe_write",
+                                                     "fzE_process_wait",
+                                                     "fzE_nanosleep");
+
+
+  /**
+   * Name of the native that returns the C runtime's thread-local error code
+   * set by the last native call.
+   */
+  static final String LAST_ERROR_NATIVE = "fzE_last_error";
+
+
+  /**
+   * Handles of the static helpers used by forVirtualThreads.
+   */
+  private static final MethodHandle CALL_BLOCKING, LAST_ERROR, CLEAR_LAST_ERROR;
+  static
+  {
+    var l = MethodHandles.lookup();
+    try
+      {
+        CALL_BLOCKING    = l.findStatic(FuzionThread.class, "callBlocking",   MethodType.methodType(Object.class, MethodHandle.class, Object[].class));
+        LAST_ERROR       = l.findStatic(FuzionThread.class, "lastError",      MethodType.methodType(long.class, MethodHandle.class));
+        CLEAR_LAST_ERROR = l.findStatic(FuzionThread.class, "clearLastError", MethodType.methodType(void.class));
+      }
+    catch (NoSuchMethodException | IllegalAccessException e)
+      {
+        throw new Error(e);
+      }
+  }
+
+
+  /*-----------------------------  statics  -----------------------------*/
+
+
+  /**
+   * ThreadLocal to hold current FuzionThread instance, null for threads not
+   * attached to the Fuzion runtime.
+   */
+  static final ThreadLocal<FuzionThread> _current_ = new ThreadLocal<>();
+
+
+  /**
+   * Virtual threads that are still running.  Virtual threads are daemon
+   * threads, so the main thread waits for these to terminate to keep the
+   * application alive as it does for platform threads.
+   */
+  static final Set<Thread> _virtualThreads_ = ConcurrentHashMap.newKeySet();
+
+
+  /**
+   * Platform threads that run calls to BLOCKING_NATIVES on behalf of virtual
+   * threads, created lazily.  The number of threads grows with the number of
+   * concurrently blocked calls, idle threads are reused.
+   */
+  private static ExecutorService _blockingNatives_;
+
+
+  /**
+   * Handle of the native fzE_last_error without adaptation for virtual
+   * threads, created lazily.
+   */
+  private static MethodHandle _nativeLastError_;
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
@@ -74,41 +191,57 @@ public class FuzionThread extends Thread
   public Throwable _thrownException = null;
 
 
+  /**
+   * Error code set by the last call to one of BLOCKING_NATIVES that was run
+   * in a platform thread of _blockingNatives_, valid iff _hasLastError is
+   * true.  The C runtime keeps this error code in a thread-local variable of
+   * the platform thread, so it has to be passed back to this thread.
+   */
+  long _lastError;
+  boolean _hasLastError;
+
+
   /**
    * Class loader used to load resources related to compiled fuzion code.
    */
   final ClassLoader _loader;
 
 
+  /**
+   * The Java thread running this, platform or virtual.
+   */
+  final Thread _thread;
+
+
   /*--------------------------  constructors  ---------------------------*/
 
 
   /**
    * Create and start a new thread for the given code.
    *
-   * @param r the static Java method that is the main fuzion function for this
-   * thread.
+   * @param r the method handle of type (Any)void of the static Java method that
+   * is the main fuzion function for this thread.
    *
    * @param code the argument to pass to r, i.e. the outer instance
+   *
+   * @param l class loader used to load resources related to compiled
+   * fuzion code.
    */
-  FuzionThread(Method r, Any code)
+  FuzionThread(MethodHandle r, Any code, ClassLoader l)
   {
-    this((Runnable) () ->
+    this(() ->
          {
            try
              {
-               r.invoke(null, code);
+               r.invokeExact(code);
              }
-           catch (IllegalAccessException e)
+           catch (Throwable e)
              {
-               Errors.fatal("thread_spawn call caused `" + e + "` when calling `" + r + "`");
-             }
-           catch (InvocationTargetException e)
-             {
-               Runtime.handleInvocationTargetException(e);
+               Runtime.handleThrowable(e);
              }
          },
-         r.getDeclaringClass().getClassLoader());
+         l,
+         VIRTUAL_THREADS);
   }
 
 
@@ -117,21 +250,239 @@ public class FuzionThread extends Thread
    */
   FuzionThread(Main main)
   {
-    this((Runnable) ()->main.fz_run(), main.getClass().getClassLoader());
+    this(() ->
+         {
+           main.fz_run();
+           joinVirtualThreads();
+         },
+         main.getClass().getClassLoader(),
+         false);
   }
 
 
   /**
-   * Create a main FuzionThread and run code.
+   * Create a FuzionThread and start a Java thread to run code.
    *
-   * @oaran loader class loader used to load resources related to compiled
+   * @param r the code to run
+   *
+   * @oaran l class loader used to load resources related to compiled
    * fuzion code.
+   *
+   * @param virtual true to run r in a virtual thread.
    */
-  private FuzionThread(Runnable r, ClassLoader l)
+  private FuzionThread(Runnable r, ClassLoader l, boolean virtual)
   {
-    super(()->Errors.runAndExit(r), "Fuzion thread");
     _loader = l;
-    start();
+    Runnable run = () ->
+      {
+        _current_.set(this);
+        try
+          {
+            Errors.runAndExit(r);
+          }
+        finally
+          {
+            _virtualThreads_.remove(Thread.currentThread());
+          }
+      };
+    var b = virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+    _thread = b.name("Fuzion thread").unstarted(run);
+    if (virtual)
+      {
+        _virtualThreads_.add(_thread);
+      }
+    _thread.start();
+  }
+
+
+  /*--------------------------  static methods  -------------------------*/
+
+
+  /**
+   * Get the FuzionThread of the current Java thread.
+   *
+   * @return the current thread or null if the current thread is not attached
+   * to the Fuzion runtime.
+   */
+  static FuzionThread current()
+  {
+    return _current_.get();
+  }
+
+
+  /**
+   * Wait for all virtual threads to terminate, including virtual threads that
+   * are spawned while waiting.
+   */
+  private static void joinVirtualThreads()
+  {
+    while (!_virtualThreads_.isEmpty())
+      {
+        for (var t : _virtualThreads_)
+          {
+            try
+              {
+                t.join();
+              }
+            catch (InterruptedException e)
+              {
+              }
+          }
+      }
+  }
+
+
+  /**
+   * Adapt the downcall handle of a native for use by virtual threads, see
+   * VIRTUAL_THREADS.
+   *
+   * Calls to BLOCKING_NATIVES from virtual threads are run by a platform
+   * thread of _blockingNatives_ while the calling virtual thread waits and
+   * unmounts from its carrier.  The resulting error code of such a call is
+   * returned by fzE_last_error until the next call to another native.
+   *
+   * @param name the name of the native function
+   *
+   * @param h the downcall handle of the native function.
+   *
+   * @return a handle of the same type as h.
+   */
+  static MethodHandle forVirtualThreads(String name, MethodHandle h)
+  {
+    var t = h.type();
+    return
+      BLOCKING_NATIVES.contains(name) ? CALL_BLOCKING.bindTo(h)
+                                                     .asCollector(Object[].class, t.parameterCount())
+                                                     .asType(t)
+      : name.equals(LAST_ERROR_NATIVE) ? LAST_ERROR.bindTo(h)
+                                      : MethodHandles.foldArguments(h, CLEAR_LAST_ERROR);
+  }
+
+
+  /**
+   * Call native h with arguments args.  If the current thread is virtual, run
+   * the call in a platform thread of _blockingNatives_ and record the
+   * resulting error code in _lastError.
+   *
+   * @param h the downcall handle
+   *
+   * @param args the arguments to pass to h
+   *
+   * @return the result of h, boxed.
+   */
+  private static Object callBlocking(MethodHandle h, Object[] args) throws Throwable
+  {
+    Object result;
+    var cur = current();
+    if (cur != null && cur._thread.isVirtual())
+      {
+        // result, error code and exception thrown by h, if any
+        var f = blockingNatives().submit(() ->
+          {
+            try
+              {
+                var r = h.invokeWithArguments(args);
+                return new Object[] { r, (long) nativeLastError().invokeExact(), null };
+              }
+            catch (Throwable e)
+              {
+                return new Object[] { null, 0L, e };
+              }
+          });
+        Object[] r = null;
+        var interrupted = false;
+        while (r == null)
+          {
+            try
+              {
+                r = f.get();
+              }
+            catch (InterruptedException e)
+              {
+                interrupted = true;
+              }
+            catch (ExecutionException e)
+              {
+                throw e.getCause();
+              }
+          }
+        if (interrupted)
+          {
+            Thread.currentThread().interrupt();
+          }
+        if (r[2] != null)
+          {
+            throw (Throwable) r[2];
+          }
+        result = r[0];
+        cur._lastError = (Long) r[1];
+        cur._hasLastError = true;
+      }
+    else
+      {
+        clearLastError();
+        result = h.invokeWithArguments(args);
+      }
+    return result;
+  }
+
+
+  /**
+   * Implementation of fzE_last_error for VIRTUAL_THREADS: Return the error
+   * code recorded by callBlocking, if any, or call native h.
+   *
+   * @param h the downcall handle of fzE_last_error
+   */
+  private static long lastError(MethodHandle h) throws Throwable
+  {
+    var cur = current();
+    return cur != null && cur._hasLastError ? cur._lastError
+                                            : (long) h.invokeExact();
+  }
+
+
+  /**
+   * Forget the error code recorded by callBlocking since a native that is
+   * not run via callBlocking is about to be called.
+   */
+  private static void clearLastError()
+  {
+    var cur = current();
+    if (cur != null)
+      {
+        cur._hasLastError = false;
+      }
+  }
+
+
+  /**
+   * Get _blockingNatives_, create it if needed.
+   */
+  private static synchronized ExecutorService blockingNatives()
+  {
+    if (_blockingNatives_ == null)
+      {
+        _blockingNatives_ = Executors.newCachedThreadPool(r -> Thread.ofPlatform()
+                                                             .daemon()
+                                                             .name("Fuzion blocking native")
+                                                             .unstarted(r));
+      }
+    return _blockingNatives_;
+  }
+
+
+  /**
+   * Get _nativeLastError_, create it if needed.
+   */
+  private static synchronized MethodHandle nativeLastError()
+  {
+    if (_nativeLastError_ == null)
+      {
+        _nativeLastError_ = Runtime.native_method_handle(LAST_ERROR_NATIVE,
+                                                         FunctionDescriptor.of(ValueLayout.JAVA_LONG),
+                                                         new String[0]);
+      }
+    return _nativeLastError_;
   }
 
 
@@ -45,8 +45,8 @@ public class Intrinsics extends ANY
 
   public static void fuzion_sys_fatal_fault0(Object kind, Object msg)
   {
-    Errors.runTime(Runtime.utf8ByteArrayDataToString((byte[]) kind),
-                   Runtime.utf8ByteArrayDataToString((byte[]) msg),
+    Errors.runTime(Runtime.utf8ByteArrayDataToString(Runtime.offheap_heap_byte(kind)),
+                   Runtime.utf8ByteArrayDataToString(Runtime.offheap_heap_byte(msg)),
                    Runtime.stackTrace());
   }
 
@@ -218,7 +218,7 @@ public class Intrinsics extends ANY
 
   public static boolean fuzion_sys_env_vars_has0(Object s)
   {
-    return System.getenv(Runtime.utf8ByteArrayDataToString((byte[]) s)) != null;
+    return System.getenv(Runtime.utf8ByteArrayDataToString(Runtime.offheap_heap_byte(s))) != null;
   }
 
   public static void fuzion_sys_thread_join0(Object thread)
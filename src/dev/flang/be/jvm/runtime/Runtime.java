@@ -52,17 +52,20 @@ import java.lang.foreign.ValueLayout.OfShort;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -154,10 +157,37 @@ public class Runtime extends ANY
   public static final AnyI _UNIT_TYPE_EFFECT_ = new AnyI() { };
 
 
-  /*--------------------------  static fields  --------------------------*/
+  /**
+   * log2 of the size of the largest memory segment that is kept in the pools
+   * used by obj2PooledMemorySegment.  Larger segments are allocated and freed
+   * for each call.
+   */
+  static final int POOLED_SEGMENT_MAX_SIZE_LOG2 = 16;
 
 
-  public static final Object LOCK_FOR_ATOMIC = new Object();
+  /**
+   * Maximum number of memory segments of one size kept in the pool of one
+   * thread.
+   */
+  static final int POOLED_SEGMENTS_PER_SIZE = 4;
+
+
+  /**
+   * Maximum total size in bytes of the memory segments kept in the pools of
+   * one thread.
+   */
+  static final long POOLED_BYTES_PER_THREAD = 1L << 18;
+
+
+  /**
+   * Minimum size in bytes of an array that is allocated off-heap by
+   * offheap_alloc_*.  Smaller arrays are Java arrays since allocating native
+   * memory is much more expensive than allocating a small Java array.
+   */
+  static final long OFF_HEAP_ARRAY_MIN_SIZE = 4096;
+
+
+  /*--------------------------  static fields  --------------------------*/
 
 
   /**
@@ -177,6 +207,20 @@ public class Runtime extends ANY
   public static String[] _args_ = new String[] { "argument list not initialized", "this may indicate a severe bug" };
 
 
+  /**
+   * Per thread pools of native memory used to pass primitive arrays to the
+   * native functions of the Fuzion runtime, see obj2PooledMemorySegment.  The
+   * pool with index n contains segments of 2^n bytes.
+   */
+  private static final ThreadLocal<ArrayDeque<MemorySegment>[]> _segmentPools_ =
+    ThreadLocal.withInitial(() ->
+                            {
+                              @SuppressWarnings("unchecked")
+                              var result = (ArrayDeque<MemorySegment>[]) new ArrayDeque[POOLED_SEGMENT_MAX_SIZE_LOG2 + 1];
+                              return result;
+                            });
+
+
   /*-------------------------  static methods  --------------------------*/
 
 
@@ -229,15 +273,10 @@ public class Runtime extends ANY
    */
   public static FuzionThread currentThread()
   {
-    FuzionThread result = null;
-    var ct = Thread.currentThread();
-    if (ct instanceof FuzionThread ft)
-      {
-        result = ft;
-      }
-    else
+    var result = FuzionThread.current();
+    if (result == null)
       {
-        Errors.fatal("Fuzion Runtime used from detached thread " + ct, stackTrace());
+        Errors.fatal("Fuzion Runtime used from detached thread " + Thread.currentThread(), stackTrace());
       }
     return result;
   }
@@ -485,30 +524,38 @@ public class Runtime extends ANY
 
   /**
    * Helper method to handle an InvocationTargetException caused by a call to
-   * java.lang.reflect.Method.invoke.  This checks the causing exception, if
-   * that is an unchecked RuntimeException or Error, it just re-throws it to be
-   * handled by the caller.
-   *
-   * Otherwise, it causes a fatal error immediately.
+   * java.lang.reflect.Method.invoke.  This handles the causing exception via
+   * handleThrowable.
    *
    * @param e the caught exception
    */
   public static void handleInvocationTargetException(InvocationTargetException e)
   {
-    var o = e.getCause();
+    handleThrowable(e.getCause() != null ? e.getCause() : e);
+  }
+
+
+  /**
+   * Helper method to handle a Throwable thrown by compiled code that was
+   * called via java.lang.reflect.Method.invoke or a MethodHandle.  If this is
+   * an unchecked RuntimeException or Error, it just re-throws it to be handled
+   * by the caller.
+   *
+   * Otherwise, it causes a fatal error immediately.
+   *
+   * @param o the caught Throwable
+   */
+  public static void handleThrowable(Throwable o)
+  {
     if (o instanceof StackOverflowError so)
       {
         Errors.fatal("Stack overflow", stackTrace(so));
       }
     else if (o instanceof RuntimeException r) { throw r; }
     else if (o instanceof Error            r) { throw r; }
-    else if (o != null)
-      {
-        Errors.fatal("Error while running JVM compiled code: " + o);
-      }
     else
       {
-        Errors.fatal("Error while running JVM compiled code: " + e);
+        Errors.fatal("Error while running JVM compiled code: " + o);
       }
   }
 
@@ -578,7 +625,7 @@ public class Runtime extends ANY
    */
   public static String getException()
   {
-    var result = ((FuzionThread)Thread.currentThread())._thrownException.getMessage();
+    var result = currentThread()._thrownException.getMessage();
     if (result == null)
       {
         result = "";
@@ -613,7 +660,8 @@ public class Runtime extends ANY
   public static synchronized Map<String,String> classNameToFeatureName()
   {
     Map<String,String> result = null;
-    var l = Thread.currentThread() instanceof FuzionThread ft ? ft._loader : null;
+    var ft = FuzionThread.current();
+    var l = ft != null ? ft._loader : null;
     if (l != null)
       {
         result = _classNameToFeatureName.get(l);
@@ -724,7 +772,7 @@ public class Runtime extends ANY
 
   public static byte[] fuzion_sys_env_vars_get0(Object d)
   {
-    return stringToUtf8ByteArray(System.getenv(utf8ByteArrayDataToString((byte[]) d)));
+    return stringToUtf8ByteArray(System.getenv(utf8ByteArrayDataToString(offheap_heap_byte(d))));
   }
 
 
@@ -910,14 +958,14 @@ public class Runtime extends ANY
    * representing the given signature, and an instance of {@link java.lang.Class} representing
    * the given class.
    */
-  private static Pair<Class[], Class> getParsAndClass(String what, String clName, String name, String sig)
+  private static Pair<Class<?>[], Class<?>> getParsAndClass(String what, String clName, String name, String sig)
   {
     var p = JavaInterface.getPars(sig);
     if (p == null)
       {
         Errors.fatal("could not parse signature >>"+sig+"<<");
       }
-    Class cl;
+    Class<?> cl;
     try
       {
         cl = Class.forName(clName);
@@ -950,32 +998,38 @@ public class Runtime extends ANY
    *
    * @return whatever the method returns given the arguments
    */
-  @SuppressWarnings("unchecked")
   public static Object fuzion_java_call_v0(String clName, String name, String sig, Object thiz, Object[] args)
   {
     if (PRECONDITIONS) require
       (clName != null);
 
-    Method m = null;
-    var pcl = getParsAndClass("virtual", clName, name, sig);
-    var p = pcl.v0();
-    var cl = pcl.v1();
-    try
+    var key = new JavaCallKey("virtual", clName, name, sig);
+    var mh = _javaCallHandles_.get(key);
+    if (mh == null)
       {
-        m = cl.getMethod(name, p);
-      }
-    catch (NoSuchMethodException e)
-      {
-        Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_virtual calling " +
-                           (cl.getName() + "." + name) + sig);
+        Method m = null;
+        var pcl = getParsAndClass("virtual", clName, name, sig);
+        var p = pcl.v0();
+        var cl = pcl.v1();
+        try
+          {
+            m = cl.getMethod(name, p);
+          }
+        catch (NoSuchMethodException e)
+          {
+            Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_virtual calling " +
+                               (cl.getName() + "." + name) + sig);
+          }
+        mh = javaCallHandle(key, m, false);
       }
-    return invoke(m, thiz, args);
+    var h = mh;
+    return invokeAndWrapException(()->(Object) h.invokeExact(thiz, args));
   }
 
 
   static interface ReflectionInvoker
   {
-    Object invoke() throws InvocationTargetException, IllegalAccessException, InstantiationException;
+    Object invoke() throws Throwable;
   }
 
 
@@ -994,12 +1048,12 @@ public class Runtime extends ANY
       }
     catch (InvocationTargetException e)
       {
-        ((FuzionThread)Thread.currentThread())._thrownException = e.getCause();
+        currentThread()._thrownException = e.getCause();
         res = _JAVA_ERROR_;
       }
     catch (Throwable e)
       {
-        ((FuzionThread)Thread.currentThread())._thrownException = e;
+        currentThread()._thrownException = e;
         res = _JAVA_ERROR_;
       }
     return res;
@@ -1007,19 +1061,127 @@ public class Runtime extends ANY
 
 
   /**
-   * Invoke a method using {@link #invokeAndWrapException(ReflectionInvoker)}.
+   * Key of a method handle in _javaCallHandles_.
    *
-   * @param m the {@link Method} to be invoked
+   * @param kind the kind of call: "virtual", "static" or "constructor"
    *
-   * @param thiz the {@link Object instance} on which the {@link Method} shall be invoked
+   * @param clName name of the class
    *
-   * @param args arguments to invoke this {@link Method} with
+   * @param name name of the method, null for a constructor
+   *
+   * @param sig signature of the method or constructor
+   */
+  record JavaCallKey(String kind, String clName, String name, String sig) { }
+
+
+  /**
+   * Cache of method handles used by fuzion_java_call_v0, fuzion_java_call_s0,
+   * and fuzion_java_call_c0.
    *
-   * @return the result of the invocation
+   * The method handles are adapted to receive the arguments as an Object[]
+   * and, for virtual calls, the target as an Object.
    */
-  private static Object invoke(Method m, Object thiz, Object[] args)
+  static final ConcurrentHashMap<JavaCallKey, MethodHandle> _javaCallHandles_ = new ConcurrentHashMap<>();
+
+
+  /**
+   * Create the method handle to call Java method m and enter it into
+   * _javaCallHandles_.
+   *
+   * If m cannot be accessed via a method handle, e.g., since it is a public
+   * method in a non-public class, the resulting handle calls m via reflection
+   * such that the resulting error is reported on invocation.
+   *
+   * @param key the key used for _javaCallHandles_
+   *
+   * @param m the method to call
+   *
+   * @param isStatic true for a static call, false for a virtual call.
+   *
+   * @return the method handle of type (Object[])Object for a static call or
+   * (Object, Object[])Object for a virtual call.
+   */
+  private static MethodHandle javaCallHandle(JavaCallKey key, Method m, boolean isStatic)
   {
-    return invokeAndWrapException(()->m.invoke(thiz, args));
+    MethodHandle result;
+    var n = m.getParameterCount();
+    try
+      {
+        result = MethodHandles.publicLookup()
+          .unreflect(m)
+          .asFixedArity()
+          .asSpreader(Object[].class, n)
+          .asType(isStatic ? MethodType.methodType(Object.class,               Object[].class)
+                           : MethodType.methodType(Object.class, Object.class, Object[].class));
+      }
+    catch (IllegalAccessException e)
+      {
+        result = reflectiveHandle(Method.class, m, MethodType.methodType(Object.class, Object.class, Object[].class));
+        if (isStatic)
+          {
+            result = MethodHandles.insertArguments(result, 0, (Object) null);
+          }
+      }
+    _javaCallHandles_.put(key, result);
+    return result;
+  }
+
+
+  /**
+   * Create the method handle to call Java constructor co and enter it into
+   * _javaCallHandles_.
+   *
+   * @param key the key used for _javaCallHandles_
+   *
+   * @param co the constructor to call
+   *
+   * @return the method handle of type (Object[])Object.
+   */
+  private static MethodHandle javaCallHandle(JavaCallKey key, Constructor<?> co)
+  {
+    MethodHandle result;
+    try
+      {
+        result = MethodHandles.publicLookup()
+          .unreflectConstructor(co)
+          .asFixedArity()
+          .asSpreader(Object[].class, co.getParameterCount())
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      }
+    catch (IllegalAccessException e)
+      {
+        result = reflectiveHandle(Constructor.class, co, MethodType.methodType(Object.class, Object[].class));
+      }
+    _javaCallHandles_.put(key, result);
+    return result;
+  }
+
+
+  /**
+   * Helper for javaCallHandle to create a method handle that calls
+   * Method.invoke or Constructor.newInstance on m.
+   *
+   * @param cl Method.class or Constructor.class
+   *
+   * @param m the Method or Constructor
+   *
+   * @param t the type of the invoke or newInstance method.
+   *
+   * @return a method handle with m bound as target of invoke or newInstance.
+   */
+  private static MethodHandle reflectiveHandle(Class<?> cl, Object m, MethodType t)
+  {
+    try
+      {
+        return MethodHandles.lookup()
+          .findVirtual(cl, cl == Method.class ? "invoke" : "newInstance", t)
+          .bindTo(m);
+      }
+    catch (NoSuchMethodException | IllegalAccessException e)
+      {
+        Errors.fatal(e);
+        return null; // not reached
+      }
   }
 
 
@@ -1038,26 +1200,32 @@ public class Runtime extends ANY
    *
    * @return whatever the method returns given the arguments
    */
-  @SuppressWarnings("unchecked")
   public static Object fuzion_java_call_s0(String clName, String name, String sig, Object[] args)
   {
     if (PRECONDITIONS) require
       (clName != null);
 
-    Method m = null;
-    var pcl = getParsAndClass("static", clName, name, sig);
-    var p = pcl.v0();
-    var cl = pcl.v1();
-    try
+    var key = new JavaCallKey("static", clName, name, sig);
+    var mh = _javaCallHandles_.get(key);
+    if (mh == null)
       {
-        m = cl.getMethod(name,p);
-      }
-    catch (NoSuchMethodException e)
-      {
-        Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_static calling " +
-                           (cl.getName() + "." + name) + sig);
+        Method m = null;
+        var pcl = getParsAndClass("static", clName, name, sig);
+        var p = pcl.v0();
+        var cl = pcl.v1();
+        try
+          {
+            m = cl.getMethod(name,p);
+          }
+        catch (NoSuchMethodException e)
+          {
+            Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_static calling " +
+                               (cl.getName() + "." + name) + sig);
+          }
+        mh = javaCallHandle(key, m, true);
       }
-    return invoke(m, null, args);
+    var h = mh;
+    return invokeAndWrapException(()->(Object) h.invokeExact(args));
   }
 
 
@@ -1079,24 +1247,30 @@ public class Runtime extends ANY
     if (PRECONDITIONS) require
       (clName != null);
 
-    var pcl = getParsAndClass("constructor", clName, null, sig);
-    var p = pcl.v0();
-    var cl = pcl.v1();
-    try
-      {
-        @SuppressWarnings("unchecked")
-        var co = cl.getConstructor(p);
-        return invokeAndWrapException(()->co.newInstance(args));
-      }
-    catch (NoSuchMethodException e)
+    var key = new JavaCallKey("constructor", clName, null, sig);
+    var mh = _javaCallHandles_.get(key);
+    if (mh == null)
       {
-        Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_constructor calling " +
-                           ("new " + clName) + sig);
-        return null; // not reached
+        var pcl = getParsAndClass("constructor", clName, null, sig);
+        var p = pcl.v0();
+        var cl = pcl.v1();
+        try
+          {
+            mh = javaCallHandle(key, cl.getConstructor(p));
+          }
+        catch (NoSuchMethodException e)
+          {
+            Errors.fatal("NoSuchMethodException when calling fuzion.jvm.env.call_constructor calling " +
+                               ("new " + clName) + sig);
+            return null; // not reached
+          }
       }
+    var h = mh;
+    return invokeAndWrapException(()->(Object) h.invokeExact(args));
   }
 
 
+
   /**
    * @param code the Unary instance to be executed, i.e. the outer instance
    *
@@ -1104,25 +1278,48 @@ public class Runtime extends ANY
    */
   public static Object thread_spawn(Any code, Class call)
   {
-    Object result = null;
-    Method r = null;
-    for (var m : call.getDeclaredMethods())
+    return new FuzionThread(_threadRoutines_.get(call), code, call.getClassLoader())._thread;
+  }
+
+
+  /**
+   * Cache of method handles of type (Any)void for the ROUTINE_NAME methods
+   * called by thread_spawn, such that spawning a thread requires neither a
+   * search through the declared methods nor a reflective call.
+   */
+  static final ClassValue<MethodHandle> _threadRoutines_ = new ClassValue<>()
+    {
+      protected MethodHandle computeValue(Class<?> call)
       {
-        if (m.getName().equals(ROUTINE_NAME))
+        MethodHandle result = null;
+        Method r = null;
+        for (var m : call.getDeclaredMethods())
           {
-            r = m;
+            if (m.getName().equals(ROUTINE_NAME))
+              {
+                r = m;
+              }
           }
+        if (r == null)
+          {
+            Errors.fatal("in " + Runtime.class.getName() + ".thread_spawn: missing `" + ROUTINE_NAME + "` in class `" + call + "`");
+          }
+        else
+          {
+            try
+              {
+                result = MethodHandles.lookup()
+                  .unreflect(r)
+                  .asType(MethodType.methodType(void.class, Any.class));
+              }
+            catch (IllegalAccessException e)
+              {
+                Errors.fatal("thread_spawn call caused `" + e + "` when accessing `" + r + "`");
+              }
+          }
+        return result;
       }
-    if (r == null)
-      {
-        Errors.fatal("in " + Runtime.class.getName() + ".thread_spawn: missing `" + ROUTINE_NAME + "` in class `" + call + "`");
-      }
-    else
-      {
-        result = new FuzionThread(r, code);
-      }
-    return result;
-  }
+    };
 
 
   public static byte[] args_get(int i)
@@ -1319,10 +1516,31 @@ public class Runtime extends ANY
    *
    * NYI: PERFORMANCE: remove param libraries. do init of library lookup once at program start.
    *
-   * @return
+   * @return the downcall method handle, adapted by
+   * FuzionThread.forVirtualThreads if VIRTUAL_THREADS is set.
    */
-  @SuppressWarnings("restricted")
   public static MethodHandle get_method_handle(String str, FunctionDescriptor desc, String[] libraries)
+  {
+    var result = native_method_handle(str, desc, libraries);
+    return FuzionThread.VIRTUAL_THREADS ? FuzionThread.forVirtualThreads(str, result)
+                                        : result;
+  }
+
+
+  /**
+   * Find the downcall method handle of a native function
+   *
+   * @param str name of the function: e.g. sqlite3_exec
+   *
+   * @param desc the FunctionDescriptor of the function
+   *
+   * @param libraries the libraries to search in addition to fuzion_rt and
+   * libmath.
+   *
+   * @return the downcall method handle.
+   */
+  @SuppressWarnings("restricted")
+  static MethodHandle native_method_handle(String str, FunctionDescriptor desc, String[] libraries)
   {
     SymbolLookup llu = libs;
     for (String library : libraries)
@@ -1377,7 +1595,7 @@ public class Runtime extends ANY
       case char   [] arr ->  MemorySegment.ofArray(arr).copyFrom(memSeg);
       case short  [] arr ->  MemorySegment.ofArray(arr).copyFrom(memSeg);
       case float  [] arr ->  MemorySegment.ofArray(arr).copyFrom(memSeg);
-      case MemorySegment m ->  { /* NYI: UNDER DEVELOPMENT */ }
+      case MemorySegment m ->  { /* off-heap array data was passed to native code directly, nothing to copy */ }
       case Object [] arr ->
         {
           if (arr.length > 0 && arr[0] instanceof MemorySegment)
@@ -1427,6 +1645,180 @@ public class Runtime extends ANY
   }
 
 
+  /**
+   * Create a heap memory segment for a Java primitive array.
+   *
+   * @param obj an object that might be a primitive array
+   *
+   * @return a segment viewing the elements of obj or null if obj is not a
+   * primitive array.
+   */
+  private static MemorySegment heapSegment(Object obj)
+  {
+    return
+      switch (obj) {
+        case int    [] arr -> MemorySegment.ofArray(arr);
+        case byte   [] arr -> MemorySegment.ofArray(arr);
+        case long   [] arr -> MemorySegment.ofArray(arr);
+        case double [] arr -> MemorySegment.ofArray(arr);
+        case char   [] arr -> MemorySegment.ofArray(arr);
+        case short  [] arr -> MemorySegment.ofArray(arr);
+        case float  [] arr -> MemorySegment.ofArray(arr);
+        default            -> null;
+      };
+  }
+
+
+  /**
+   * Like obj2MemorySegment, but for a primitive array, the native memory is
+   * taken from a pool of the current thread instead of being allocated in
+   * the global arena.  The memory must be returned via
+   * pooledMemorySegment2Obj after the native call.
+   *
+   * This must only be used if the called native function does not retain the
+   * pointer after it returned.
+   */
+  public static MemorySegment obj2PooledMemorySegment(Object obj)
+  {
+    var src = heapSegment(obj);
+    if (src == null)
+      {
+        return obj2MemorySegment(obj);
+      }
+    var n = src.byteSize();
+    var sz = 64 - Long.numberOfLeadingZeros(Math.max(n - 1, 0));
+    var pools = _segmentPools_.get();
+    var pool = sz < pools.length ? pools[sz] : null;
+    var result = pool == null ? null : pool.pollLast();
+    if (result == null)
+      {
+        // an auto arena per segment such that the segment is freed once it is
+        // dropped from the pool or if the pool's thread terminated
+        result = Arena.ofAuto().allocate(1L << sz, ValueLayout.JAVA_LONG.byteAlignment());
+      }
+    return result.copyFrom(src);
+  }
+
+
+  /**
+   * Like memorySegment2Obj, but for a primitive array, return memSeg to the
+   * pool of the current thread after the contents were copied.
+   *
+   * @param obj the object that was passed to obj2PooledMemorySegment
+   *
+   * @param memSeg the result of obj2PooledMemorySegment(obj)
+   */
+  public static void pooledMemorySegment2Obj(Object obj, MemorySegment memSeg)
+  {
+    var dst = heapSegment(obj);
+    if (dst == null)
+      {
+        memorySegment2Obj(obj, memSeg);
+      }
+    else
+      {
+        MemorySegment.copy(memSeg, 0, dst, 0, dst.byteSize());
+        var sz = Long.numberOfTrailingZeros(memSeg.byteSize());
+        var pools = _segmentPools_.get();
+        if (sz < pools.length)
+          {
+            var pool = pools[sz];
+            if (pool == null)
+              {
+                pool = new ArrayDeque<>();
+                pools[sz] = pool;
+              }
+            if (pool.size() < POOLED_SEGMENTS_PER_SIZE &&
+                pooledBytes(pools) + memSeg.byteSize() <= POOLED_BYTES_PER_THREAD)
+              {
+                pool.addLast(memSeg);
+              }
+          }
+      }
+  }
+
+
+  /**
+   * Helper for pooledMemorySegment2Obj to determine the total size of the
+   * segments in the given pools.
+   *
+   * @param pools the pools of the current thread
+   *
+   * @return the sum of the sizes in bytes of all segments in pools.
+   */
+  private static long pooledBytes(ArrayDeque<MemorySegment>[] pools)
+  {
+    var result = 0L;
+    for (var i = 0; i < pools.length; i++)
+      {
+        if (pools[i] != null)
+          {
+            result += (long) pools[i].size() << i;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Allocate native memory for an array that is accessed via offheap_getel_*
+   * and offheap_setel_* and that can be passed to native functions without
+   * copying.
+   *
+   * @param n the number of elements
+   *
+   * @param l the layout of one element
+   *
+   * @return a zero-initialized segment of n elements.  This is freed by the GC
+   * once it is no longer referenced.
+   */
+  private static MemorySegment offHeapArray(int n, ValueLayout l)
+  {
+    return Arena.ofAuto().allocate(n * l.byteSize(), l.byteAlignment());
+  }
+
+
+  /*
+   * Accessors used by the code for fuzion.sys.type.alloc/getel/setel if the
+   * array data of an element type may be allocated off-heap, see
+   * JVM.offHeapArray.  The data is then either a MemorySegment created by
+   * offheap_alloc_* or a Java array, e.g., for constant arrays or arrays created
+   * by the runtime.  offheap_heap_* returns a Java array with the elements for
+   * code that needs a Java array.
+   */
+  public static Object offheap_alloc_byte   (int n) { return n * 1L < OFF_HEAP_ARRAY_MIN_SIZE ? new byte  [n] : offHeapArray(n, ValueLayout.JAVA_BYTE  ); }
+  public static Object offheap_alloc_char   (int n) { return n * 2L < OFF_HEAP_ARRAY_MIN_SIZE ? new char  [n] : offHeapArray(n, ValueLayout.JAVA_CHAR  ); }
+  public static Object offheap_alloc_short  (int n) { return n * 2L < OFF_HEAP_ARRAY_MIN_SIZE ? new short [n] : offHeapArray(n, ValueLayout.JAVA_SHORT ); }
+  public static Object offheap_alloc_int    (int n) { return n * 4L < OFF_HEAP_ARRAY_MIN_SIZE ? new int   [n] : offHeapArray(n, ValueLayout.JAVA_INT   ); }
+  public static Object offheap_alloc_long   (int n) { return n * 8L < OFF_HEAP_ARRAY_MIN_SIZE ? new long  [n] : offHeapArray(n, ValueLayout.JAVA_LONG  ); }
+  public static Object offheap_alloc_float  (int n) { return n * 4L < OFF_HEAP_ARRAY_MIN_SIZE ? new float [n] : offHeapArray(n, ValueLayout.JAVA_FLOAT ); }
+  public static Object offheap_alloc_double (int n) { return n * 8L < OFF_HEAP_ARRAY_MIN_SIZE ? new double[n] : offHeapArray(n, ValueLayout.JAVA_DOUBLE); }
+
+  public static byte   offheap_getel_byte   (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_BYTE  , i) : ((byte  []) d)[i]; }
+  public static char   offheap_getel_char   (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_CHAR  , i) : ((char  []) d)[i]; }
+  public static short  offheap_getel_short  (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_SHORT , i) : ((short []) d)[i]; }
+  public static int    offheap_getel_int    (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_INT   , i) : ((int   []) d)[i]; }
+  public static long   offheap_getel_long   (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_LONG  , i) : ((long  []) d)[i]; }
+  public static float  offheap_getel_float  (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_FLOAT , i) : ((float []) d)[i]; }
+  public static double offheap_getel_double (Object d, int i) { return d instanceof MemorySegment m ? m.getAtIndex(ValueLayout.JAVA_DOUBLE, i) : ((double[]) d)[i]; }
+
+  public static void   offheap_setel_byte   (Object d, int i, byte   v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_BYTE  , i, v); } else { ((byte  []) d)[i] = v; } }
+  public static void   offheap_setel_char   (Object d, int i, char   v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_CHAR  , i, v); } else { ((char  []) d)[i] = v; } }
+  public static void   offheap_setel_short  (Object d, int i, short  v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_SHORT , i, v); } else { ((short []) d)[i] = v; } }
+  public static void   offheap_setel_int    (Object d, int i, int    v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_INT   , i, v); } else { ((int   []) d)[i] = v; } }
+  public static void   offheap_setel_long   (Object d, int i, long   v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_LONG  , i, v); } else { ((long  []) d)[i] = v; } }
+  public static void   offheap_setel_float  (Object d, int i, float  v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_FLOAT , i, v); } else { ((float []) d)[i] = v; } }
+  public static void   offheap_setel_double (Object d, int i, double v) { if (d instanceof MemorySegment m) { m.setAtIndex(ValueLayout.JAVA_DOUBLE, i, v); } else { ((double[]) d)[i] = v; } }
+
+  public static byte  [] offheap_heap_byte  (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_BYTE  ) : (byte  []) d; }
+  public static char  [] offheap_heap_char  (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_CHAR  ) : (char  []) d; }
+  public static short [] offheap_heap_short (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_SHORT ) : (short []) d; }
+  public static int   [] offheap_heap_int   (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_INT   ) : (int   []) d; }
+  public static long  [] offheap_heap_long  (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_LONG  ) : (long  []) d; }
+  public static float [] offheap_heap_float (Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_FLOAT ) : (float []) d; }
+  public static double[] offheap_heap_double(Object d) { return d instanceof MemorySegment m ? m.toArray(ValueLayout.JAVA_DOUBLE) : (double[]) d; }
+
+
   /**
    * copy fuzion value to a memory segment
    *
@@ -42,6 +42,7 @@ import java.util.SortedMap;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 
 import dev.flang.ast.AbstractAssign;
 import dev.flang.ast.AbstractBlock;
@@ -73,6 +74,7 @@ import dev.flang.parser.Parser;
 
 import dev.flang.util.Errors;
 import dev.flang.util.FuzionConstants;
+import dev.flang.util.FuzionOptions;
 import dev.flang.util.List;
 import dev.flang.util.SourceDir;
 import dev.flang.util.SourceFile;
@@ -87,6 +89,22 @@ import dev.flang.util.SourcePosition;
 public class SourceModule extends Module implements SrcModule
 {
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Should the source files in a source directory be read in parallel as soon
+   * as the directory is listed?  Parsing and registration of the features
+   * found remain sequential.
+   *
+   * To enable, use fz with
+   *
+   *   dev_flang_fe_SourceModule_PREFETCH_SOURCES=true
+   */
+  static final boolean PREFETCH_SOURCES =
+    FuzionOptions.boolPropertyOrEnv("dev.flang.fe.SourceModule.PREFETCH_SOURCES");
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
@@ -122,6 +140,14 @@ public class SourceModule extends Module implements SrcModule
   Resolution _res;
 
 
+  /**
+   * In case PREFETCH_SOURCES is set, this maps the paths of the source files
+   * in the directory that is currently being loaded to their contents that are
+   * read in parallel.  Entries are removed when the file is parsed.
+   */
+  private final TreeMap<Path, CompletableFuture<byte[]>> _prefetched = new TreeMap<>();
+
+
   /*--------------------------  constructors  ---------------------------*/
 
 
@@ -208,7 +234,42 @@ public class SourceModule extends Module implements SrcModule
       {
         _options.verbosePrintln(2, " - " + p);
       }
-    return new Parser(p, ec, _options.isLanguageServer()).unit();
+    var sf = ec;
+    var f = ec == null ? _prefetched.remove(p) : null;
+    if (f != null)
+      {
+        sf = f.join();
+      }
+    return new Parser(p, sf, _options.isLanguageServer()).unit();
+  }
+
+
+  /**
+   * Start reading the given source files in parallel.  The contents are kept
+   * in _prefetched until the files are parsed.
+   *
+   * NYI: Parsing itself is not done in parallel since the parser assigns
+   * global ids and names to the features, loops, etc. it creates and reports
+   * errors in the order they are found.
+   *
+   * @param files the source files found in one source directory.
+   */
+  private void prefetchSources(List<Path> files)
+  {
+    for (var p : files)
+      {
+        _prefetched.put(p, CompletableFuture.supplyAsync(() ->
+          {
+            try
+              {
+                return Files.readAllBytes(p);
+              }
+            catch (IOException e)
+              {
+                return null; // error will be reported by Parser when reading p
+              }
+          }));
+      }
   }
 
 
@@ -257,6 +318,10 @@ public class SourceModule extends Module implements SrcModule
     findDeclarations(_universe, null);
     _universe.scheduleForResolution(_res);
     _res.resolve();
+    if (AbstractCall.formalArgumentTypesCacheStatisticsEnabled())
+      {
+        _options.verbosePrintln(2, " * " + AbstractCall.formalArgumentTypesCacheStatistics());
+      }
     addRuntimeInitCall();
   }
 
@@ -413,9 +478,15 @@ part of the (((inner features))) declarations of the corresponding
 
                     var used = new TreeMap<String, String>();
 
-                    Files.list(d._dir)
+                    var files = Files.list(d._dir)
                       .filter(p -> isValidSourceFile(p))
                       .sorted(Comparator.comparing(p -> p.toString()))
+                      .collect(List.collector());
+                    if (PREFETCH_SOURCES)
+                      {
+                        prefetchSources(files);
+                      }
+                    files
                       .forEach(p ->
                                {
                                  if (used.containsKey(p.toString().toLowerCase()))
@@ -154,7 +154,8 @@ class Clazz extends ANY implements Comparable<Clazz>
 
 
   /**
-   * Cached looked up result field of this clazz
+   * Cached looked up result field of this clazz, this if there is no result
+   * field.
    */
   Clazz _resultField;
 
@@ -172,6 +173,25 @@ class Clazz extends ANY implements Comparable<Clazz>
   private Clazz _asValue;
 
 
+  /**
+   * For a clazz with isRef()==false, this will be set to a reference version of
+   * this clazz.
+   */
+  private Clazz _asRef;
+
+
+  /**
+   * Is this the clazz of an outer ref field?  Set by init().
+   */
+  boolean _isOuterRef;
+
+
+  /**
+   * Cached result of originalName(), null before first call to originalName().
+   */
+  private String _originalName = null;
+
+
   /**
    * The type of the result of calling thiz clazz.
    *
@@ -353,6 +373,7 @@ class Clazz extends ANY implements Comparable<Clazz>
   void init(int id)
   {
     _id = id;
+    _isOuterRef = feature().isOuterRef();
     _choiceGenerics = determineChoiceGenerics();
     var vas = feature().valueArguments();
     if (vas.size() == 0 || isBoxed())
@@ -533,6 +554,7 @@ class Clazz extends ANY implements Comparable<Clazz>
   {
     if (_heirs == null)
       {
+        _fuir.beforeLazyInit();
         _heirs = new TreeSet<>();
       }
     return _heirs;
@@ -570,6 +592,7 @@ class Clazz extends ANY implements Comparable<Clazz>
     var result = _parents;
     if (result == null)
       {
+        _fuir.beforeLazyInit();
         result = new TreeSet<Clazz>();
         result.add(this);
         for (var p : directParents())
@@ -609,6 +632,7 @@ class Clazz extends ANY implements Comparable<Clazz>
   {
     if (!_needsCode && !_fuir._lookupDone)
       {
+        _fuir.beforeChange();
         _needsCode = true;
         var r = resultField();
         if (r != null)
@@ -769,6 +793,10 @@ class Clazz extends ANY implements Comparable<Clazz>
       {
         return _isUnitType == YesNo.yes;
       }
+    if (_fuir._lookupDone)
+      {
+        _fuir.beforeLazyInit();
+      }
 
     var res = YesNo.no;
     if (_fuir._lookupDone &&
@@ -1085,6 +1113,7 @@ class Clazz extends ANY implements Comparable<Clazz>
           (Errors.any() || iCs == null || iCs instanceof Clazz[]);
         if (!(iCs instanceof Clazz[] iCA))
           {
+            _fuir.beforeLazyInit();
             innerClazzes = new Clazz[replaceOpenCount(fa._f)];
             _innerFromFuir.put(fa, innerClazzes);
           }
@@ -1102,6 +1131,7 @@ class Clazz extends ANY implements Comparable<Clazz>
       }
     if (innerClazz == null)
       {
+        _fuir.beforeLazyInit();
         AbstractType t = null;
         var f = fa._f;
         if (f.isOpenTypeParameter())
@@ -1265,6 +1295,7 @@ class Clazz extends ANY implements Comparable<Clazz>
     String result = humanReadable ? _toStringHuman : _toString;
     if (result == null)
       {
+        _fuir.beforeLazyInit();
         var o = _outer;
         String outer = o != null && !o.feature().isUniverse() ? StringHelpers.wrapInParentheses(o.toString(humanReadable)) + "." : "";
         var f = feature();
@@ -1330,6 +1361,23 @@ class Clazz extends ANY implements Comparable<Clazz>
   }
 
 
+  /**
+   * The original qualified name of the feature this clazz was created from,
+   * ignoring any inheritance into new clazzes.
+   */
+  String originalName()
+  {
+    var result = _originalName;
+    if (result == null)
+      {
+        _fuir.beforeLazyInit();
+        result = feature().qualifiedName();
+        _originalName = result;
+      }
+    return result;
+  }
+
+
 
   /**
    * If this clazz contains a direct outer ref field, this is the direct outer
@@ -1340,6 +1388,7 @@ class Clazz extends ANY implements Comparable<Clazz>
     var res = _outerRef;
     if (res == null && !_fuir._lookupDone)
       {
+        _fuir.beforeLazyInit();
         var or = feature().outerRef();
         if (!isBoxed() && or != null)
           {
@@ -1362,15 +1411,15 @@ class Clazz extends ANY implements Comparable<Clazz>
    */
   Clazz resultField()
   {
-    if (_resultField == null && !_fuir._lookupDone)
+    var res = _resultField;
+    if (res == null && !_fuir._lookupDone)
       {
+        _fuir.beforeLazyInit();
         var rf = feature().resultField();
-        if (rf != null)
-          {
-            _resultField = lookupNeeded(rf);
-          }
+        res = rf != null ? lookupNeeded(rf) : this;
+        _resultField = res;
       }
-    return _resultField;
+    return res == this ? null : res;
   }
 
 
@@ -1602,6 +1651,8 @@ class Clazz extends ANY implements Comparable<Clazz>
    */
   private boolean hasInstantiatedChoiceHeirs()
   {
+    // this modifies _checkingInstantiatedHeirs of the heirs:
+    _fuir.beforeLazyInit();
     var result = false;
     for (var h : heirs())
       {
@@ -1633,9 +1684,14 @@ class Clazz extends ANY implements Comparable<Clazz>
    */
   Clazz asRef()
   {
-    return isRef()
-      ? this
-      : _fuir.newClazz(_outer, _type.asRef(), _select);
+    if (_asRef == null)
+      {
+        _fuir.beforeLazyInit();
+        _asRef = isRef()
+          ? this
+          : _fuir.newClazz(_outer, _type.asRef(), _select);
+      }
+    return _asRef;
   }
 
 
@@ -1692,6 +1748,7 @@ class Clazz extends ANY implements Comparable<Clazz>
     var result = _resultClazz;
     if (result == null)
       {
+        _fuir.beforeLazyInit();
         AbstractFeature f = feature();
         var o  = _outer;
         var of = o != null ? o.feature() : null;
@@ -1793,6 +1850,7 @@ class Clazz extends ANY implements Comparable<Clazz>
 
     if (_typeClazz == null)
       {
+        _fuir.beforeLazyInit();
         if (_type.isGenericArgument())
           {
             _typeClazz = _fuir.error();
@@ -2132,6 +2190,7 @@ class Clazz extends ANY implements Comparable<Clazz>
 
     if (_fields == null)
       {
+        _fuir.beforeLazyInit();
         var fields = new List<Clazz>();
         for (var fieldc: _inner)
           {
@@ -2156,6 +2215,7 @@ class Clazz extends ANY implements Comparable<Clazz>
   {
     if (_asValue == null)
       {
+        _fuir.beforeLazyInit();
         _asValue = isRef()
           ? _fuir.newClazz(_outer, _type.asValue(), _select)
           : this;
@@ -26,16 +26,14 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.fuir;
 
-import java.io.Serializable;
-
 import dev.flang.fuir.FUIR.LifeTime;
 import dev.flang.ir.IR.FeatureKind;
 
 /**
- * NYI: UNDER DEVELOPMENT:
- * remove this once we have custom serialization of FUIR
+ * All data of one clazz collected by OptimizedFUIR.serialize() before FuirOut
+ * writes it to the columns of a .fuir file.
  */
-public record ClazzRecord(
+record ClazzRecord(
   String clazzBaseName,
   int clazzOuterClazz,
   boolean clazzIsBoxed,
@@ -49,6 +47,7 @@ public record ClazzRecord(
   int[] clazzChoices,
   int[] clazzInstantiatedHeirs,
   boolean clazzNeedsCode,
+  boolean arrayMayBePassedToNative,
   int[] clazzFields,
   int clazzCode,
   int clazzResultField,
@@ -63,7 +62,6 @@ public record ClazzRecord(
   int clazzSrcBytePos,
   int lookupJavaRef,
   int lookupCause
-  ) implements Serializable
+  )
 {
-  private static final long serialVersionUID = 1L;
 }
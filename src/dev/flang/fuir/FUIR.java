@@ -842,6 +842,23 @@ public abstract class FUIR extends IR
   }
 
 
+  /**
+   * May an array with elements of type ec be passed to a native function,
+   * i.e., could it be worthwhile to allocate arrays of this type in memory that
+   * is directly accessible by native code?
+   *
+   * @param ec clazz id of an array's element type
+   *
+   * @return true if an array, mutable array or array data with element type ec
+   * may be passed to a native function, false if this is known not to be the
+   * case.
+   */
+  public boolean arrayMayBePassedToNative(int ec)
+  {
+    return true;
+  }
+
+
   /**
    * Enum of possible life times of instances created when a clazz is called.
    *
@@ -896,6 +913,25 @@ public abstract class FUIR extends IR
   public abstract LifeTime lifeTime(int cl);
 
 
+  /**
+   * Determine the lifetime of the instance of the call to clazz cl at site s.
+   *
+   * This may be shorter than lifeTime(cl) if the instance escapes only for
+   * calls from other sites.
+   *
+   * @param cl a clazz id of any kind
+   *
+   * @param s site of a call to cl
+   *
+   * @return A conservative estimate of the lifespan of cl's instance for
+   * calls at site s, never longer than lifeTime(cl).
+   */
+  public LifeTime lifeTime(int cl, int s)
+  {
+    return lifeTime(cl);
+  }
+
+
   /*--------------------------  accessing code  -------------------------*/
 
 
@@ -0,0 +1,475 @@
+/*
+
+This file is part of the Fuzion language implementation.
+
+The Fuzion language implementation is free software: you can redistribute it
+and/or modify it under the terms of the GNU General Public License as published
+by the Free Software Foundation, version 3 of the License.
+
+The Fuzion language implementation is distributed in the hope that it will be
+useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public
+License for more details.
+
+You should have received a copy of the GNU General Public License along with The
+Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+/*-----------------------------------------------------------------------
+ *
+ * Tokiwa Software GmbH, Germany
+ *
+ * Source of class FuirOut
+ *
+ *---------------------------------------------------------------------*/
+
+package dev.flang.fuir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import dev.flang.util.DataOut;
+import dev.flang.util.FuzionConstants;
+
+
+/**
+ * FuirOut writes the FUIR collected in ClazzRecord and SiteRecord arrays into
+ * the binary .fuir file format read by LibraryFuir.
+ *
+ * The format is columnar: for each property of a clazz or a site, there is one
+ * column of ints with one entry per clazz or site, respectively.  Variable size
+ * data like int arrays, byte arrays and strings is stored in a data section and
+ * referenced by offset or, for strings, by index into a string table.  This
+ * permits LibraryFuir to access the file directly via a (memory mapped)
+ * ByteBuffer without decoding it first.
+ *
+ * <pre>
+ *   +---------------------------------------------------------------------------------+
+ *   | FUIR File                                                                       |
+ *   +--------+--------+---------------+-----------------------------------------------+
+ *   | cond.  | repeat | type          | what                                          |
+ *   +--------+--------+---------------+-----------------------------------------------+
+ *   | true   | 1      | byte[4]       | FUIR_FILE_MAGIC                               |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | FUIR_FILE_VERSION                             |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | main clazz                                    |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | number of clazzes nc                          |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | number of sites ns                            |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | number of special clazzes sc                  |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | sc     | int           | special clazz                                 |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | C_COUNT| int[nc]       | clazz column                                  |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | S_COUNT| int[ns]       | site column                                   |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | number of strings n                           |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | n      | int           | offset of string in data section              |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | 1      | int           | size of data section d                        |
+ *   +        +--------+---------------+-----------------------------------------------+
+ *   |        | d      | byte          | data section                                  |
+ *   +--------+--------+---------------+-----------------------------------------------+
+ * </pre>
+ *
+ * Arrays and strings in the data section are stored as an int length l
+ * followed by l ints or bytes, respectively.  An int[][] is stored as an int
+ * array of offsets of its elements.  Offset, string index and ordinal entries
+ * are -1 for null values.
+ */
+class FuirOut extends DataOut
+{
+
+
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Clazz columns.
+   */
+  static final int C_BASE_NAME             =  0;
+  static final int C_OUTER_CLAZZ           =  1;
+  static final int C_FLAGS                 =  2;
+  static final int C_ARGS                  =  3;
+  static final int C_KIND                  =  4;
+  static final int C_OUTER_REF             =  5;
+  static final int C_RESULT_CLAZZ          =  6;
+  static final int C_AS_VALUE              =  7;
+  static final int C_CHOICES               =  8;
+  static final int C_INSTANTIATED_HEIRS    =  9;
+  static final int C_FIELDS                = 10;
+  static final int C_CODE                  = 11;
+  static final int C_RESULT_FIELD          = 12;
+  static final int C_ORIGINAL_NAME         = 13;
+  static final int C_ACTUAL_GENERICS       = 14;
+  static final int C_LOOKUP_CALL           = 15;
+  static final int C_LOOKUP_STATIC_FINALLY = 16;
+  static final int C_LIFE_TIME             = 17;
+  static final int C_TYPE_NAME             = 18;
+  static final int C_AS_STRING_HUMAN       = 19;
+  static final int C_SRC_FILE              = 20;
+  static final int C_SRC_BYTE_POS          = 21;
+  static final int C_LOOKUP_JAVA_REF       = 22;
+  static final int C_LOOKUP_CAUSE          = 23;
+  static final int C_COUNT                 = 24;
+
+
+  /**
+   * Bits in column C_FLAGS.
+   */
+  static final int C_FLAG_IS_BOXED     = 1;
+  static final int C_FLAG_IS_REF       = 2;
+  static final int C_FLAG_IS_UNIT_TYPE = 4;
+  static final int C_FLAG_NEEDS_CODE   = 8;
+  static final int C_FLAG_ARRAY_MAY_BE_PASSED_TO_NATIVE = 16;
+
+
+  /**
+   * Site columns.
+   */
+  static final int S_CLAZZ_AT             =  0;
+  static final int S_FLAGS                =  1;
+  static final int S_CODE_AT              =  2;
+  static final int S_CONST_CLAZZ          =  3;
+  static final int S_CONST_DATA           =  4;
+  static final int S_ACCESSED_CLAZZ       =  5;
+  static final int S_ACCESSED_CLAZZES     =  6;
+  static final int S_ACCESS_TARGET_CLAZZ  =  7;
+  static final int S_TAG_VALUE_CLAZZ      =  8;
+  static final int S_ASSIGNED_TYPE        =  9;
+  static final int S_BOX_VALUE_CLAZZ      = 10;
+  static final int S_BOX_RESULT_CLAZZ     = 11;
+  static final int S_MATCH_STATIC_SUBJECT = 12;
+  static final int S_MATCH_CASE_COUNT     = 13;
+  static final int S_MATCH_CASE_TAGS      = 14;
+  static final int S_MATCH_CASE_CODE      = 15;
+  static final int S_TAG_NEW_CLAZZ        = 16;
+  static final int S_TAG_TAG_NUM          = 17;
+  static final int S_MATCH_CASE_FIELD     = 18;
+  static final int S_PATH                 = 19;
+  static final int S_LINE                 = 20;
+  static final int S_COLUMN               = 21;
+  static final int S_SHOW                 = 22;
+  static final int S_CALL_LIFE_TIMES      = 23;
+  static final int S_COUNT                = 24;
+
+
+  /**
+   * Bits in column S_FLAGS.
+   */
+  static final int S_FLAG_ALWAYS_RESULTS_IN_VOID = 1;
+  static final int S_FLAG_DOES_RESULT_ESCAPE     = 2;
+  static final int S_FLAG_ACCESS_IS_DYNAMIC      = 4;
+
+
+  /**
+   * Offset of the first special clazz entry in the file.
+   */
+  static final int SPECIAL_CLAZZES_OFFSET = 6 * 4;
+
+
+  /**
+   * Value used for null offsets, string indices and enum ordinals.
+   */
+  static final int NULL = -1;
+
+
+  /*----------------------------  variables  ----------------------------*/
+
+
+  /**
+   * The data section containing arrays and strings.
+   */
+  private final DataOut _dataSection = new DataOut();
+
+
+  /**
+   * The offsets in _dataSection of the strings in the string table.
+   */
+  private final ArrayList<Integer> _strings = new ArrayList<>();
+
+
+  /**
+   * Map from string to its index in the string table, used to avoid
+   * duplicates.
+   */
+  private final HashMap<String, Integer> _stringIndex = new HashMap<>();
+
+
+  /**
+   * Offset of the empty int array in _dataSection, -1 if not written yet.
+   */
+  private int _emptyIntArray = NULL;
+
+
+  /*--------------------------  constructors  ---------------------------*/
+
+
+  /**
+   * Create the binary data for the given FUIR data.
+   *
+   * @param mainClazz the main clazz
+   *
+   * @param clazzes the clazzes, indexed by clazzId2num
+   *
+   * @param sites the sites, indexed by site - SITE_BASE
+   *
+   * @param specialClazzes the clazzes for SpecialClazzes.values()
+   */
+  FuirOut(int mainClazz, ClazzRecord[] clazzes, SiteRecord[] sites, int[] specialClazzes)
+  {
+    var nc = clazzes.length;
+    var ns = sites.length;
+    var cc = new int[C_COUNT][nc];
+    for (var i = 0; i < nc; i++)
+      {
+        var c = clazzes[i];
+        cc[C_BASE_NAME            ][i] = string(c.clazzBaseName());
+        cc[C_OUTER_CLAZZ          ][i] = c.clazzOuterClazz();
+        cc[C_FLAGS                ][i] =
+          (c.clazzIsBoxed()    ? C_FLAG_IS_BOXED     : 0) |
+          (c.clazzIsRef()      ? C_FLAG_IS_REF       : 0) |
+          (c.clazzIsUnitType() ? C_FLAG_IS_UNIT_TYPE : 0) |
+          (c.clazzNeedsCode()  ? C_FLAG_NEEDS_CODE   : 0) |
+          (c.arrayMayBePassedToNative() ? C_FLAG_ARRAY_MAY_BE_PASSED_TO_NATIVE : 0);
+        cc[C_ARGS                 ][i] = intArray(c.clazzArgs());
+        cc[C_KIND                 ][i] = ordinal(c.clazzKind());
+        cc[C_OUTER_REF            ][i] = c.clazzOuterRef();
+        cc[C_RESULT_CLAZZ         ][i] = c.clazzResultClazz();
+        cc[C_AS_VALUE             ][i] = c.clazzAsValue();
+        cc[C_CHOICES              ][i] = intArray(c.clazzChoices());
+        cc[C_INSTANTIATED_HEIRS   ][i] = intArray(c.clazzInstantiatedHeirs());
+        cc[C_FIELDS               ][i] = intArray(c.clazzFields());
+        cc[C_CODE                 ][i] = c.clazzCode();
+        cc[C_RESULT_FIELD         ][i] = c.clazzResultField();
+        cc[C_ORIGINAL_NAME        ][i] = string(c.clazzOriginalName());
+        cc[C_ACTUAL_GENERICS      ][i] = intArray(c.clazzActualGenerics());
+        cc[C_LOOKUP_CALL          ][i] = c.lookupCall();
+        cc[C_LOOKUP_STATIC_FINALLY][i] = c.lookupStaticFinally();
+        cc[C_LIFE_TIME            ][i] = ordinal(c.lifeTime());
+        cc[C_TYPE_NAME            ][i] = byteArray(c.clazzTypeName());
+        cc[C_AS_STRING_HUMAN      ][i] = string(c.clazzAsStringHuman());
+        cc[C_SRC_FILE             ][i] = string(c.clazzSrcFile());
+        cc[C_SRC_BYTE_POS         ][i] = c.clazzSrcBytePos();
+        cc[C_LOOKUP_JAVA_REF      ][i] = c.lookupJavaRef();
+        cc[C_LOOKUP_CAUSE         ][i] = c.lookupCause();
+      }
+    var sc = new int[S_COUNT][ns];
+    for (var i = 0; i < ns; i++)
+      {
+        var s = sites[i];
+        sc[S_CLAZZ_AT            ][i] = s.clazzAt();
+        sc[S_FLAGS               ][i] =
+          (s.alwaysResultsInVoid() ? S_FLAG_ALWAYS_RESULTS_IN_VOID : 0) |
+          (s.doesResultEscape()    ? S_FLAG_DOES_RESULT_ESCAPE     : 0) |
+          (s.accessIsDynamic()     ? S_FLAG_ACCESS_IS_DYNAMIC      : 0);
+        sc[S_CODE_AT             ][i] = ordinal(s.codeAt());
+        sc[S_CONST_CLAZZ         ][i] = s.constClazz();
+        sc[S_CONST_DATA          ][i] = byteArray(s.constData());
+        sc[S_ACCESSED_CLAZZ      ][i] = s.accessedClazz();
+        sc[S_ACCESSED_CLAZZES    ][i] = intArray(s.accessedClazzes());
+        sc[S_ACCESS_TARGET_CLAZZ ][i] = s.accessTargetClazz();
+        sc[S_TAG_VALUE_CLAZZ     ][i] = s.tagValueClazz();
+        sc[S_ASSIGNED_TYPE       ][i] = s.assignedType();
+        sc[S_BOX_VALUE_CLAZZ     ][i] = s.boxValueClazz();
+        sc[S_BOX_RESULT_CLAZZ    ][i] = s.boxResultClazz();
+        sc[S_MATCH_STATIC_SUBJECT][i] = s.matchStaticSubject();
+        sc[S_MATCH_CASE_COUNT    ][i] = s.matchCaseCount();
+        sc[S_MATCH_CASE_TAGS     ][i] = intArrays(s.matchCaseTags());
+        sc[S_MATCH_CASE_CODE     ][i] = intArray(s.matchCaseCode());
+        sc[S_TAG_NEW_CLAZZ       ][i] = s.tagNewClazz();
+        sc[S_TAG_TAG_NUM         ][i] = s.tagTagNum();
+        sc[S_MATCH_CASE_FIELD    ][i] = intArray(s.matchCaseField());
+        sc[S_PATH                ][i] = string(s.path());
+        sc[S_LINE                ][i] = s.line();
+        sc[S_COLUMN              ][i] = s.column();
+        sc[S_SHOW                ][i] = string(s.show());
+        sc[S_CALL_LIFE_TIMES     ][i] = intArray(ordinals(s.callLifeTimes()));
+      }
+
+    writeBytes(FuzionConstants.FUIR_FILE_MAGIC);
+    writeInt(FuzionConstants.FUIR_FILE_VERSION);
+    writeInt(mainClazz);
+    writeInt(nc);
+    writeInt(ns);
+    writeInt(specialClazzes.length);
+
+    if (CHECKS) check
+      (offset() == SPECIAL_CLAZZES_OFFSET);
+
+    for (var c : specialClazzes)
+      {
+        writeInt(c);
+      }
+    for (var col : cc)
+      {
+        for (var v : col)
+          {
+            writeInt(v);
+          }
+      }
+    for (var col : sc)
+      {
+        for (var v : col)
+          {
+            writeInt(v);
+          }
+      }
+    writeInt(_strings.size());
+    for (var o : _strings)
+      {
+        writeInt(o);
+      }
+    var data = _dataSection.buffer();
+    writeInt(data.remaining());
+    var d = new byte[data.remaining()];
+    data.get(d);
+    writeBytes(d);
+  }
+
+
+  /*-----------------------------  methods  -----------------------------*/
+
+
+  /**
+   * Ordinal of given enum value, NULL if e is null.
+   */
+  private int ordinal(Enum<?> e)
+  {
+    return e == null ? NULL : e.ordinal();
+  }
+
+
+  /**
+   * Ordinals of given enum values, NULL for null elements.
+   *
+   * @return the array of ordinals, null if a is null.
+   */
+  private int[] ordinals(Enum<?>[] a)
+  {
+    int[] result = null;
+    if (a != null)
+      {
+        result = new int[a.length];
+        for (var i = 0; i < a.length; i++)
+          {
+            result[i] = ordinal(a[i]);
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Add given string to the string table if it is not there yet.
+   *
+   * @return the index of s in the string table, NULL if s is null.
+   */
+  private int string(String s)
+  {
+    var result = NULL;
+    if (s != null)
+      {
+        var i = _stringIndex.get(s);
+        if (i == null)
+          {
+            i = _strings.size();
+            _strings.add(_dataSection.offset());
+            _dataSection.writeString(s);
+            _stringIndex.put(s, i);
+          }
+        result = i;
+      }
+    return result;
+  }
+
+
+  /**
+   * Add given array to the data section.
+   *
+   * @return the offset of a in the data section, NULL if a is null.
+   */
+  private int intArray(int[] a)
+  {
+    var result = NULL;
+    if (a != null && a.length == 0 && _emptyIntArray != NULL)
+      {
+        result = _emptyIntArray;
+      }
+    else if (a != null)
+      {
+        result = _dataSection.offset();
+        _dataSection.writeInt(a.length);
+        for (var v : a)
+          {
+            _dataSection.writeInt(v);
+          }
+        if (a.length == 0)
+          {
+            _emptyIntArray = result;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Add given array of arrays to the data section.
+   *
+   * @return the offset of a in the data section, NULL if a is null.
+   */
+  private int intArrays(int[][] a)
+  {
+    var result = NULL;
+    if (a != null)
+      {
+        var offsets = new int[a.length];
+        for (var i = 0; i < a.length; i++)
+          {
+            offsets[i] = intArray(a[i]);
+          }
+        result = intArray(offsets);
+      }
+    return result;
+  }
+
+
+  /**
+   * Add given byte array to the data section.
+   *
+   * @return the offset of a in the data section, NULL if a is null.
+   */
+  private int byteArray(byte[] a)
+  {
+    var result = NULL;
+    if (a != null)
+      {
+        result = _dataSection.offset();
+        _dataSection.writeInt(a.length);
+        _dataSection.writeBytes(a);
+      }
+    return result;
+  }
+
+
+  /**
+   * The binary data written.
+   */
+  byte[] data()
+  {
+    var b = buffer();
+    var result = new byte[b.remaining()];
+    b.get(result);
+    return result;
+  }
+
+
+}
+
+/* end of file */
@@ -30,6 +30,7 @@ import java.nio.charset.StandardCharsets;
 
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -95,6 +96,32 @@ public class GeneratingFUIR extends FUIR
   }
 
 
+  /*-----------------------------  classes  -----------------------------*/
+
+
+  /**
+   * Key for the caches of newClazz(), clazz(Expr, ...), calledInner() and
+   * of feature lookups in clazzes.  The objects are
+   * compared by identity, such that a lookup does not query the front end,
+   * e.g., via AbstractType.compareTo.  Equal objects that are not identical
+   * just result in a cache miss.
+   */
+  private record IdentityKey(Object a, Object b, Object c, Object d, int i)
+  {
+    @Override
+    public boolean equals(Object o)
+    {
+      return o instanceof IdentityKey k && k.a == a && k.b == b && k.c == c && k.d == d && k.i == i;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return (((System.identityHashCode(a) * 31 + System.identityHashCode(b)) * 31 + System.identityHashCode(c)) * 31 + System.identityHashCode(d)) * 31 + i;
+    }
+  }
+
+
   /*----------------------------  constants  ----------------------------*/
 
 
@@ -349,6 +376,43 @@ public class GeneratingFUIR extends FUIR
   private final TreeMap<Clazz, Clazz> _clazzesTM;
 
 
+  /**
+   * Cached results of newClazz(outer, type, select).
+   */
+  private final HashMap<IdentityKey, Clazz> _newClazzes;
+
+
+  /**
+   * Cached results of clazz(expr, outer, inh).
+   */
+  private final HashMap<IdentityKey, Clazz> _exprClazzes;
+
+
+  /**
+   * Cached results of calledInner(call, outer, explicitTarget, inh).
+   */
+  private final HashMap<IdentityKey, Clazz> _calledInners;
+
+
+  /**
+   * Cached results of lookupJavaRef(), lookupCall(), lookupStaticFinally() and
+   * lookupCause(), keyed by the feature that is looked up and the clazz.
+   */
+  private final HashMap<IdentityKey, Integer> _featureLookups;
+
+
+  /**
+   * For each clazz id, the cached result of clazzTypeName().
+   */
+  private final IntMap<byte[]> _clazzTypeNames;
+
+
+  /**
+   * For each clazz id, the cached result of clazzDeclarationPos().
+   */
+  private final IntMap<SourcePosition> _clazzDeclarationPos;
+
+
   /**
    * For each site, this gives the clazz id of the clazz that contains the code at that site.
    */
@@ -367,6 +431,13 @@ public class GeneratingFUIR extends FUIR
   private final IntMap<Clazz> _accessedTarget;
 
 
+  /**
+   * For each match site s, the cached results of matchCaseTags(s, cix) for all
+   * cases cix.
+   */
+  private final IntMap<int[][]> _matchCaseTags;
+
+
   /**
    * For each site s, the actual results of lookup called for a dynamic site.
    * This is returned as the result of accessedClazzes().
@@ -420,6 +491,32 @@ public class GeneratingFUIR extends FUIR
    */
   protected BitSet _accessedSites = new BitSet(4096);
 
+
+  /**
+   * Check to be run before this FUIR is changed, i.e., before clazzes or code
+   * are added, a clazz is marked as needing code, a site is recorded as
+   * accessed or a missing implementation of an abstract feature is recorded.
+   * null if none.
+   *
+   * The DFA uses this to detect changes made while it analyzes calls
+   * speculatively.
+   */
+  private Runnable _beforeChange = null;
+
+
+  /**
+   * Check to be run before data is computed lazily, i.e., before a cache of
+   * this FUIR or of a Clazz is filled or the front end is queried in a way
+   * that may fill its caches.  This does not change the results of any
+   * queries, but it is not safe while other threads query this FUIR.  null if
+   * none.
+   *
+   * The DFA uses this to abort a speculative analysis that runs in parallel
+   * to others, such that only data that was computed before is read
+   * concurrently.
+   */
+  private Runnable _beforeLazyInit = null;
+
   /*--------------------------  constructors  ---------------------------*/
 
 
@@ -430,10 +527,17 @@ public class GeneratingFUIR extends FUIR
   {
     _lookupDone = false;
     _clazzesTM = new TreeMap<Clazz, Clazz>();
+    _newClazzes = new HashMap<>();
+    _exprClazzes = new HashMap<>();
+    _calledInners = new HashMap<>();
+    _featureLookups = new HashMap<>();
+    _clazzTypeNames = new IntMap<>();
+    _clazzDeclarationPos = new IntMap<>();
     _siteClazzes = new IntArray();
     _siteClazzCache = new IntMap<>();
     _accessedClazzes = new IntMap<>();
     _accessedTarget = new IntMap<>();
+    _matchCaseTags = new IntMap<>();
     _featureLookup = fl;
     _clazzes = new List<>();
     if (CACHE_RESULT_CLAZZ)
@@ -476,10 +580,17 @@ public class GeneratingFUIR extends FUIR
     original._lookupDone = true;
     _lookupDone = true;
     _clazzesTM = original._clazzesTM;
+    _newClazzes = original._newClazzes;
+    _exprClazzes = original._exprClazzes;
+    _calledInners = original._calledInners;
+    _featureLookups = original._featureLookups;
+    _clazzTypeNames = original._clazzTypeNames;
+    _clazzDeclarationPos = original._clazzDeclarationPos;
     _siteClazzes = original._siteClazzes;
     _siteClazzCache = original._siteClazzCache;
     _accessedClazzes = original._accessedClazzes;
     _accessedTarget = original._accessedTarget;
+    _matchCaseTags = original._matchCaseTags;
     _featureLookup = original._featureLookup;
     _mainClazz = original._mainClazz;
     _universe = original._universe;
@@ -503,6 +614,18 @@ public class GeneratingFUIR extends FUIR
     return newClazz(o == null ? null : newClazz(o), t, FuzionConstants.NO_SELECT);
   }
   Clazz newClazz(Clazz outerR, AbstractType actualType, int select)
+  {
+    var k = new IdentityKey(outerR, actualType, null, null, select);
+    var result = _newClazzes.get(k);
+    if (result == null)
+      {
+        beforeLazyInit();
+        result = newClazz0(outerR, actualType, select);
+        _newClazzes.put(k, result);
+      }
+    return result;
+  }
+  private Clazz newClazz0(Clazz outerR, AbstractType actualType, int select)
   {
     Clazz result;
 
@@ -577,6 +700,7 @@ public class GeneratingFUIR extends FUIR
         if (CHECKS) check
           (!_lookupDone);
 
+        beforeChange();
         result = cl;
         var fuirId = CLAZZ_BASE + _clazzes.size();
         _clazzes.add(cl);
@@ -699,6 +823,18 @@ public class GeneratingFUIR extends FUIR
    * an inlined inherits call).
    */
   Clazz clazz(Expr e, Clazz outerClazz, List<AbstractCall> inh)
+  {
+    var k = new IdentityKey(e, outerClazz, inh, null, 0);
+    var result = _exprClazzes.get(k);
+    if (result == null)
+      {
+        beforeLazyInit();
+        result = clazz0(e, outerClazz, inh);
+        _exprClazzes.put(k, result);
+      }
+    return result;
+  }
+  private Clazz clazz0(Expr e, Clazz outerClazz, List<AbstractCall> inh)
   {
     Clazz result;
     if (e instanceof AbstractBlock b)
@@ -828,6 +964,7 @@ public class GeneratingFUIR extends FUIR
     var result = _clazzesForTypes.get(thiz);
     if (result == null)
       {
+        beforeLazyInit();
         var ot = thiz.outer();
         var oc = ot != null ? type2clazz(ot) : null;
         result = newClazz(oc, thiz, FuzionConstants.NO_SELECT);
@@ -939,6 +1076,7 @@ public class GeneratingFUIR extends FUIR
         res = _resultClazzes[clazzId2num(cl)];
         if (res == NO_CLAZZ)
           {
+            beforeLazyInit();
             res = id2clazz(cl).resultClazz()._id;
             _resultClazzes[clazzId2num(cl)] = res;
           }
@@ -968,7 +1106,7 @@ public class GeneratingFUIR extends FUIR
        cl < CLAZZ_BASE + _clazzes.size());
 
     var cc = id2clazz(cl);
-    return cc.feature().qualifiedName();
+    return cc.originalName();
   }
 
 
@@ -1086,7 +1224,7 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    return id2clazz(cl).feature().isOuterRef();
+    return id2clazz(cl)._isOuterRef;
   }
 
 
@@ -1252,6 +1390,7 @@ public class GeneratingFUIR extends FUIR
     var res = _argClazzes[clazzId2num(cl)];
     if (res == null)
       {
+        beforeLazyInit();
         res = clazzArgs0(cl);
         _argClazzes[clazzId2num(cl)] = res;
       }
@@ -1388,11 +1527,23 @@ public class GeneratingFUIR extends FUIR
   @Override
   protected Object getExpr(int s)
   {
-    if (!_lookupDone)
+    siteAccessed(s);
+    return super.getExpr(s);
+  }
+
+
+  /**
+   * Record that site s was accessed unless lookup is done.
+   *
+   * @param s a site
+   */
+  private void siteAccessed(int s)
+  {
+    if (!_lookupDone && !_accessedSites.get(s-SITE_BASE))
       {
+        beforeChange();
         _accessedSites.set(s-SITE_BASE);
       }
-    return super.getExpr(s);
   }
 
 
@@ -1417,6 +1568,7 @@ public class GeneratingFUIR extends FUIR
     var result = c._code;
     if (result == NO_SITE && !_lookupDone)
       {
+        beforeChange();
         c.doesNeedCode();
         result = addCode(cl, c);
         c._code = result;
@@ -1447,6 +1599,35 @@ public class GeneratingFUIR extends FUIR
     return result;
   }
 
+
+  /**
+   * Add a code block that was not created from the air, e.g., a copy of
+   * existing code created by an optimizer.
+   *
+   * @param cl the clazz the new code belongs to
+   *
+   * @param code the entries of the new code block
+   *
+   * @return the site of the new code block
+   */
+  protected int addCode(int cl, List<Object> code)
+  {
+    var result = addCode(code);
+    while (_inh.size() < _allCode.size() - 1)
+      {
+        _inh.add(NO_INH);
+      }
+    _inh.add(null);
+    while (_siteClazzes.size() < _allCode.size())
+      {
+        _siteClazzes.add(cl);
+      }
+    check
+      (_allCode.size() == _inh.size(),
+       _allCode.size() == _siteClazzes.size());
+    return result;
+  }
+
   void addCode(int cl, Clazz c, List<Object> code, List<List<AbstractCall>> inhe, LibraryFeature ff, List<AbstractCall> inh)
   {
     var ocur = _currentClazz;
@@ -1565,6 +1746,56 @@ public class GeneratingFUIR extends FUIR
   }
 
 
+  /**
+   * Set the check to be run before this FUIR is changed.
+   *
+   * @param check code that is run before any change, may throw an exception
+   * to prevent the change, null for no check.
+   */
+  public void beforeChange(Runnable check)
+  {
+    _beforeChange = check;
+  }
+
+
+  /**
+   * Run the check set via {@code beforeChange(Runnable)}, if any.
+   */
+  void beforeChange()
+  {
+    var c = _beforeChange;
+    if (c != null)
+      {
+        c.run();
+      }
+  }
+
+
+  /**
+   * Set the check to be run before data is computed lazily.
+   *
+   * @param check code that is run before any lazy computation, may throw an
+   * exception to prevent it, null for no check.
+   */
+  public void beforeLazyInit(Runnable check)
+  {
+    _beforeLazyInit = check;
+  }
+
+
+  /**
+   * Run the check set via {@code beforeLazyInit(Runnable)}, if any.
+   */
+  void beforeLazyInit()
+  {
+    var c = _beforeLazyInit;
+    if (c != null)
+      {
+        c.run();
+      }
+  }
+
+
   /*-----------------------  constructors  -----------------------*/
 
 
@@ -1652,11 +1883,18 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    var c = id2clazz(cl);
-    return (c.feature().isCotype()
-      ? c.typeName()
-      : "-- clazzTypeName called on none cotype --")
-        .getBytes(StandardCharsets.UTF_8);
+    var result = _clazzTypeNames.get(cl);
+    if (result == null)
+      {
+        beforeLazyInit();
+        var c = id2clazz(cl);
+        result = (c.feature().isCotype()
+          ? c.typeName()
+          : "-- clazzTypeName called on none cotype --")
+            .getBytes(StandardCharsets.UTF_8);
+        _clazzTypeNames.put(cl, result);
+      }
+    return result;
   }
 
 
@@ -1696,6 +1934,7 @@ public class GeneratingFUIR extends FUIR
     var result = _specialClazzes[s.ordinal()];
     if (result == null && !_lookupDone)
       {
+        beforeLazyInit();
         if (s == SpecialClazzes.c_universe)
           {
             result = id2clazz(_universe);
@@ -1758,11 +1997,7 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    return !id2clazz(cl).feature().inheritsFrom(Types.resolved.f_fuzion_Java_Object_Ref.outer())
-      ? NO_CLAZZ
-      : _lookupDone
-      ? id2clazz(cl).lookup(Types.resolved.f_fuzion_Java_Object_Ref)._id
-      : id2clazz(cl).lookupNeeded(Types.resolved.f_fuzion_Java_Object_Ref)._id;
+    return lookupInHeir(cl, Types.resolved.f_fuzion_Java_Object_Ref.outer(), Types.resolved.f_fuzion_Java_Object_Ref);
   }
 
 
@@ -1782,9 +2017,7 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    return !id2clazz(cl).feature().inheritsFrom(Types.resolved.f_Function)
-      ? NO_CLAZZ
-      : lookupCall(cl, !_lookupDone);
+    return lookupInHeir(cl, Types.resolved.f_Function, Types.resolved.f_Function_call);
   }
 
 
@@ -1828,11 +2061,7 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    return !id2clazz(cl).feature().inheritsFrom(Types.resolved.f_effect_static_finally.outer())
-      ? NO_CLAZZ
-      : _lookupDone
-      ? id2clazz(cl).lookup(Types.resolved.f_effect_static_finally)._id
-      : id2clazz(cl).lookupNeeded(Types.resolved.f_effect_static_finally)._id;
+    return lookupInHeir(cl, Types.resolved.f_effect_static_finally.outer(), Types.resolved.f_effect_static_finally);
   }
 
 
@@ -1868,11 +2097,40 @@ public class GeneratingFUIR extends FUIR
       (ecl >= CLAZZ_BASE,
        ecl < CLAZZ_BASE + _clazzes.size());
 
-    return !id2clazz(ecl).feature().inheritsFrom(Types.resolved.f_eff_fallible)
-      ? NO_CLAZZ
-      : _lookupDone
-      ? id2clazz(ecl).lookup(Types.resolved.f_eff_fallible_cause)._id
-      : id2clazz(ecl).lookupNeeded(Types.resolved.f_eff_fallible_cause)._id;
+    return lookupInHeir(ecl, Types.resolved.f_eff_fallible, Types.resolved.f_eff_fallible_cause);
+  }
+
+
+  /**
+   * Helper for lookupJavaRef, lookupCall, etc. to lookup feature f in clazz cl
+   * if cl inherits from parent.  Before lookup is done, the result is marked
+   * as needed.  The result is cached, so that parallel DFA probes can use it.
+   *
+   * @param cl index of a clazz
+   *
+   * @param parent the feature cl must inherit from
+   *
+   * @param f the feature to lookup
+   *
+   * @return the index of f's clazz within cl, NO_CLAZZ if cl does not inherit
+   * from parent.
+   */
+  private int lookupInHeir(int cl, AbstractFeature parent, AbstractFeature f)
+  {
+    var c = id2clazz(cl);
+    var k = new IdentityKey(c, parent, f, null, 0);
+    var result = _featureLookups.get(k);
+    if (result == null)
+      {
+        beforeLazyInit();
+        result = !c.feature().inheritsFrom(parent)
+          ? NO_CLAZZ
+          : _lookupDone
+          ? c.lookup(f)._id
+          : c.lookupNeeded(f)._id;
+        _featureLookups.put(k, result);
+      }
+    return result;
   }
 
 
@@ -2093,10 +2351,7 @@ public class GeneratingFUIR extends FUIR
       (s >= SITE_BASE,
        s < SITE_BASE + _allCode.size());
 
-    if (!_lookupDone)
-      {
-        _accessedSites.set(s-SITE_BASE);
-      }
+    siteAccessed(s);
 
     return _siteClazzes.get(s - SITE_BASE);
   }
@@ -2178,6 +2433,7 @@ public class GeneratingFUIR extends FUIR
     var res = (Pair<Clazz,Clazz>) _siteClazzCache.get(s);
     if (res == null && !_lookupDone)
       {
+        beforeLazyInit();
         var cl = clazzAt(s);
         var outerClazz = clazz(cl);
         var t = (Tag) getExpr(s);
@@ -2278,6 +2534,7 @@ public class GeneratingFUIR extends FUIR
     var res = (Pair<Clazz,Clazz>) _siteClazzCache.get(s);
     if (res == null && !_lookupDone)
       {
+        beforeLazyInit();
         var cl = clazzAt(s);
         var outerClazz = id2clazz(cl);
         var b = (Box) getExpr(s);
@@ -2375,6 +2632,7 @@ public class GeneratingFUIR extends FUIR
     var res = _siteClazzCache.get(s);
     if (res == null && !_lookupDone)
       {
+        beforeLazyInit();
         res = accessedClazz(s, null);
         if (res == null)
           {
@@ -2429,6 +2687,18 @@ public class GeneratingFUIR extends FUIR
     if (PRECONDITIONS) require
       (Errors.any() || c.calledFeature() != null && c.target() != null);
 
+    var k = new IdentityKey(c, outerClazz, explicitTarget, inh, 0);
+    var result = _calledInners.get(k);
+    if (result == null)
+      {
+        beforeLazyInit();
+        result = calledInner0(c, outerClazz, explicitTarget, inh);
+        _calledInners.put(k, result);
+      }
+    return result;
+  }
+  private Clazz calledInner0(AbstractCall c, Clazz outerClazz, Clazz explicitTarget, List<AbstractCall> inh)
+  {
     if (c.calledFeature() == null  || c.target() == null)
       {
         return error();  // previous errors, give up
@@ -2540,6 +2810,7 @@ public class GeneratingFUIR extends FUIR
     var a = _accessedClazzes.get(s);
     if (a == null)
       {
+        beforeChange();
         _accessedClazzes.put(s, new int[] { tclazz, innerClazz});
       }
     else
@@ -2559,6 +2830,7 @@ public class GeneratingFUIR extends FUIR
             if (CHECKS) check
               (!_lookupDone);
 
+            beforeChange();
             var n = new int[a.length+2];
             System.arraycopy(a, 0, n, 0, a.length);
             n[a.length  ] = tclazz;
@@ -2657,6 +2929,7 @@ public class GeneratingFUIR extends FUIR
     var innerClazz = lookupCache.get(key);
     if (innerClazz == null)
       {
+        beforeLazyInit();
         if (PRECONDITIONS) require
           (s >= SITE_BASE,
            s < SITE_BASE + _allCode.size(),
@@ -2780,6 +3053,7 @@ public class GeneratingFUIR extends FUIR
     var tclazz = _accessedTarget.get(s);
     if (tclazz == null)
       {
+        beforeLazyInit();
         var cl = clazzAt(s);
         var outerClazz = id2clazz(cl);
         var e = getExpr(s);
@@ -2818,6 +3092,7 @@ public class GeneratingFUIR extends FUIR
     var res = (Clazz) _siteClazzCache.get(s);
     if (res == null && !_lookupDone)
       {
+        beforeLazyInit();
         var cl = clazzAt(s);
         var cc = id2clazz(cl);
         var outerClazz = cc;
@@ -2875,6 +3150,7 @@ public class GeneratingFUIR extends FUIR
     var rc = (Clazz) _siteClazzCache.get(s);
     if (rc == null && !_lookupDone)
       {
+        beforeLazyInit();
         var cl = clazzAt(s);
         var cc = id2clazz(cl);
         var outerClazz = cc;
@@ -2942,7 +3218,33 @@ public class GeneratingFUIR extends FUIR
        withinCode(s),
        codeAt(s) == ExprKind.Match);
 
-    var m = (AbstractMatch) getExpr(s);
+    var res = _matchCaseTags.get(s);
+    if (res == null)
+      {
+        beforeLazyInit();
+        var m = (AbstractMatch) getExpr(s);
+        res = new int[m.cases().size()][];
+        for (var i = 0; i < res.length; i++)
+          {
+            res[i] = matchCaseTags(m, i);
+          }
+        _matchCaseTags.put(s, res);
+      }
+    return res[cix];
+  }
+
+
+  /**
+   * Determine the tags matched by a given case, this is not cached.
+   *
+   * @param m a match expression
+   *
+   * @param cix index of the case in the match
+   *
+   * @return array of tag numbers this case matches
+   */
+  private int[] matchCaseTags(AbstractMatch m, int cix)
+  {
     var mc = m.cases().get(cix);
     var ts = mc.types();
     var f = mc.field();
@@ -3081,8 +3383,14 @@ public class GeneratingFUIR extends FUIR
       (cl >= CLAZZ_BASE,
        cl < CLAZZ_BASE + _clazzes.size());
 
-    var c = id2clazz(cl);
-    return c.feature().pos();
+    var result = _clazzDeclarationPos.get(cl);
+    if (result == null)
+      {
+        beforeLazyInit();
+        result = id2clazz(cl).feature().pos();
+        _clazzDeclarationPos.put(cl, result);
+      }
+    return result;
   }
 
 
@@ -3127,6 +3435,8 @@ public class GeneratingFUIR extends FUIR
    */
   public void recordAbstractMissing(int cl, int f, int instantiationSite, String context, int callSite)
   {
+    beforeChange();
+
     // we might have an assignment to a field that was removed:
     if (codeAt(callSite) == FUIR.ExprKind.Call)
       {
@@ -26,9 +26,8 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.fuir;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,9 +37,16 @@ import dev.flang.util.Errors;
 import dev.flang.util.FuzionConstants;
 import dev.flang.util.SourceFile;
 
+import static dev.flang.fuir.FuirOut.*;
+
 
 /**
- * The FUIR loaded/deserialized from a byte array
+ * The FUIR loaded from a .fuir file.
+ *
+ * The data is accessed directly in the ByteBuffer given to the constructor,
+ * which typically is a memory mapped file, such that only those parts of the
+ * file that are actually used by a backend need to be read.  See FuirOut for
+ * the file format.
  */
 public class LibraryFuir extends FUIR {
 
@@ -48,10 +54,26 @@ public class LibraryFuir extends FUIR {
   /*-----------------------------  final fields  -----------------------------*/
 
 
+  /**
+   * The binary FUIR data.
+   */
+  private final ByteBuffer _data;
+
+
   private final int _mainClazz;
-  private final ClazzRecord[] _clazzes;
+  private final int _clazzCount;
+  private final int _siteCount;
   private final int[] _specialClazzes;
-  private final SiteRecord[] _sites;
+
+
+  /**
+   * Offsets of the clazz columns, site columns, string table and data section
+   * in _data.
+   */
+  private final int _clazzColumns;
+  private final int _siteColumns;
+  private final int _stringTable;
+  private final int _dataSection;
 
 
   /*-----------------------------  cache  -----------------------------*/
@@ -60,30 +82,220 @@ public class LibraryFuir extends FUIR {
   private final Map<String,SourceFile> _srcFiles = new ConcurrentHashMap<String, SourceFile>();
 
 
+  /**
+   * Strings that were already decoded, indexed by string table index.
+   */
+  private final String[] _strings;
+
+
   /*-----------------------------  constructor  -----------------------------*/
 
 
-  public LibraryFuir(byte[] data)
+  /**
+   * Create FUIR from the given binary data.
+   *
+   * @param data the data as created by OptimizedFUIR.serialize(), typically a
+   * memory mapped .fuir file.
+   */
+  public LibraryFuir(ByteBuffer data)
   {
-    var mainClazz = NO_CLAZZ;
-    var clazzes = new ClazzRecord[0];
-    var sites = new SiteRecord[0];
-    var specialClazzes = new int[0];
-    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data)))
+    if (!isCompatible(data))
+      {
+        Errors.fatal("FUIR data has wrong magic or version, expected version " + FuzionConstants.FUIR_FILE_VERSION);
+      }
+    if (!isComplete(data))
       {
-        mainClazz = ois.readInt();
-        clazzes = (ClazzRecord[]) ois.readObject();
-        sites = (SiteRecord[]) ois.readObject();
-        specialClazzes = (int[]) ois.readObject();
+        Errors.fatal("FUIR data is truncated or corrupt");
       }
-    catch(ClassNotFoundException | IOException e)
+    _data = data;
+    _mainClazz  = data.getInt(2 * 4);
+    _clazzCount = data.getInt(3 * 4);
+    _siteCount  = data.getInt(4 * 4);
+    var sc = data.getInt(5 * 4);
+    _specialClazzes = new int[sc];
+    for (var i = 0; i < sc; i++)
       {
-        Errors.fatal(e);
+        _specialClazzes[i] = data.getInt(SPECIAL_CLAZZES_OFFSET + 4 * i);
       }
-    _mainClazz = mainClazz;
-    _clazzes = clazzes;
-    _sites = sites;
-    _specialClazzes = specialClazzes;
+    _clazzColumns = SPECIAL_CLAZZES_OFFSET + 4 * sc;
+    _siteColumns  = _clazzColumns + 4 * C_COUNT * _clazzCount;
+    _stringTable  = _siteColumns  + 4 * S_COUNT * _siteCount;
+    _strings      = new String[data.getInt(_stringTable)];
+    _dataSection  = _stringTable + 4 + 4 * _strings.length + 4;
+  }
+
+
+  /**
+   * Check if the given data starts with the magic and version of a .fuir
+   * file that can be read by LibraryFuir.
+   *
+   * @param data the binary data, e.g., a memory mapped .fuir file, at least
+   * the first 8 bytes of the file are needed.
+   */
+  public static boolean isCompatible(ByteBuffer data)
+  {
+    return
+      data.limit() >= 8 &&
+      data.getInt(0) == FuzionConstants.FUIR_FILE_MAGIC0 &&
+      data.getInt(4) == FuzionConstants.FUIR_FILE_VERSION;
+  }
+
+
+  /**
+   * Check that the sections of the given data, which must be compatible, lie
+   * within its limits and that the data section ends exactly at the limit.
+   * This detects truncated or partially written .fuir files before LibraryFuir
+   * reads garbage from them.
+   *
+   * @param data the binary data, e.g., a memory mapped .fuir file.
+   *
+   * @return true iff data is compatible and complete.
+   */
+  public static boolean isComplete(ByteBuffer data)
+  {
+    if (PRECONDITIONS) require
+      (isCompatible(data));
+
+    var limit = (long) data.limit();
+    var result = limit >= SPECIAL_CLAZZES_OFFSET;
+    if (result)
+      {
+        long nc = data.getInt(3 * 4);
+        long ns = data.getInt(4 * 4);
+        long sc = data.getInt(5 * 4);
+        var stringTable = SPECIAL_CLAZZES_OFFSET + 4 * sc + 4 * C_COUNT * nc + 4 * S_COUNT * ns;
+        result = nc >= 0 && ns >= 0 && sc >= 0 && stringTable + 4 <= limit;
+        if (result)
+          {
+            long n = data.getInt((int) stringTable);
+            var dataSize = stringTable + 4 + 4 * n;
+            result = n >= 0 && dataSize + 4 <= limit;
+            if (result)
+              {
+                long d = data.getInt((int) dataSize);
+                var dataSection = dataSize + 4;
+                result = d >= 0 && dataSection + d == limit;
+                for (var i = 0; result && i < n; i++)
+                  {
+                    long o = data.getInt((int) (stringTable + 4 + 4 * i));
+                    result = o >= 0 && o + 4 <= d && o + 4 + data.getInt((int) (dataSection + o)) <= d;
+                  }
+              }
+          }
+      }
+    return result;
+  }
+
+
+  /*--------------------------  accessing data  --------------------------*/
+
+
+  /**
+   * Read entry of clazz column col for clazz cl.
+   */
+  private int clazzColumn(int col, int cl)
+  {
+    return _data.getInt(_clazzColumns + 4 * (col * _clazzCount + clazzId2num(cl)));
+  }
+
+
+  /**
+   * Check if flag is set in column C_FLAGS for clazz cl.
+   */
+  private boolean clazzFlag(int cl, int flag)
+  {
+    return (clazzColumn(C_FLAGS, cl) & flag) != 0;
+  }
+
+
+  /**
+   * Read entry of site column col for site s.
+   */
+  private int siteColumn(int col, int s)
+  {
+    return _data.getInt(_siteColumns + 4 * (col * _siteCount + s - SITE_BASE));
+  }
+
+
+  /**
+   * Check if flag is set in column S_FLAGS for site s.
+   */
+  private boolean siteFlag(int s, int flag)
+  {
+    return (siteColumn(S_FLAGS, s) & flag) != 0;
+  }
+
+
+  /**
+   * Get string with index i from the string table, null if i is NULL.
+   */
+  private String string(int i)
+  {
+    String result = null;
+    if (i != NULL)
+      {
+        result = _strings[i];
+        if (result == null)
+          {
+            var o = _dataSection + _data.getInt(_stringTable + 4 + 4 * i);
+            var b = new byte[_data.getInt(o)];
+            _data.get(o + 4, b);
+            result = new String(b, StandardCharsets.UTF_8);
+            _strings[i] = result;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Get the length of the int or byte array at offset o in the data section.
+   */
+  private int arrayLength(int o)
+  {
+    return _data.getInt(_dataSection + o);
+  }
+
+
+  /**
+   * Get element i of the int array at offset o in the data section.
+   */
+  private int intArrayElement(int o, int i)
+  {
+    return _data.getInt(_dataSection + o + 4 + 4 * i);
+  }
+
+
+  /**
+   * Get the int array at offset o in the data section, null if o is NULL.
+   */
+  private int[] intArray(int o)
+  {
+    int[] result = null;
+    if (o != NULL)
+      {
+        result = new int[arrayLength(o)];
+        for (var i = 0; i < result.length; i++)
+          {
+            result[i] = intArrayElement(o, i);
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Get the byte array at offset o in the data section, null if o is NULL.
+   */
+  private byte[] byteArray(int o)
+  {
+    byte[] result = null;
+    if (o != NULL)
+      {
+        result = new byte[arrayLength(o)];
+        _data.get(_dataSection + o + 4, result);
+      }
+    return result;
   }
 
 
@@ -108,7 +320,7 @@ public class LibraryFuir extends FUIR {
   @Override
   public int lastClazz()
   {
-    return CLAZZ_BASE+_clazzes.length-1;
+    return CLAZZ_BASE+_clazzCount-1;
   }
 
   @Override
@@ -120,25 +332,25 @@ public class LibraryFuir extends FUIR {
   @Override
   public FeatureKind clazzKind(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzKind();
+    return FeatureKind.values()[clazzColumn(C_KIND, cl)];
   }
 
   @Override
   public String clazzBaseName(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzBaseName();
+    return string(clazzColumn(C_BASE_NAME, cl));
   }
 
   @Override
   public int clazzResultClazz(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzResultClazz();
+    return clazzColumn(C_RESULT_CLAZZ, cl);
   }
 
   @Override
   public String clazzOriginalName(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzOriginalName();
+    return string(clazzColumn(C_ORIGINAL_NAME, cl));
   }
 
   @Override
@@ -150,25 +362,25 @@ public class LibraryFuir extends FUIR {
   @Override
   public String clazzAsStringHuman(int cl)
   {
-    return  cl == NO_CLAZZ ? "-- no clazz --" : _clazzes[clazzId2num(cl)].clazzAsStringHuman();
+    return  cl == NO_CLAZZ ? "-- no clazz --" : string(clazzColumn(C_AS_STRING_HUMAN, cl));
   }
 
   @Override
   public int clazzOuterClazz(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzOuterClazz();
+    return clazzColumn(C_OUTER_CLAZZ, cl);
   }
 
   @Override
   public int clazzFieldCount(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzFields().length;
+    return arrayLength(clazzColumn(C_FIELDS, cl));
   }
 
   @Override
   public int clazzField(int cl, int i)
   {
-    return _clazzes[clazzId2num(cl)].clazzFields()[i];
+    return intArrayElement(clazzColumn(C_FIELDS, cl), i);
   }
 
   @Override
@@ -181,79 +393,79 @@ public class LibraryFuir extends FUIR {
   @Override
   public int clazzChoiceCount(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzChoices().length;
+    return arrayLength(clazzColumn(C_CHOICES, cl));
   }
 
   @Override
   public int clazzChoice(int cl, int i)
   {
-    return _clazzes[clazzId2num(cl)].clazzChoices()[i];
+    return intArrayElement(clazzColumn(C_CHOICES, cl), i);
   }
 
   @Override
   public int[] clazzInstantiatedHeirs(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzInstantiatedHeirs();
+    return intArray(clazzColumn(C_INSTANTIATED_HEIRS, cl));
   }
 
   @Override
   public int clazzArgCount(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzArgs().length;
+    return arrayLength(clazzColumn(C_ARGS, cl));
   }
 
   @Override
   public int clazzArg(int cl, int arg)
   {
-    return _clazzes[clazzId2num(cl)].clazzArgs()[arg];
+    return intArrayElement(clazzColumn(C_ARGS, cl), arg);
   }
 
   @Override
   public int clazzResultField(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzResultField();
+    return clazzColumn(C_RESULT_FIELD, cl);
   }
 
   @Override
   public int clazzOuterRef(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzOuterRef();
+    return clazzColumn(C_OUTER_REF, cl);
   }
 
   @Override
   public int clazzCode(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzCode();
+    return clazzColumn(C_CODE, cl);
   }
 
   @Override
   public boolean clazzNeedsCode(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzNeedsCode();
+    return clazzFlag(cl, C_FLAG_NEEDS_CODE);
   }
 
   @Override
   public boolean clazzIsRef(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzIsRef();
+    return clazzFlag(cl, C_FLAG_IS_REF);
   }
 
   @Override
   public boolean clazzIsBoxed(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzIsBoxed();
+    return clazzFlag(cl, C_FLAG_IS_BOXED);
   }
 
   @Override
   public int clazzAsValue(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzAsValue();
+    return clazzColumn(C_AS_VALUE, cl);
   }
 
   @Override
   public byte[] clazzTypeName(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzTypeName();
+    return byteArray(clazzColumn(C_TYPE_NAME, cl));
   }
 
   @Override
@@ -279,11 +491,11 @@ public class LibraryFuir extends FUIR {
   public int clazzRefConstString()
   {
     var cs = clazz(SpecialClazzes.c_const_string);
-    for (int i = 0; i < _clazzes.length; i++)
+    for (int cl = firstClazz(); cl <= lastClazz(); cl++)
       {
-        if (_clazzes[i].clazzIsRef() && _clazzes[i].clazzAsValue() == cs)
+        if (clazzIsRef(cl) && clazzAsValue(cl) == cs)
           {
-            return i + CLAZZ_BASE;
+            return cl;
           }
       }
     Errors.fatal("clazz_ref_const_string");
@@ -293,19 +505,19 @@ public class LibraryFuir extends FUIR {
   @Override
   public int lookupJavaRef(int cl)
   {
-    return _clazzes[clazzId2num(cl)].lookupJavaRef();
+    return clazzColumn(C_LOOKUP_JAVA_REF, cl);
   }
 
   @Override
   public int lookupCall(int cl)
   {
-    return _clazzes[clazzId2num(cl)].lookupCall();
+    return clazzColumn(C_LOOKUP_CALL, cl);
   }
 
   @Override
   public int lookupStaticFinally(int cl)
   {
-    return _clazzes[clazzId2num(cl)].lookupStaticFinally();
+    return clazzColumn(C_LOOKUP_STATIC_FINALLY, cl);
   }
 
   @Override
@@ -326,13 +538,19 @@ public class LibraryFuir extends FUIR {
   @Override
   public int lookupCause(int ecl)
   {
-    return _clazzes[clazzId2num(ecl)].lookupCause();
+    return clazzColumn(C_LOOKUP_CAUSE, ecl);
   }
 
   @Override
   public boolean clazzIsUnitType(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzIsUnitType();
+    return clazzFlag(cl, C_FLAG_IS_UNIT_TYPE);
+  }
+
+  @Override
+  public boolean arrayMayBePassedToNative(int ec)
+  {
+    return clazzFlag(ec, C_FLAG_ARRAY_MAY_BE_PASSED_TO_NATIVE);
   }
 
   @Override
@@ -344,19 +562,40 @@ public class LibraryFuir extends FUIR {
   @Override
   public int clazzActualGeneric(int cl, int gix)
   {
-    return _clazzes[clazzId2num(cl)].clazzActualGenerics()[gix];
+    return intArrayElement(clazzColumn(C_ACTUAL_GENERICS, cl), gix);
   }
 
   @Override
   public LifeTime lifeTime(int cl)
   {
-    return _clazzes[clazzId2num(cl)].lifeTime();
+    var l = clazzColumn(C_LIFE_TIME, cl);
+    return l == NULL ? null : LifeTime.values()[l];
+  }
+
+  @Override
+  public LifeTime lifeTime(int cl, int s)
+  {
+    var result = lifeTime(cl);
+    var o = s==NO_SITE || s<0 ? NULL : siteColumn(S_CALL_LIFE_TIMES, s);
+    if (o != NULL)
+      {
+        var ccs = siteColumn(S_ACCESSED_CLAZZES, s);
+        for (var i = 0; i < arrayLength(o); i++)
+          {
+            var l = intArrayElement(o, i);
+            if (intArrayElement(ccs, 2 * i + 1) == cl && l != NULL)
+              {
+                result = LifeTime.values()[l];
+              }
+          }
+      }
+    return result;
   }
 
   @Override
   public int clazzAt(int s)
   {
-    return _sites[s-SITE_BASE].clazzAt();
+    return siteColumn(S_CLAZZ_AT, s);
   }
 
   @Override
@@ -367,7 +606,7 @@ public class LibraryFuir extends FUIR {
       {
         res = "** NO_SITE **";
       }
-    else if (s >= SITE_BASE && s < SITE_BASE+_sites.length)
+    else if (s >= SITE_BASE && s < SITE_BASE+_siteCount)
       {
         var cl = clazzAt(s);
         var p = sitePos(s);
@@ -383,37 +622,38 @@ public class LibraryFuir extends FUIR {
   @Override
   public ExprKind codeAt(int s)
   {
-    return _sites[s-SITE_BASE].codeAt();
+    var k = siteColumn(S_CODE_AT, s);
+    return k == NULL ? null : ExprKind.values()[k];
   }
 
   @Override
   public int tagValueClazz(int s)
   {
-    return _sites[s-SITE_BASE].tagValueClazz();
+    return siteColumn(S_TAG_VALUE_CLAZZ, s);
   }
 
   @Override
   public int tagNewClazz(int s)
   {
-    return _sites[s-SITE_BASE].tagNewClazz();
+    return siteColumn(S_TAG_NEW_CLAZZ, s);
   }
 
   @Override
   public int tagTagNum(int s)
   {
-    return _sites[s-SITE_BASE].tagTagNum();
+    return siteColumn(S_TAG_TAG_NUM, s);
   }
 
   @Override
   public int boxValueClazz(int s)
   {
-    return _sites[s-SITE_BASE].boxValueClazz();
+    return siteColumn(S_BOX_VALUE_CLAZZ, s);
   }
 
   @Override
   public int boxResultClazz(int s)
   {
-    return _sites[s-SITE_BASE].boxResultClazz();
+    return siteColumn(S_BOX_RESULT_CLAZZ, s);
   }
 
   @Override
@@ -425,111 +665,112 @@ public class LibraryFuir extends FUIR {
   @Override
   public int accessedClazz(int s)
   {
-    return _sites[s-SITE_BASE].accessedClazz();
+    return siteColumn(S_ACCESSED_CLAZZ, s);
   }
 
   @Override
   public int assignedType(int s)
   {
-    return _sites[s-SITE_BASE].assignedType();
+    return siteColumn(S_ASSIGNED_TYPE, s);
   }
 
   @Override
   public int[] accessedClazzes(int s)
   {
-    return _sites[s-SITE_BASE].accessedClazzes();
+    return intArray(siteColumn(S_ACCESSED_CLAZZES, s));
   }
 
   @Override
   public boolean accessIsDynamic(int s)
   {
-    return _sites[s-SITE_BASE].accessIsDynamic();
+    return siteFlag(s, S_FLAG_ACCESS_IS_DYNAMIC);
   }
 
   @Override
   public int accessTargetClazz(int s)
   {
-    return _sites[s-SITE_BASE].accessTargetClazz();
+    return siteColumn(S_ACCESS_TARGET_CLAZZ, s);
   }
 
   @Override
   public int constClazz(int s)
   {
-    return _sites[s-SITE_BASE].constClazz();
+    return siteColumn(S_CONST_CLAZZ, s);
   }
 
   @Override
   public byte[] constData(int s)
   {
-    return _sites[s-SITE_BASE].constData();
+    return byteArray(siteColumn(S_CONST_DATA, s));
   }
 
   @Override
   public int matchCaseCount(int s)
   {
-    return _sites[s-SITE_BASE].matchCaseCount();
+    return siteColumn(S_MATCH_CASE_COUNT, s);
   }
 
   @Override
   public int matchStaticSubject(int s)
   {
-    return _sites[s-SITE_BASE].matchStaticSubject();
+    return siteColumn(S_MATCH_STATIC_SUBJECT, s);
   }
 
   @Override
   public int matchCaseField(int s, int cix)
   {
-    return _sites[s-SITE_BASE].matchCaseField()[cix];
+    return intArrayElement(siteColumn(S_MATCH_CASE_FIELD, s), cix);
   }
 
 
   @Override
   public int[] matchCaseTags(int s, int cix)
   {
-    return _sites[s-SITE_BASE].matchCaseTags()[cix];
+    return intArray(intArrayElement(siteColumn(S_MATCH_CASE_TAGS, s), cix));
   }
 
   @Override
   public int matchCaseCode(int s, int cix)
   {
-    return _sites[s-SITE_BASE].matchCaseCode()[cix];
+    return intArrayElement(siteColumn(S_MATCH_CASE_CODE, s), cix);
   }
 
   @Override
   public boolean alwaysResultsInVoid(int s)
   {
-    return s==NO_SITE || s<0 ? false : _sites[s-SITE_BASE].alwaysResultsInVoid();
+    return s==NO_SITE || s<0 ? false : siteFlag(s, S_FLAG_ALWAYS_RESULTS_IN_VOID);
   }
 
   @Override
   public boolean doesResultEscape(int s)
   {
-    return s==NO_SITE || s<0 ? false : _sites[s-SITE_BASE].doesResultEscape();
+    return s==NO_SITE || s<0 ? false : siteFlag(s, S_FLAG_DOES_RESULT_ESCAPE);
   }
 
   @Override
   public SourcePosition sitePos(int s)
   {
-    return s==NO_SITE || _sites[s-SITE_BASE].path() == null
+    var path = s==NO_SITE ? null : string(siteColumn(S_PATH, s));
+    return path == null
       ? SourcePosition.notAvailable
-      : new SourcePosition(new SourceFile(Path.of(_sites[s-SITE_BASE].path()), new byte[0]), 0)
+      : new SourcePosition(new SourceFile(Path.of(path), new byte[0]), 0)
       {
         @Override
         public int column()
         {
-          return _sites[s-SITE_BASE].column();
+          return siteColumn(S_COLUMN, s);
         }
 
         @Override
         public int line()
         {
-          return _sites[s-SITE_BASE].line();
+          return siteColumn(S_LINE, s);
         }
 
         @Override
         public String show()
         {
-          return _sites[s-SITE_BASE].show();
+          return string(siteColumn(S_SHOW, s));
         }
       };
   }
@@ -538,23 +779,22 @@ public class LibraryFuir extends FUIR {
   @Override
   public String clazzSrcFile(int cl)
   {
-    return _clazzes[clazzId2num(cl)].clazzSrcFile();
+    return string(clazzColumn(C_SRC_FILE, cl));
   }
 
 
   @Override
   public SourcePosition clazzDeclarationPos(int cl)
   {
-    var r = _clazzes[clazzId2num(cl)];
-    return new SourcePosition(sourceFile(r.clazzSrcFile()),
-                              r.clazzSrcBytePos());
+    return new SourcePosition(sourceFile(clazzSrcFile(cl)),
+                              clazzColumn(C_SRC_BYTE_POS, cl));
   }
 
 
   @Override
   public boolean withinCode(int s)
   {
-    return s != NO_SITE && _sites[s - SITE_BASE].codeAt() != null;
+    return s >= SITE_BASE && s < SITE_BASE + _siteCount && siteColumn(S_CODE_AT, s) != NULL;
   }
 
    /**
@@ -568,13 +808,12 @@ public class LibraryFuir extends FUIR {
   @Override
   public int codeBlockStart(int site)
   {
-    var c = site - SITE_BASE;
-    var result = c;
-    while (result > 0 && _sites[result-1].codeAt() != null)
+    var result = site;
+    while (result > SITE_BASE && withinCode(result-1))
       {
         result--;
       }
-    return result + SITE_BASE;
+    return result;
   }
 
 
@@ -27,9 +27,10 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.fuir;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
+import dev.flang.util.IntMap;
+import dev.flang.util.List;
+import dev.flang.util.SourcePosition;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -37,12 +38,33 @@ import java.util.Arrays;
 public class OptimizedFUIR extends GeneratingFUIR {
 
 
-  /*--------------------------  constructors  ---------------------------*/
+  /*----------------------------  variables  ----------------------------*/
 
 
   private final GeneratingFUIR _original;
 
 
+  /**
+   * Sites of dynamic accesses that were found to have only one possible
+   * target, mapped to the clazz that is accessed statically instead.
+   */
+  private final IntMap<Integer> _devirtualized = new IntMap<>();
+
+
+  /**
+   * Code blocks that were replaced by optimized copies, mapped to the site of
+   * the copy.
+   *
+   * The entries of a copy in _allCode are Integers giving the original site
+   * each entry was copied from, so all queries on a site of a copy are
+   * answered by the original site.
+   */
+  private final IntMap<Integer> _optimizedCode = new IntMap<>();
+
+
+  /*--------------------------  constructors  ---------------------------*/
+
+
   /**
    * Clone this FUIR such that modifications can be made by optimizers.  An heir
    * of FUIR can use this to redefine methods.
@@ -57,13 +79,122 @@ public class OptimizedFUIR extends GeneratingFUIR {
 
   // passthrough methods that DFA overrides
   @Override public LifeTime lifeTime(int cl) {  return _original.lifeTime(cl); }
-  @Override public boolean doesResultEscape(int s) { return _original.doesResultEscape(s); }
-  @Override public boolean alwaysResultsInVoid(int s){ return _original.alwaysResultsInVoid(s); }
-  @Override public int[] matchCaseTags(int s, int cix){ return _original.matchCaseTags(s, cix); }
-  @Override public int matchCaseField(int s, int cix){ return _original.matchCaseField(s, cix); }
+  @Override public LifeTime lifeTime(int cl, int s) {  return _original.lifeTime(cl, original(s)); }
+  @Override public boolean doesResultEscape(int s) { return _original.doesResultEscape(original(s)); }
+  @Override public boolean arrayMayBePassedToNative(int ec) { return _original.arrayMayBePassedToNative(ec); }
+  @Override public boolean alwaysResultsInVoid(int s){ return _original.alwaysResultsInVoid(original(s)); }
+  @Override public int[] matchCaseTags(int s, int cix){ return _original.matchCaseTags(original(s), cix); }
+  @Override public int matchCaseField(int s, int cix){ return _original.matchCaseField(original(s), cix); }
   @Override public boolean clazzIsUnitType(int cl){ return _original.clazzIsUnitType(cl); }
   @Override public int clazzOuterRef(int cl){  return _original.clazzOuterRef(cl); }
-  @Override public int accessedClazz(int s){ return _original.accessedClazz(s); }
+  @Override public int accessedClazz(int s){ var o = original(s); var cc = _devirtualized.get(o); return cc != null ? cc : _original.accessedClazz(o); }
+
+  @Override public boolean accessIsDynamic(int s) { var o = original(s); return _devirtualized.get(o) == null && super.accessIsDynamic(o); }
+
+  // methods that redirect sites of optimized copies of code to the original sites
+  @Override public int clazzCode(int cl) { return optimizedCode(super.clazzCode(cl)); }
+  @Override public int matchCaseCode(int s, int cix) { return optimizedCode(super.matchCaseCode(original(s), cix)); }
+  @Override public ExprKind codeAt(int s) { return super.codeAt(original(s)); }
+  @Override public int matchCaseCount(int s) { return super.matchCaseCount(original(s)); }
+  @Override public String siteAsString(int s) { return s == NO_SITE ? super.siteAsString(s) : super.siteAsString(original(s)); }
+  @Override public SourcePosition sitePos(int s) { return super.sitePos(original(s)); }
+  @Override public int tagValueClazz(int s) { return super.tagValueClazz(original(s)); }
+  @Override public int tagNewClazz(int s) { return super.tagNewClazz(original(s)); }
+  @Override public int tagTagNum(int s) { return super.tagTagNum(original(s)); }
+  @Override public int boxValueClazz(int s) { return super.boxValueClazz(original(s)); }
+  @Override public int boxResultClazz(int s) { return super.boxResultClazz(original(s)); }
+  @Override public String comment(int s) { return super.comment(original(s)); }
+  @Override public int assignedType(int s) { return super.assignedType(original(s)); }
+  @Override public int[] accessedClazzes(int s) { return super.accessedClazzes(original(s)); }
+  @Override public int lookup(int s, int tclazz) { return super.lookup(original(s), tclazz); }
+  @Override public int accessTargetClazz(int s) { return super.accessTargetClazz(original(s)); }
+  @Override public int constClazz(int s) { return super.constClazz(original(s)); }
+  @Override public byte[] constData(int s) { return super.constData(original(s)); }
+  @Override public int matchStaticSubject(int s) { return super.matchStaticSubject(original(s)); }
+
+
+  /*------------------------  optimizing FUIR  -------------------------*/
+
+
+  /**
+   * Replace the dynamic access at site s by a static access to cc.
+   *
+   * @param s site of a dynamic call or assignment
+   *
+   * @param cc the only clazz that may be accessed at s. Its outer clazz must
+   * be the only possible target clazz.
+   */
+  public void devirtualize(int s, int cc)
+  {
+    if (PRECONDITIONS) require
+      (accessIsDynamic(s),
+       accessedClazzes(s).length == 2,
+       accessedClazzes(s)[0] == clazzOuterClazz(cc),
+       accessedClazzes(s)[1] == cc);
+
+    _devirtualized.put(s, cc);
+  }
+
+
+  /**
+   * Replace the code block starting at site c by a copy that consists of the
+   * given original sites.  This permits an optimizer to drop sites or to copy
+   * sites from other code blocks, e.g., to inline a call.
+   *
+   * @param c the first site of a code block
+   *
+   * @param sites the sites the new code block should consist of, these may be
+   * sites of copies made earlier. A Match must be followed by the entries of
+   * its cases.
+   */
+  public void replaceCode(int c, List<Integer> sites)
+  {
+    if (PRECONDITIONS) require
+      (c == codeBlockStart(c),
+       _optimizedCode.get(c) == null);
+
+    var code = new List<Object>();
+    for (var s : sites)
+      {
+        code.add(original(s));
+      }
+    var n = addCode(clazzAt(c), code);
+    for (var i = 0; i < code.size(); i++)
+      {
+        if (_accessedSites.get((Integer) code.get(i) - SITE_BASE))
+          {
+            _accessedSites.set(n + i - SITE_BASE);
+          }
+      }
+    _optimizedCode.put(c, n);
+  }
+
+
+  /**
+   * For a site in an optimized copy of code, get the original site it was
+   * copied from.
+   *
+   * @param s a site
+   *
+   * @return the original site, s if s is not in a copy.
+   */
+  private int original(int s)
+  {
+    return s != NO_SITE && withinCode(s) && getExpr(s) instanceof Integer o ? o : s;
+  }
+
+
+  /**
+   * Get the optimized copy of the code block starting at c, if there is one.
+   *
+   * @param c the first site of a code block or NO_SITE
+   *
+   * @return the site of the copy or c if there is none.
+   */
+  private int optimizedCode(int c)
+  {
+    return _optimizedCode.getOrDefault(c, c);
+  }
 
 
   /*----------------------  serializing FUIR  ----------------------*/
@@ -161,6 +292,8 @@ public class OptimizedFUIR extends GeneratingFUIR {
   /**
    * serialize the FUIR to a byte array
    * which can be written to a file.
+   *
+   * See FuirOut for a description of the binary format.
    */
   public byte[] serialize()
   {
@@ -168,95 +301,80 @@ public class OptimizedFUIR extends GeneratingFUIR {
     var lastClazz = lastClazz();
     var siteCount = siteCount();
 
-    var baos = new ByteArrayOutputStream();
-    /**
-     * NYI: UNDER DEVELOPMENT:
-     * replace by custom serialization of FUIR
-     */
-    try (ObjectOutputStream oos = new ObjectOutputStream(baos))
+    var clazzes = new ClazzRecord[lastClazz-firstClazz+1];
+    for (int cl = firstClazz; cl <= lastClazz; cl++)
       {
-        oos.writeInt(mainClazz());
-        var clazzes = new ClazzRecord[lastClazz-firstClazz+1];
-        for (int cl = firstClazz; cl <= lastClazz; cl++)
-          {
-            var needsCode = clazzKind(cl) == FeatureKind.Routine && clazzNeedsCode(cl);
-            clazzes[clazzId2num(cl)] = new ClazzRecord(
-                clazzBaseName(cl),
-                clazzOuterClazz(cl),
-                clazzIsBoxed(cl),
-                clazzArgs(cl),
-                clazzKind(cl),
-                clazzOuterRef(cl),
-                clazzResultClazz(cl),
-                clazzIsRef(cl),
-                clazzIsUnitType(cl),
-                clazzAsValue(cl),
-                clazzChoices(cl),
-                clazzInstantiatedHeirs(cl),
-                clazzNeedsCode(cl),
-                clazzFields(cl),
-                needsCode ? clazzCode(cl) : NO_SITE,
-                clazzResultField(cl),
-                clazzOriginalName(cl),
-                clazzActualGenerics(cl),
-                lookupCall(cl),
-                lookupStaticFinally(cl),
-                clazzKind(cl) == FeatureKind.Routine ? lifeTime(cl) : null,
-                clazzTypeName(cl),
-                clazzAsStringHuman(cl),
-                clazzSrcFile(cl),
-                clazzDeclarationPos(cl).bytePos(),
-                lookupJavaRef(cl),
-                lookupCause(cl)
-                );
-          }
-        oos.writeObject(clazzes);
-
-        var sites = new SiteRecord[siteCount];
-        for (int s = SITE_BASE; s < SITE_BASE+siteCount; s++)
-          {
-              var accessedClazz =
-                invalidSite(s) || !(codeAt(s) == ExprKind.Call || codeAt(s) == ExprKind.Assign) || accessedClazz(s) > lastClazz
-                  ? NO_CLAZZ
-                  : accessedClazz(s);
-
-              sites[s-SITE_BASE] = new SiteRecord(
-                  clazzAt(s),
-                  invalidSite(s) ? false : alwaysResultsInVoid(s),
-                  invalidSite(s) ? false : doesResultEscape(s),
-                  invalidSite(s) ? null : codeAt(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Const ? NO_CLAZZ : constClazz(s) ,
-                  invalidSite(s) ? null : codeAt(s) == ExprKind.Const ? constData(s) : null,
-                  accessedClazz,
-                  accessedClazz != NO_CLAZZ ? accessedClazzes(s) : null,
-                  invalidSite(s) || !(codeAt(s) == ExprKind.Call || codeAt(s) == ExprKind.Assign) ? NO_CLAZZ : accessTargetClazz(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Tag ? NO_CLAZZ : tagValueClazz(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Assign ? NO_CLAZZ : assignedType(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Box ? NO_CLAZZ : boxValueClazz(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Box ? NO_CLAZZ : boxResultClazz(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Match ? NO_CLAZZ : matchStaticSubject(s),
-                  invalidSite(s) ? NO_SITE : codeAt(s) == ExprKind.Match ? matchCaseCount(s) : -1,
-                  invalidSite(s) ? null : codeAt(s) == ExprKind.Match ? matchCaseTags(s) : null,
-                  invalidSite(s) ? null : codeAt(s) == ExprKind.Match ? matchCaseCode(s) : null,
-                  invalidSite(s) || codeAt(s) != ExprKind.Tag ? NO_CLAZZ : tagNewClazz(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Tag ? -1 : tagTagNum(s),
-                  invalidSite(s) || codeAt(s) != ExprKind.Match ? null : matchCaseFields(s),
-                  invalidSite(s) || !(codeAt(s) == ExprKind.Assign || codeAt(s) == ExprKind.Call) ? false : accessIsDynamic(s),
-                  invalidSite(s) || sitePos(s) == null ? null : sitePos(s)._sourceFile._fileName.toString(),
-                  invalidSite(s) || sitePos(s) == null ? -1 : sitePos(s).line(),
-                  invalidSite(s) || sitePos(s) == null ? -1 : sitePos(s).column(),
-                  invalidSite(s) || sitePos(s) == null ? null : sitePos(s).show()
-                );
-          }
-        oos.writeObject(sites);
-
-        oos.writeObject(specialClazzes());
+        var needsCode = clazzKind(cl) == FeatureKind.Routine && clazzNeedsCode(cl);
+        clazzes[clazzId2num(cl)] = new ClazzRecord(
+            clazzBaseName(cl),
+            clazzOuterClazz(cl),
+            clazzIsBoxed(cl),
+            clazzArgs(cl),
+            clazzKind(cl),
+            clazzOuterRef(cl),
+            clazzResultClazz(cl),
+            clazzIsRef(cl),
+            clazzIsUnitType(cl),
+            clazzAsValue(cl),
+            clazzChoices(cl),
+            clazzInstantiatedHeirs(cl),
+            clazzNeedsCode(cl),
+            arrayMayBePassedToNative(cl),
+            clazzFields(cl),
+            needsCode ? clazzCode(cl) : NO_SITE,
+            clazzResultField(cl),
+            clazzOriginalName(cl),
+            clazzActualGenerics(cl),
+            lookupCall(cl),
+            lookupStaticFinally(cl),
+            clazzKind(cl) == FeatureKind.Routine ? lifeTime(cl) : null,
+            clazzTypeName(cl),
+            clazzAsStringHuman(cl),
+            clazzSrcFile(cl),
+            clazzDeclarationPos(cl).bytePos(),
+            lookupJavaRef(cl),
+            lookupCause(cl)
+            );
       }
-    catch(IOException e)
+
+    var sites = new SiteRecord[siteCount];
+    for (int s = SITE_BASE; s < SITE_BASE+siteCount; s++)
       {
-        e.printStackTrace();
+          var accessedClazz =
+            invalidSite(s) || !(codeAt(s) == ExprKind.Call || codeAt(s) == ExprKind.Assign) || accessedClazz(s) > lastClazz
+              ? NO_CLAZZ
+              : accessedClazz(s);
+
+          sites[s-SITE_BASE] = new SiteRecord(
+              clazzAt(s),
+              invalidSite(s) ? false : alwaysResultsInVoid(s),
+              invalidSite(s) ? false : doesResultEscape(s),
+              invalidSite(s) ? null : codeAt(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Const ? NO_CLAZZ : constClazz(s) ,
+              invalidSite(s) ? null : codeAt(s) == ExprKind.Const ? constData(s) : null,
+              accessedClazz,
+              accessedClazz != NO_CLAZZ ? accessedClazzes(s) : null,
+              invalidSite(s) || !(codeAt(s) == ExprKind.Call || codeAt(s) == ExprKind.Assign) ? NO_CLAZZ : accessTargetClazz(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Tag ? NO_CLAZZ : tagValueClazz(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Assign ? NO_CLAZZ : assignedType(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Box ? NO_CLAZZ : boxValueClazz(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Box ? NO_CLAZZ : boxResultClazz(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Match ? NO_CLAZZ : matchStaticSubject(s),
+              invalidSite(s) ? NO_SITE : codeAt(s) == ExprKind.Match ? matchCaseCount(s) : -1,
+              invalidSite(s) ? null : codeAt(s) == ExprKind.Match ? matchCaseTags(s) : null,
+              invalidSite(s) ? null : codeAt(s) == ExprKind.Match ? matchCaseCode(s) : null,
+              invalidSite(s) || codeAt(s) != ExprKind.Tag ? NO_CLAZZ : tagNewClazz(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Tag ? -1 : tagTagNum(s),
+              invalidSite(s) || codeAt(s) != ExprKind.Match ? null : matchCaseFields(s),
+              invalidSite(s) || !(codeAt(s) == ExprKind.Assign || codeAt(s) == ExprKind.Call) ? false : accessIsDynamic(s),
+              accessedClazz == NO_CLAZZ || codeAt(s) != ExprKind.Call ? null : callLifeTimes(s),
+              invalidSite(s) || sitePos(s) == null ? null : sitePos(s)._sourceFile._fileName.toString(),
+              invalidSite(s) || sitePos(s) == null ? -1 : sitePos(s).line(),
+              invalidSite(s) || sitePos(s) == null ? -1 : sitePos(s).column(),
+              invalidSite(s) || sitePos(s) == null ? null : sitePos(s).show()
+            );
       }
-    return baos.toByteArray();
+    return new FuirOut(mainClazz(), clazzes, sites, specialClazzes()).data();
   }
 
 
@@ -272,6 +390,23 @@ public class OptimizedFUIR extends GeneratingFUIR {
   }
 
 
+  /**
+   * For the call at `s`, get lifeTime(cc, s) for each called clazz cc in
+   * accessedClazzes(s).
+   */
+  private LifeTime[] callLifeTimes(int s)
+  {
+    var ccs = accessedClazzes(s);
+    var result = new LifeTime[ccs.length / 2];
+    for (int i = 0; i < result.length; i++)
+      {
+        var cc = ccs[2 * i + 1];
+        result[i] = clazzKind(cc) == FeatureKind.Routine ? lifeTime(cc, s) : null;
+      }
+    return result;
+  }
+
+
   /**
    * For the match at `s` for each case get the tags
    * that it matches.
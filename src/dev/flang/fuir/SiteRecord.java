@@ -26,15 +26,14 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.fuir;
 
-import java.io.Serializable;
-
+import dev.flang.fuir.FUIR.LifeTime;
 import dev.flang.ir.IR.ExprKind;
 
 /**
- * NYI: UNDER DEVELOPMENT:
- * remove this once we have custom serialization of FUIR
+ * All data of one site collected by OptimizedFUIR.serialize() before FuirOut
+ * writes it to the columns of a .fuir file.
  */
-public record SiteRecord(
+record SiteRecord(
   int clazzAt,
   boolean alwaysResultsInVoid,
   boolean doesResultEscape,
@@ -56,12 +55,12 @@ public record SiteRecord(
   int tagTagNum,
   int[] matchCaseField,
   boolean accessIsDynamic,
+  LifeTime[] callLifeTimes,
   String path,
   int line,
   int column,
   // NYI: UNDER DEVELOPMENT: remove
   String show
-) implements Serializable
+)
 {
-  private static final long serialVersionUID = 1L;
 }
@@ -40,7 +40,7 @@ import static dev.flang.util.FuzionConstants.EFFECT_INSTATE_NAME;
 import dev.flang.util.HasSourcePosition;
 import dev.flang.util.List;
 
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.TreeSet;
 
 
@@ -104,7 +104,7 @@ public class Call extends ANY implements Comparable<Call>, Context
   /**
    * Calls that depend on this calls result, (if it returns or not)
    */
-  private LinkedList<Call> _dependOnResult = new LinkedList<>();
+  private final LinkedHashSet<Call> _dependOnResult = new LinkedHashSet<>();
 
 
   /**
@@ -160,12 +160,12 @@ public class Call extends ANY implements Comparable<Call>, Context
     if (_dfa._fuir.isConstructor(calledClazz()))
       {
         /* a constructor call returns current as result, so it always escapes together with all outer references! */
-        _dfa.escapes(calledClazz());
+        _dfa.escapesForAllCalls(calledClazz());
         var or = _dfa._fuir.clazzOuterRef(calledClazz());
         while (or != NO_CLAZZ)
           {
             var orr = _dfa._fuir.clazzResultClazz(or);
-            _dfa.escapes(orr);
+            _dfa.escapesForAllCalls(orr);
             or = _dfa._fuir.clazzOuterRef(orr);
           }
       }
@@ -242,6 +242,7 @@ public class Call extends ANY implements Comparable<Call>, Context
         var an = a0.joinVal(_dfa, a1, _dfa._fuir.clazzArgClazz(calledClazz(), i));
         if (an.value() != a0.value())
           {
+            _dfa.modify();
             _args.set(i, an);
             _dfa.hot(this);
           }
@@ -285,12 +286,14 @@ public class Call extends ANY implements Comparable<Call>, Context
 
     if (_result != result)
       {
+        _dfa.modify();
         _result = result;
-        while (!_dependOnResult.isEmpty())
+        // mark calls that depend on this call's result as hot (again)
+        for (var c : _dependOnResult)
           {
-            // mark calls that depend on this call's result as hot (again)
-            _dfa.hot(_dependOnResult.removeFirst());
+            _dfa.hot(c);
           }
+        _dependOnResult.clear();
       }
   }
 
@@ -308,7 +311,11 @@ public class Call extends ANY implements Comparable<Call>, Context
 
     // record how depends on result to mark
     // them as hot again when result changes.
-    _dependOnResult.add(from);
+    if (!_dependOnResult.contains(from))
+      {
+        _dfa.modify();
+        _dependOnResult.add(from);
+      }
 
     Val result = null;
     if (_dfa._fuir.clazzKind(calledClazz()) == IR.FeatureKind.Intrinsic)
@@ -322,6 +329,7 @@ public class Call extends ANY implements Comparable<Call>, Context
         else
           {
             var msg = "DFA: code to handle intrinsic '" + name + "' is missing";
+            _dfa.modify();
             Errors.warning(msg);
             result = genericResult();
           }
@@ -331,11 +339,13 @@ public class Call extends ANY implements Comparable<Call>, Context
         markSysArrayArgsAsInitialized();
         markFunctionArgsAsCalled();
         markArrayArgsAsRead();
+        markArrayArgsAsNative();
 
         result = genericResult();
         if (result == null)
           {
             var rc = _dfa._fuir.clazzResultClazz(calledClazz());
+            _dfa.modify();
             Errors.warning("DFA: cannot handle native feature result type: " + _dfa._fuir.clazzOriginalName(rc));
           }
       }
@@ -368,6 +378,29 @@ public class Call extends ANY implements Comparable<Call>, Context
   }
 
 
+  /**
+   * record the element types of all args that are arrays in
+   * DFA._nativeArrayElements.  Only an element type that was not recorded
+   * before is a modification of the DFA's state.
+   */
+  private void markArrayArgsAsNative()
+  {
+    for (int i = 0; i < _dfa._fuir.clazzArgCount(calledClazz()); i++)
+      {
+        var at = _dfa._fuir.clazzArgClazz(calledClazz(), i);
+        if (_dfa._fuir.clazzIsArray(at) || _dfa._fuir.clazzIsMutateArray(at) || _dfa._fuir.clazzIsArrayRef(at))
+          {
+            var en = _dfa._fuir.clazzId2num(_dfa._fuir.clazzActualGeneric(at, 0));
+            if (!_dfa._nativeArrayElements.get(en))
+              {
+                _dfa.modify();
+                _dfa._nativeArrayElements.set(en);
+              }
+          }
+      }
+  }
+
+
   /**
    * call all args that are Function
    */
@@ -641,6 +674,7 @@ public class Call extends ANY implements Comparable<Call>, Context
         if (_dfa._reportResults && !DFA.DO_NOT_TRACE_ENVS)
           {
             // NYI: Make this a normal error similar to DfaErrors.usedEffectnotinstalled:
+            _dfa.modify();
             Errors.fatal("Trying to replace effect " + Errors.code(_dfa._fuir.clazzAsString(ecl))
                          + " that is not yet installed: \n" + toString(false) + "\n" + toString(true));
           }
@@ -667,12 +701,14 @@ public class Call extends ANY implements Comparable<Call>, Context
 
     if (!_escapes)
       {
+        _dfa.modify();
         _escapes = true;
-        // we currently store for calledClazz(), so we accumulate different call
-        // contexts to the same clazz. We might make this more detailed and
-        // record this local to the call or use part of the call's context like
-        // the target value to be more accurate.
+        // for lifeTime(cl), we store for calledClazz(), so we accumulate
+        // different call contexts to the same clazz.  For lifeTime(cl, s), the
+        // sites of this call are recorded by DFA.newCall, which requires
+        // another iteration to see all sites that lead to this call.
         _dfa.escapes(calledClazz());
+        _dfa.wasChanged(() -> "Escapes: " + this);
       }
   }
 
@@ -157,6 +157,13 @@ public class CallGroup extends ANY implements Comparable<CallGroup>
   TreeSet<Integer> _mayHaveEffects = new TreeSet<>();
 
 
+  /**
+   * Hash code consistent with compareTo, used for interning in
+   * DFA._callGroups and DFA._calls.
+   */
+  final int _hash;
+
+
   /*---------------------------  constructors  ---------------------------*/
 
 
@@ -185,6 +192,7 @@ public class CallGroup extends ANY implements Comparable<CallGroup>
     _cc = cc;
     _site = site;
     _target = target;
+    _hash = (cc * 31 + target._id) * 31 + (dfa.siteSensitive(cc) ? site : 0);
   }
 
 
@@ -223,8 +231,10 @@ public class CallGroup extends ANY implements Comparable<CallGroup>
    */
   void mayHaveEffect(int ecl)
   {
-    if (_mayHaveEffects.add(ecl))
+    if (!_mayHaveEffects.contains(ecl))
       {
+        _dfa.modify();
+        _mayHaveEffects.add(ecl);
         for (var t : _to)
           {
             t.mayHaveEffect(ecl);
@@ -280,8 +290,10 @@ public class CallGroup extends ANY implements Comparable<CallGroup>
    */
   void usesEffect(int ecl)
   {
-    if (!instates(ecl) && _usedEffects.add(ecl))
+    if (!instates(ecl) && !_usedEffects.contains(ecl))
       {
+        _dfa.modify();
+        _usedEffects.add(ecl);
         _target.forAll(v ->
                        {
                          if (v instanceof RefValue rv)
@@ -307,8 +319,10 @@ public class CallGroup extends ANY implements Comparable<CallGroup>
    */
   void calledFrom(CallGroup from)
   {
-    if (_from.add(from))
+    if (!_from.contains(from))
       {
+        _dfa.modify();
+        _from.add(from);
         for (var ecl : _usedEffects)
           {
             from.usesEffect(ecl);
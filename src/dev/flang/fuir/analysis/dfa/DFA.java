@@ -38,6 +38,7 @@ import java.util.TreeSet;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import dev.flang.fuir.FUIR;
@@ -58,6 +59,7 @@ import dev.flang.util.FuzionOptions;
 import dev.flang.util.Metrics;
 import dev.flang.util.List;
 import dev.flang.util.IntMap;
+import dev.flang.util.InternTable;
 import dev.flang.util.LongMap;
 import dev.flang.util.SourcePosition;
 
@@ -229,7 +231,7 @@ public class DFA extends ANY
     public Val call(int s, Val tvalue, List<Val> args)
     {
       var res = access(s, tvalue, args);
-      DFA.this.site(s).recordResult(res == null);
+      DFA.this.site(s).recordResult(DFA.this, res == null);
       return res;
     }
 
@@ -310,6 +312,7 @@ public class DFA extends ANY
         }
       else
         {
+          modify();
           var instantiatedAt = _calls.keySet().stream()
             .filter(c -> (c.calledClazz() == _fuir.clazzAsValue(t_cl) ||  // NYI: CLEANUP would be nice if c.calledClazz() would be a ref already, should have been boxed at some point
                           c.calledClazz() == t_cl                       ) && c.site() != NO_SITE)
@@ -329,7 +332,11 @@ public class DFA extends ANY
     Val access0(int s, Val tvalue, List<Val> args, int cc, Val original_tvalue /* NYI: ugly */)
     {
       var cs = DFA.this.site(s);
-      cs._accesses.add(cc);
+      if (!cs._accesses.contains(cc))
+        {
+          modify();
+          cs._accesses.add(cc);
+        }
       var isCall = _fuir.codeAt(s) == FUIR.ExprKind.Call;
       Val r;
       if (isCall)
@@ -376,6 +383,7 @@ public class DFA extends ANY
       switch (_fuir.clazzKind(cc))
         {
         case Abstract :
+          modify();
           Errors.error("Call to abstract feature encountered.",
                        "Found call to  " + _fuir.clazzAsString(cc));
           break;
@@ -394,7 +402,7 @@ public class DFA extends ANY
                 // check if target value of new call ca causes current _call's instance to escape.
                 var or = _fuir.clazzOuterRef(cc);
                 if (original_tvalue instanceof EmbeddedValue ev && ev._instance == _call._instance &&
-                    _escapes.contains(ca.calledClazz()) &&
+                    (ca._escapes || _escapesForAllCalls.contains(ca.calledClazz())) &&
                     (or != NO_CLAZZ) &&
                     _fuir.clazzFieldIsAdrOfValue(or)    // outer ref is adr, otherwise target is passed by value (primitive type like u32)
                     )
@@ -494,6 +502,7 @@ public class DFA extends ANY
               }
             else
               {
+                modify();
                 Errors.error("Unsupported constant in DFA analysis.",
                              "DFA cannot handle constant of clazz '" + _fuir.clazzAsString(constCl) + "' ");
                 yield null;
@@ -616,9 +625,11 @@ public class DFA extends ANY
                 {
                   taken = matchSingleSubject(s, sv, mc, t) || taken;
                 }
-              if (taken)
+              var k = ((long)s<<32)|((long)mc);
+              if (taken && !DFA.this._takenMatchCases.contains(k))
                 {
-                  DFA.this._takenMatchCases.add(((long)s<<32)|((long)mc));
+                  modify();
+                  DFA.this._takenMatchCases.add(k);
                 }
             }
           if (_reportResults && _options.verbose(9))
@@ -636,7 +647,7 @@ public class DFA extends ANY
                 }
             }
         }
-      DFA.this.site(s).recordResult(r == null);
+      DFA.this.site(s).recordResult(DFA.this, r == null);
       return r;
     }
 
@@ -778,6 +789,36 @@ public class DFA extends ANY
   static final boolean USE_EMBEDDED_VALUES = FuzionOptions.boolPropertyOrEnv("dev.flang.fuir.analysis.dfa.DFA.USE_EMBEDDED_VALUES", true);
 
 
+  /**
+   * Should the DFA analyze calls speculatively in parallel?  If set, calls that
+   * are scheduled for analysis are first analyzed in parallel against the
+   * current state without modifying it, only those calls whose analysis would
+   * modify the state are then analyzed sequentially.  The result is identical
+   * to a sequential analysis.
+   *
+   * The speculative analyses only read the state of the DFA, e.g., _calls,
+   * _envs or _cachedValues, and the FUIR: any change of the state is preceded
+   * by modify() and any lazy computation in the FUIR is preceded by lazyInit(),
+   * both abort a speculative analysis.  Changes are made only between the
+   * parallel phases, so no locks are needed.
+   *
+   * To enable, use fz with
+   *
+   *   dev_flang_fuir_analysis_dfa_DFA_PARALLEL=true
+   */
+  static final boolean PARALLEL = FuzionOptions.boolPropertyOrEnv("dev.flang.fuir.analysis.dfa.DFA.PARALLEL", false);
+
+
+  /**
+   * Minimum and maximum number of calls that are analyzed speculatively in
+   * parallel at once if PARALLEL is set.  Between these limits, this is twice
+   * the number of calls that could be skipped after the previous speculative
+   * analyses.
+   */
+  static final int MIN_PROBES = Runtime.getRuntime().availableProcessors();
+  static final int MAX_PROBES = 4096;
+
+
   /**
    * DFA's intrinsics.
    */
@@ -869,7 +910,11 @@ public class DFA extends ANY
   private static void put(String n, IntrinsicDFA c)
   {
     _intrinsics_.put(n, (call) -> {
-      _usedIntrinsics_.add(n);
+      if (!_usedIntrinsics_.contains(n))
+        {
+          call._dfa.modify();
+          _usedIntrinsics_.add(n);
+        }
       return c.analyze(call);
     });
   }
@@ -915,7 +960,7 @@ public class DFA extends ANY
   /**
    * Values created during DFA analysis that are cached via cache(Value).
    */
-  TreeMap<Value, Value> _cachedValues = new TreeMap<>(Value.COMPARATOR);
+  InternTable<Value> _cachedValues = new InternTable<>(Value::hash, Value.COMPARATOR);
 
 
   /**
@@ -968,7 +1013,7 @@ public class DFA extends ANY
   /**
    * CallGroups created during DFA analysis.
    */
-  TreeMap<CallGroup, CallGroup> _callGroups = new TreeMap<>();
+  InternTable<CallGroup> _callGroups = new InternTable<>(g -> g._hash, CallGroup::compareTo);
 
 
   /**
@@ -984,6 +1029,13 @@ public class DFA extends ANY
   TreeMap<Call, Call> _calls = new TreeMap<>();
 
 
+  /**
+   * Hash-based index of _calls.  This is used for lookups in newCall, while
+   * _calls is kept for iteration in a reproducible order.
+   */
+  InternTable<Call> _callsIndex = new InternTable<>(c -> c._group._hash, Call::compareTo);
+
+
   /**
    * For those Calls whose key can be mapped to a long value, this gives a quick
    * way to lookup that key.
@@ -1026,7 +1078,7 @@ public class DFA extends ANY
    * Envs created during DFA analysis.  The envs are compared insensitive to the
    * order in which they are installed.
    */
-  TreeMap<Env, Env> _envs = new TreeMap<>();
+  InternTable<Env> _envs = new InternTable<>(e -> e._hash, Env::compareTo);
 
 
   /**
@@ -1092,6 +1144,13 @@ public class DFA extends ANY
   BitSet _hasFields = new BitSet();
 
 
+  /**
+   * Element types of arrays that are passed to native functions, indexed by
+   * clazzId2num.  Setting a new bit must be preceded by modify().
+   */
+  BitSet _nativeArrayElements = new BitSet();
+
+
   /**
    * Map from type to corresponding default effects.
    *
@@ -1121,6 +1180,36 @@ public class DFA extends ANY
   private Supplier<String> _changedSetBy;
 
 
+  /**
+   * Number of modifications of the state of this analysis or of the FUIR.  This
+   * is used to detect that the results of speculative analyses are outdated.
+   */
+  private long _modifications = 0;
+
+
+  /**
+   * true while calls are analyzed speculatively in parallel, any modification
+   * of the state will then abort the analysis of a call.
+   */
+  private boolean _probing = false;
+
+
+  /**
+   * Number of analyses of calls that were skipped since a speculative analysis
+   * found that they do not modify anything.
+   */
+  private long _skippedAnalyses = 0;
+
+
+  /**
+   * Number of speculative analyses of calls that completed, that were aborted
+   * by modify() and that were aborted by lazyInit(), respectively.
+   */
+  private long _completedProbes = 0;
+  private long _modifyAbortedProbes = 0;
+  private long _lazyInitAbortedProbes = 0;
+
+
   /**
    * List of numeric values to avoid duplicates, values that are known
    */
@@ -1166,6 +1255,11 @@ public class DFA extends ANY
   {
     _options = options;
     _fuir = fuir;
+    if (PARALLEL)
+      {
+        _fuir.beforeChange(this::modify);
+        _fuir.beforeLazyInit(this::lazyInit);
+      }
     _universe = newInstance(_fuir.clazzUniverse(), NO_SITE, Context._MAIN_ENTRY_POINT_);
     Errors.showAndExit();
   }
@@ -1188,6 +1282,7 @@ public class DFA extends ANY
   {
     if (_boolX == null)
       {
+        modify();
         var bool = _fuir.clazz(SpecialClazzes.c_bool);
         if (bool != FUIR.NO_CLAZZ)
           {
@@ -1245,6 +1340,31 @@ public class DFA extends ANY
         }
 
 
+        /**
+         * Determine the lifetime of the instance of the call to clazz cl at
+         * site s.
+         *
+         * @param cl a clazz id of any kind
+         *
+         * @param s site of a call to cl
+         *
+         * @return Call if lifeTime(cl) is Call or if no call to cl at site s
+         * lets its instance escape.
+         */
+        @Override
+        public LifeTime lifeTime(int cl, int s)
+        {
+          var res = lifeTime(cl);
+          return
+            res == LifeTime.Unknown        &&
+            _options.needsEscapeAnalysis() &&
+            s != NO_SITE                   &&
+            !_escapesForAllCalls.contains(cl) &&
+            !_escapingSites.get(siteIndex(s))  ? LifeTime.Call
+                                               : res;
+        }
+
+
         /**
          * For a call to cl, does the instance of cl escape the call?
          *
@@ -1280,6 +1400,13 @@ public class DFA extends ANY
         }
 
 
+        @Override
+        public boolean arrayMayBePassedToNative(int ec)
+        {
+          return _nativeArrayElements.get(_fuir.clazzId2num(ec));
+        }
+
+
         @Override
         public boolean alwaysResultsInVoid(int s)
         {
@@ -1363,12 +1490,9 @@ public class DFA extends ANY
       {
         _callGroupsQuick.get(k).saveEffects();
       }
-    for (var g : _callGroups.values())
-      {
-        g.saveEffects();
-      }
+    _callGroups.forEach(g -> g.saveEffects());
 
-    _cachedValues = new TreeMap<>(Value.COMPARATOR);
+    _cachedValues = new InternTable<>(Value::hash, Value.COMPARATOR);
     _numUniqueValues = 0;
     _uniqueValues = new List<Value>();
     _instancesForSite = new List<>();
@@ -1383,8 +1507,9 @@ public class DFA extends ANY
 
     _callsQuick = new LongMap<>();
     _calls = new TreeMap<>();
+    _callsIndex = new InternTable<>(c -> c._group._hash, Call::compareTo);
     _callGroupsQuick = new LongMap<>();
-    _callGroups = new TreeMap<>();
+    _callGroups = new InternTable<>(g -> g._hash, CallGroup::compareTo);
 
     _oneInstanceOfClazz = new List<>();
     _unitCalls = new IntMap<>();
@@ -1395,6 +1520,13 @@ public class DFA extends ANY
     _options.timer("dfa_real");
 
     _options.verbosePrintln(2, "DFA needed " + (preIter+realIter) +  " iterations (pre/real) ("+ preIter + "/" + realIter + ").");
+    if (PARALLEL)
+      {
+        _options.verbosePrintln(2, "DFA skipped " + _skippedAnalyses + " analyses of calls after speculative parallel analysis.");
+        _options.verbosePrintln(2, "DFA probes: " + _completedProbes + " completed, " +
+                                _modifyAbortedProbes + " aborted by modify(), " +
+                                _lazyInitAbortedProbes + " aborted by lazyInit().");
+      }
 
     if (preIter+realIter > MAX_ITERATIONS)
       {
@@ -1610,6 +1742,7 @@ public class DFA extends ANY
    */
   void wasChanged(Supplier<String> by)
   {
+    modify();
     if (!_changed)
       {
         if (SHOW_STACK_ON_CHANGE)
@@ -1637,10 +1770,17 @@ public class DFA extends ANY
       }
     while (!s.isEmpty())
       {
-        for (var c : s)
+        if (PARALLEL && !_reportResults)
           {
-            c._scheduledForAnalysis = false;
-            analyze(c);
+            analyzeInParallel(s);
+          }
+        else
+          {
+            for (var c : s)
+              {
+                c._scheduledForAnalysis = false;
+                analyze(c);
+              }
           }
         s = _hotCalls;
         _hotCalls = new List<>();
@@ -1648,6 +1788,146 @@ public class DFA extends ANY
   }
 
 
+  /**
+   * Analyze the given calls with the same result as analyzing them one after
+   * the other, but use speculative analyses in parallel to find those calls
+   * whose analysis does not modify anything.
+   *
+   * A speculative analysis of a call is aborted as soon as it would modify the
+   * state of this analysis or the FUIR.  If it completes, the sequential
+   * analysis of this call would not modify anything either, as long as no call
+   * before it did, so it can be skipped.  All other calls are analyzed
+   * sequentially in their original order.  Speculative results are discarded
+   * once a sequential analysis modified anything.
+   *
+   * @param s the calls to analyze, all must be scheduled for analysis.
+   */
+  void analyzeInParallel(List<Call> s)
+  {
+    var n = s.size();
+    var probes = MIN_PROBES;
+    var i = 0;
+    while (i < n)
+      {
+        var start = i;
+        var end = Math.min(n, start + probes);
+        var unchanged = probe(s, start, end);
+        var m = _modifications;
+        while (i < end && _modifications == m)
+          {
+            var c = s.get(i);
+            c._scheduledForAnalysis = false;
+            if (unchanged[i - start])
+              {
+                _skippedAnalyses++;
+              }
+            else
+              {
+                analyze(c);
+              }
+            i++;
+          }
+        probes = Math.min(MAX_PROBES, Math.max(MIN_PROBES, 2 * (i - start)));
+      }
+  }
+
+
+  /**
+   * Analyze calls s[start..end-1] speculatively in parallel without modifying
+   * the state of this analysis.
+   *
+   * @param s list of calls
+   *
+   * @param start index of first call to analyze
+   *
+   * @param end index after the last call to analyze
+   *
+   * @return array of end-start flags that are true for those calls whose
+   * analysis completed without modifying anything.
+   */
+  private boolean[] probe(List<Call> s, int start, int end)
+  {
+    var result = new boolean[end - start];
+    var lazy = new boolean[end - start];
+    _probing = true;
+    try
+      {
+        IntStream.range(start, end)
+          .parallel()
+          .forEach(i ->
+                   {
+                     try
+                       {
+                         analyze(s.get(i));
+                         result[i - start] = true;
+                       }
+                     catch (Modification m)
+                       {
+                         // aborted by modify() or lazyInit(), the sequential
+                         // analysis of this call will do this.
+                         lazy[i - start] = m == Modification.LAZY_INIT;
+                       }
+                   });
+      }
+    finally
+      {
+        _probing = false;
+      }
+    for (var i = 0; i < result.length; i++)
+      {
+        if      (result[i]) { _completedProbes++;       }
+        else if (lazy  [i]) { _lazyInitAbortedProbes++; }
+        else                { _modifyAbortedProbes++;   }
+      }
+    return result;
+  }
+
+
+  /**
+   * Exception thrown by {@code modify()} to abort a speculative analysis.
+   */
+  static class Modification extends RuntimeException
+  {
+    static final Modification INSTANCE  = new Modification();
+    static final Modification LAZY_INIT = new Modification();
+
+    private Modification()
+    {
+      super(null, null, false, false);
+    }
+  }
+
+
+  /**
+   * Called before the state of this analysis or the FUIR is modified.  While
+   * calls are analyzed speculatively in parallel, this aborts the analysis of
+   * the current call.
+   */
+  void modify()
+  {
+    if (_probing)
+      {
+        throw Modification.INSTANCE;
+      }
+    _modifications++;
+  }
+
+
+  /**
+   * Called before the FUIR computes data lazily, e.g., to fill a cache.  This
+   * does not change the results of any queries, but it is not thread safe, so
+   * while calls are analyzed speculatively in parallel, this aborts the
+   * analysis of the current call.
+   */
+  void lazyInit()
+  {
+    if (_probing)
+      {
+        throw Modification.LAZY_INIT;
+      }
+  }
+
+
   /**
    * During analysis, mark the given call as {@code hot}, i.e., unless it is already
    * scheduled to be analyzed or re-analyzed in the current iteration, schedule
@@ -1660,6 +1940,7 @@ public class DFA extends ANY
   {
     if (!c._scheduledForAnalysis)
       {
+        modify();
         _hotCalls.add(c);
         c._scheduledForAnalysis = true;
       }
@@ -1732,6 +2013,7 @@ public class DFA extends ANY
    */
   static Value NYIintrinsicMissing(Call cl)
   {
+    cl._dfa.modify();
     if (true || cl._dfa._reportResults)
       {
         var name = fuir(cl).clazzOriginalName(cl.calledClazz());
@@ -1760,6 +2042,20 @@ public class DFA extends ANY
   TreeSet<Integer> _escapes = new TreeSet<>();
 
 
+  /**
+   * Set of clazzes whose instance may escape the call to the clazz's routine
+   * independent of the call, e.g., constructors.  Subset of _escapes.
+   */
+  TreeSet<Integer> _escapesForAllCalls = new TreeSet<>();
+
+
+  /**
+   * Set of siteIndex() of call sites for which the instance of a called
+   * routine may escape.
+   */
+  BitSet _escapingSites = new BitSet();
+
+
   /**
    * Set of sites of calls whose result value may escape the caller's
    * context (since a pointer to that value may be passed to a call).
@@ -1775,13 +2071,32 @@ public class DFA extends ANY
    */
   void escapes(int cc)
   {
-    if (_escapes.add(cc))
+    if (!_escapes.contains(cc))
       {
+        modify();
+        _escapes.add(cc);
         wasChanged(() -> "Escapes: " + _fuir.clazzAsString(cc));
       }
   }
 
 
+  /**
+   * Record that the given clazz escapes all calls to the routine, independent
+   * of the call site.
+   *
+   * @param cc the clazz to check
+   */
+  void escapesForAllCalls(int cc)
+  {
+    if (!_escapesForAllCalls.contains(cc))
+      {
+        modify();
+        _escapesForAllCalls.add(cc);
+      }
+    escapes(cc);
+  }
+
+
   /**
    * Record that a temporary value whose address is taken may live longer than
    * than the current call, so we cannot store it in the current stack frame.
@@ -1805,6 +2120,7 @@ public class DFA extends ANY
         var cp = ev._site;
         if (!_escapesCode.contains(cp))
           {
+            modify();
             _escapesCode.add(cp);
             wasChanged(() -> "code escapes: "+_fuir.codeAtAsString(s));
           }
@@ -1833,6 +2149,7 @@ public class DFA extends ANY
       }
     else
       {
+        cl._dfa.modify();
         Errors.fatal("DFA internal error: intrinsic '" + intrinsicName+ ": Expected class SysArray, found " + array.getClass() + " " + array);
       }
   }
@@ -2234,6 +2551,7 @@ public class DFA extends ANY
               var ev = oev == null ? new_e : oev.join(cl._dfa, new_e, ecl);
               if (oev != ev)
                 {
+                  cl._dfa.modify();
                   cl._dfa._preEffectValues.put(ecl, ev);
                   cl._dfa.wasChanged(() -> "effect.type.replace0 called: " + fuir(cl).clazzAsString(cl.calledClazz()));
                 }
@@ -2250,6 +2568,7 @@ public class DFA extends ANY
               var old_e = cl._dfa._defaultEffects.get(ecl);
               if (old_e == null)
                 {
+                  cl._dfa.modify();
                   cl._dfa._defaultEffects.put(ecl, new_e);
                   cl._dfa._defaultEffectContexts.put(ecl, cl);
                   cl._dfa.wasChanged(() -> "effect.default called: " + fuir(cl).clazzAsString(cl.calledClazz()));
@@ -2261,6 +2580,7 @@ public class DFA extends ANY
               var ev = oev == null ? new_e : oev.join(cl._dfa, new_e, ecl);
               if (oev != ev)
                 {
+                  cl._dfa.modify();
                   cl._dfa._preEffectValues.put(ecl, ev);
                   cl._dfa.wasChanged(() -> "effect.default called: " + fuir(cl).clazzAsString(cl.calledClazz()));
                 }
@@ -2320,6 +2640,7 @@ public class DFA extends ANY
               ev = oev == null ? a0 : oev.join(cl._dfa, a0, ecl);
               if (oev != ev)
                 {
+                  cl._dfa.modify();
                   cl._dfa._preEffectValues.put(ecl, ev);
                   cl._dfa.wasChanged(() -> EFFECT_INSTATE_NAME + " called: " + fuir(cl).clazzAsString(cl.calledClazz()));
                 }
@@ -2357,8 +2678,9 @@ public class DFA extends ANY
                 }
               //              cl._dfa._preEffectsAborted.add(ecl);  // NYI: why here as well ?
             }
-          else
+          else if (!cl._dfa._preEffectsAborted.contains(ecl))
             {
+              cl._dfa.modify();
               cl._dfa._preEffectsAborted.add(ecl);
             }
           return null;
@@ -2704,6 +3026,7 @@ public class DFA extends ANY
             var new_e = old_e == null ? e : old_e.join(this, e, ecl);
             if (old_e == null || Value.compare(old_e, new_e) != 0)
               {
+                modify();
                 _defaultEffects.put(ecl, new_e);
                 wasChanged(() -> "effect.replace called: " + _fuir.clazzAsString(ecl));
               }
@@ -2772,6 +3095,7 @@ public class DFA extends ANY
         var ao = _oneInstanceOfClazz.getIfExists(cnum);
         if (ao == null)
           {
+            modify();
             if (onlyOneInstance(cl))
               {
                 var ni = new Instance(this, cl, site, context);
@@ -2802,6 +3126,7 @@ public class DFA extends ANY
             var clazzm = _instancesForSite.getIfExists(sci);
             if (clazzm == null)
               {
+                modify();
                 clazzm = new LongMap<>();
                 _instancesForSite.force(sci, clazzm);
               }
@@ -2844,13 +3169,18 @@ public class DFA extends ANY
     var fnum = _fuir.clazzId2num(field);
     if (!_readFields.get(fnum))
       {
+        modify();
         _readFields.set(fnum);
         wasChanged(() -> "DFA: read field " + _fuir.clazzAsString(field));
         _fuir.doesNeedCode(field);
       }
     var cl = _fuir.clazzAsValue(_fuir.clazzOuterClazz(field));
     var clnum = _fuir.clazzId2num(cl);
-    _hasFields.set(clnum);
+    if (!_hasFields.get(clnum))
+      {
+        modify();
+        _hasFields.set(clnum);
+      }
   }
 
 
@@ -2933,7 +3263,8 @@ public class DFA extends ANY
     var e = _cachedValues.get(r);
     if (e == null)
       {
-        _cachedValues.put(r, r);
+        modify();
+        _cachedValues.putIfAbsent(r);
         e = r;
         makeUnique(e);
       }
@@ -2949,6 +3280,7 @@ public class DFA extends ANY
     if (PRECONDITIONS) require
       (v._id < 0);
 
+    modify();
     v._id = _numUniqueValues++;
     _uniqueValues.add(v);
     wasChanged(() -> "DFA: new value " + v);
@@ -3036,6 +3368,7 @@ public class DFA extends ANY
         res = _joined.get(k);
         if (res == null)
           {
+            modify();
             if      (v.contains(w)) { res = v; }
             else if (w.contains(v)) { res = w; }
             else
@@ -3104,6 +3437,7 @@ public class DFA extends ANY
         res = _uninitializedSysArray.get(ec);
         if (res == null)
           {
+            modify();
             res = new SysArray(this, ne, ec);
             _uninitializedSysArray.put(ec, res);
           }
@@ -3113,6 +3447,7 @@ public class DFA extends ANY
         res = ne._sysArrayOf;
         if (res == null)
           {
+            modify();
             res = new SysArray(this, ne, ec);
             ne._sysArrayOf = res;
           }
@@ -3145,6 +3480,7 @@ public class DFA extends ANY
         var e = value._embeddedAt;
         if (e == null)
           {
+            modify();
             e = new IntMap<>();
             value._embeddedAt = e;
           }
@@ -3152,6 +3488,7 @@ public class DFA extends ANY
         r = e.get(i);
         if (r == null)
           {
+            modify();
             var ev = new EmbeddedValue(null, site, value);
             e.put(i, ev);
             r = ev;
@@ -3190,6 +3527,7 @@ public class DFA extends ANY
         var e = value._embeddedAt;
         if (e == null)
           {
+            modify();
             e = new IntMap<>();
             value._embeddedAt = e;
           }
@@ -3197,6 +3535,7 @@ public class DFA extends ANY
         r = e.get(i);
         if (r == null)
           {
+            modify();
             var ev = new EmbeddedValue(instance, NO_SITE, value);
             e.put(i, ev);
             r = ev;
@@ -3353,6 +3692,7 @@ public class DFA extends ANY
         g = _callGroupsQuick.get(kg);
         if (g == null)
           {
+            modify();
             g = new CallGroup(this, cl, site, tvalue);
             _callGroupsQuick.put(kg, g);
           }
@@ -3360,8 +3700,13 @@ public class DFA extends ANY
     else
       {
         var ng = new CallGroup(this, cl, site, tvalue);
-        g = _callGroups.putIfAbsent(ng, ng);
-        g = g != null ? g : ng;
+        g = _callGroups.get(ng);
+        if (g == null)
+          {
+            modify();
+            _callGroups.putIfAbsent(ng);
+            g = ng;
+          }
       }
 
     Call e, r;
@@ -3371,6 +3716,7 @@ public class DFA extends ANY
         e = r;
         if (r == null)
           {
+            modify();
             r = new Call(g, args, env, context, site);
             _unitCalls.put(cl, r);
           }
@@ -3379,8 +3725,10 @@ public class DFA extends ANY
       {
         if (r != null)
           {
+            modify();
             _unitCalls.put(cl, null);
             _calls.remove(r);
+            _callsIndex.remove(r);
           }
         var k = TRACE_ALL_EFFECT_ENVS
           ? callQuickHash(cl, site, tvalue, env)
@@ -3393,23 +3741,23 @@ public class DFA extends ANY
             e = r;
             if (r == null)
               {
+                modify();
                 r = new Call(g, args, env, context, site);
                 _callsQuick.put(k, r);
               }
           }
         else
           {
-            // TreeMap fallback in case we failed to pack the key into a long.
-            //
-            // NYI: OPTIMIZATION: We might find a more efficient way for this case,
-            // maybe two nested LongMaps?
+            // hash table fallback in case we failed to pack the key into a long.
             r = new Call(g, args, env, context, site);
-            e = _calls.get(r);
+            e = _callsIndex.get(r);
           }
       }
     if (e == null)
       {
+        modify();
         _calls.put(r, r);
+        _callsIndex.putIfAbsent(r);
         r._instance = newInstance(cl, site, r);
         if (r._instance instanceof Instance riv)
           {
@@ -3435,6 +3783,11 @@ public class DFA extends ANY
       {
         e._group.calledFrom(from._group);
       }
+    if (e._escapes && !_escapingSites.get(siteIndex(site)))
+      {
+        modify();
+        _escapingSites.set(siteIndex(site));
+      }
     return e;
   }
 
@@ -3512,6 +3865,7 @@ public class DFA extends ANY
       var res = _sites.getIfExists(i);
       if (res == null)
         {
+          modify();
           res = new Site(s);
           _sites.force(i, res);
         }
@@ -3538,6 +3892,7 @@ public class DFA extends ANY
         var v1 = v0 == null ? ev : v0.join(this, ev, ecl);
         if (v0 != v1)
           {
+            modify();
             _allValuesForEnv.put(ecl, v1);
           }
         return env;
@@ -3547,6 +3902,7 @@ public class DFA extends ANY
     var vid = ev._envId;
     if (vid < 0)
       {
+        modify();
         var v = _envValues.get(ev);
         if (v == null)
           {
@@ -3581,6 +3937,7 @@ public class DFA extends ANY
         e = _envsQuick.get(k);
         if (e == null)
           {
+            modify();
             e = newEnv2(env, ecl, ev);
             _envsQuick.put(k, e);
           }
@@ -3638,7 +3995,8 @@ public class DFA extends ANY
     var e = _envs.get(newEnv);
     if (e == null)
       {
-        _envs.put(newEnv, newEnv);
+        modify();
+        _envs.putIfAbsent(newEnv);
         e = newEnv;
         e._id = _envs.size()+1;
         wasChanged(() -> "DFA.newEnv for " + newEnv);
@@ -77,6 +77,13 @@ public class Env extends ANY implements Comparable<Env>
   int[] _types;
 
 
+  /**
+   * Hash code of _types, used for interning in DFA._envs.  This is consistent
+   * with compareTo since the initial effect values are not taken into account.
+   */
+  final int _hash;
+
+
   /**
    * Initial values for the effect instances in this environment.
    */
@@ -163,6 +170,7 @@ public class Env extends ANY implements Comparable<Env>
             left = !insert && left;
           }
       }
+    _hash = Arrays.hashCode(_types);
     _outer = outer;
     _effectType = et;
     _initialEffectValue = ev;
@@ -459,6 +467,7 @@ public class Env extends ANY implements Comparable<Env>
         var ne = e.join(_dfa, oe, ecl);
         if (Value.compare(oe, ne) != 0)
           {
+            _dfa.modify();
             _actualEffectValues = ne;
             _dfa.wasChanged(() -> "effect.replace called: "+_dfa._fuir.clazzAsString(ecl));
           }
@@ -509,6 +518,7 @@ public class Env extends ANY implements Comparable<Env>
       {
         if (!_isAborted)
           {
+            _dfa.modify();
             _isAborted = true;
             _dfa.wasChanged(() -> "effect.abort0 called: "+_dfa._fuir.clazzAsString(ecl));
           }
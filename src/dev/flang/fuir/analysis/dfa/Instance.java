@@ -171,8 +171,12 @@ public class Instance extends Value
             _dfa.wasChanged(() -> "setField: new values " + fv + " (was " + oldv + ") for " + this);
           }
       }
-    dfa._writtenFields.set(field);
-    _fields.put(field, v);
+    if (oldv != v || !dfa._writtenFields.get(field))
+      {
+        dfa.modify();
+        dfa._writtenFields.set(field);
+        _fields.put(field, v);
+      }
   }
 
 
@@ -192,6 +196,7 @@ public class Instance extends Value
       {
         if (!Errors.any())
           {
+            dfa.modify();
             DfaErrors.readingUninitializedField(site == IR.NO_SITE ? null : dfa._fuir.sitePos(site),
                                                 dfa._fuir.clazzAsString(field),
                                                 dfa._fuir.clazzAsString(_clazz),
@@ -91,6 +91,7 @@ public class NumericValue extends Value
     var values = dfa._numericValues.getIfExists(clazz_id);
     if (values == null)
       {
+        dfa.modify();
         values = new LongMap<>();
         dfa._numericValues.force(clazz_id, values);
       }
@@ -98,6 +99,7 @@ public class NumericValue extends Value
     res = values.get(vLong);
     if (res == null)
       {
+        dfa.modify();
         res = new NumericValue(dfa, clazz, vLong);
         values.put(vLong, res);
       }
@@ -118,6 +120,7 @@ public class NumericValue extends Value
     var res = dfa._numericValuesAny.getIfExists(clazz_id);
     if (res == null)
       {
+        dfa.modify();
         res = new NumericValue(dfa, clazz, null);
         dfa._numericValuesAny.force(clazz_id, res);
       }
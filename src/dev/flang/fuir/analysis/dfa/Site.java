@@ -88,11 +88,16 @@ public class Site extends ANY implements Comparable<Site>
 
   /**
    * Record result of an analysis of this site.
+   *
+   * @param dfa the analysis this site belongs to
+   *
+   * @param isVoid true if the analysis found that this site does not return.
    */
-  public void recordResult(boolean isVoid)
+  public void recordResult(DFA dfa, boolean isVoid)
   {
-    if (!isVoid)
+    if (!isVoid && !_mayReturn)
       {
+        dfa.modify();
         _mayReturn = true;
       }
   }
@@ -294,6 +294,44 @@ public class Value extends Val
   }
 
 
+  /**
+   * Hash code for a Value that is consistent with COMPARATOR, i.e., two values
+   * for which {@code compare} returns 0 have the same hash.
+   *
+   * The elements of a SysArray may change, so these are not taken into
+   * account.
+   */
+  public static int hash(Value v)
+  {
+    int res;
+    if (v == UNIT)
+      {
+        res = 0;
+      }
+    else if (v instanceof TaggedValue tv)
+      {
+        res = (tv._clazz * 31 + tv._tag) * 31 + hash(tv._original);
+      }
+    else if (v instanceof ValueSet vs)
+      {
+        res = vs._componentsArray.length;
+        for (var c : vs._componentsArray)
+          {
+            res = res * 31 + hash(c);
+          }
+      }
+    else if (v instanceof SysArray sa)
+      {
+        res = sa._elementClazz;
+      }
+    else
+      {
+        res = v._id;
+      }
+    return res;
+  }
+
+
   /*-----------------------------  methods  -----------------------------*/
 
 
@@ -27,8 +27,8 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 package dev.flang.lsp.shared;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import dev.flang.ast.AbstractFeature;
@@ -36,30 +36,63 @@ import dev.flang.fe.FrontEnd;
 import dev.flang.fe.SourceModule;
 import dev.flang.util.ANY;
 
+/**
+ * Cache of the results of parsing, keyed by the uri and the text of the
+ * source file.
+ *
+ * NYI: UNDER DEVELOPMENT: Creating a FrontEnd resets global state (Types,
+ * Errors, FeatureName, Call), so parsing one file leaves the entries of all
+ * other files in an inconsistent state.  Until these global resets are
+ * removed, only a single entry is kept.
+ */
 public class ParserCache extends ANY
 {
-  private int PARSER_CACHE_MAX_SIZE = 1;
+  /**
+   * Maximum number of source files whose parser results are kept.  This must
+   * be 1 as long as creating a FrontEnd resets global state.
+   */
+  private static final int PARSER_CACHE_MAX_SIZE = 1;
+
+
+  /**
+   * Key of the cache.  In contrast to concatenating uri and source text, this
+   * does not copy the source text and uses the hash code cached in the
+   * source text String.
+   */
+  private record Key(URI uri, String sourceText) {}
+
 
   /*
-   * this map is kept in sync with sourceText2ParserCache
+   * this map is kept in sync with key2ParserCache
    */
-  private HashMap<AbstractFeature, FrontEnd> universe2FrontEndMap = new HashMap<>();
+  private Map<AbstractFeature, FrontEnd> universe2FrontEndMap = new ConcurrentHashMap<>();
 
   // LRU-Cache holding the most recent results of parser
-  private Map<String, ParserCacheItem> sourceText2ParserCache =
+  private Map<Key, ParserCacheItem> key2ParserCache =
     Util.threadSafeLRUMap(PARSER_CACHE_MAX_SIZE, (removed) -> {
       var frontEnd = universe2FrontEndMap.remove(removed.getValue().universe());
       check(frontEnd != null, universe2FrontEndMap.size() <= PARSER_CACHE_MAX_SIZE);
     });
 
+
+  /**
+   * Get the parser result for the given uri and source text, create it using
+   * mappingFunction if it is not cached.
+   *
+   * @param uri the uri of the source file
+   *
+   * @param sourceText the current text of the source file
+   *
+   * @param mappingFunction function to create the parser result from the
+   * source text.
+   */
   public ParserCacheItem computeIfAbsent(URI uri, String sourceText,
     Function<String, ParserCacheItem> mappingFunction)
   {
-    var key = uri + sourceText;
-    return sourceText2ParserCache.computeIfAbsent(key, (str) -> {
+    return key2ParserCache.computeIfAbsent(new Key(uri, sourceText), (key) -> {
       long startTime = System.nanoTime();
 
-      var parserCacheItem = mappingFunction.apply(str);
+      var parserCacheItem = mappingFunction.apply(key.sourceText());
       universe2FrontEndMap.put(parserCacheItem.universe(), parserCacheItem.frontEnd());
 
       long stopTime = System.nanoTime();
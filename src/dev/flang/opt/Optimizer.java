@@ -26,22 +26,69 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 
 package dev.flang.opt;
 
+import dev.flang.fuir.FUIR;
 import dev.flang.fuir.GeneratingFUIR;
 import dev.flang.fuir.OptimizedFUIR;
 
+import dev.flang.fuir.analysis.AbstractInterpreter;
+
 import dev.flang.util.ANY;
 import dev.flang.util.FuzionOptions;
+import dev.flang.util.List;
 
 
 /**
  * The Optimizer creates the intermediate code FUIR from the application IR (air)
  *
+ * Optimizations are performed on the FUIR produced by the DFA such that all
+ * backends benefit from them.  Currently, this replaces dynamic accesses that
+ * have only one possible target by static accesses and inlines calls to small
+ * routines with LifeTime.Call whose code uses the target and the arguments
+ * only once and in the order they are found on the stack.  Inlining calls to
+ * routines that return a constant results in the constant being used directly.
+ *
+ * NYI: UNDER DEVELOPMENT: routines that use their arguments several times
+ * cannot be inlined since FUIR has no local variables, and constant folding
+ * of intrinsics with constant arguments is still missing.
+ *
  * @author Fridtjof Siebert (siebert@tokiwa.software)
  */
 public class Optimizer extends ANY
 {
 
 
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Should dynamic accesses with only one possible target be replaced by
+   * static accesses?
+   *
+   * To disable, use fz with
+   *
+   *   dev_flang_opt_Optimizer_DEVIRTUALIZE=false
+   */
+  static final boolean DEVIRTUALIZE = FuzionOptions.boolPropertyOrEnv("dev.flang.opt.Optimizer.DEVIRTUALIZE", true);
+
+
+  /**
+   * Should calls to small routines with LifeTime.Call be inlined?
+   *
+   * To disable, use fz with
+   *
+   *   dev_flang_opt_Optimizer_INLINE=false
+   */
+  static final boolean INLINE = FuzionOptions.boolPropertyOrEnv("dev.flang.opt.Optimizer.INLINE", true);
+
+
+  /**
+   * Maximum number of sites in the code of a routine that is inlined, not
+   * counting the sites that read the outer ref and the arguments and those that
+   * assign the result.
+   */
+  static final int INLINE_MAX_SIZE = 8;
+
+
   /*----------------------------  variables  ----------------------------*/
 
 
@@ -53,14 +100,32 @@ public class Optimizer extends ANY
   private final OptimizedFUIR _fuir;
 
 
+  /**
+   * Number of dynamic accesses found and number of those that were
+   * devirtualized and number of inlined calls, for statistics.
+   */
+  private int _dynamicSites, _devirtualizedSites, _inlinedCalls;
+
+
   /*--------------------------  constructors  ---------------------------*/
 
 
   public Optimizer(FuzionOptions options, GeneratingFUIR fuir)
   {
     _options = options;
-    // NYI: UNDER DEVELOPMENT: optimizer implementation still missing
     _fuir = new OptimizedFUIR(fuir);
+    if (DEVIRTUALIZE || INLINE)
+      {
+        var lastClazz = _fuir.lastClazz();
+        for (var cl = _fuir.firstClazz(); cl <= lastClazz; cl++)
+          {
+            if (_fuir.clazzKind(cl) == FUIR.FeatureKind.Routine && _fuir.clazzNeedsCode(cl))
+              {
+                optimizeBlock(_fuir.clazzCode(cl));
+              }
+          }
+        _options.verbosePrintln(2, "Optimizer: devirtualized " + _devirtualizedSites + " of " + _dynamicSites + " dynamic accesses, inlined " + _inlinedCalls + " calls.");
+      }
   }
 
 
@@ -73,6 +138,314 @@ public class Optimizer extends ANY
   }
 
 
+  /**
+   * Optimize the code block starting at site s0 and all nested blocks.
+   *
+   * Similar to AbstractInterpreter.processCode, this stops at the first
+   * expression that results in void since the code following it is
+   * unreachable and the DFA has no information on it.
+   *
+   * If calls were inlined, the block is replaced by a copy that contains the
+   * sites of the inlined code instead of the calls.
+   *
+   * @param s0 the site starting the block.
+   */
+  private void optimizeBlock(int s0)
+  {
+    var sites = new List<Integer>();
+    var inlined = false;
+    var reachable = true;
+    for (var s = s0; _fuir.withinCode(s); s = s + _fuir.codeSizeAt(s))
+      {
+        var inline = false;
+        if (reachable)
+          {
+            reachable = !_fuir.alwaysResultsInVoid(s);
+            switch (_fuir.codeAt(s))
+              {
+              case Call ->
+                {
+                  var cc0 = _fuir.accessedClazz(s);
+                  reachable = reachable && cc0 != FUIR.NO_CLAZZ && !_fuir.clazzIsVoidType(_fuir.clazzResultClazz(cc0));
+                  optimizeAccess(s);
+                  inline = reachable && INLINE && inline(s, sites);
+                }
+              case Assign -> optimizeAccess(s);
+              case Match ->
+                {
+                  for (var cix = 0; cix < _fuir.matchCaseCount(s); cix++)
+                    {
+                      if (_fuir.matchCaseTags(s, cix).length > 0)
+                        {
+                          optimizeBlock(_fuir.matchCaseCode(s, cix));
+                        }
+                    }
+                }
+              default -> { }
+              }
+          }
+        inlined = inlined || inline;
+        for (var i = 0; !inline && i < _fuir.codeSizeAt(s); i++)
+          {
+            sites.add(s + i);
+          }
+      }
+    if (inlined)
+      {
+        _fuir.replaceCode(s0, sites);
+      }
+  }
+
+
+  /**
+   * Devirtualize the access at site s if it is dynamic and has only one
+   * possible target.
+   *
+   * This is done only if the actual target is a ref clazz and the accessed
+   * clazz is compatible to the statically accessed clazz, i.e., it has the
+   * same result and argument clazzes.  Accesses to boxed value targets remain
+   * dynamic since they require the target to be unboxed.
+   *
+   * @param s site of a call or assignment.
+   */
+  private void optimizeAccess(int s)
+  {
+    var cc0 = _fuir.accessedClazz(s);
+    if (cc0 != FUIR.NO_CLAZZ && _fuir.accessIsDynamic(s))
+      {
+        _dynamicSites++;
+        var ccs = _fuir.accessedClazzes(s);
+        if (ccs.length == 2)
+          {
+            var tt = ccs[0];
+            var cc = ccs[1];
+            if (_fuir.clazzOuterClazz(cc) == tt &&
+                _fuir.clazzNeedsCode(cc) &&
+                compatible(cc0, cc))
+              {
+                _fuir.devirtualize(s, cc);
+                _devirtualizedSites++;
+              }
+          }
+      }
+  }
+
+
+  /**
+   * Inline the call at site s if it is a static call to a small routine with
+   * LifeTime.Call whose code can be used in place of the call.
+   *
+   * The callee's code must consist of sites that read its outer ref and
+   * its arguments in the order they are passed on the stack, followed by at
+   * most INLINE_MAX_SIZE sites that do not refer to the callee's instance,
+   * followed by the assignment of the result.  The reads and the assignment
+   * of the result are dropped, the remaining sites replace the call.  Reads
+   * of values that are not passed on the stack, e.g., of unit type, are
+   * dropped wherever they occur.
+   *
+   * If the callee does not read a target that is passed on the stack, the
+   * call is inlined only if there are no arguments on the stack and the
+   * target is produced by a Current directly before s, which is then removed
+   * from sites.
+   *
+   * @param s site of a call that is reachable.
+   *
+   * @param sites the sites of the code block containing s up to s, will
+   * receive the inlined sites.
+   *
+   * @return true iff the call was inlined.
+   */
+  private boolean inline(int s, List<Integer> sites)
+  {
+    var cl = _fuir.clazzAt(s);
+    var cc = _fuir.accessedClazz(s);
+    if (_fuir.accessIsDynamic(s)                                 ||
+        _fuir.clazzKind(cc) != FUIR.FeatureKind.Routine          ||
+        cc == cl                                                 ||
+        !_fuir.clazzNeedsCode(cc)                                ||
+        _fuir.lifeTime(cc, s) != FUIR.LifeTime.Call              ||
+        _fuir.clazzResultField(cc) == FUIR.NO_CLAZZ)
+      {
+        return false;
+      }
+
+    // the values on the stack that the callee has to read, in stack order
+    var reads = new List<Integer>();
+    var tc = _fuir.accessTargetClazz(s);
+    var or = _fuir.clazzOuterRef(cc);
+    var orOnStack = or != FUIR.NO_CLAZZ && onStack(_fuir.clazzResultClazz(or));
+    if (orOnStack)
+      {
+        if (tc != _fuir.clazzResultClazz(or))
+          {
+            return false;
+          }
+        reads.add(or);
+      }
+    for (var i = 0; i < _fuir.clazzArgCount(cc); i++)
+      {
+        if (onStack(_fuir.clazzArgClazz(cc, i)))
+          {
+            reads.add(_fuir.clazzArg(cc, i));
+          }
+      }
+    var code = inlinedCode(cc, reads);
+    var dropTarget = onStack(tc) && !orOnStack;
+    if (code == null && orOnStack)
+      { // try again for code that does not read the outer ref
+        reads.remove(0);
+        code = inlinedCode(cc, reads);
+        dropTarget = true;
+      }
+    if (dropTarget &&
+        (!reads.isEmpty()                                              ||
+         s == _fuir.codeBlockStart(s)                                  ||
+         _fuir.codeAt(_fuir.codeIndex(s, -1)) != FUIR.ExprKind.Current ||
+         sites.getLast() != _fuir.codeIndex(s, -1)))
+      {
+        return false;
+      }
+
+    var rc = _fuir.clazzResultClazz(cc);
+    var last = code == null || code.isEmpty() ? FUIR.NO_SITE : code.getLast();
+    var next = _fuir.codeIndex(s, 1);
+    var popped = _fuir.withinCode(next) && _fuir.codeAt(next) == FUIR.ExprKind.Pop;
+    if (code == null                                                             ||
+        last == FUIR.NO_SITE && (onStack(rc) || popped)                          ||
+        last != FUIR.NO_SITE && (onStack(rc) || popped) && valueClazz(last) != rc ||
+        popped && _fuir.codeAt(last) != FUIR.ExprKind.Call                       ||
+        last != FUIR.NO_SITE && _fuir.codeAt(last) == FUIR.ExprKind.Call &&
+        _fuir.doesResultEscape(s) && !_fuir.doesResultEscape(last))
+      {
+        return false;
+      }
+
+    if (dropTarget)
+      {
+        sites.removeLast();
+      }
+    sites.addAll(code);
+    _inlinedCalls++;
+    return true;
+  }
+
+
+  /**
+   * Determine the sites of the code of cc that can replace a call to cc.
+   *
+   * @param cc a routine
+   *
+   * @param reads the fields of cc whose values are passed on the stack in the
+   * order they are found on the stack.
+   *
+   * @return the sites of cc's code without the reads and the assignment of the
+   * result, null if cc's code cannot be inlined.
+   */
+  private List<Integer> inlinedCode(int cc, List<Integer> reads)
+  {
+    var c = _fuir.clazzCode(cc);
+    var end = _fuir.codeBlockEnd(c);
+    var result = new List<Integer>();
+    var read = 0;
+    var ok = _fuir.withinCode(c) && end != c &&
+      _fuir.codeAt(end) == FUIR.ExprKind.Assign &&
+      _fuir.accessedClazz(end) == _fuir.clazzResultField(cc) &&
+      _fuir.codeAt(_fuir.codeIndex(end, -1)) == FUIR.ExprKind.Current;
+    var resultAssign = ok ? _fuir.codeIndex(end, -1) : FUIR.NO_SITE;
+    for (var s = c; ok && s != resultAssign; s = s + _fuir.codeSizeAt(s))
+      {
+        switch (_fuir.codeAt(s))
+          {
+          case Current ->
+            {
+              // only reads of the outer ref or an argument are permitted
+              var f = _fuir.codeAt(s + 1) == FUIR.ExprKind.Call ? _fuir.accessedClazz(s + 1) : FUIR.NO_CLAZZ;
+              ok = f != FUIR.NO_CLAZZ && (f == _fuir.clazzOuterRef(cc) || isArg(cc, f));
+              if (ok && onStack(_fuir.clazzResultClazz(f)))
+                {
+                  ok = result.isEmpty() && read < reads.size() && reads.get(read) == f;
+                  read++;
+                }
+              s = s + 1;
+            }
+          case Call ->
+            {
+              var f = _fuir.accessedClazz(s);
+              ok = f != FUIR.NO_CLAZZ && f != cc;
+              result.add(s);
+            }
+          case Pop ->
+            {
+              ok = !result.isEmpty() && result.getLast() == s - 1;
+              result.add(s);
+            }
+          case Const, Box, Tag, Comment -> result.add(s);
+          default -> ok = false;
+          }
+        ok = ok && result.size() <= INLINE_MAX_SIZE;
+      }
+    return ok && read == reads.size() ? result : null;
+  }
+
+
+  /**
+   * Is f an argument field of cc?
+   */
+  private boolean isArg(int cc, int f)
+  {
+    var result = false;
+    for (var i = 0; i < _fuir.clazzArgCount(cc); i++)
+      {
+        result = result || _fuir.clazzArg(cc, i) == f;
+      }
+    return result;
+  }
+
+
+  /**
+   * Is a value of clazz cl passed on the stack, i.e., is it not a unit value?
+   */
+  private boolean onStack(int cl)
+  {
+    return !AbstractInterpreter.clazzHasUnitValue(_fuir, cl);
+  }
+
+
+  /**
+   * For a site s that produces a value, get the clazz of that value.
+   *
+   * @return the clazz or NO_CLAZZ if s does not produce a value.
+   */
+  private int valueClazz(int s)
+  {
+    return switch (_fuir.codeAt(s))
+      {
+      case Call  -> _fuir.clazzResultClazz(_fuir.accessedClazz(s));
+      case Const -> _fuir.constClazz(s);
+      case Box   -> _fuir.boxResultClazz(s);
+      case Tag   -> _fuir.tagNewClazz(s);
+      default    -> FUIR.NO_CLAZZ;
+      };
+  }
+
+
+  /**
+   * Check if a static access to cc can replace an access to cc0, i.e., both
+   * have the same kind of result and the same argument clazzes.
+   */
+  private boolean compatible(int cc0, int cc)
+  {
+    var result =
+      _fuir.clazzResultClazz(cc0) == _fuir.clazzResultClazz(cc) &&
+      _fuir.clazzArgCount   (cc0) == _fuir.clazzArgCount   (cc);
+    for (var i = 0; result && i < _fuir.clazzArgCount(cc); i++)
+      {
+        result = _fuir.clazzArgClazz(cc0, i) == _fuir.clazzArgClazz(cc, i);
+      }
+    return result;
+  }
+
+
 }
 
 /* end of file */
@@ -27,15 +27,19 @@ Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
 package dev.flang.tools;
 
 import java.io.ByteArrayInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 
+import java.nio.ByteBuffer;
+
 import java.nio.charset.StandardCharsets;
 
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -99,6 +103,8 @@ public class Fuzion extends Tool
   static String _cLink_ = null;
   static boolean _keepGeneratedCode_ = false;
   static boolean _debugBuild_ = false;
+  static int _cShards_ = 1;
+  static String _cCache_ = null;
   static String  _jvmOutName_ = null;
   static String  _jvmLib_ = null;
 
@@ -172,7 +178,7 @@ public class Fuzion extends Tool
     {
       String usage()
       {
-        return "[-o=<file>] [-Xgc=(on|off)] [-XkeepGeneratedCode=(on|off)] [-CC=<c compiler>] [-CFlags=\"list of c compiler flags\"] [-CTarget=\"e.g. x86_64-pc-linux-gnu\"] [-CInclude=\"list of header files to include\"] [-CLink=\"list libraries to link\"] -g ";
+        return "[-o=<file>] [-Xgc=(on|off)] [-XkeepGeneratedCode=(on|off)] [-XcShards=<n>] [-XcCache=<dir>] [-CC=<c compiler>] [-CFlags=\"list of c compiler flags\"] [-CTarget=\"e.g. x86_64-pc-linux-gnu\"] [-CInclude=\"list of header files to include\"] [-CLink=\"list libraries to link\"] -g ";
       }
       boolean handleOption(Fuzion f, String o)
       {
@@ -191,6 +197,16 @@ public class Fuzion extends Tool
             _keepGeneratedCode_ = parseOnOffArg(o);
             result = true;
           }
+        else if (o.startsWith("-XcShards="))
+          {
+            _cShards_ = Math.max(1, f.parseIntArg(o, 1));
+            result = true;
+          }
+        else if (o.startsWith("-XcCache="))
+          {
+            _cCache_ = o.substring(9);
+            result = true;
+          }
         else if (o.equals("-g"))
           {
             _debugBuild_ = true;
@@ -205,7 +221,7 @@ public class Fuzion extends Tool
       }
       void process(FuzionOptions options, FUIR fuir)
       {
-        new C(new COptions(options, _binaryName_, _useBoehmGC_, _cCompiler_, _cFlags_, _cTarget_, _cInclude_, _cLink_, _keepGeneratedCode_, _debugBuild_), fuir).compile();
+        new C(new COptions(options, _binaryName_, _useBoehmGC_, _cCompiler_, _cFlags_, _cTarget_, _cInclude_, _cLink_, _keepGeneratedCode_, _debugBuild_, _cShards_, _cCache_), fuir).compile();
       }
       boolean serializeFuir()
       {
@@ -231,7 +247,7 @@ public class Fuzion extends Tool
       }
       void process(FuzionOptions options, FUIR fuir)
       {
-        new C(new COptions(options, "out", _useBoehmGC_, _cCompiler_, _cFlags_, _cTarget_, _cInclude_, _cLink_, true, true), fuir).compile();
+        new C(new COptions(options, "out", _useBoehmGC_, _cCompiler_, _cFlags_, _cTarget_, _cInclude_, _cLink_, true, true, 1, null), fuir).compile();
         say(
           """
 
@@ -1221,32 +1237,19 @@ public class Fuzion extends Tool
               (options.needsEscapeAnalysis() == true, _backend != Backend.effects);
 
             Path fuirFile = fuirFile(options);
-            if (!Files.exists(fuirFile))
+            var data = mapFuirFile(fuirFile);
+            if (data == null)
               {
                 var fe = new FrontEnd(options);                   timer("fe");
                 Errors.showAndExit();
-                var data = fuir(this, fe).serialize();            timer("serializeFUIR");
-
-                try (FileOutputStream stream = new FileOutputStream(fuirFile.toFile()))
-                  {
-                    stream.write(data);
-                  }
-                catch (IOException e)
-                  {
-                    Errors.fatal(e);
-                  }
-              }
-            try
-              {
-                var fuir = new LibraryFuir(Files.readAllBytes(fuirFile));
-                timer("loadFUIR");
-                _backend.process(options, fuir);
-                timer("be");
-              }
-            catch (IOException e)
-              {
-                Errors.fatal(e);
+                var bytes = fuir(this, fe).serialize();           timer("serializeFUIR");
+                writeFuirFile(fuirFile, bytes);
+                data = ByteBuffer.wrap(bytes);
               }
+            var fuir = new LibraryFuir(data);
+            timer("loadFUIR");
+            _backend.process(options, fuir);
+            timer("be");
           }
         options.verbosePrintln(1, "Elapsed time for phases: " + _times);
       };
@@ -1269,6 +1272,60 @@ public class Fuzion extends Tool
   }
 
 
+  /**
+   * Map the given .fuir-file into memory such that LibraryFuir can access it
+   * without reading it completely.
+   *
+   * @return the mapped file or null if it does not exist, or if it was not
+   * written completely in the format expected by LibraryFuir, so it needs to
+   * be (re-)created.
+   */
+  private ByteBuffer mapFuirFile(Path fuirFile)
+  {
+    ByteBuffer result = null;
+    if (Files.exists(fuirFile))
+      {
+        try (var ch = FileChannel.open(fuirFile, StandardOpenOption.READ))
+          {
+            result = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+          }
+        catch (IOException e)
+          {
+            Errors.fatal(e);
+          }
+        if (!LibraryFuir.isCompatible(result) || !LibraryFuir.isComplete(result))
+          {
+            result = null;
+          }
+      }
+    return result;
+  }
+
+
+  /**
+   * Write the given data to the .fuir-file.
+   *
+   * The data is written to a temp file in the same directory first, which is
+   * then moved atomically to fuirFile.  This way, other fz processes that have
+   * mapped the old file into memory keep their copy and never see a partially
+   * written file.
+   */
+  private void writeFuirFile(Path fuirFile, byte[] data)
+  {
+    try
+      {
+        var dir = fuirFile.toAbsolutePath().getParent();
+        var tmp = Files.createTempFile(dir, fuirFile.getFileName().toString(), ".tmp");
+        Files.write(tmp, data);
+        Files.move(tmp, fuirFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+    catch (IOException e)
+      {
+        Errors.fatal(e);
+      }
+  }
+
+
   /**
    * determine the path of the .fuir-file
    *
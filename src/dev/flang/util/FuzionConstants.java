@@ -600,6 +600,14 @@ public class FuzionConstants extends ANY
   public static final byte[] FUIR_FILE_MAGIC = int2Bytes(FUIR_FILE_MAGIC0);
 
 
+  /**
+   * Version of the binary FUIR file format. Must be incremented whenever the
+   * layout written by FuirOut changes such that stale .fuir files are
+   * re-created instead of being misinterpreted.
+   */
+  public static final int FUIR_FILE_VERSION = 3;
+
+
   /*-----------------  special values for modifiers  -----------------*/
 
 
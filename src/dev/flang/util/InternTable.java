@@ -0,0 +1,293 @@
+/*
+
+This file is part of the Fuzion language implementation.
+
+The Fuzion language implementation is free software: you can redistribute it
+and/or modify it under the terms of the GNU General Public License as published
+by the Free Software Foundation, version 3 of the License.
+
+The Fuzion language implementation is distributed in the hope that it will be
+useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public
+License for more details.
+
+You should have received a copy of the GNU General Public License along with The
+Fuzion language implementation.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+/*-----------------------------------------------------------------------
+ *
+ * Tokiwa Software GmbH, Germany
+ *
+ * Source code of class InternTable
+ *
+ *---------------------------------------------------------------------*/
+
+package dev.flang.util;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+
+/**
+ * InternTable implements a set of canonical instances of type T that permits
+ * to lookup the existing instance for a given equal instance.
+ *
+ * This is a replacement for a {@code TreeMap<T,T>} that is used only for
+ * interning: Instead of a chain of O(log n) comparisons, this uses an
+ * open-addressing hash table with linear probing, such that lookups typically
+ * require a single comparison.
+ *
+ * Equality is defined by a {@code Comparator} returning 0, hashing by a
+ * function provided by the user.  These two must be consistent, i.e., two
+ * instances that compare as equal must produce the same hash.  The hash of an
+ * entry is computed only once when it is added and then stored in the table.
+ *
+ * Iteration order depends only on the hash values and the order of addition,
+ * so it is reproducible as long as the hash function does not depend on memory
+ * layout (e.g., {@code System.identityHashCode}).
+ *
+ * @author Fridtjof Siebert (siebert@tokiwa.software)
+ */
+public class InternTable<T> extends ANY
+{
+
+
+  /*----------------------------  constants  ----------------------------*/
+
+
+  /**
+   * Initial number of slots, must be a power of 2.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+
+  /*----------------------------  variables  ----------------------------*/
+
+
+  /**
+   * Hash function that is consistent with _comparator.
+   */
+  private final ToIntFunction<T> _hash;
+
+
+  /**
+   * Comparator used to check for equality.
+   */
+  private final Comparator<T> _comparator;
+
+
+  /**
+   * The entries, null for unused slots.
+   */
+  private Object[] _entries = new Object[INITIAL_CAPACITY];
+
+
+  /**
+   * The hashes of the entries in _entries.
+   */
+  private int[] _hashes = new int[INITIAL_CAPACITY];
+
+
+  /**
+   * Number of entries in this table.
+   */
+  private int _size = 0;
+
+
+  /*--------------------------  constructors  ---------------------------*/
+
+
+  /**
+   * Create an empty InternTable.
+   *
+   * @param hash the hash function, must produce the same value for entries
+   * that are equal according to comparator.
+   *
+   * @param comparator comparator whose result 0 defines equality of entries.
+   */
+  public InternTable(ToIntFunction<T> hash, Comparator<T> comparator)
+  {
+    _hash = hash;
+    _comparator = comparator;
+  }
+
+
+  /*-----------------------------  methods  -----------------------------*/
+
+
+  /**
+   * Number of entries in this table.
+   */
+  public int size()
+  {
+    return _size;
+  }
+
+
+  /**
+   * The home slot for hash h in a table with given mask.
+   */
+  private static int slot(int h, int mask)
+  {
+    var x = h * 0x9E3779B9;
+    return (x ^ x >>> 16) & mask;
+  }
+
+
+  /**
+   * Find the slot that contains an entry equal to k or the empty slot where k
+   * would be added.
+   */
+  @SuppressWarnings("unchecked")
+  private int find(T k, int h)
+  {
+    var mask = _entries.length - 1;
+    var i = slot(h, mask);
+    Object e;
+    while ((e = _entries[i]) != null &&
+           (_hashes[i] != h || e != k && _comparator.compare((T) e, k) != 0))
+      {
+        i = (i + 1) & mask;
+      }
+    return i;
+  }
+
+
+  /**
+   * Get the entry that is equal to k.
+   *
+   * @param k an instance, must not be null.
+   *
+   * @return the existing entry equal to k or null if none.
+   */
+  @SuppressWarnings("unchecked")
+  public T get(T k)
+  {
+    if (PRECONDITIONS) require
+      (k != null);
+
+    return (T) _entries[find(k, _hash.applyAsInt(k))];
+  }
+
+
+  /**
+   * Add k unless an equal entry exists.
+   *
+   * @param k an instance, must not be null.
+   *
+   * @return the existing entry equal to k, or null if k was added.
+   */
+  @SuppressWarnings("unchecked")
+  public T putIfAbsent(T k)
+  {
+    if (PRECONDITIONS) require
+      (k != null);
+
+    var h = _hash.applyAsInt(k);
+    var i = find(k, h);
+    var e = (T) _entries[i];
+    if (e == null)
+      {
+        _entries[i] = k;
+        _hashes[i] = h;
+        _size++;
+        if (2 * _size > _entries.length)
+          {
+            grow();
+          }
+      }
+    return e;
+  }
+
+
+  /**
+   * Remove the entry equal to k.
+   *
+   * @param k an instance, must not be null.
+   *
+   * @return the removed entry or null if there was no entry equal to k.
+   */
+  @SuppressWarnings("unchecked")
+  public T remove(T k)
+  {
+    if (PRECONDITIONS) require
+      (k != null);
+
+    var i = find(k, _hash.applyAsInt(k));
+    var e = (T) _entries[i];
+    if (e != null)
+      {
+        // backward shift deletion: move following entries of the same probe
+        // sequence into the freed slot to keep lookups free of tombstones.
+        var mask = _entries.length - 1;
+        var j = i;
+        while (true)
+          {
+            j = (j + 1) & mask;
+            if (_entries[j] == null)
+              {
+                break;
+              }
+            var s = slot(_hashes[j], mask);
+            if (((j - s) & mask) >= ((j - i) & mask))
+              {
+                _entries[i] = _entries[j];
+                _hashes[i] = _hashes[j];
+                i = j;
+              }
+          }
+        _entries[i] = null;
+        _size--;
+      }
+    return e;
+  }
+
+
+  /**
+   * Double the number of slots and re-insert all entries.
+   */
+  private void grow()
+  {
+    var oe = _entries;
+    var oh = _hashes;
+    _entries = new Object[oe.length * 2];
+    _hashes = new int[oe.length * 2];
+    var mask = _entries.length - 1;
+    for (var i = 0; i < oe.length; i++)
+      {
+        if (oe[i] != null)
+          {
+            var j = slot(oh[i], mask);
+            while (_entries[j] != null)
+              {
+                j = (j + 1) & mask;
+              }
+            _entries[j] = oe[i];
+            _hashes[j] = oh[i];
+          }
+      }
+  }
+
+
+  /**
+   * Perform action for all entries of this table.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<T> action)
+  {
+    for (var e : _entries)
+      {
+        if (e != null)
+          {
+            action.accept((T) e);
+          }
+      }
+  }
+
+
+}
+
+/* end of file */